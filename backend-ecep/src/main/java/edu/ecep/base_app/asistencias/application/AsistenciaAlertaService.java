@@ -0,0 +1,143 @@
+package edu.ecep.base_app.asistencias.application;
+
+import edu.ecep.base_app.asistencias.application.AsistenciaResumenService.CambioDetalle;
+import edu.ecep.base_app.asistencias.domain.AsistenciaAlertaEstado;
+import edu.ecep.base_app.asistencias.domain.JornadaAsistencia;
+import edu.ecep.base_app.asistencias.domain.ReglasAlertaAsistencia;
+import edu.ecep.base_app.asistencias.domain.enums.TipoAlertaAsistencia;
+import edu.ecep.base_app.asistencias.infrastructure.messaging.AsistenciaAlertaPublisher;
+import edu.ecep.base_app.asistencias.infrastructure.persistence.AsistenciaAlertaEstadoRepository;
+import edu.ecep.base_app.asistencias.presentation.dto.AsistenciaAlertaDTO;
+import edu.ecep.base_app.gestionacademica.infrastructure.persistence.AsignacionDocenteSeccionRepository;
+import edu.ecep.base_app.identidad.domain.Empleado;
+import edu.ecep.base_app.identidad.domain.enums.RolEmpleado;
+import edu.ecep.base_app.identidad.infrastructure.persistence.EmpleadoRepository;
+import edu.ecep.base_app.vidaescolar.infrastructure.persistence.MatriculaRepository;
+import edu.ecep.base_app.vidaescolar.infrastructure.persistence.MatriculaRepository.NombreAlumnoProjection;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Evalúa las reglas de alerta en cada escritura de detalles. El costo por detalle es constante:
+ * se actualiza el estado acumulado de la matrícula ({@link AsistenciaAlertaEstado}) en lugar de
+ * consultar el historial. Las alertas se envían por STOMP a los docentes de la sección y a
+ * dirección una vez confirmada la transacción.
+ */
+@Service
+@Slf4j
+public class AsistenciaAlertaService {
+
+    private final AsistenciaAlertaEstadoRepository estadoRepo;
+    private final AsignacionDocenteSeccionRepository asignacionRepo;
+    private final EmpleadoRepository empleadoRepo;
+    private final MatriculaRepository matriculaRepo;
+    private final AsistenciaAlertaPublisher publisher;
+    private final boolean habilitadas;
+    private final ReglasAlertaAsistencia reglas;
+
+    public AsistenciaAlertaService(AsistenciaAlertaEstadoRepository estadoRepo,
+                                   AsignacionDocenteSeccionRepository asignacionRepo,
+                                   EmpleadoRepository empleadoRepo,
+                                   MatriculaRepository matriculaRepo,
+                                   AsistenciaAlertaPublisher publisher,
+                                   @Value("${app.asistencias.alertas.enabled:true}") boolean habilitadas,
+                                   @Value("${app.asistencias.alertas.ausencias-consecutivas:3}") int ausenciasConsecutivas,
+                                   @Value("${app.asistencias.alertas.porcentaje-minimo:75}") int porcentajeMinimo,
+                                   @Value("${app.asistencias.alertas.minimo-jornadas:10}") int minimoJornadas,
+                                   @Value("${app.asistencias.alertas.tardes:3}") int tardes) {
+        this.estadoRepo = estadoRepo;
+        this.asignacionRepo = asignacionRepo;
+        this.empleadoRepo = empleadoRepo;
+        this.matriculaRepo = matriculaRepo;
+        this.publisher = publisher;
+        this.habilitadas = habilitadas;
+        this.reglas = new ReglasAlertaAsistencia(ausenciasConsecutivas, porcentajeMinimo, minimoJornadas, tardes);
+    }
+
+    /** Debe llamarse dentro de la transacción que escribe los detalles. */
+    public void evaluar(JornadaAsistencia jornada, List<CambioDetalle> cambios) {
+        if (!habilitadas || cambios.isEmpty()) return;
+
+        Map<Long, AsistenciaAlertaEstado> estados =
+                estadoRepo.bloquear(cambios.stream().map(CambioDetalle::matriculaId).toList());
+        Long trimestreId = jornada.getTrimestre() != null ? jornada.getTrimestre().getId() : null;
+
+        List<AsistenciaAlertaDTO> alertas = new ArrayList<>();
+        for (CambioDetalle c : cambios) {
+            AsistenciaAlertaEstado estado = estados.get(c.matriculaId());
+            for (TipoAlertaAsistencia tipo : estado.aplicar(jornada.getFecha(), trimestreId, c.anterior(), c.nuevo(), reglas)) {
+                alertas.add(alerta(tipo, estado, jornada));
+            }
+        }
+        estadoRepo.guardar(estados.values());
+
+        if (!alertas.isEmpty()) enviarAlConfirmar(jornada, alertas);
+    }
+
+    /** Recalcula el estado de todas las matrículas desde los detalles activos. */
+    public void rebuild() {
+        estadoRepo.rebuild(reglas);
+    }
+
+    private void enviarAlConfirmar(JornadaAsistencia jornada, List<AsistenciaAlertaDTO> alertas) {
+        // destinatarios y nombres se resuelven acá, dentro de la transacción; sólo el envío espera al commit
+        List<Long> destinatarios = destinatarios(jornada);
+        if (destinatarios.isEmpty()) return;
+        Map<Long, String> nombres = nombresAlumno(alertas.stream().map(AsistenciaAlertaDTO::getMatriculaId).toList());
+        alertas.forEach(a -> a.setAlumno(nombres.get(a.getMatriculaId())));
+
+        Runnable envio = () -> alertas.forEach(a -> {
+            try {
+                publisher.publicar(destinatarios, a);
+            } catch (Exception ex) {
+                log.warn("No se pudo enviar la alerta de asistencia de la matrícula {}", a.getMatriculaId(), ex);
+            }
+        });
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    envio.run();
+                }
+            });
+        } else {
+            envio.run();
+        }
+    }
+
+    private List<Long> destinatarios(JornadaAsistencia jornada) {
+        Set<Long> ids = new LinkedHashSet<>(
+                asignacionRepo.findEmpleadoIdsVigentesBySeccion(jornada.getSeccion().getId(), jornada.getFecha()));
+        empleadoRepo.findByRolEmpleado(RolEmpleado.DIRECCION).stream().map(Empleado::getId).forEach(ids::add);
+        return List.copyOf(ids);
+    }
+
+    // una sola consulta para todas las alertas del lote
+    private Map<Long, String> nombresAlumno(List<Long> matriculaIds) {
+        Map<Long, String> nombres = new HashMap<>();
+        for (NombreAlumnoProjection n : matriculaRepo.findNombresAlumno(Set.copyOf(matriculaIds))) {
+            nombres.put(n.getId(), n.getApellido() + ", " + n.getNombre());
+        }
+        return nombres;
+    }
+
+    private AsistenciaAlertaDTO alerta(TipoAlertaAsistencia tipo, AsistenciaAlertaEstado e, JornadaAsistencia jornada) {
+        String mensaje = switch (tipo) {
+            case AUSENCIAS_CONSECUTIVAS -> e.getAusentesConsecutivos() + " ausencias consecutivas";
+            case PORCENTAJE_BAJO -> "Asistencia del trimestre en " + e.porcentaje() + "% (mínimo " + reglas.porcentajeMinimo() + "%)";
+            case TARDES_REPETIDAS -> e.getTardes() + " llegadas tarde en el trimestre";
+        };
+        return new AsistenciaAlertaDTO(tipo, e.getMatriculaId(), null, jornada.getSeccion().getId(), jornada.getFecha(),
+                e.getAusentesConsecutivos(), e.getTardes(), e.porcentaje(), mensaje);
+    }
+}
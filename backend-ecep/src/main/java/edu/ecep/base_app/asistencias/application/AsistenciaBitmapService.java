@@ -0,0 +1,144 @@
+package edu.ecep.base_app.asistencias.application;
+
+import edu.ecep.base_app.asistencias.domain.AsistenciaBitmap;
+import edu.ecep.base_app.asistencias.domain.AsistenciaContadores;
+import edu.ecep.base_app.asistencias.domain.enums.EstadoAsistencia;
+import edu.ecep.base_app.asistencias.infrastructure.persistence.AsistenciaBitmapRedisRepository;
+import edu.ecep.base_app.asistencias.infrastructure.persistence.AsistenciaBitmapRedisRepository.BitmapAnual;
+import edu.ecep.base_app.asistencias.infrastructure.persistence.DetalleAsistenciaBatchRepository;
+import edu.ecep.base_app.asistencias.infrastructure.persistence.DetalleAsistenciaRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Índice de asistencia por matrícula en bitmaps de 3 bits por día (ver {@link AsistenciaBitmap}).
+ * Redis es sólo una caché: si no está disponible, el bitmap se arma desde los detalles.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AsistenciaBitmapService {
+
+    private static final int LOTE_REDIS = 500;
+
+    private final AsistenciaBitmapRedisRepository store;
+    private final DetalleAsistenciaRepository detalleRepo;
+    private final DetalleAsistenciaBatchRepository detalleBatchRepo;
+
+    /** Contadores de una matrícula en el rango [from, to]. */
+    @Transactional(readOnly = true)
+    public AsistenciaContadores contar(Long matriculaId, LocalDate from, LocalDate to) {
+        AsistenciaContadores total = AsistenciaContadores.VACIO;
+        for (int anio = from.getYear(); anio <= to.getYear(); anio++) {
+            LocalDate desde = anio == from.getYear() ? from : LocalDate.of(anio, 1, 1);
+            LocalDate hasta = anio == to.getYear() ? to : LocalDate.of(anio, 12, 31);
+            total = total.mas(cargar(matriculaId, anio).contar(dia(desde), dia(hasta)));
+        }
+        return total;
+    }
+
+    /** Refleja un cambio de detalle en el índice una vez confirmada la transacción. */
+    public void registrar(Long matriculaId, LocalDate fecha, EstadoAsistencia estado) {
+        Runnable update = () -> {
+            try {
+                store.setDiaSiExiste(matriculaId, fecha.getYear(), dia(fecha), estado);
+            } catch (Exception ex) {
+                log.warn("No se pudo actualizar el bitmap de asistencia de la matrícula {} en Redis", matriculaId, ex);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+
+    /**
+     * Reconstruye todos los bitmaps recorriendo los detalles activos una sola vez. Las versiones se
+     * leen antes de recorrer la base y cada bitmap se guarda sólo si la suya no cambió: un detalle
+     * confirmado durante el recorrido descarta la foto de su matrícula, que se vuelve a armar en la
+     * próxima lectura.
+     */
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        Map<String, Long> versiones = store.versiones();
+        store.deleteAll();
+        List<BitmapAnual> lote = new ArrayList<>();
+        Map<Integer, AsistenciaBitmap> actual = new HashMap<>();
+        Long[] matriculaActual = {null};
+        int[] descartados = {0};
+
+        detalleBatchRepo.recorrerActivos((matriculaId, fecha, estado) -> {
+            if (!matriculaId.equals(matriculaActual[0])) {
+                descartados[0] += volcar(matriculaActual[0], actual, lote, versiones);
+                matriculaActual[0] = matriculaId;
+            }
+            actual.computeIfAbsent(fecha.getYear(), a -> new AsistenciaBitmap()).set(dia(fecha), estado);
+        });
+        descartados[0] += volcar(matriculaActual[0], actual, lote, versiones);
+        descartados[0] += guardar(lote, versiones);
+        log.info("Bitmaps de asistencia reconstruidos ({} descartados por cambios durante el recorrido)", descartados[0]);
+    }
+
+    private int volcar(Long matriculaId, Map<Integer, AsistenciaBitmap> porAnio, List<BitmapAnual> lote,
+                       Map<String, Long> versiones) {
+        if (matriculaId == null) return 0;
+        porAnio.forEach((anio, bitmap) -> lote.add(new BitmapAnual(matriculaId, anio, bitmap)));
+        porAnio.clear();
+        return lote.size() >= LOTE_REDIS ? guardar(lote, versiones) : 0;
+    }
+
+    private int guardar(List<BitmapAnual> lote, Map<String, Long> versiones) {
+        int descartados = lote.size() - store.saveAllSiVersion(lote, versiones);
+        lote.clear();
+        return descartados;
+    }
+
+    private AsistenciaBitmap cargar(Long matriculaId, int anio) {
+        long version;
+        try {
+            var cached = store.find(matriculaId, anio);
+            if (cached.isPresent()) return cached.get();
+            version = store.version(matriculaId, anio);
+        } catch (Exception ex) {
+            log.warn("No se pudo leer el bitmap de asistencia de Redis, calculando desde la base", ex);
+            return construir(matriculaId, anio);
+        }
+        AsistenciaBitmap bitmap = construir(matriculaId, anio);
+        try {
+            // si un cambio se confirmó mientras se leía la base, la próxima lectura lo vuelve a armar
+            if (!store.saveSiVersion(matriculaId, anio, bitmap, version)) {
+                log.debug("Bitmap de la matrícula {} ({}) descartado: cambió durante la carga", matriculaId, anio);
+            }
+        } catch (Exception ex) {
+            log.warn("No se pudo guardar el bitmap de asistencia de la matrícula {} en Redis", matriculaId, ex);
+        }
+        return bitmap;
+    }
+
+    private AsistenciaBitmap construir(Long matriculaId, int anio) {
+        AsistenciaBitmap bitmap = new AsistenciaBitmap();
+        detalleRepo.findEstadosByMatriculaInRange(matriculaId, LocalDate.of(anio, 1, 1), LocalDate.of(anio, 12, 31))
+                .forEach(d -> bitmap.set(dia(d.getFecha()), d.getEstado()));
+        return bitmap;
+    }
+
+    private static int dia(LocalDate fecha) {
+        return fecha.getDayOfYear() - 1;
+    }
+}
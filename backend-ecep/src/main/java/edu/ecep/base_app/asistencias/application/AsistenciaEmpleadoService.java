@@ -5,8 +5,11 @@ import edu.ecep.base_app.asistencias.presentation.dto.AsistenciaEmpleadoDTO;
 import edu.ecep.base_app.asistencias.infrastructure.mapper.AsistenciaEmpleadoMapper;
 import edu.ecep.base_app.asistencias.infrastructure.persistence.AsistenciaEmpleadoRepository;
 import edu.ecep.base_app.shared.exception.NotFoundException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
 
@@ -36,14 +39,24 @@ public class AsistenciaEmpleadoService {
 
     public Long create(AsistenciaEmpleadoDTO dto) {
         AsistenciaEmpleados entity = asistenciaDiaMapper.toEntity(dto);
-        return asistenciaDiaRepository.save(entity).getId();
+        return guardar(entity).getId();
     }
 
     public void update(Long id, AsistenciaEmpleadoDTO dto) {
         AsistenciaEmpleados existing = asistenciaDiaRepository.findById(id)
                 .orElseThrow(NotFoundException::new);
         asistenciaDiaMapper.updateEntityFromDto(dto, existing);
-        asistenciaDiaRepository.save(existing);
+        guardar(existing);
+    }
+
+    // el índice único parcial (empleado, fecha) WHERE activo admite un solo registro activo por día
+    private AsistenciaEmpleados guardar(AsistenciaEmpleados entity) {
+        try {
+            return asistenciaDiaRepository.saveAndFlush(entity);
+        } catch (DataIntegrityViolationException ex) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "El empleado ya tiene una asistencia registrada para esa fecha");
+        }
     }
 
     public void delete(Long id) {
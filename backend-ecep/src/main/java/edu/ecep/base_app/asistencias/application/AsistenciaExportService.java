@@ -0,0 +1,70 @@
+package edu.ecep.base_app.asistencias.application;
+
+import edu.ecep.base_app.asistencias.infrastructure.persistence.DetalleAsistenciaExportRepository;
+import edu.ecep.base_app.asistencias.infrastructure.persistence.DetalleAsistenciaExportRepository.Fila;
+import edu.ecep.base_app.asistencias.infrastructure.persistence.DetalleAsistenciaExportRepository.Filtro;
+import edu.ecep.base_app.shared.export.FormatoExportacion;
+import edu.ecep.base_app.shared.export.TablaWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Exportación de detalles de asistencia en CSV/XLSX.
+ * Las filas van del cursor JDBC al stream de salida de a una, así que la memoria no depende del período.
+ */
+@Service
+@RequiredArgsConstructor
+public class AsistenciaExportService {
+
+    private static final List<String> ENCABEZADO = List.of(
+            "Fecha", "Nivel", "Grado/Sala", "División", "Turno",
+            "DNI", "Apellido", "Nombre", "Estado", "Observación");
+
+    private final DetalleAsistenciaExportRepository exportRepo;
+
+    /** Se llama antes de empezar a escribir: una vez enviado el encabezado ya no se puede responder 400. */
+    public void validar(Filtro filtro) {
+        if (filtro.from() != null && filtro.to() != null && filtro.from().isAfter(filtro.to())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "La fecha desde no puede ser posterior a la fecha hasta");
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void exportar(Filtro filtro, FormatoExportacion formato, OutputStream out) throws IOException {
+        try (TablaWriter writer = formato.writer(out, "Asistencia")) {
+            writer.fila(ENCABEZADO);
+            try {
+                exportRepo.recorrer(filtro, fila -> escribir(writer, fila));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private static void escribir(TablaWriter writer, Fila fila) {
+        try {
+            writer.fila(Arrays.asList(
+                    fila.fecha().toString(),
+                    fila.nivel().name(),
+                    fila.gradoSala(),
+                    fila.division(),
+                    fila.turno(),
+                    fila.dni(),
+                    fila.apellido(),
+                    fila.nombre(),
+                    fila.estado().name(),
+                    fila.observacion()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -1,20 +1,23 @@
 package edu.ecep.base_app.asistencias.application;
 
 
-import edu.ecep.base_app.gestionacademica.domain.Seccion;
+import edu.ecep.base_app.asistencias.domain.AsistenciaContadores;
 import edu.ecep.base_app.gestionacademica.presentation.dto.SeccionDTO;
 import edu.ecep.base_app.asistencias.presentation.dto.*;
-import edu.ecep.base_app.gestionacademica.infrastructure.mapper.SeccionMapper; // si lo tenés; si no, mapeamos a mano
-import edu.ecep.base_app.gestionacademica.infrastructure.persistence.AsignacionDocenteSeccionRepository;
+import edu.ecep.base_app.gestionacademica.application.SeccionesVigentesDocenteService;
+import edu.ecep.base_app.asistencias.infrastructure.persistence.AsistenciaResumenMatriculaMesRepository;
+import edu.ecep.base_app.asistencias.infrastructure.persistence.AsistenciaResumenSeccionDiaRepository;
 import edu.ecep.base_app.asistencias.infrastructure.persistence.DetalleAsistenciaRepository;
-import edu.ecep.base_app.asistencias.infrastructure.persistence.JornadaAsistenciaRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 
 @Service
@@ -22,18 +25,18 @@ import java.util.List;
 @Transactional(readOnly = true)
 public class AsistenciaQueryService {
 
-    private final JornadaAsistenciaRepository jornadaRepo;
     private final DetalleAsistenciaRepository detalleRepo;
-    private final AsignacionDocenteSeccionRepository asigSecRepo;
-    private final SeccionMapper seccionMapper;
+    private final AsistenciaResumenSeccionDiaRepository resumenDiaRepo;
+    private final AsistenciaResumenMatriculaMesRepository resumenMesRepo;
+    private final SeccionesVigentesDocenteService seccionesVigentesService;
+    private final AsistenciaBitmapService bitmapService;
 
     public List<SeccionDTO> seccionesVigentesDocente(Long empleadoId, LocalDate fecha) {
-        List<Seccion> secciones = asigSecRepo.findSeccionesVigentesByEmpleado(empleadoId, fecha);
-        return secciones.stream().map(seccionMapper::toDto).toList();
+        return seccionesVigentesService.seccionesVigentes(empleadoId, fecha);
     }
 
     public List<AsistenciaDiaDTO> historialSeccion(Long seccionId, LocalDate from, LocalDate to) {
-        List<AsistenciaDiaDTO> lista = jornadaRepo.resumenDiario(seccionId, from, to);
+        List<AsistenciaDiaDTO> lista = resumenDiaRepo.resumenDiario(seccionId, from, to);
         // completar porcentaje y ordenar
         lista.forEach(d -> d.setPorcentaje(pct(d.getPresentes(), d.getTotal())));
         return lista.stream()
@@ -42,7 +45,7 @@ public class AsistenciaQueryService {
     }
 
     public AsistenciaAcumuladoDTO acumuladoSeccion(Long seccionId, LocalDate from, LocalDate to) {
-        AsistenciaAcumuladoDTO dto = detalleRepo.acumuladoSeccion(seccionId, from, to);
+        AsistenciaAcumuladoDTO dto = resumenDiaRepo.acumuladoSeccion(seccionId, from, to);
         if (dto == null) dto = new AsistenciaAcumuladoDTO();
         dto.setDesde(from);
         dto.setHasta(to);
@@ -50,12 +53,58 @@ public class AsistenciaQueryService {
         return dto;
     }
 
+    // Contadores desde el índice de bitmaps (ver AsistenciaBitmapService)
+    public AsistenciaAcumuladoDTO acumuladoMatricula(Long matriculaId, LocalDate from, LocalDate to) {
+        AsistenciaContadores c = bitmapService.contar(matriculaId, from, to);
+        AsistenciaAcumuladoDTO dto = new AsistenciaAcumuladoDTO(from, to, c.presentes(), c.ausentes(),
+                c.tarde(), c.retiroAnticipado(), c.total(), 0d);
+        dto.setPorcentaje(pct(dto.getPresentes(), dto.getTotal()));
+        return dto;
+    }
+
+    // Los meses completos salen del resumen mensual; sólo los bordes incompletos del rango
+    // se agregan desde los detalles crudos (a lo sumo dos tramos de menos de un mes).
     public List<AsistenciaAlumnoResumenDTO> resumenPorAlumno(Long seccionId, LocalDate from, LocalDate to) {
-        List<AsistenciaAlumnoResumenDTO> lista = detalleRepo.resumenPorAlumno(seccionId, from, to);
+        LocalDate primerMesCompleto = from.getDayOfMonth() == 1 ? from : from.withDayOfMonth(1).plusMonths(1);
+        LocalDate finMesesCompletos = to.plusDays(1).getDayOfMonth() == 1 ? to.plusDays(1) : to.withDayOfMonth(1);
+
+        List<AsistenciaAlumnoResumenDTO> lista;
+        if (!primerMesCompleto.isBefore(finMesesCompletos)) {
+            lista = detalleRepo.resumenPorAlumno(seccionId, from, to);
+        } else {
+            List<List<AsistenciaAlumnoResumenDTO>> partes = new ArrayList<>();
+            partes.add(resumenMesRepo.resumenPorAlumno(seccionId, primerMesCompleto, finMesesCompletos.minusMonths(1)));
+            if (from.isBefore(primerMesCompleto)) {
+                partes.add(detalleRepo.resumenPorAlumno(seccionId, from, primerMesCompleto.minusDays(1)));
+            }
+            if (!finMesesCompletos.isAfter(to)) {
+                partes.add(detalleRepo.resumenPorAlumno(seccionId, finMesesCompletos, to));
+            }
+            lista = combinar(partes);
+        }
         lista.forEach(d -> d.setPorcentaje(pct(d.getPresentes(), d.getTotal())));
         return lista;
     }
 
+    private static List<AsistenciaAlumnoResumenDTO> combinar(List<List<AsistenciaAlumnoResumenDTO>> partes) {
+        Map<Long, AsistenciaAlumnoResumenDTO> porMatricula = new LinkedHashMap<>();
+        for (List<AsistenciaAlumnoResumenDTO> parte : partes) {
+            for (AsistenciaAlumnoResumenDTO d : parte) {
+                porMatricula.merge(d.getMatriculaId(), d, (a, b) -> {
+                    a.setPresentes(a.getPresentes() + b.getPresentes());
+                    a.setAusentes(a.getAusentes() + b.getAusentes());
+                    a.setTarde(a.getTarde() + b.getTarde());
+                    a.setRetiroAnticipado(a.getRetiroAnticipado() + b.getRetiroAnticipado());
+                    a.setTotal(a.getTotal() + b.getTotal());
+                    return a;
+                });
+            }
+        }
+        return porMatricula.values().stream()
+                .sorted(Comparator.comparing(AsistenciaAlumnoResumenDTO::getNombreCompleto))
+                .toList();
+    }
+
     private static double pct(int ok, int total) {
         if (total <= 0) return 0d;
         return Math.round((ok * 10000.0) / total) / 100.0;
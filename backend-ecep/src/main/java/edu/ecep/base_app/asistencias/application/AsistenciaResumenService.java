@@ -0,0 +1,70 @@
+package edu.ecep.base_app.asistencias.application;
+
+import edu.ecep.base_app.asistencias.domain.AsistenciaContadores;
+import edu.ecep.base_app.asistencias.domain.JornadaAsistencia;
+import edu.ecep.base_app.asistencias.domain.enums.EstadoAsistencia;
+import edu.ecep.base_app.asistencias.infrastructure.persistence.AsistenciaResumenBatchRepository;
+import edu.ecep.base_app.asistencias.infrastructure.persistence.AsistenciaResumenBatchRepository.DeltaMatricula;
+import edu.ecep.base_app.asistencias.infrastructure.persistence.DetalleAsistenciaRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mantiene los resúmenes de asistencia (sección/día y matrícula/mes) a partir de
+ * los cambios que pasan por {@link DetalleAsistenciaService}, y los reenvía al índice
+ * de bitmaps y a las alertas. Debe llamarse dentro de la misma transacción que la
+ * escritura del detalle.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AsistenciaResumenService {
+
+    private final AsistenciaResumenBatchRepository writer;
+    private final DetalleAsistenciaRepository detalleRepo;
+    private final AsistenciaBitmapService bitmapService;
+    private final AsistenciaAlertaService alertaService;
+
+    public void registrarCambio(JornadaAsistencia jornada, Long matriculaId,
+                                EstadoAsistencia anterior, EstadoAsistencia nuevo) {
+        registrarCambios(jornada, List.of(new CambioDetalle(matriculaId, anterior, nuevo)));
+    }
+
+    public void registrarCambios(JornadaAsistencia jornada, List<CambioDetalle> cambios) {
+        AsistenciaContadores totalDia = AsistenciaContadores.VACIO;
+        List<DeltaMatricula> porMatricula = new ArrayList<>(cambios.size());
+        List<CambioDetalle> efectivos = new ArrayList<>(cambios.size());
+        for (CambioDetalle c : cambios) {
+            AsistenciaContadores delta = AsistenciaContadores.cambio(c.anterior(), c.nuevo());
+            if (delta.esVacio()) continue;
+            totalDia = totalDia.mas(delta);
+            porMatricula.add(new DeltaMatricula(c.matriculaId(), delta));
+            efectivos.add(c);
+            bitmapService.registrar(c.matriculaId(), jornada.getFecha(), c.nuevo());
+        }
+        if (porMatricula.isEmpty()) return;
+
+        Long seccionId = jornada.getSeccion().getId();
+        writer.aplicarSeccionDia(seccionId, jornada.getFecha(), totalDia);
+        writer.aplicarMatriculaMes(seccionId, jornada.getFecha(), porMatricula);
+        alertaService.evaluar(jornada, efectivos);
+    }
+
+    /** Resincroniza los resúmenes y el estado de alertas desde los detalles crudos. */
+    @Transactional
+    public void rebuild() {
+        // los detalles pendientes en el contexto JPA tienen que llegar a la base antes del recálculo
+        detalleRepo.flush();
+        writer.rebuild();
+        alertaService.rebuild();
+        log.info("Resúmenes de asistencia recalculados");
+    }
+
+    /** Cambio de estado de un detalle: alta (anterior null), baja (nuevo null) o edición. */
+    public record CambioDetalle(Long matriculaId, EstadoAsistencia anterior, EstadoAsistencia nuevo) {}
+}
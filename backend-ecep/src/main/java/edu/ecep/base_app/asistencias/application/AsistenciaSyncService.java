@@ -0,0 +1,167 @@
+package edu.ecep.base_app.asistencias.application;
+
+import edu.ecep.base_app.asistencias.application.AsistenciaResumenService.CambioDetalle;
+import edu.ecep.base_app.asistencias.domain.JornadaAsistencia;
+import edu.ecep.base_app.asistencias.domain.enums.EstadoAsistencia;
+import edu.ecep.base_app.asistencias.infrastructure.persistence.AsistenciaSyncRepository;
+import edu.ecep.base_app.asistencias.infrastructure.persistence.DetalleAsistenciaBatchRepository;
+import edu.ecep.base_app.asistencias.infrastructure.persistence.JornadaAsistenciaRepository;
+import edu.ecep.base_app.asistencias.presentation.dto.AsistenciaSyncDTO;
+import edu.ecep.base_app.asistencias.presentation.dto.ConflictoSyncDTO;
+import edu.ecep.base_app.asistencias.presentation.dto.DetalleAsistenciaBulkItemDTO;
+import edu.ecep.base_app.asistencias.presentation.dto.DetalleOfflineItemDTO;
+import edu.ecep.base_app.asistencias.presentation.dto.DetalleOfflineResultDTO;
+import edu.ecep.base_app.asistencias.presentation.dto.DetalleSyncDTO;
+import edu.ecep.base_app.gestionacademica.domain.TrimestreEstado;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Sincronización incremental para clientes que toman asistencia sin conexión.
+ * <p>
+ * El token es un instante sobre {@code last_updated}. Como el timestamp se fija al escribir y no al
+ * confirmar, una transacción larga puede quedar con un valor anterior al de otra ya visible; por eso
+ * el token devuelto retrocede un margen y el cliente puede recibir filas repetidas (se identifican
+ * por id, así que aplicarlas de nuevo no cambia nada).
+ * <p>
+ * La subida de marcas offline detecta conflictos con la versión que vio el cliente: si el detalle
+ * cambió o se dio de baja después, la marca no se aplica y se devuelve el estado del servidor.
+ */
+@Service
+public class AsistenciaSyncService {
+
+    private final AsistenciaSyncRepository syncRepo;
+    private final JornadaAsistenciaRepository jornadaRepo;
+    private final DetalleAsistenciaBatchRepository batchRepo;
+    private final AsistenciaResumenService resumenService;
+    private final Duration margen;
+
+    public AsistenciaSyncService(AsistenciaSyncRepository syncRepo,
+                                 JornadaAsistenciaRepository jornadaRepo,
+                                 DetalleAsistenciaBatchRepository batchRepo,
+                                 AsistenciaResumenService resumenService,
+                                 @Value("${app.asistencias.sync.margen:PT30S}") Duration margen) {
+        this.syncRepo = syncRepo;
+        this.jornadaRepo = jornadaRepo;
+        this.batchRepo = batchRepo;
+        this.resumenService = resumenService;
+        this.margen = margen;
+    }
+
+    @Transactional(readOnly = true)
+    public AsistenciaSyncDTO cambios(Long seccionId, LocalDate from, LocalDate to, String token) {
+        if (from.isAfter(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "'from' no puede ser posterior a 'to'");
+        }
+        Instant desde = decodificar(token);
+        Instant corte = Instant.now().minus(margen);
+        return new AsistenciaSyncDTO(
+                codificar(desde != null && desde.isAfter(corte) ? desde : corte),
+                syncRepo.jornadasDesde(seccionId, from, to, desde),
+                syncRepo.detallesDesde(seccionId, from, to, desde));
+    }
+
+    @Transactional
+    public DetalleOfflineResultDTO subir(List<DetalleOfflineItemDTO> marcas) {
+        Map<Long, List<DetalleOfflineItemDTO>> porJornada = marcas.stream()
+                .collect(Collectors.groupingBy(DetalleOfflineItemDTO::getJornadaId, LinkedHashMap::new, Collectors.toList()));
+
+        int aplicados = 0;
+        int sinCambios = 0;
+        List<ConflictoSyncDTO> conflictos = new ArrayList<>();
+
+        for (var entry : porJornada.entrySet()) {
+            List<DetalleOfflineItemDTO> items = entry.getValue();
+            Set<Long> matriculaIds = new HashSet<>();
+            for (DetalleOfflineItemDTO m : items) {
+                if (!matriculaIds.add(m.getMatriculaId())) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                            "La matrícula " + m.getMatriculaId() + " está repetida en la jornada " + entry.getKey());
+                }
+            }
+
+            JornadaAsistencia j = jornadaRepo.findById(entry.getKey()).filter(JornadaAsistencia::isActivo).orElse(null);
+            if (j == null || (j.getTrimestre() != null && j.getTrimestre().getEstado() != TrimestreEstado.ACTIVO)) {
+                String motivo = j == null ? "JORNADA_INEXISTENTE" : "TRIMESTRE_CERRADO";
+                items.forEach(m -> conflictos.add(new ConflictoSyncDTO(m.getJornadaId(), m.getMatriculaId(), motivo, null)));
+                continue;
+            }
+
+            Map<Long, DetalleSyncDTO> actuales = syncRepo.bloquearDetalles(j.getId(), matriculaIds).stream()
+                    .collect(Collectors.toMap(DetalleSyncDTO::getMatriculaId, Function.identity()));
+
+            List<DetalleAsistenciaBulkItemDTO> aAplicar = new ArrayList<>();
+            List<CambioDetalle> cambios = new ArrayList<>();
+            for (DetalleOfflineItemDTO m : items) {
+                DetalleSyncDTO actual = actuales.get(m.getMatriculaId());
+                EstadoAsistencia anterior = actual != null && actual.isActivo() ? actual.getEstado() : null;
+
+                if (anterior == m.getEstado() && Objects.equals(actual.getObservacion(), m.getObservacion())) {
+                    sinCambios++;
+                    continue;
+                }
+                String motivo = conflicto(actual, m.getVersion());
+                if (motivo != null) {
+                    conflictos.add(new ConflictoSyncDTO(j.getId(), m.getMatriculaId(), motivo, actual));
+                    continue;
+                }
+                aAplicar.add(new DetalleAsistenciaBulkItemDTO(m.getMatriculaId(), m.getEstado(), m.getObservacion()));
+                cambios.add(new CambioDetalle(m.getMatriculaId(), anterior, m.getEstado()));
+            }
+
+            if (!aAplicar.isEmpty()) {
+                batchRepo.upsert(j.getId(), aAplicar);
+                resumenService.registrarCambios(j, cambios);
+                aplicados += aAplicar.size();
+            }
+        }
+        return new DetalleOfflineResultDTO(aplicados, sinCambios, conflictos);
+    }
+
+    /** Motivo de conflicto, o {@code null} si la marca offline puede aplicarse. */
+    private static String conflicto(DetalleSyncDTO actual, OffsetDateTime versionCliente) {
+        if (actual == null) return null;
+        if (versionCliente == null) {
+            // el cliente no lo había visto: sólo se pisa una baja
+            return actual.isActivo() ? "MODIFICADO" : null;
+        }
+        boolean cambio = actual.getVersion().isAfter(versionCliente.truncatedTo(ChronoUnit.MICROS));
+        if (!cambio) return null;
+        return actual.isActivo() ? "MODIFICADO" : "ELIMINADO";
+    }
+
+    private static String codificar(Instant instante) {
+        String raw = Long.toString(ChronoUnit.MICROS.between(Instant.EPOCH, instante));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Instant decodificar(String token) {
+        if (token == null || token.isBlank()) return null;
+        try {
+            long micros = Long.parseLong(new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8));
+            return Instant.EPOCH.plus(micros, ChronoUnit.MICROS);
+        } catch (RuntimeException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Token de sincronización inválido");
+        }
+    }
+}
@@ -2,21 +2,34 @@ package edu.ecep.base_app.asistencias.application;
 
 import edu.ecep.base_app.asistencias.domain.DetalleAsistencia;
 import edu.ecep.base_app.asistencias.domain.JornadaAsistencia;
+import edu.ecep.base_app.asistencias.domain.enums.EstadoAsistencia;
+import edu.ecep.base_app.asistencias.application.AsistenciaResumenService.CambioDetalle;
 import edu.ecep.base_app.gestionacademica.domain.TrimestreEstado;
+import edu.ecep.base_app.asistencias.presentation.dto.DetalleAsistenciaBulkDTO;
+import edu.ecep.base_app.asistencias.presentation.dto.DetalleAsistenciaBulkItemDTO;
+import edu.ecep.base_app.asistencias.presentation.dto.DetalleAsistenciaBulkResultDTO;
 import edu.ecep.base_app.asistencias.presentation.dto.DetalleAsistenciaCreateDTO;
 import edu.ecep.base_app.asistencias.presentation.dto.DetalleAsistenciaDTO;
 import edu.ecep.base_app.asistencias.presentation.dto.DetalleAsistenciaUpdateDTO;
 import edu.ecep.base_app.asistencias.infrastructure.mapper.DetalleAsistenciaMapper;
+import edu.ecep.base_app.asistencias.infrastructure.persistence.DetalleAsistenciaBatchRepository;
 import edu.ecep.base_app.asistencias.infrastructure.persistence.DetalleAsistenciaRepository;
 import edu.ecep.base_app.asistencias.infrastructure.persistence.JornadaAsistenciaRepository;
+import edu.ecep.base_app.shared.web.CursorPage;
+import edu.ecep.base_app.shared.web.KeysetCursor;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDate;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -24,7 +37,11 @@ public class DetalleAsistenciaService {
 
     private final DetalleAsistenciaRepository repo;
     private final JornadaAsistenciaRepository jornadaRepo;
+    private final DetalleAsistenciaBatchRepository batchRepo;
     private final DetalleAsistenciaMapper mapper;
+    private final AsistenciaResumenService resumenService;
+
+    public static final int MAX_PAGE_SIZE = 500;
 
     public List<DetalleAsistenciaDTO> findAll() {
         return repo.findAll().stream().map(mapper::toDto).toList();
@@ -50,24 +67,61 @@ public class DetalleAsistenciaService {
             throw new IllegalArgumentException("Ya hay registro para esa matrícula en esa jornada");
         }
 
-        return repo.save(mapper.toEntity(dto)).getId();
+        Long id = repo.save(mapper.toEntity(dto)).getId();
+        resumenService.registrarCambio(j, dto.getMatriculaId(), null, dto.getEstado());
+        return id;
+    }
+
+    /**
+     * Registra la planilla completa de una jornada en una sola pasada:
+     * valida jornada y trimestre una vez, detecta los ya registrados con una
+     * única consulta y escribe todas las filas en lote (las existentes se actualizan).
+     */
+    @Transactional
+    public DetalleAsistenciaBulkResultDTO marcarLote(DetalleAsistenciaBulkDTO dto) {
+        JornadaAsistencia j = jornadaRepo.findById(dto.getJornadaId())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Jornada no encontrada"));
+
+        if (j.getTrimestre() != null && j.getTrimestre().getEstado() != TrimestreEstado.ACTIVO) {
+            throw new IllegalArgumentException("El trimestre no está activo");
+        }
+
+        List<DetalleAsistenciaBulkItemDTO> detalles = dto.getDetalles();
+        Set<Long> matriculaIds = new HashSet<>();
+        for (DetalleAsistenciaBulkItemDTO d : detalles) {
+            if (!matriculaIds.add(d.getMatriculaId())) {
+                throw new IllegalArgumentException("La matrícula " + d.getMatriculaId() + " está repetida en la planilla");
+            }
+        }
+
+        Map<Long, EstadoAsistencia> existentes = repo.findByJornadaIdAndMatriculaIdIn(j.getId(), matriculaIds).stream()
+                .collect(Collectors.toMap(d -> d.getMatricula().getId(), DetalleAsistencia::getEstado));
+        batchRepo.upsert(j.getId(), detalles);
+
+        resumenService.registrarCambios(j, detalles.stream()
+                .map(d -> new CambioDetalle(d.getMatriculaId(), existentes.get(d.getMatriculaId()), d.getEstado()))
+                .toList());
+
+        return new DetalleAsistenciaBulkResultDTO(j.getId(), detalles.size() - existentes.size(), existentes.size());
     }
 
     @Transactional
     public void actualizarParcial(Long id, DetalleAsistenciaUpdateDTO dto) {
         DetalleAsistencia entity = repo.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Detalle no encontrado"));
+        EstadoAsistencia anterior = entity.getEstado();
         entity.setEstado(dto.getEstado());
         entity.setObs(dto.getObservacion());
         repo.save(entity);
+        resumenService.registrarCambio(entity.getJornada(), entity.getMatricula().getId(), anterior, dto.getEstado());
     }
 
     @Transactional
     public void delete(Long id) {
-        if (!repo.existsById(id)) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Detalle no encontrado");
-        }
-        repo.deleteById(id);
+        DetalleAsistencia entity = repo.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Detalle no encontrado"));
+        repo.delete(entity);
+        resumenService.registrarCambio(entity.getJornada(), entity.getMatricula().getId(), entity.getEstado(), null);
     }
 
     @Transactional(readOnly = true)
@@ -83,4 +137,17 @@ public class DetalleAsistenciaService {
         }
         return res.stream().map(mapper::toDto).toList();
     }
+
+    /** Recorre los detalles por (fecha de jornada, id); el costo de cada página no depende de su profundidad. */
+    @Transactional(readOnly = true)
+    public CursorPage<DetalleAsistenciaDTO> scroll(Long matriculaId, Long seccionId, LocalDate from, LocalDate to,
+                                                   String cursor, int size) {
+        int limite = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        KeysetCursor desde = KeysetCursor.decode(cursor);
+        List<DetalleAsistencia> filas = repo.scroll(matriculaId, seccionId, from, to,
+                desde != null ? desde.fecha() : null, desde != null ? desde.id() : null,
+                Limit.of(limite + 1));
+        return CursorPage.of(filas, limite, mapper::toDto,
+                d -> new KeysetCursor(d.getJornada().getFecha(), d.getId()));
+    }
 }
@@ -0,0 +1,141 @@
+package edu.ecep.base_app.asistencias.application;
+
+import edu.ecep.base_app.asistencias.domain.FichadasDia;
+import edu.ecep.base_app.asistencias.infrastructure.persistence.AsistenciaEmpleadoBatchRepository;
+import edu.ecep.base_app.asistencias.presentation.dto.FichadaImportResultDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Importa fichadas del reloj de personal. El archivo se lee línea por línea y sólo se guarda
+ * en memoria la primera y la última marca de cada (empleado, fecha), por lo que el consumo no
+ * depende del tamaño del archivo. Formatos aceptados por línea (separador {@code ;}, {@code ,} o tab):
+ * <pre>
+ * legajo;2025-03-05 07:58:12[;...]
+ * legajo;05/03/2025;07:58[;...]
+ * </pre>
+ * Las columnas extra (tipo de marca, terminal) se ignoran: el reloj no siempre registra bien el
+ * sentido, así que la entrada es la primera marca del día y la salida la última.
+ */
+@Service
+@Slf4j
+public class FichadaImportService {
+
+    private static final DateTimeFormatter FECHA_AR = DateTimeFormatter.ofPattern("d/M/yyyy");
+    private static final DateTimeFormatter HORA = DateTimeFormatter.ofPattern("H:mm[:ss]");
+    private static final int MAX_LEGAJOS_REPORTADOS = 20;
+
+    private final AsistenciaEmpleadoBatchRepository batchRepo;
+    private final Duration ventana;
+
+    public FichadaImportService(AsistenciaEmpleadoBatchRepository batchRepo,
+                                @Value("${app.asistencias.fichadas.ventana-rebote:PT2M}") Duration ventana) {
+        this.batchRepo = batchRepo;
+        this.ventana = ventana;
+    }
+
+    private record Clave(Long empleadoId, LocalDate fecha) {}
+
+    private record Fichada(String legajo, LocalDate fecha, LocalTime hora) {}
+
+    @Transactional
+    public FichadaImportResultDTO importar(InputStream in) {
+        Map<String, Long> empleados = batchRepo.empleadosPorLegajo();
+        Map<Clave, FichadasDia> dias = new HashMap<>();
+        Set<String> desconocidos = new LinkedHashSet<>();
+        long lineas = 0, fichadas = 0, descartadas = 0, sinEmpleado = 0;
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(in, StandardCharsets.UTF_8), 1 << 16)) {
+            String linea;
+            while ((linea = reader.readLine()) != null) {
+                lineas++;
+                if (lineas == 1 && !linea.isEmpty() && linea.charAt(0) == '\uFEFF') linea = linea.substring(1);
+                if (linea.isBlank()) continue;
+
+                Fichada f = parsear(linea);
+                if (f == null) {
+                    // la primera línea inválida suele ser el encabezado
+                    if (lineas > 1) descartadas++;
+                    continue;
+                }
+                Long empleadoId = empleados.get(f.legajo());
+                if (empleadoId == null) {
+                    sinEmpleado++;
+                    if (desconocidos.size() < MAX_LEGAJOS_REPORTADOS) desconocidos.add(f.legajo());
+                    continue;
+                }
+                fichadas++;
+                dias.computeIfAbsent(new Clave(empleadoId, f.fecha()), k -> new FichadasDia(k.empleadoId(), k.fecha()))
+                        .registrar(f.hora());
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("No se pudo leer el archivo de fichadas", ex);
+        }
+
+        List<FichadasDia> ordenados = new ArrayList<>(dias.values());
+        // orden estable de escritura: evita deadlocks entre dos importaciones que se solapan
+        ordenados.sort(Comparator.comparing(FichadasDia::getFecha).thenComparing(FichadasDia::getEmpleadoId));
+        int registros = batchRepo.upsert(ordenados, ventana);
+
+        log.info("Fichadas importadas: {} líneas, {} fichadas, {} días-empleado, {} descartadas, {} sin empleado",
+                lineas, fichadas, registros, descartadas, sinEmpleado);
+        return new FichadaImportResultDTO(lineas, fichadas, descartadas, sinEmpleado,
+                List.copyOf(desconocidos), registros);
+    }
+
+    private static Fichada parsear(String linea) {
+        char sep = linea.indexOf(';') >= 0 ? ';' : linea.indexOf('\t') >= 0 ? '\t' : ',';
+        String[] campos = linea.split(String.valueOf(sep), -1);
+        if (campos.length < 2) return null;
+
+        String legajo = limpiar(campos[0]);
+        if (legajo.isEmpty()) return null;
+        try {
+            String fechaHora = limpiar(campos[1]);
+            int corte = fechaHora.indexOf(' ') >= 0 ? fechaHora.indexOf(' ') : fechaHora.indexOf('T');
+            if (corte > 0) {
+                // fecha y hora en la misma columna: "2025-03-05 07:58:12" o "2025-03-05T07:58:12"
+                return new Fichada(legajo, fecha(fechaHora.substring(0, corte)),
+                        LocalTime.parse(fechaHora.substring(corte + 1).trim(), HORA));
+            }
+            if (campos.length < 3) return null;
+            return new Fichada(legajo, fecha(fechaHora), LocalTime.parse(limpiar(campos[2]), HORA));
+        } catch (DateTimeParseException ex) {
+            return null;
+        }
+    }
+
+    private static LocalDate fecha(String s) {
+        return s.indexOf('/') >= 0 ? LocalDate.parse(s, FECHA_AR) : LocalDate.parse(s);
+    }
+
+    private static String limpiar(String s) {
+        s = s.trim();
+        if (s.length() >= 2 && s.charAt(0) == '"' && s.charAt(s.length() - 1) == '"') {
+            s = s.substring(1, s.length() - 1).trim();
+        }
+        return s;
+    }
+}
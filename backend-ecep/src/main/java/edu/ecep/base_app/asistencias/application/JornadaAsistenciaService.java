@@ -1,16 +1,27 @@
 package edu.ecep.base_app.asistencias.application;
 
+import edu.ecep.base_app.asistencias.application.AsistenciaResumenService.CambioDetalle;
 import edu.ecep.base_app.asistencias.infrastructure.mapper.JornadaAsistenciaMapper;
+import edu.ecep.base_app.asistencias.infrastructure.persistence.DetalleAsistenciaRepository;
+import edu.ecep.base_app.asistencias.infrastructure.persistence.JornadaAsistenciaBatchRepository;
 import edu.ecep.base_app.asistencias.infrastructure.persistence.JornadaAsistenciaRepository;
 import edu.ecep.base_app.asistencias.presentation.dto.JornadaAsistenciaCreateDTO;
 import edu.ecep.base_app.asistencias.presentation.dto.JornadaAsistenciaDTO;
+import edu.ecep.base_app.asistencias.presentation.dto.JornadaSearchDTO;
+import edu.ecep.base_app.asistencias.domain.JornadaAsistencia;
+import edu.ecep.base_app.calendario.infrastructure.persistence.DiaNoHabilRepository;
 import edu.ecep.base_app.gestionacademica.domain.Trimestre;
 import edu.ecep.base_app.gestionacademica.domain.TrimestreEstado;
 import edu.ecep.base_app.gestionacademica.infrastructure.persistence.TrimestreRepository;
+import edu.ecep.base_app.shared.web.CursorPage;
+import edu.ecep.base_app.shared.web.KeysetCursor;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
@@ -22,11 +33,16 @@ import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class JornadaAsistenciaService {
 
     private final JornadaAsistenciaRepository repo;
     private final JornadaAsistenciaMapper mapper;
     private final TrimestreRepository trimRepo;
+    private final JornadaAsistenciaBatchRepository batchRepo;
+    private final DiaNoHabilRepository diaNoHabilRepo;
+    private final DetalleAsistenciaRepository detalleRepo;
+    private final AsistenciaResumenService resumenService;
 
     public List<JornadaAsistenciaDTO> findAll() {
         return repo.findAll(Sort.by("fecha").descending())
@@ -51,6 +67,36 @@ public class JornadaAsistenciaService {
         return repo.save(mapper.toEntity(dto)).getId();
     }
 
+    /** Apertura programada: las jornadas quedan creadas antes de que los docentes tomen lista. */
+    @Scheduled(cron = "${app.asistencias.jornadas.apertura-cron:0 0 6 * * MON-FRI}")
+    @Transactional
+    public void abrirJornadasDelDia() {
+        abrirTodas(LocalDate.now());
+    }
+
+    /**
+     * Abre en una sola sentencia la jornada de la fecha para cada sección activa del período del
+     * trimestre activo. No hace nada en días no hábiles; las jornadas existentes se respetan.
+     */
+    @Transactional
+    public int abrirTodas(LocalDate fecha) {
+        if (diaNoHabilRepo.existsByFechaAndActivoTrue(fecha)) {
+            log.info("{} es día no hábil, no se abren jornadas", fecha);
+            return 0;
+        }
+        Optional<Trimestre> tri = trimRepo
+                .findTopByEstadoAndActivoTrueAndInicioLessThanEqualAndFinGreaterThanEqualOrderByInicioDesc(
+                        TrimestreEstado.ACTIVO, fecha, fecha);
+        if (tri.isEmpty()) {
+            log.info("No hay trimestre activo para {}, no se abren jornadas", fecha);
+            return 0;
+        }
+        int creadas = batchRepo.abrirParaPeriodo(
+                tri.get().getPeriodoEscolar().getId(), tri.get().getId(), fecha);
+        log.info("Jornadas abiertas para {}: {}", fecha, creadas);
+        return creadas;
+    }
+
 
     @Transactional(readOnly = true)
     public JornadaAsistenciaDTO get(Long id) {
@@ -71,11 +117,24 @@ public class JornadaAsistenciaService {
         return repo.findByTrimestreId(trimestreId).stream().map(mapper::toDto).toList();
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<JornadaAsistenciaDTO> scroll(JornadaSearchDTO filtro, String cursor, int size) {
+        int limite = Math.max(1, Math.min(size, DetalleAsistenciaService.MAX_PAGE_SIZE));
+        KeysetCursor desde = KeysetCursor.decode(cursor);
+        List<JornadaAsistencia> filas = repo.scroll(filtro.seccionId(), filtro.trimestreId(), filtro.from(), filtro.to(),
+                desde != null ? desde.fecha() : null, desde != null ? desde.id() : null,
+                Limit.of(limite + 1));
+        return CursorPage.of(filas, limite, mapper::toDto, j -> new KeysetCursor(j.getFecha(), j.getId()));
+    }
+
     @Transactional
     public void delete(Long id) {
-        if (!repo.existsById(id)) {
-            throw new EntityNotFoundException("Jornada " + id + " no encontrada");
-        }
-        repo.deleteById(id);
+        JornadaAsistencia j = repo.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Jornada " + id + " no encontrada"));
+        // los detalles activos dejan de contar en resúmenes, bitmaps y alertas, igual que en el rebuild
+        resumenService.registrarCambios(j, detalleRepo.findByJornadaIdAndActivoTrue(id).stream()
+                .map(d -> new CambioDetalle(d.getMatricula().getId(), d.getEstado(), null))
+                .toList());
+        repo.delete(j);
     }
 }
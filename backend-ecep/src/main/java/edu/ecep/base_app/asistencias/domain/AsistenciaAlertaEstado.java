@@ -0,0 +1,113 @@
+package edu.ecep.base_app.asistencias.domain;
+
+import edu.ecep.base_app.asistencias.domain.enums.EstadoAsistencia;
+import edu.ecep.base_app.asistencias.domain.enums.TipoAlertaAsistencia;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Estado acumulado por matrícula para evaluar las alertas de asistencia sin recorrer el historial:
+ * racha de AUSENTE hasta el último día registrado y contadores del trimestre en curso.
+ * Los flags {@code alerta*} evitan repetir una alerta mientras la condición siga vigente.
+ */
+@Entity
+@Table(name = "asistencia_alerta_estado")
+@Getter
+@Setter
+public class AsistenciaAlertaEstado {
+    @Id @Column(name = "matricula_id") private Long matriculaId;
+
+    @Column(name = "trimestre_id") private Long trimestreId;
+    @Column(name = "ultima_fecha") private LocalDate ultimaFecha;
+    @Enumerated(EnumType.STRING) @Column(name = "ultimo_estado") private EstadoAsistencia ultimoEstado;
+
+    // racha al cierre del día anterior a ultimaFecha, para poder corregir el último día
+    @Column(name = "ausentes_previos", nullable = false) private int ausentesPrevios;
+    @Column(name = "ausentes_consecutivos", nullable = false) private int ausentesConsecutivos;
+
+    @Column(nullable = false) private int presentes;
+    @Column(nullable = false) private int tardes;
+    @Column(nullable = false) private int total;
+
+    @Column(name = "alerta_ausencias", nullable = false) private boolean alertaAusencias;
+    @Column(name = "alerta_porcentaje", nullable = false) private boolean alertaPorcentaje;
+    @Column(name = "tardes_notificadas", nullable = false) private int tardesNotificadas;
+
+    public AsistenciaAlertaEstado() {
+    }
+
+    public AsistenciaAlertaEstado(Long matriculaId) {
+        this.matriculaId = matriculaId;
+    }
+
+    /**
+     * Aplica el cambio de un detalle y devuelve las alertas que se disparan por primera vez.
+     * Las correcciones de días anteriores al último registrado sólo actualizan los contadores
+     * del trimestre; la racha se recalcula recién con el rebuild.
+     */
+    public List<TipoAlertaAsistencia> aplicar(LocalDate fecha, Long trimestre,
+                                              EstadoAsistencia anterior, EstadoAsistencia nuevo,
+                                              ReglasAlertaAsistencia reglas) {
+        boolean posterior = ultimaFecha == null || fecha.isAfter(ultimaFecha);
+
+        if (posterior) {
+            ausentesPrevios = ausentesConsecutivos;
+            ultimaFecha = fecha;
+        }
+        if (fecha.equals(ultimaFecha)) {
+            ultimoEstado = nuevo;
+            if (nuevo == null) ausentesConsecutivos = ausentesPrevios;
+            else ausentesConsecutivos = nuevo == EstadoAsistencia.AUSENTE ? ausentesPrevios + 1 : 0;
+        }
+
+        if (trimestreId == null || (posterior && !Objects.equals(trimestre, trimestreId))) {
+            trimestreId = trimestre;
+            presentes = 0;
+            tardes = 0;
+            total = 0;
+            alertaPorcentaje = false;
+            tardesNotificadas = 0;
+        }
+        if (Objects.equals(trimestre, trimestreId)) {
+            AsistenciaContadores delta = AsistenciaContadores.cambio(anterior, nuevo);
+            // sin piso en 0, una baja de un detalle previo al estado inicial dejaría contadores negativos
+            presentes = Math.max(0, presentes + delta.presentes());
+            tardes = Math.max(0, tardes + delta.tarde());
+            total = Math.max(0, total + delta.total());
+        }
+
+        return evaluar(reglas);
+    }
+
+    private List<TipoAlertaAsistencia> evaluar(ReglasAlertaAsistencia reglas) {
+        List<TipoAlertaAsistencia> alertas = new ArrayList<>(1);
+
+        boolean ausencias = reglas.ausenciasConsecutivas() > 0
+                && ausentesConsecutivos >= reglas.ausenciasConsecutivas();
+        if (ausencias && !alertaAusencias) alertas.add(TipoAlertaAsistencia.AUSENCIAS_CONSECUTIVAS);
+        alertaAusencias = ausencias;
+
+        boolean porcentajeBajo = reglas.porcentajeMinimo() > 0
+                && total > 0 && total >= reglas.minimoJornadas()
+                && presentes * 100L < (long) reglas.porcentajeMinimo() * total;
+        if (porcentajeBajo && !alertaPorcentaje) alertas.add(TipoAlertaAsistencia.PORCENTAJE_BAJO);
+        alertaPorcentaje = porcentajeBajo;
+
+        int nivelTardes = reglas.tardes() > 0 ? tardes / reglas.tardes() : 0;
+        if (nivelTardes > tardesNotificadas) alertas.add(TipoAlertaAsistencia.TARDES_REPETIDAS);
+        tardesNotificadas = nivelTardes;
+
+        return alertas;
+    }
+
+    /** Porcentaje de presentes del trimestre, con el mismo redondeo que los resúmenes. */
+    public double porcentaje() {
+        return total == 0 ? 0.0 : Math.round(presentes * 10000.0 / total) / 100.0;
+    }
+}
@@ -0,0 +1,118 @@
+package edu.ecep.base_app.asistencias.domain;
+
+import edu.ecep.base_app.asistencias.domain.enums.EstadoAsistencia;
+
+/**
+ * Asistencia de una matrícula durante un año, empaquetada en 3 bits por día.
+ * <p>
+ * Cada día del año (0..365) ocupa un bit en tres planos: {@code registrado}, y dos bits
+ * con el ordinal de {@link EstadoAsistencia}. Así los contadores de un rango se resuelven
+ * con {@link Long#bitCount} sobre palabras de 64 días en lugar de recorrer detalles.
+ * <p>
+ * El formato binario ({@link #toBytes()}) sigue el orden de bits de Redis
+ * (offset 0 = bit más significativo del primer byte), de modo que un día puede
+ * actualizarse en Redis con {@code SETBIT} sobre {@link #offset(int, int)}.
+ */
+public final class AsistenciaBitmap {
+
+    /** Ancho de cada plano en bits: múltiplo de 64 que cubre años bisiestos. */
+    public static final int DIAS = 384;
+
+    public static final int PLANO_REGISTRADO = 0;
+    public static final int PLANO_BIT_BAJO = 1;
+    public static final int PLANO_BIT_ALTO = 2;
+
+    private static final int PLANOS = 3;
+    private static final int WORDS = DIAS / 64;
+    public static final int BYTES = PLANOS * DIAS / 8;
+
+    private final long[] bits;
+
+    public AsistenciaBitmap() {
+        this.bits = new long[PLANOS * WORDS];
+    }
+
+    private AsistenciaBitmap(long[] bits) {
+        this.bits = bits;
+    }
+
+    /** Offset de bit (estilo Redis) del día {@code dia} en el plano indicado. */
+    public static long offset(int plano, int dia) {
+        return (long) plano * DIAS + dia;
+    }
+
+    /** Valor de cada plano para un estado; {@code null} limpia el día. */
+    public static boolean[] planos(EstadoAsistencia estado) {
+        if (estado == null) return new boolean[]{false, false, false};
+        int code = estado.ordinal();
+        return new boolean[]{true, (code & 1) != 0, (code & 2) != 0};
+    }
+
+    public void set(int dia, EstadoAsistencia estado) {
+        checkDia(dia);
+        boolean[] valores = planos(estado);
+        for (int p = 0; p < PLANOS; p++) {
+            int w = p * WORDS + (dia >>> 6);
+            long mask = 1L << (dia & 63);
+            bits[w] = valores[p] ? bits[w] | mask : bits[w] & ~mask;
+        }
+    }
+
+    public EstadoAsistencia get(int dia) {
+        checkDia(dia);
+        int w = dia >>> 6;
+        long mask = 1L << (dia & 63);
+        if ((bits[w] & mask) == 0) return null;
+        int code = ((bits[WORDS + w] & mask) != 0 ? 1 : 0) | ((bits[2 * WORDS + w] & mask) != 0 ? 2 : 0);
+        return EstadoAsistencia.values()[code];
+    }
+
+    /** Contadores por estado entre los días {@code desde} y {@code hasta}, ambos inclusive. */
+    public AsistenciaContadores contar(int desde, int hasta) {
+        checkDia(desde);
+        checkDia(hasta);
+        int presentes = 0, ausentes = 0, tarde = 0, retiro = 0, total = 0;
+        for (int w = desde >>> 6; w <= hasta >>> 6; w++) {
+            long mask = -1L;
+            if (w == desde >>> 6) mask &= -1L << (desde & 63);
+            if (w == hasta >>> 6) mask &= -1L >>> (63 - (hasta & 63));
+
+            long reg = bits[w] & mask;
+            if (reg == 0) continue;
+            long lo = bits[WORDS + w];
+            long hi = bits[2 * WORDS + w];
+            presentes += Long.bitCount(reg & ~lo & ~hi);
+            ausentes += Long.bitCount(reg & lo & ~hi);
+            tarde += Long.bitCount(reg & ~lo & hi);
+            retiro += Long.bitCount(reg & lo & hi);
+            total += Long.bitCount(reg);
+        }
+        return new AsistenciaContadores(presentes, ausentes, tarde, retiro, total);
+    }
+
+    public byte[] toBytes() {
+        byte[] out = new byte[BYTES];
+        for (int k = 0; k < BYTES; k++) {
+            int b = (int) (bits[k >>> 3] >>> ((k & 7) * 8)) & 0xFF;
+            out[k] = (byte) (Integer.reverse(b) >>> 24);
+        }
+        return out;
+    }
+
+    /** Acepta valores más cortos: Redis no guarda los bytes finales en cero. */
+    public static AsistenciaBitmap fromBytes(byte[] data) {
+        long[] bits = new long[PLANOS * WORDS];
+        int n = Math.min(data.length, BYTES);
+        for (int k = 0; k < n; k++) {
+            long b = (Integer.reverse(data[k] & 0xFF) >>> 24) & 0xFFL;
+            bits[k >>> 3] |= b << ((k & 7) * 8);
+        }
+        return new AsistenciaBitmap(bits);
+    }
+
+    private static void checkDia(int dia) {
+        if (dia < 0 || dia >= DIAS) {
+            throw new IllegalArgumentException("Día fuera de rango: " + dia);
+        }
+    }
+}
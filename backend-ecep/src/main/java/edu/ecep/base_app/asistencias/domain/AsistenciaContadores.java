@@ -0,0 +1,45 @@
+package edu.ecep.base_app.asistencias.domain;
+
+import edu.ecep.base_app.asistencias.domain.enums.EstadoAsistencia;
+
+/**
+ * Contadores de asistencia por estado. Se usan como delta al mantener los
+ * resúmenes precalculados: cada alta suma, cada baja resta.
+ */
+public record AsistenciaContadores(int presentes,
+                                   int ausentes,
+                                   int tarde,
+                                   int retiroAnticipado,
+                                   int total) {
+
+    public static final AsistenciaContadores VACIO = new AsistenciaContadores(0, 0, 0, 0, 0);
+
+    public static AsistenciaContadores de(EstadoAsistencia estado) {
+        if (estado == null) return VACIO;
+        return switch (estado) {
+            case PRESENTE -> new AsistenciaContadores(1, 0, 0, 0, 1);
+            case AUSENTE -> new AsistenciaContadores(0, 1, 0, 0, 1);
+            case TARDE -> new AsistenciaContadores(0, 0, 1, 0, 1);
+            case RETIRO_ANTICIPADO -> new AsistenciaContadores(0, 0, 0, 1, 1);
+        };
+    }
+
+    /** Delta de pasar de {@code anterior} a {@code nuevo} (cualquiera puede ser null). */
+    public static AsistenciaContadores cambio(EstadoAsistencia anterior, EstadoAsistencia nuevo) {
+        return de(nuevo).menos(de(anterior));
+    }
+
+    public AsistenciaContadores mas(AsistenciaContadores o) {
+        return new AsistenciaContadores(presentes + o.presentes, ausentes + o.ausentes,
+                tarde + o.tarde, retiroAnticipado + o.retiroAnticipado, total + o.total);
+    }
+
+    public AsistenciaContadores menos(AsistenciaContadores o) {
+        return new AsistenciaContadores(presentes - o.presentes, ausentes - o.ausentes,
+                tarde - o.tarde, retiroAnticipado - o.retiroAnticipado, total - o.total);
+    }
+
+    public boolean esVacio() {
+        return presentes == 0 && ausentes == 0 && tarde == 0 && retiroAnticipado == 0 && total == 0;
+    }
+}
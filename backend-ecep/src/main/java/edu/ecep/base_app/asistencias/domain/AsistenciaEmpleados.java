@@ -9,6 +9,8 @@ import lombok.Setter;
 import java.time.LocalDate;
 import java.time.LocalTime;
 
+// Único (empleado_id, fecha) sólo entre los activos: es un índice parcial, que JPA no sabe
+// declarar; lo crean la migración V20250310 y AsistenciaIndicesInitializer al arrancar.
 @Entity
 @Table(name = "asistencia_empleados")
 @Getter
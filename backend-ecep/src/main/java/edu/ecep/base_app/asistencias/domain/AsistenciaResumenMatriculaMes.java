@@ -0,0 +1,34 @@
+package edu.ecep.base_app.asistencias.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+import static jakarta.persistence.GenerationType.IDENTITY;
+
+/**
+ * Resumen precalculado por alumno y mes. Incluye la sección de la jornada porque
+ * una matrícula puede cambiar de sección a mitad de año.
+ * {@code mes} es siempre el primer día del mes.
+ */
+@Entity
+@Table(name = "asistencia_resumen_matricula_mes",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"matricula_id", "seccion_id", "mes"}),
+        indexes = @Index(name = "ix_asistencia_resumen_matricula_mes_seccion", columnList = "seccion_id, mes"))
+@Getter
+@Setter
+public class AsistenciaResumenMatriculaMes {
+    @Id @GeneratedValue(strategy = IDENTITY) Long id;
+
+    @Column(name = "matricula_id", nullable = false) private Long matriculaId;
+    @Column(name = "seccion_id", nullable = false) private Long seccionId;
+    @Column(nullable = false) private LocalDate mes;
+
+    @Column(nullable = false) private int presentes;
+    @Column(nullable = false) private int ausentes;
+    @Column(nullable = false) private int tarde;
+    @Column(name = "retiro_anticipado", nullable = false) private int retiroAnticipado;
+    @Column(nullable = false) private int total;
+}
@@ -0,0 +1,31 @@
+package edu.ecep.base_app.asistencias.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+import static jakarta.persistence.GenerationType.IDENTITY;
+
+/**
+ * Resumen precalculado de una jornada: contadores por estado para una sección en un día.
+ * Se mantiene incrementalmente desde {@code DetalleAsistenciaService}.
+ */
+@Entity
+@Table(name = "asistencia_resumen_seccion_dia",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"seccion_id", "fecha"}))
+@Getter
+@Setter
+public class AsistenciaResumenSeccionDia {
+    @Id @GeneratedValue(strategy = IDENTITY) Long id;
+
+    @Column(name = "seccion_id", nullable = false) private Long seccionId;
+    @Column(nullable = false) private LocalDate fecha;
+
+    @Column(nullable = false) private int presentes;
+    @Column(nullable = false) private int ausentes;
+    @Column(nullable = false) private int tarde;
+    @Column(name = "retiro_anticipado", nullable = false) private int retiroAnticipado;
+    @Column(nullable = false) private int total;
+}
@@ -10,7 +10,7 @@ import org.hibernate.annotations.SQLDelete;
 
 @Entity @Table(name="detalles_asistencia",
         uniqueConstraints=@UniqueConstraint(columnNames={"jornada_id","matricula_id"}))
-@SQLDelete(sql = "UPDATE detalles_asistencia SET activo = false, fecha_eliminacion = now() WHERE id = ?")
+@SQLDelete(sql = "UPDATE detalles_asistencia SET activo = false, fecha_eliminacion = now(), last_updated = clock_timestamp() WHERE id = ?")
 @Getter @Setter
 public class DetalleAsistencia extends BaseEntity {
     @ManyToOne(optional=false, fetch= FetchType.LAZY) private JornadaAsistencia jornada;
@@ -0,0 +1,40 @@
+package edu.ecep.base_app.asistencias.domain;
+
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Fichadas de un empleado en un día, reducidas a la primera y la última marca.
+ * La primera es la entrada; la última es la salida sólo si supera la ventana de rebote,
+ * así una doble pasada de tarjeta no se toma como salida.
+ */
+@Getter
+public class FichadasDia {
+    private final Long empleadoId;
+    private final LocalDate fecha;
+    private LocalTime primera;
+    private LocalTime ultima;
+    private int marcas;
+
+    public FichadasDia(Long empleadoId, LocalDate fecha) {
+        this.empleadoId = empleadoId;
+        this.fecha = fecha;
+    }
+
+    public void registrar(LocalTime hora) {
+        if (primera == null || hora.isBefore(primera)) primera = hora;
+        if (ultima == null || hora.isAfter(ultima)) ultima = hora;
+        marcas++;
+    }
+
+    public LocalTime entrada() {
+        return primera;
+    }
+
+    public LocalTime salida(Duration ventana) {
+        return ultima != null && ultima.isAfter(primera.plus(ventana)) ? ultima : null;
+    }
+}
@@ -12,8 +12,9 @@ import java.time.LocalDate;
 
 @Entity
 @Table(name="jornadas_asistencia",
-        uniqueConstraints=@UniqueConstraint(columnNames={"seccion_id","fecha"}))
-@SQLDelete(sql = "UPDATE jornadas_asistencia SET activo = false, fecha_eliminacion = now() WHERE id = ?")
+        uniqueConstraints=@UniqueConstraint(columnNames={"seccion_id","fecha"}),
+        indexes=@Index(name="ix_jornadas_asistencia_fecha_id", columnList="fecha, id"))
+@SQLDelete(sql = "UPDATE jornadas_asistencia SET activo = false, fecha_eliminacion = now(), last_updated = clock_timestamp() WHERE id = ?")
 @Getter
 @Setter
 public class JornadaAsistencia extends BaseEntity {
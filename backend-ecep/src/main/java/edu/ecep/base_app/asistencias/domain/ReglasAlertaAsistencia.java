@@ -0,0 +1,12 @@
+package edu.ecep.base_app.asistencias.domain;
+
+/**
+ * Umbrales de las alertas de asistencia.
+ *
+ * @param ausenciasConsecutivas AUSENTE seguidos que disparan la alerta
+ * @param porcentajeMinimo      porcentaje de presentes en el trimestre por debajo del cual se alerta
+ * @param minimoJornadas        jornadas registradas en el trimestre antes de evaluar el porcentaje
+ * @param tardes                cada cuántas TARDE en el trimestre se vuelve a alertar
+ */
+public record ReglasAlertaAsistencia(int ausenciasConsecutivas, int porcentajeMinimo,
+                                     int minimoJornadas, int tardes) {}
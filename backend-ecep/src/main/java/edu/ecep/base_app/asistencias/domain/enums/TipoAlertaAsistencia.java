@@ -0,0 +1,3 @@
+package edu.ecep.base_app.asistencias.domain.enums;
+
+public enum TipoAlertaAsistencia { AUSENCIAS_CONSECUTIVAS, PORCENTAJE_BAJO, TARDES_REPETIDAS }
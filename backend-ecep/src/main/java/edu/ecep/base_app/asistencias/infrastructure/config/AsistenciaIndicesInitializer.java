@@ -0,0 +1,45 @@
+package edu.ecep.base_app.asistencias.infrastructure.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Crea al arrancar el índice único parcial de asistencia_empleados, del que depende el upsert de
+ * fichadas ({@code ON CONFLICT ... WHERE activo}). JPA no sabe declararlo y no se deja librado a
+ * cómo Hibernate genere el esquema: con {@code ddl-auto} en update, validate o none también tiene
+ * que existir. Corre antes de los runners, así la carga inicial ya lo encuentra.
+ * Sólo en Postgres; si no se puede crear (p. ej. quedan duplicados activos sin la migración
+ * V20250310) el arranque falla en lugar de dejar cada importación rota.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AsistenciaIndicesInitializer {
+
+    private static final String INDICE_EMPLEADO_FECHA = """
+        CREATE UNIQUE INDEX IF NOT EXISTS ux_asistencia_empleados_empleado_fecha
+            ON asistencia_empleados (empleado_id, fecha) WHERE activo
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void asegurarIndices() {
+        String motor = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equalsIgnoreCase(motor)) {
+            log.info("Base {}: no se crea el índice parcial de asistencia_empleados", motor);
+            return;
+        }
+        try {
+            jdbcTemplate.execute(INDICE_EMPLEADO_FECHA);
+        } catch (Exception ex) {
+            throw new IllegalStateException("No se pudo crear ux_asistencia_empleados_empleado_fecha; "
+                    + "las importaciones de fichadas lo necesitan", ex);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package edu.ecep.base_app.asistencias.infrastructure.importacion;
+
+import edu.ecep.base_app.asistencias.application.FichadaImportService;
+import edu.ecep.base_app.asistencias.presentation.dto.FichadaImportResultDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Toma los archivos que el reloj de personal deja en un directorio local y los importa.
+ * Cada archivo procesado se mueve a {@code procesados/} o, si falla, a {@code errores/}.
+ * Se ignoran los archivos ocultos, los {@code .tmp}/{@code .part} y los modificados hace menos
+ * de unos segundos, para no leer un archivo que todavía se está copiando.
+ * Deshabilitado mientras {@code app.asistencias.fichadas.directorio} esté vacío.
+ */
+@Component
+@Slf4j
+public class FichadaDirectorioPoller {
+
+    private static final Duration ESPERA_ESCRITURA = Duration.ofSeconds(10);
+    private static final DateTimeFormatter SUFIJO = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final FichadaImportService importService;
+    private final Path directorio;
+
+    public FichadaDirectorioPoller(FichadaImportService importService,
+                                   @Value("${app.asistencias.fichadas.directorio:}") String directorio) {
+        this.importService = importService;
+        this.directorio = directorio.isBlank() ? null : Paths.get(directorio).toAbsolutePath().normalize();
+    }
+
+    @Scheduled(fixedDelayString = "${app.asistencias.fichadas.intervalo:PT1M}")
+    public void procesar() {
+        if (directorio == null || !Files.isDirectory(directorio)) return;
+        for (Path archivo : pendientes()) {
+            try (InputStream in = Files.newInputStream(archivo)) {
+                FichadaImportResultDTO res = importService.importar(in);
+                log.info("Archivo de fichadas {} importado: {} registros", archivo.getFileName(), res.getRegistros());
+                mover(archivo, "procesados");
+            } catch (Exception ex) {
+                log.warn("No se pudo importar el archivo de fichadas {}", archivo.getFileName(), ex);
+                mover(archivo, "errores");
+            }
+        }
+    }
+
+    private List<Path> pendientes() {
+        List<Path> res = new ArrayList<>();
+        Instant limite = Instant.now().minus(ESPERA_ESCRITURA);
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directorio)) {
+            for (Path p : stream) {
+                String nombre = p.getFileName().toString();
+                if (!Files.isRegularFile(p) || nombre.startsWith(".")
+                        || nombre.endsWith(".tmp") || nombre.endsWith(".part")) continue;
+                if (Files.getLastModifiedTime(p).toInstant().isAfter(limite)) continue;
+                res.add(p);
+            }
+        } catch (IOException ex) {
+            log.warn("No se pudo listar el directorio de fichadas {}", directorio, ex);
+        }
+        res.sort(null);
+        return res;
+    }
+
+    private void mover(Path archivo, String subdirectorio) {
+        try {
+            Path destino = Files.createDirectories(directorio.resolve(subdirectorio));
+            String nombre = LocalDateTime.now().format(SUFIJO) + "-" + archivo.getFileName();
+            Files.move(archivo, destino.resolve(nombre), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            log.warn("No se pudo mover el archivo de fichadas {}", archivo.getFileName(), ex);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package edu.ecep.base_app.asistencias.infrastructure.messaging;
+
+import edu.ecep.base_app.asistencias.presentation.dto.AsistenciaAlertaDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Publica las alertas en Redis para que cada nodo las reenvíe a los docentes conectados a él
+ * (mismo esquema que el chat). Si Redis no responde, se entregan sólo desde este nodo.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AsistenciaAlertaPublisher {
+
+    public static final String CHANNEL = "asistencias:alertas";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final AsistenciaAlertaSubscriber subscriber;
+
+    public void publicar(List<Long> destinatarios, AsistenciaAlertaDTO alerta) {
+        AlertaEnvio envio = new AlertaEnvio(destinatarios, alerta);
+        try {
+            redisTemplate.convertAndSend(CHANNEL, envio);
+        } catch (Exception ex) {
+            log.warn("No se pudo publicar la alerta de asistencia en Redis, se entrega localmente", ex);
+            subscriber.entregar(envio);
+        }
+    }
+
+    public record AlertaEnvio(List<Long> destinatarios, AsistenciaAlertaDTO alerta) {}
+}
@@ -0,0 +1,26 @@
+package edu.ecep.base_app.asistencias.infrastructure.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.ecep.base_app.asistencias.infrastructure.messaging.AsistenciaAlertaPublisher.AlertaEnvio;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class AsistenciaAlertaSubscriber {
+
+    public static final String DESTINO = "/queue/asistencias/alertas";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+
+    public void handleMessage(String messageJson) throws Exception {
+        entregar(objectMapper.readValue(messageJson, AlertaEnvio.class));
+    }
+
+    void entregar(AlertaEnvio envio) {
+        envio.destinatarios().forEach(id ->
+                messagingTemplate.convertAndSendToUser(id.toString(), DESTINO, envio.alerta()));
+    }
+}
@@ -0,0 +1,167 @@
+package edu.ecep.base_app.asistencias.infrastructure.persistence;
+
+import edu.ecep.base_app.asistencias.domain.AsistenciaAlertaEstado;
+import edu.ecep.base_app.asistencias.domain.ReglasAlertaAsistencia;
+import edu.ecep.base_app.asistencias.domain.enums.EstadoAsistencia;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Estado de alertas por matrícula. Las filas se bloquean (FOR UPDATE, en orden de matrícula)
+ * durante la transacción de la escritura, así dos planillas que tocan al mismo alumno se serializan
+ * en vez de pisarse la racha.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AsistenciaAlertaEstadoRepository {
+
+    private static final String INSERT_VACIO_SQL = """
+        INSERT INTO asistencia_alerta_estado
+            (matricula_id, ausentes_previos, ausentes_consecutivos, presentes, tardes, total,
+             alerta_ausencias, alerta_porcentaje, tardes_notificadas)
+        VALUES (?, 0, 0, 0, 0, 0, false, false, 0)
+        ON CONFLICT (matricula_id) DO NOTHING
+        """;
+
+    private static final String SELECT_FOR_UPDATE_SQL = """
+        SELECT matricula_id, trimestre_id, ultima_fecha, ultimo_estado, ausentes_previos, ausentes_consecutivos,
+               presentes, tardes, total, alerta_ausencias, alerta_porcentaje, tardes_notificadas
+          FROM asistencia_alerta_estado
+         WHERE matricula_id = ANY (?)
+         ORDER BY matricula_id
+           FOR UPDATE
+        """;
+
+    private static final String UPDATE_SQL = """
+        UPDATE asistencia_alerta_estado
+           SET trimestre_id = ?, ultima_fecha = ?, ultimo_estado = ?,
+               ausentes_previos = ?, ausentes_consecutivos = ?,
+               presentes = ?, tardes = ?, total = ?,
+               alerta_ausencias = ?, alerta_porcentaje = ?, tardes_notificadas = ?
+         WHERE matricula_id = ?
+        """;
+
+    // Racha: AUSENTE posteriores al último día no AUSENTE. Contadores: trimestre del último día registrado.
+    // Las condiciones ya vigentes quedan marcadas como notificadas para no re-enviar todo tras un rebuild.
+    private static final String REBUILD_SQL = """
+        WITH activos AS (
+            SELECT d.matricula_id, j.trimestre_id, j.fecha, d.estado
+              FROM detalles_asistencia d
+              JOIN jornadas_asistencia j ON j.id = d.jornada_id
+             WHERE d.activo = true AND j.activo = true
+        ), ultimo AS (
+            SELECT DISTINCT ON (matricula_id) matricula_id, trimestre_id, fecha, estado
+              FROM activos
+             ORDER BY matricula_id, fecha DESC
+        ), racha AS (
+            SELECT u.matricula_id, COUNT(a.fecha) AS previos
+              FROM ultimo u
+              LEFT JOIN activos a
+                ON a.matricula_id = u.matricula_id
+               AND a.fecha < u.fecha
+               AND a.fecha > COALESCE((SELECT MAX(x.fecha) FROM activos x
+                                        WHERE x.matricula_id = u.matricula_id
+                                          AND x.fecha < u.fecha
+                                          AND x.estado <> 'AUSENTE'), DATE '-infinity')
+             GROUP BY u.matricula_id
+        ), trimestre AS (
+            SELECT u.matricula_id,
+                   COUNT(*) FILTER (WHERE a.estado = 'PRESENTE') AS presentes,
+                   COUNT(*) FILTER (WHERE a.estado = 'TARDE') AS tardes,
+                   COUNT(*) AS total
+              FROM ultimo u
+              JOIN activos a ON a.matricula_id = u.matricula_id AND a.trimestre_id = u.trimestre_id
+             GROUP BY u.matricula_id
+        ), estado AS (
+            SELECT u.matricula_id, u.trimestre_id, u.fecha, u.estado, r.previos,
+                   CASE WHEN u.estado = 'AUSENTE' THEN r.previos + 1 ELSE 0 END AS consecutivos,
+                   t.presentes, t.tardes, t.total
+              FROM ultimo u
+              JOIN racha r ON r.matricula_id = u.matricula_id
+              JOIN trimestre t ON t.matricula_id = u.matricula_id
+        )
+        INSERT INTO asistencia_alerta_estado
+            (matricula_id, trimestre_id, ultima_fecha, ultimo_estado, ausentes_previos, ausentes_consecutivos,
+             presentes, tardes, total, alerta_ausencias, alerta_porcentaje, tardes_notificadas)
+        SELECT matricula_id, trimestre_id, fecha, estado, previos, consecutivos, presentes, tardes, total,
+               ? > 0 AND consecutivos >= ?,
+               ? > 0 AND total > 0 AND total >= ? AND presentes * 100 < ? * total,
+               CASE WHEN ? > 0 THEN tardes / ? ELSE 0 END
+          FROM estado
+        """;
+
+    private static final RowMapper<AsistenciaAlertaEstado> ROW_MAPPER = (rs, i) -> {
+        AsistenciaAlertaEstado e = new AsistenciaAlertaEstado(rs.getLong("matricula_id"));
+        e.setTrimestreId(rs.getObject("trimestre_id", Long.class));
+        Date ultima = rs.getDate("ultima_fecha");
+        e.setUltimaFecha(ultima != null ? ultima.toLocalDate() : null);
+        String estado = rs.getString("ultimo_estado");
+        e.setUltimoEstado(estado != null ? EstadoAsistencia.valueOf(estado) : null);
+        e.setAusentesPrevios(rs.getInt("ausentes_previos"));
+        e.setAusentesConsecutivos(rs.getInt("ausentes_consecutivos"));
+        e.setPresentes(rs.getInt("presentes"));
+        e.setTardes(rs.getInt("tardes"));
+        e.setTotal(rs.getInt("total"));
+        e.setAlertaAusencias(rs.getBoolean("alerta_ausencias"));
+        e.setAlertaPorcentaje(rs.getBoolean("alerta_porcentaje"));
+        e.setTardesNotificadas(rs.getInt("tardes_notificadas"));
+        return e;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Crea las filas faltantes y bloquea todas hasta el fin de la transacción. */
+    public Map<Long, AsistenciaAlertaEstado> bloquear(Collection<Long> matriculaIds) {
+        List<Long> ids = matriculaIds.stream().distinct().sorted().toList();
+        jdbcTemplate.batchUpdate(INSERT_VACIO_SQL, ids, DetalleAsistenciaBatchRepository.BATCH_SIZE,
+                (ps, id) -> ps.setLong(1, id));
+
+        List<AsistenciaAlertaEstado> filas = jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SELECT_FOR_UPDATE_SQL);
+            ps.setArray(1, con.createArrayOf("bigint", ids.toArray()));
+            return ps;
+        }, ROW_MAPPER);
+
+        Map<Long, AsistenciaAlertaEstado> res = new LinkedHashMap<>();
+        filas.forEach(e -> res.put(e.getMatriculaId(), e));
+        return res;
+    }
+
+    public void guardar(Collection<AsistenciaAlertaEstado> estados) {
+        jdbcTemplate.batchUpdate(UPDATE_SQL, new ArrayList<>(estados), DetalleAsistenciaBatchRepository.BATCH_SIZE,
+                (ps, e) -> {
+                    if (e.getTrimestreId() != null) ps.setLong(1, e.getTrimestreId());
+                    else ps.setNull(1, Types.BIGINT);
+                    ps.setDate(2, e.getUltimaFecha() != null ? Date.valueOf(e.getUltimaFecha()) : null);
+                    ps.setString(3, e.getUltimoEstado() != null ? e.getUltimoEstado().name() : null);
+                    ps.setInt(4, e.getAusentesPrevios());
+                    ps.setInt(5, e.getAusentesConsecutivos());
+                    ps.setInt(6, e.getPresentes());
+                    ps.setInt(7, e.getTardes());
+                    ps.setInt(8, e.getTotal());
+                    ps.setBoolean(9, e.isAlertaAusencias());
+                    ps.setBoolean(10, e.isAlertaPorcentaje());
+                    ps.setInt(11, e.getTardesNotificadas());
+                    ps.setLong(12, e.getMatriculaId());
+                });
+    }
+
+    public void rebuild(ReglasAlertaAsistencia reglas) {
+        jdbcTemplate.update("DELETE FROM asistencia_alerta_estado");
+        jdbcTemplate.update(REBUILD_SQL,
+                reglas.ausenciasConsecutivas(), reglas.ausenciasConsecutivas(),
+                reglas.porcentajeMinimo(), reglas.minimoJornadas(), reglas.porcentajeMinimo(),
+                reglas.tardes(), reglas.tardes());
+    }
+}
@@ -0,0 +1,194 @@
+package edu.ecep.base_app.asistencias.infrastructure.persistence;
+
+import edu.ecep.base_app.asistencias.domain.AsistenciaBitmap;
+import edu.ecep.base_app.asistencias.domain.enums.EstadoAsistencia;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.stereotype.Repository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bitmaps de asistencia en Redis: una clave binaria por matrícula y año
+ * ({@code asistencia:bitmap:{matriculaId}:{anio}}), con el layout de {@link AsistenciaBitmap}.
+ * Cada par tiene además un contador de versión ({@code asistencia:bitmap-version:...}) que sube con
+ * cada cambio de detalle, exista o no el bitmap; la carga perezosa y el rebuild sólo guardan si no
+ * cambió mientras leían la base, así no pisan con una foto vieja un cambio confirmado en el medio.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AsistenciaBitmapRedisRepository {
+
+    private static final String KEY_PREFIX = "asistencia:bitmap:";
+    // fuera del patrón de deleteAll: borrar versiones durante un rebuild reabriría la carrera
+    private static final String VERSION_PREFIX = "asistencia:bitmap-version:";
+    private static final Duration TTL = Duration.ofDays(7);
+
+    // Sólo se actualizan bitmaps ya construidos: crear uno desde un único día dejaría huecos.
+    // La versión sube siempre, para que una carga en curso descarte lo que leyó.
+    private static final byte[] SET_DIA_SI_EXISTE = """
+        redis.call('INCR', KEYS[2])
+        redis.call('PEXPIRE', KEYS[2], ARGV[7])
+        if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end
+        redis.call('SETBIT', KEYS[1], ARGV[1], ARGV[4])
+        redis.call('SETBIT', KEYS[1], ARGV[2], ARGV[5])
+        redis.call('SETBIT', KEYS[1], ARGV[3], ARGV[6])
+        return 1
+        """.getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] SET_SI_VERSION = """
+        local actual = redis.call('GET', KEYS[2]) or '0'
+        if actual ~= ARGV[2] then return 0 end
+        redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[3])
+        return 1
+        """.getBytes(StandardCharsets.UTF_8);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    public Optional<AsistenciaBitmap> find(Long matriculaId, int anio) {
+        byte[] raw = redisTemplate.execute((RedisCallback<byte[]>) con ->
+                con.stringCommands().get(key(matriculaId, anio)));
+        return Optional.ofNullable(raw).map(AsistenciaBitmap::fromBytes);
+    }
+
+    /** Versión actual del par; leerla antes de consultar la base y pasarla a {@link #saveSiVersion}. */
+    public long version(Long matriculaId, int anio) {
+        byte[] raw = redisTemplate.execute((RedisCallback<byte[]>) con ->
+                con.stringCommands().get(versionKey(matriculaId, anio)));
+        return raw == null ? 0L : Long.parseLong(new String(raw, StandardCharsets.UTF_8));
+    }
+
+    /** Guarda el bitmap sólo si nadie registró un cambio desde que se leyó {@code version}. */
+    public boolean saveSiVersion(Long matriculaId, int anio, AsistenciaBitmap bitmap, long version) {
+        byte[][] keysAndArgs = new byte[][]{
+                key(matriculaId, anio),
+                versionKey(matriculaId, anio),
+                bitmap.toBytes(),
+                num(version),
+                num(TTL.toMillis())
+        };
+        Long res = redisTemplate.execute((RedisCallback<Long>) con ->
+                con.scriptingCommands().eval(SET_SI_VERSION, ReturnType.INTEGER, 2, keysAndArgs));
+        return res != null && res == 1L;
+    }
+
+    /**
+     * Versiones de todos los pares que tienen contador, para un rebuild: leerlas antes de recorrer
+     * la base y pasarlas a {@link #saveAllSiVersion}. Un par sin contador está en versión 0.
+     */
+    public Map<String, Long> versiones() {
+        return redisTemplate.execute((RedisCallback<Map<String, Long>>) con -> {
+            Map<String, Long> res = new HashMap<>();
+            List<byte[]> batch = new ArrayList<>();
+            ScanOptions options = ScanOptions.scanOptions().match(VERSION_PREFIX + "*").count(500).build();
+            try (Cursor<byte[]> cursor = con.keyCommands().scan(options)) {
+                while (cursor.hasNext()) {
+                    batch.add(cursor.next());
+                    if (batch.size() == 500) leerVersiones(con, batch, res);
+                }
+            }
+            leerVersiones(con, batch, res);
+            return res;
+        });
+    }
+
+    /**
+     * Guarda varios bitmaps en un solo pipeline, cada uno sólo si su versión sigue siendo la de
+     * {@code versiones}. Devuelve cuántos se guardaron; los descartados los arma la carga perezosa.
+     */
+    public int saveAllSiVersion(List<BitmapAnual> bitmaps, Map<String, Long> versiones) {
+        if (bitmaps.isEmpty()) return 0;
+        List<Object> res = redisTemplate.executePipelined((RedisCallback<Object>) con -> {
+            for (BitmapAnual b : bitmaps) {
+                long version = versiones.getOrDefault(par(b.matriculaId(), b.anio()), 0L);
+                con.scriptingCommands().eval(SET_SI_VERSION, ReturnType.INTEGER, 2,
+                        key(b.matriculaId(), b.anio()), versionKey(b.matriculaId(), b.anio()),
+                        b.bitmap().toBytes(), num(version), num(TTL.toMillis()));
+            }
+            return null;
+        });
+        return (int) res.stream().filter(r -> Long.valueOf(1L).equals(r)).count();
+    }
+
+    public boolean setDiaSiExiste(Long matriculaId, int anio, int dia, EstadoAsistencia estado) {
+        boolean[] planos = AsistenciaBitmap.planos(estado);
+        byte[][] keysAndArgs = new byte[][]{
+                key(matriculaId, anio),
+                versionKey(matriculaId, anio),
+                num(AsistenciaBitmap.offset(AsistenciaBitmap.PLANO_REGISTRADO, dia)),
+                num(AsistenciaBitmap.offset(AsistenciaBitmap.PLANO_BIT_BAJO, dia)),
+                num(AsistenciaBitmap.offset(AsistenciaBitmap.PLANO_BIT_ALTO, dia)),
+                num(planos[0] ? 1 : 0),
+                num(planos[1] ? 1 : 0),
+                num(planos[2] ? 1 : 0),
+                num(TTL.toMillis())
+        };
+        Long res = redisTemplate.execute((RedisCallback<Long>) con ->
+                con.scriptingCommands().eval(SET_DIA_SI_EXISTE, ReturnType.INTEGER, 2, keysAndArgs));
+        return res != null && res == 1L;
+    }
+
+    public void deleteAll() {
+        redisTemplate.execute((RedisCallback<Void>) con -> {
+            List<byte[]> batch = new ArrayList<>();
+            ScanOptions options = ScanOptions.scanOptions().match(KEY_PREFIX + "*").count(500).build();
+            try (Cursor<byte[]> cursor = con.keyCommands().scan(options)) {
+                while (cursor.hasNext()) {
+                    batch.add(cursor.next());
+                    if (batch.size() == 500) flushDelete(con, batch);
+                }
+            }
+            flushDelete(con, batch);
+            return null;
+        });
+    }
+
+    private static byte[] key(Long matriculaId, int anio) {
+        return (KEY_PREFIX + par(matriculaId, anio)).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] versionKey(Long matriculaId, int anio) {
+        return (VERSION_PREFIX + par(matriculaId, anio)).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String par(Long matriculaId, int anio) {
+        return matriculaId + ":" + anio;
+    }
+
+    private static void leerVersiones(RedisConnection con, List<byte[]> keys, Map<String, Long> res) {
+        if (keys.isEmpty()) return;
+        List<byte[]> valores = con.stringCommands().mGet(keys.toArray(new byte[0][]));
+        for (int i = 0; i < keys.size(); i++) {
+            byte[] valor = valores != null ? valores.get(i) : null;
+            // venció entre el SCAN y el MGET: queda fuera del mapa y el rebuild guarda esperando 0,
+            // igual que la clave ausente; un cambio posterior la recrea y ese guardado se descarta
+            if (valor == null) continue;
+            String clave = new String(keys.get(i), StandardCharsets.UTF_8).substring(VERSION_PREFIX.length());
+            res.put(clave, Long.parseLong(new String(valor, StandardCharsets.UTF_8)));
+        }
+        keys.clear();
+    }
+
+    private static void flushDelete(RedisConnection con, List<byte[]> keys) {
+        if (keys.isEmpty()) return;
+        con.keyCommands().del(keys.toArray(new byte[0][]));
+        keys.clear();
+    }
+
+    private static byte[] num(long v) {
+        return Long.toString(v).getBytes(StandardCharsets.UTF_8);
+    }
+
+    public record BitmapAnual(Long matriculaId, int anio, AsistenciaBitmap bitmap) {}
+}
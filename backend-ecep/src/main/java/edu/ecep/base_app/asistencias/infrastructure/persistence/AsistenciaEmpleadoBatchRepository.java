@@ -0,0 +1,80 @@
+package edu.ecep.base_app.asistencias.infrastructure.persistence;
+
+import edu.ecep.base_app.asistencias.domain.FichadasDia;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Escritura por lotes de fichadas en asistencia_empleados, con un upsert por (empleado, fecha).
+ * Si el día ya tenía registro se combinan las marcas: entrada = la más temprana,
+ * salida = la más tardía (si supera la ventana), de modo que reimportar un archivo no cambia nada.
+ * Un día dado de baja no se toca: la importación crea un registro activo nuevo y el anterior queda
+ * como historial. Las columnas de auditoría se completan con el mismo {@link AuditorAware} que usa JPA.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AsistenciaEmpleadoBatchRepository {
+
+    // el destino del conflicto repite el predicado del índice parcial ux_asistencia_empleados_empleado_fecha
+    private static final String UPSERT_SQL = """
+        INSERT INTO asistencia_empleados AS a
+            (empleado_id, fecha, hora_entrada, hora_salida, falta, activo, date_created, last_updated,
+             created_by, modified_by)
+        VALUES (?, ?, ?, ?, false, true, ?, ?, ?, ?)
+        ON CONFLICT (empleado_id, fecha) WHERE activo DO UPDATE
+           SET hora_entrada = LEAST(a.hora_entrada, EXCLUDED.hora_entrada),
+               hora_salida = CASE WHEN GREATEST(a.hora_entrada, a.hora_salida, EXCLUDED.hora_entrada, EXCLUDED.hora_salida)
+                                       > LEAST(a.hora_entrada, EXCLUDED.hora_entrada) + make_interval(secs => ?)
+                                  THEN GREATEST(a.hora_entrada, a.hora_salida, EXCLUDED.hora_entrada, EXCLUDED.hora_salida)
+                              END,
+               falta = false,
+               last_updated = EXCLUDED.last_updated,
+               modified_by = EXCLUDED.modified_by
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditorAware<String> auditorProvider;
+
+    /** Legajo -> id de empleado, para resolver las fichadas sin una consulta por línea. */
+    public Map<String, Long> empleadosPorLegajo() {
+        Map<String, Long> res = new HashMap<>();
+        jdbcTemplate.query("SELECT id, legajo FROM personas_empleado WHERE legajo IS NOT NULL",
+                (RowCallbackHandler) rs -> res.put(rs.getString(2).trim(), rs.getLong(1)));
+        return res;
+    }
+
+    public int upsert(Collection<FichadasDia> dias, Duration ventana) {
+        Timestamp now = Timestamp.from(Instant.now());
+        String auditor = auditorProvider.getCurrentAuditor().orElse(null);
+        int[][] res = jdbcTemplate.batchUpdate(UPSERT_SQL, List.copyOf(dias),
+                DetalleAsistenciaBatchRepository.BATCH_SIZE, (ps, d) -> {
+                    ps.setLong(1, d.getEmpleadoId());
+                    ps.setDate(2, Date.valueOf(d.getFecha()));
+                    ps.setTime(3, Time.valueOf(d.entrada()));
+                    LocalTime salida = d.salida(ventana);
+                    ps.setTime(4, salida != null ? Time.valueOf(salida) : null);
+                    ps.setTimestamp(5, now);
+                    ps.setTimestamp(6, now);
+                    ps.setString(7, auditor);
+                    ps.setString(8, auditor);
+                    ps.setLong(9, ventana.toSeconds());
+                });
+        int total = 0;
+        for (int[] lote : res) for (int n : lote) total += Math.max(n, 0);
+        return total;
+    }
+}
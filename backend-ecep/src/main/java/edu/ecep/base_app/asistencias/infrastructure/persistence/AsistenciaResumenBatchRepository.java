@@ -0,0 +1,105 @@
+package edu.ecep.base_app.asistencias.infrastructure.persistence;
+
+import edu.ecep.base_app.asistencias.domain.AsistenciaContadores;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Escritura de los resúmenes de asistencia. Los deltas se aplican con un upsert
+ * aditivo para que dos docentes marcando en paralelo no pisen sus contadores.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AsistenciaResumenBatchRepository {
+
+    private static final String UPSERT_SECCION_DIA = """
+        INSERT INTO asistencia_resumen_seccion_dia
+            (seccion_id, fecha, presentes, ausentes, tarde, retiro_anticipado, total)
+        VALUES (?, ?, ?, ?, ?, ?, ?)
+        ON CONFLICT (seccion_id, fecha) DO UPDATE
+           SET presentes = asistencia_resumen_seccion_dia.presentes + EXCLUDED.presentes,
+               ausentes = asistencia_resumen_seccion_dia.ausentes + EXCLUDED.ausentes,
+               tarde = asistencia_resumen_seccion_dia.tarde + EXCLUDED.tarde,
+               retiro_anticipado = asistencia_resumen_seccion_dia.retiro_anticipado + EXCLUDED.retiro_anticipado,
+               total = asistencia_resumen_seccion_dia.total + EXCLUDED.total
+        """;
+
+    private static final String UPSERT_MATRICULA_MES = """
+        INSERT INTO asistencia_resumen_matricula_mes
+            (matricula_id, seccion_id, mes, presentes, ausentes, tarde, retiro_anticipado, total)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+        ON CONFLICT (matricula_id, seccion_id, mes) DO UPDATE
+           SET presentes = asistencia_resumen_matricula_mes.presentes + EXCLUDED.presentes,
+               ausentes = asistencia_resumen_matricula_mes.ausentes + EXCLUDED.ausentes,
+               tarde = asistencia_resumen_matricula_mes.tarde + EXCLUDED.tarde,
+               retiro_anticipado = asistencia_resumen_matricula_mes.retiro_anticipado + EXCLUDED.retiro_anticipado,
+               total = asistencia_resumen_matricula_mes.total + EXCLUDED.total
+        """;
+
+    private static final String REBUILD_SECCION_DIA = """
+        INSERT INTO asistencia_resumen_seccion_dia
+            (seccion_id, fecha, presentes, ausentes, tarde, retiro_anticipado, total)
+        SELECT j.seccion_id, j.fecha,
+               SUM(CASE WHEN d.estado = 'PRESENTE' THEN 1 ELSE 0 END),
+               SUM(CASE WHEN d.estado = 'AUSENTE' THEN 1 ELSE 0 END),
+               SUM(CASE WHEN d.estado = 'TARDE' THEN 1 ELSE 0 END),
+               SUM(CASE WHEN d.estado = 'RETIRO_ANTICIPADO' THEN 1 ELSE 0 END),
+               COUNT(d.id)
+          FROM detalles_asistencia d
+          JOIN jornadas_asistencia j ON j.id = d.jornada_id
+         WHERE d.activo = true AND j.activo = true
+         GROUP BY j.seccion_id, j.fecha
+        """;
+
+    private static final String REBUILD_MATRICULA_MES = """
+        INSERT INTO asistencia_resumen_matricula_mes
+            (matricula_id, seccion_id, mes, presentes, ausentes, tarde, retiro_anticipado, total)
+        SELECT d.matricula_id, j.seccion_id, CAST(date_trunc('month', j.fecha) AS date),
+               SUM(CASE WHEN d.estado = 'PRESENTE' THEN 1 ELSE 0 END),
+               SUM(CASE WHEN d.estado = 'AUSENTE' THEN 1 ELSE 0 END),
+               SUM(CASE WHEN d.estado = 'TARDE' THEN 1 ELSE 0 END),
+               SUM(CASE WHEN d.estado = 'RETIRO_ANTICIPADO' THEN 1 ELSE 0 END),
+               COUNT(d.id)
+          FROM detalles_asistencia d
+          JOIN jornadas_asistencia j ON j.id = d.jornada_id
+         WHERE d.activo = true AND j.activo = true
+         GROUP BY d.matricula_id, j.seccion_id, CAST(date_trunc('month', j.fecha) AS date)
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void aplicarSeccionDia(Long seccionId, LocalDate fecha, AsistenciaContadores delta) {
+        jdbcTemplate.update(UPSERT_SECCION_DIA, seccionId, Date.valueOf(fecha),
+                delta.presentes(), delta.ausentes(), delta.tarde(), delta.retiroAnticipado(), delta.total());
+    }
+
+    public void aplicarMatriculaMes(Long seccionId, LocalDate mes, List<DeltaMatricula> deltas) {
+        Date mesSql = Date.valueOf(mes.withDayOfMonth(1));
+        jdbcTemplate.batchUpdate(UPSERT_MATRICULA_MES, deltas, DetalleAsistenciaBatchRepository.BATCH_SIZE, (ps, d) -> {
+            AsistenciaContadores c = d.delta();
+            ps.setLong(1, d.matriculaId());
+            ps.setLong(2, seccionId);
+            ps.setDate(3, mesSql);
+            ps.setInt(4, c.presentes());
+            ps.setInt(5, c.ausentes());
+            ps.setInt(6, c.tarde());
+            ps.setInt(7, c.retiroAnticipado());
+            ps.setInt(8, c.total());
+        });
+    }
+
+    /** Descarta los resúmenes y los recalcula desde los detalles activos. */
+    public void rebuild() {
+        jdbcTemplate.update("DELETE FROM asistencia_resumen_seccion_dia");
+        jdbcTemplate.update("DELETE FROM asistencia_resumen_matricula_mes");
+        jdbcTemplate.update(REBUILD_SECCION_DIA);
+        jdbcTemplate.update(REBUILD_MATRICULA_MES);
+    }
+
+    public record DeltaMatricula(Long matriculaId, AsistenciaContadores delta) {}
+}
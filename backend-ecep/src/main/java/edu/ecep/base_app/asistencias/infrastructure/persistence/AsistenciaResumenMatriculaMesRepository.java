@@ -0,0 +1,39 @@
+package edu.ecep.base_app.asistencias.infrastructure.persistence;
+
+import edu.ecep.base_app.asistencias.domain.AsistenciaResumenMatriculaMes;
+import edu.ecep.base_app.asistencias.presentation.dto.AsistenciaAlumnoResumenDTO;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface AsistenciaResumenMatriculaMesRepository extends JpaRepository<AsistenciaResumenMatriculaMes, Long> {
+
+    // Sólo meses completos: desde/hasta son primeros días de mes
+    @Query("""
+    select new edu.ecep.base_app.asistencias.presentation.dto.AsistenciaAlumnoResumenDTO(
+        m.id,
+        a.id,
+        p.apellido,
+        p.nombre,
+        sum(r.presentes),
+        sum(r.ausentes),
+        sum(r.tarde),
+        sum(r.retiroAnticipado),
+        sum(r.total)
+    )
+    from AsistenciaResumenMatriculaMes r
+      join Matricula m on m.id = r.matriculaId
+      join m.alumno a
+      join a.persona p
+    where r.seccionId = :seccionId
+      and r.mes between :desde and :hasta
+    group by m.id, a.id, p.nombre, p.apellido
+    order by p.apellido, p.nombre
+  """)
+    List<AsistenciaAlumnoResumenDTO> resumenPorAlumno(@Param("seccionId") Long seccionId,
+                                                      @Param("desde") LocalDate desde,
+                                                      @Param("hasta") LocalDate hasta);
+}
@@ -0,0 +1,52 @@
+package edu.ecep.base_app.asistencias.infrastructure.persistence;
+
+import edu.ecep.base_app.asistencias.domain.AsistenciaResumenSeccionDia;
+import edu.ecep.base_app.asistencias.presentation.dto.AsistenciaAcumuladoDTO;
+import edu.ecep.base_app.asistencias.presentation.dto.AsistenciaDiaDTO;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface AsistenciaResumenSeccionDiaRepository extends JpaRepository<AsistenciaResumenSeccionDia, Long> {
+
+    // Parte de las jornadas para conservar los días abiertos sin detalles (total 0)
+    @Query("""
+        select new edu.ecep.base_app.asistencias.presentation.dto.AsistenciaDiaDTO(
+            j.fecha,
+            sum(r.presentes),
+            sum(r.ausentes),
+            sum(r.tarde),
+            sum(r.retiroAnticipado),
+            sum(r.total)
+        )
+        from JornadaAsistencia j
+             left join AsistenciaResumenSeccionDia r
+                    on r.seccionId = j.seccion.id and r.fecha = j.fecha
+        where j.seccion.id = :seccionId
+          and j.fecha between :from and :to
+        group by j.fecha
+        order by j.fecha desc
+    """)
+    List<AsistenciaDiaDTO> resumenDiario(@Param("seccionId") Long seccionId,
+                                         @Param("from") LocalDate from,
+                                         @Param("to") LocalDate to);
+
+    @Query("""
+        select new edu.ecep.base_app.asistencias.presentation.dto.AsistenciaAcumuladoDTO(
+            sum(r.presentes),
+            sum(r.ausentes),
+            sum(r.tarde),
+            sum(r.retiroAnticipado),
+            sum(r.total)
+        )
+        from AsistenciaResumenSeccionDia r
+        where r.seccionId = :seccionId
+          and r.fecha between :from and :to
+    """)
+    AsistenciaAcumuladoDTO acumuladoSeccion(@Param("seccionId") Long seccionId,
+                                            @Param("from") LocalDate from,
+                                            @Param("to") LocalDate to);
+}
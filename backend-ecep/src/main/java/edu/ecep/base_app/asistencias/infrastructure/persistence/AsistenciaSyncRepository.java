@@ -0,0 +1,104 @@
+package edu.ecep.base_app.asistencias.infrastructure.persistence;
+
+import edu.ecep.base_app.asistencias.domain.enums.EstadoAsistencia;
+import edu.ecep.base_app.asistencias.presentation.dto.DetalleSyncDTO;
+import edu.ecep.base_app.asistencias.presentation.dto.JornadaSyncDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Lecturas para la sincronización de clientes offline. Van por JDBC porque necesitan ver también
+ * las filas dadas de baja (el filtro de Hibernate las oculta) y porque alcanza con proyectar
+ * columnas, sin hidratar entidades.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AsistenciaSyncRepository {
+
+    // Sin token (primera sincronización) sólo interesan las filas activas; con token también
+    // las bajas, para que el cliente las descarte.
+    private static final String JORNADAS_SQL = """
+        SELECT j.id, j.seccion_id, j.trimestre_id, j.fecha, j.activo, j.last_updated
+          FROM jornadas_asistencia j
+         WHERE j.seccion_id = ?
+           AND j.fecha BETWEEN ? AND ?
+           AND j.last_updated > ?
+           AND (j.activo OR ?)
+         ORDER BY j.fecha, j.id
+        """;
+
+    private static final String DETALLES_SQL = """
+        SELECT d.id, d.jornada_id, d.matricula_id, d.estado, d.obs, d.activo AND j.activo AS activo, d.last_updated
+          FROM detalles_asistencia d
+          JOIN jornadas_asistencia j ON j.id = d.jornada_id
+         WHERE j.seccion_id = ?
+           AND j.fecha BETWEEN ? AND ?
+           AND d.last_updated > ?
+           AND ((d.activo AND j.activo) OR ?)
+         ORDER BY j.fecha, d.id
+        """;
+
+    private static final String BLOQUEAR_DETALLES_SQL = """
+        SELECT d.id, d.jornada_id, d.matricula_id, d.estado, d.obs, d.activo, d.last_updated
+          FROM detalles_asistencia d
+         WHERE d.jornada_id = ?
+           AND d.matricula_id = ANY (?)
+         ORDER BY d.matricula_id
+           FOR UPDATE
+        """;
+
+    private static final RowMapper<JornadaSyncDTO> JORNADA_MAPPER = (rs, i) -> new JornadaSyncDTO(
+            rs.getLong("id"),
+            rs.getLong("seccion_id"),
+            // nullable: getLong devolvería 0 para las jornadas sin trimestre
+            rs.getObject("trimestre_id", Long.class),
+            rs.getDate("fecha").toLocalDate(),
+            rs.getBoolean("activo"),
+            rs.getObject("last_updated", OffsetDateTime.class));
+
+    private static final RowMapper<DetalleSyncDTO> DETALLE_MAPPER = (rs, i) -> new DetalleSyncDTO(
+            rs.getLong("id"),
+            rs.getLong("jornada_id"),
+            rs.getLong("matricula_id"),
+            EstadoAsistencia.valueOf(rs.getString("estado")),
+            rs.getString("obs"),
+            rs.getBoolean("activo"),
+            rs.getObject("last_updated", OffsetDateTime.class));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<JornadaSyncDTO> jornadasDesde(Long seccionId, LocalDate from, LocalDate to, Instant desde) {
+        return jdbcTemplate.query(JORNADAS_SQL, JORNADA_MAPPER,
+                seccionId, Date.valueOf(from), Date.valueOf(to), timestamp(desde), desde != null);
+    }
+
+    public List<DetalleSyncDTO> detallesDesde(Long seccionId, LocalDate from, LocalDate to, Instant desde) {
+        return jdbcTemplate.query(DETALLES_SQL, DETALLE_MAPPER,
+                seccionId, Date.valueOf(from), Date.valueOf(to), timestamp(desde), desde != null);
+    }
+
+    /** Detalles actuales (activos o no) de las matrículas, bloqueados hasta el fin de la transacción. */
+    public List<DetalleSyncDTO> bloquearDetalles(Long jornadaId, Collection<Long> matriculaIds) {
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(BLOQUEAR_DETALLES_SQL);
+            ps.setLong(1, jornadaId);
+            ps.setArray(2, con.createArrayOf("bigint", matriculaIds.stream().sorted().toArray()));
+            return ps;
+        }, DETALLE_MAPPER);
+    }
+
+    private static Timestamp timestamp(Instant desde) {
+        return Timestamp.from(desde != null ? desde : Instant.EPOCH);
+    }
+}
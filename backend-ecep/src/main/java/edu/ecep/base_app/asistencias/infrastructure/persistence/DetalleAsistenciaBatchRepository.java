@@ -0,0 +1,89 @@
+package edu.ecep.base_app.asistencias.infrastructure.persistence;
+
+import edu.ecep.base_app.asistencias.domain.enums.EstadoAsistencia;
+import edu.ecep.base_app.asistencias.presentation.dto.DetalleAsistenciaBulkItemDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Escritura masiva de detalles vía JDBC batch.
+ * Los detalles usan IDENTITY, por lo que Hibernate no puede agrupar los INSERT;
+ * acá se envía toda la planilla en lotes con un único upsert por fila. Las columnas de
+ * auditoría se completan con el mismo {@link AuditorAware} que usa JPA.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DetalleAsistenciaBatchRepository {
+
+    static final int BATCH_SIZE = 100;
+
+    private static final String UPSERT_SQL = """
+        INSERT INTO detalles_asistencia
+            (jornada_id, matricula_id, estado, obs, activo, date_created, last_updated, created_by, modified_by)
+        VALUES (?, ?, ?, ?, true, ?, ?, ?, ?)
+        ON CONFLICT (jornada_id, matricula_id) DO UPDATE
+           SET estado = EXCLUDED.estado,
+               obs = EXCLUDED.obs,
+               activo = true,
+               fecha_eliminacion = NULL,
+               last_updated = EXCLUDED.last_updated,
+               modified_by = EXCLUDED.modified_by
+        """;
+
+    private static final String DETALLES_ACTIVOS_SQL = """
+        SELECT d.matricula_id, j.fecha, d.estado
+          FROM detalles_asistencia d
+          JOIN jornadas_asistencia j ON j.id = d.jornada_id
+         WHERE d.activo = true AND j.activo = true
+         ORDER BY d.matricula_id, j.fecha
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditorAware<String> auditorProvider;
+
+    public void upsert(Long jornadaId, List<DetalleAsistenciaBulkItemDTO> detalles) {
+        Timestamp now = Timestamp.from(Instant.now());
+        String auditor = auditorProvider.getCurrentAuditor().orElse(null);
+        jdbcTemplate.batchUpdate(UPSERT_SQL, detalles, BATCH_SIZE, (ps, d) -> {
+            ps.setLong(1, jornadaId);
+            ps.setLong(2, d.getMatriculaId());
+            ps.setString(3, d.getEstado().name());
+            ps.setString(4, d.getObservacion());
+            ps.setTimestamp(5, now);
+            ps.setTimestamp(6, now);
+            ps.setString(7, auditor);
+            ps.setString(8, auditor);
+        });
+    }
+
+    /**
+     * Recorre todos los detalles activos ordenados por matrícula y fecha sin materializarlos.
+     * Debe llamarse dentro de una transacción para que el driver respete el fetch size.
+     */
+    public void recorrerActivos(DetalleActivoHandler handler) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(DETALLES_ACTIVOS_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(BATCH_SIZE * 10);
+            return ps;
+        }, (RowCallbackHandler) rs -> handler.accept(
+                rs.getLong(1),
+                rs.getDate(2).toLocalDate(),
+                EstadoAsistencia.valueOf(rs.getString(3))));
+    }
+
+    @FunctionalInterface
+    public interface DetalleActivoHandler {
+        void accept(Long matriculaId, LocalDate fecha, EstadoAsistencia estado);
+    }
+}
@@ -0,0 +1,100 @@
+package edu.ecep.base_app.asistencias.infrastructure.persistence;
+
+import edu.ecep.base_app.asistencias.domain.enums.EstadoAsistencia;
+import edu.ecep.base_app.shared.domain.enums.NivelAcademico;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Lectura de detalles para exportación: un único SELECT recorrido con cursor de sólo avance,
+ * sin pasar por entidades ni mappers.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DetalleAsistenciaExportRepository {
+
+    static final int FETCH_SIZE = 1000;
+
+    private static final String SELECT_SQL = """
+        SELECT j.fecha, s.nivel, s.grado_sala, s.division, s.turno,
+               p.dni, p.apellido, p.nombre, d.estado, d.obs
+          FROM detalles_asistencia d
+          JOIN jornadas_asistencia j ON j.id = d.jornada_id
+          JOIN secciones s ON s.id = j.seccion_id
+          JOIN matriculas m ON m.id = d.matricula_id
+          JOIN personas p ON p.id = m.alumno_id
+         WHERE d.activo = true AND j.activo = true
+        """;
+
+    private static final String ORDER_SQL = """
+         ORDER BY j.fecha, s.nivel, s.grado_sala, s.division, p.apellido, p.nombre
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Entrega cada fila al consumer a medida que llega del driver.
+     * Debe llamarse dentro de una transacción para que el driver respete el fetch size.
+     */
+    public void recorrer(Filtro filtro, Consumer<Fila> consumer) {
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        List<Object> params = new ArrayList<>();
+        if (filtro.periodoEscolarId() != null) {
+            sql.append(" AND s.periodo_escolar_id = ?");
+            params.add(filtro.periodoEscolarId());
+        }
+        if (filtro.seccionId() != null) {
+            sql.append(" AND s.id = ?");
+            params.add(filtro.seccionId());
+        }
+        if (filtro.nivel() != null) {
+            sql.append(" AND s.nivel = ?");
+            params.add(filtro.nivel().name());
+        }
+        if (filtro.from() != null) {
+            sql.append(" AND j.fecha >= ?");
+            params.add(Date.valueOf(filtro.from()));
+        }
+        if (filtro.to() != null) {
+            sql.append(" AND j.fecha <= ?");
+            params.add(Date.valueOf(filtro.to()));
+        }
+        sql.append(ORDER_SQL);
+
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql.toString(),
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(FETCH_SIZE);
+            for (int i = 0; i < params.size(); i++) {
+                ps.setObject(i + 1, params.get(i));
+            }
+            return ps;
+        }, (RowCallbackHandler) rs -> consumer.accept(new Fila(
+                rs.getDate(1).toLocalDate(),
+                NivelAcademico.valueOf(rs.getString(2)),
+                rs.getString(3),
+                rs.getString(4),
+                rs.getString(5),
+                rs.getString(6),
+                rs.getString(7),
+                rs.getString(8),
+                EstadoAsistencia.valueOf(rs.getString(9)),
+                rs.getString(10))));
+    }
+
+    public record Filtro(Long periodoEscolarId, Long seccionId, NivelAcademico nivel,
+                         LocalDate from, LocalDate to) {}
+
+    public record Fila(LocalDate fecha, NivelAcademico nivel, String gradoSala, String division, String turno,
+                       String dni, String apellido, String nombre, EstadoAsistencia estado, String observacion) {}
+}
@@ -1,13 +1,15 @@
 package edu.ecep.base_app.asistencias.infrastructure.persistence;
 
 import edu.ecep.base_app.asistencias.domain.DetalleAsistencia;
-import edu.ecep.base_app.asistencias.presentation.dto.AsistenciaAcumuladoDTO;
+import edu.ecep.base_app.asistencias.domain.enums.EstadoAsistencia;
 import edu.ecep.base_app.asistencias.presentation.dto.AsistenciaAlumnoResumenDTO;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 public interface DetalleAsistenciaRepository extends JpaRepository<DetalleAsistencia, Long> {
@@ -15,6 +17,10 @@ public interface DetalleAsistenciaRepository extends JpaRepository<DetalleAsiste
 
     List<DetalleAsistencia> findByJornadaId(Long jornadaId);
 
+    List<DetalleAsistencia> findByJornadaIdAndActivoTrue(Long jornadaId);
+
+    List<DetalleAsistencia> findByJornadaIdAndMatriculaIdIn(Long jornadaId, Collection<Long> matriculaIds);
+
     @Query("SELECT d FROM DetalleAsistencia d " +
             "WHERE d.matricula.id = :matriculaId " +
             "AND d.jornada.fecha BETWEEN :from AND :to")
@@ -24,23 +30,36 @@ public interface DetalleAsistenciaRepository extends JpaRepository<DetalleAsiste
 
     List<DetalleAsistencia> findByMatriculaIdAndJornada_FechaBetween(Long matriculaId, LocalDate from, LocalDate to);
 
+    // Keyset por (jornada.fecha, id): la página arranca después del cursor, sin OFFSET ni COUNT.
+    // La cota "j.fecha >= :fecha" permite recorrer jornadas por índice desde la posición del cursor.
+    // Los CAST son necesarios para que Postgres pueda tipar los parámetros de fecha cuando llegan nulos.
     @Query("""
-        select new edu.ecep.base_app.asistencias.presentation.dto.AsistenciaAcumuladoDTO(
-            sum(case when d.estado = edu.ecep.base_app.asistencias.domain.enums.EstadoAsistencia.PRESENTE then 1 else 0 end),
-            sum(case when d.estado = edu.ecep.base_app.asistencias.domain.enums.EstadoAsistencia.AUSENTE then 1 else 0 end),
-            sum(case when d.estado = edu.ecep.base_app.asistencias.domain.enums.EstadoAsistencia.TARDE then 1 else 0 end),
-            sum(case when d.estado = edu.ecep.base_app.asistencias.domain.enums.EstadoAsistencia.RETIRO_ANTICIPADO then 1 else 0 end),
-            count(d.id)
-        )
-        from DetalleAsistencia d
-             join d.jornada j
-        where j.seccion.id = :seccionId
-          and j.fecha between :from and :to
-    """)
-    AsistenciaAcumuladoDTO acumuladoSeccion(@Param("seccionId") Long seccionId,
-                                            @Param("from") LocalDate from,
-                                            @Param("to") LocalDate to);
+        SELECT d FROM DetalleAsistencia d JOIN FETCH d.jornada j
+         WHERE d.activo = true AND j.activo = true
+           AND (:matriculaId IS NULL OR d.matricula.id = :matriculaId)
+           AND (:seccionId IS NULL OR j.seccion.id = :seccionId)
+           AND (CAST(:from AS LocalDate) IS NULL OR j.fecha >= :from)
+           AND (CAST(:to AS LocalDate) IS NULL OR j.fecha <= :to)
+           AND (CAST(:fecha AS LocalDate) IS NULL OR (j.fecha >= :fecha AND (j.fecha > :fecha OR d.id > :id)))
+         ORDER BY j.fecha, d.id
+        """)
+    List<DetalleAsistencia> scroll(@Param("matriculaId") Long matriculaId,
+                                   @Param("seccionId") Long seccionId,
+                                   @Param("from") LocalDate from,
+                                   @Param("to") LocalDate to,
+                                   @Param("fecha") LocalDate fecha,
+                                   @Param("id") Long id,
+                                   Limit limit);
 
+    @Query("SELECT j.fecha AS fecha, d.estado AS estado FROM DetalleAsistencia d JOIN d.jornada j " +
+            "WHERE d.matricula.id = :matriculaId " +
+            "AND j.fecha BETWEEN :from AND :to " +
+            "AND d.activo = true AND j.activo = true")
+    List<FechaEstadoProjection> findEstadosByMatriculaInRange(@Param("matriculaId") Long matriculaId,
+                                                              @Param("from") LocalDate from,
+                                                              @Param("to") LocalDate to);
+
+    // Agregado crudo: sólo se usa para los tramos de mes incompletos (ver AsistenciaQueryService)
     @Query("""
     select new edu.ecep.base_app.asistencias.presentation.dto.AsistenciaAlumnoResumenDTO(
         m.id,
@@ -60,6 +79,8 @@ public interface DetalleAsistenciaRepository extends JpaRepository<DetalleAsiste
       join d.jornada j
     where j.seccion.id = :seccionId
       and j.fecha between :from and :to
+      and d.activo = true
+      and j.activo = true
     group by m.id, a.id, p.nombre, p.apellido
     order by p.apellido, p.nombre
   """)
@@ -67,4 +88,10 @@ public interface DetalleAsistenciaRepository extends JpaRepository<DetalleAsiste
             @Param("seccionId") Long seccionId,
             @Param("from") LocalDate from,
             @Param("to") LocalDate to
-    );}
+    );
+
+    interface FechaEstadoProjection {
+        LocalDate getFecha();
+        EstadoAsistencia getEstado();
+    }
+}
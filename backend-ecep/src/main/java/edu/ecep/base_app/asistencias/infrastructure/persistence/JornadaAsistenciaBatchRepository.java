@@ -0,0 +1,44 @@
+package edu.ecep.base_app.asistencias.infrastructure.persistence;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Apertura masiva de jornadas: un único INSERT ... SELECT sobre las secciones activas del período.
+ * Las secciones que ya tienen jornada para la fecha (aunque esté dada de baja) se saltean por la
+ * restricción única (seccion_id, fecha), así que puede ejecutarse en varios nodos o más de una vez.
+ * Las columnas de auditoría se completan con el mismo {@link AuditorAware} que usa JPA; en la
+ * apertura programada no hay usuario y quedan vacías.
+ */
+@Repository
+@RequiredArgsConstructor
+public class JornadaAsistenciaBatchRepository {
+
+    private static final String ABRIR_SQL = """
+        INSERT INTO jornadas_asistencia
+            (seccion_id, trimestre_id, fecha, activo, date_created, last_updated, created_by, modified_by)
+        SELECT s.id, ?, ?, true, ?, ?, ?, ?
+          FROM secciones s
+         WHERE s.periodo_escolar_id = ?
+           AND s.activo = true
+        ON CONFLICT (seccion_id, fecha) DO NOTHING
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditorAware<String> auditorProvider;
+
+    /** Devuelve la cantidad de jornadas creadas. */
+    public int abrirParaPeriodo(Long periodoEscolarId, Long trimestreId, LocalDate fecha) {
+        Timestamp now = Timestamp.from(Instant.now());
+        String auditor = auditorProvider.getCurrentAuditor().orElse(null);
+        return jdbcTemplate.update(ABRIR_SQL, trimestreId, Date.valueOf(fecha), now, now, auditor, auditor,
+                periodoEscolarId);
+    }
+}
@@ -1,7 +1,7 @@
 package edu.ecep.base_app.asistencias.infrastructure.persistence;
 
 import edu.ecep.base_app.asistencias.domain.JornadaAsistencia;
-import edu.ecep.base_app.asistencias.presentation.dto.AsistenciaDiaDTO;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -20,23 +20,22 @@ public interface JornadaAsistenciaRepository extends JpaRepository<JornadaAsiste
     @Query("SELECT j FROM JornadaAsistencia j WHERE j.trimestre.id = :trimestreId")
     List<JornadaAsistencia> findByTrimestreId(@Param("trimestreId") Long trimestreId);
 
+    // Keyset por (fecha, id), ver DetalleAsistenciaRepository#scroll
     @Query("""
-        select new edu.ecep.base_app.asistencias.presentation.dto.AsistenciaDiaDTO(
-            j.fecha,
-            sum(case when d.estado = edu.ecep.base_app.asistencias.domain.enums.EstadoAsistencia.PRESENTE then 1 else 0 end),
-            sum(case when d.estado = edu.ecep.base_app.asistencias.domain.enums.EstadoAsistencia.AUSENTE then 1 else 0 end),
-            sum(case when d.estado = edu.ecep.base_app.asistencias.domain.enums.EstadoAsistencia.TARDE then 1 else 0 end),
-            sum(case when d.estado = edu.ecep.base_app.asistencias.domain.enums.EstadoAsistencia.RETIRO_ANTICIPADO then 1 else 0 end),
-            count(d.id)
-        )
-        from JornadaAsistencia j
-             left join DetalleAsistencia d on d.jornada.id = j.id
-        where j.seccion.id = :seccionId
-          and j.fecha between :from and :to
-        group by j.fecha
-        order by j.fecha desc
-    """)
-    List<AsistenciaDiaDTO> resumenDiario(@Param("seccionId") Long seccionId,
-                                         @Param("from") LocalDate from,
-                                         @Param("to") LocalDate to);
+        SELECT j FROM JornadaAsistencia j
+         WHERE j.activo = true
+           AND (:seccionId IS NULL OR j.seccion.id = :seccionId)
+           AND (:trimestreId IS NULL OR j.trimestre.id = :trimestreId)
+           AND (CAST(:from AS LocalDate) IS NULL OR j.fecha >= :from)
+           AND (CAST(:to AS LocalDate) IS NULL OR j.fecha <= :to)
+           AND (CAST(:fecha AS LocalDate) IS NULL OR (j.fecha >= :fecha AND (j.fecha > :fecha OR j.id > :id)))
+         ORDER BY j.fecha, j.id
+        """)
+    List<JornadaAsistencia> scroll(@Param("seccionId") Long seccionId,
+                                   @Param("trimestreId") Long trimestreId,
+                                   @Param("from") LocalDate from,
+                                   @Param("to") LocalDate to,
+                                   @Param("fecha") LocalDate fecha,
+                                   @Param("id") Long id,
+                                   Limit limit);
 }
@@ -0,0 +1,23 @@
+package edu.ecep.base_app.asistencias.presentation.dto;
+
+import edu.ecep.base_app.asistencias.domain.enums.TipoAlertaAsistencia;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AsistenciaAlertaDTO {
+    private TipoAlertaAsistencia tipo;
+    private Long matriculaId;
+    private String alumno;
+    private Long seccionId;
+    private LocalDate fecha;
+    private int ausentesConsecutivos;
+    private int tardes;
+    private double porcentaje; // presentes del trimestre
+    private String mensaje;
+}
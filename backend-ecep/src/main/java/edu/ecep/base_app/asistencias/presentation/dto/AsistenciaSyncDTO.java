@@ -0,0 +1,17 @@
+package edu.ecep.base_app.asistencias.presentation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Cambios desde el último token del cliente; el token devuelto se usa en la próxima sincronización
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AsistenciaSyncDTO {
+    String token;
+    List<JornadaSyncDTO> jornadas;
+    List<DetalleSyncDTO> detalles;
+}
@@ -0,0 +1,16 @@
+package edu.ecep.base_app.asistencias.presentation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConflictoSyncDTO {
+    Long jornadaId;
+    Long matriculaId;
+    /** MODIFICADO | ELIMINADO | JORNADA_INEXISTENTE | TRIMESTRE_CERRADO */
+    String motivo;
+    DetalleSyncDTO actual; // estado vigente en el servidor, si existe
+}
@@ -0,0 +1,21 @@
+package edu.ecep.base_app.asistencias.presentation.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Planilla completa de una jornada: una fila por matrícula
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DetalleAsistenciaBulkDTO {
+    @NotNull
+    Long jornadaId;
+    @NotEmpty
+    List<@Valid DetalleAsistenciaBulkItemDTO> detalles;
+}
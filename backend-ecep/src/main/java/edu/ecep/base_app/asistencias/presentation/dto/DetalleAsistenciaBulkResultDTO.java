@@ -0,0 +1,14 @@
+package edu.ecep.base_app.asistencias.presentation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DetalleAsistenciaBulkResultDTO {
+    private Long jornadaId;
+    private int creados;
+    private int actualizados;
+}
@@ -0,0 +1,18 @@
+package edu.ecep.base_app.asistencias.presentation.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Marcas tomadas sin conexión, posiblemente de varias jornadas
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DetalleOfflineDTO {
+    @NotEmpty
+    List<@Valid DetalleOfflineItemDTO> marcas;
+}
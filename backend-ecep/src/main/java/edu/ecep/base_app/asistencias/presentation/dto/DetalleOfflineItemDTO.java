@@ -0,0 +1,24 @@
+package edu.ecep.base_app.asistencias.presentation.dto;
+
+import edu.ecep.base_app.asistencias.domain.enums.EstadoAsistencia;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DetalleOfflineItemDTO {
+    @NotNull
+    Long jornadaId;
+    @NotNull
+    Long matriculaId;
+    @NotNull
+    EstadoAsistencia estado;
+    String observacion;
+    // versión del detalle que vio el cliente (null si lo marcó sin haberlo recibido)
+    OffsetDateTime version;
+}
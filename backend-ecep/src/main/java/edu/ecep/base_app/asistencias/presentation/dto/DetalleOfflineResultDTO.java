@@ -0,0 +1,16 @@
+package edu.ecep.base_app.asistencias.presentation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DetalleOfflineResultDTO {
+    private int aplicados;
+    private int sinCambios;
+    private List<ConflictoSyncDTO> conflictos;
+}
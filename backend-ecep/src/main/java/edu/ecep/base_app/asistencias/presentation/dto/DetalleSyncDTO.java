@@ -0,0 +1,21 @@
+package edu.ecep.base_app.asistencias.presentation.dto;
+
+import edu.ecep.base_app.asistencias.domain.enums.EstadoAsistencia;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DetalleSyncDTO {
+    Long id;
+    Long jornadaId;
+    Long matriculaId;
+    EstadoAsistencia estado;
+    String observacion;
+    boolean activo; // false: el detalle se dio de baja
+    OffsetDateTime version; // se devuelve tal cual al subir cambios offline
+}
@@ -0,0 +1,19 @@
+package edu.ecep.base_app.asistencias.presentation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FichadaImportResultDTO {
+    private long lineas;
+    private long fichadas;
+    private long descartadas; // líneas con formato inválido
+    private long sinEmpleado; // fichadas de legajos que no existen
+    private List<String> legajosDesconocidos; // muestra, no la lista completa
+    private int registros; // filas de asistencia_empleados creadas o actualizadas
+}
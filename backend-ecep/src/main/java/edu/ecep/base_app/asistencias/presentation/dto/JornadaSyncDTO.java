@@ -0,0 +1,20 @@
+package edu.ecep.base_app.asistencias.presentation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JornadaSyncDTO {
+    Long id;
+    Long seccionId;
+    Long trimestreId;
+    LocalDate fecha;
+    boolean activo; // false: la jornada se dio de baja y el cliente debe descartarla
+    OffsetDateTime version;
+}
@@ -2,13 +2,17 @@ package edu.ecep.base_app.asistencias.presentation.rest;
 
 import edu.ecep.base_app.asistencias.presentation.dto.AsistenciaEmpleadoDTO;
 import edu.ecep.base_app.asistencias.application.AsistenciaEmpleadoService;
+import edu.ecep.base_app.asistencias.application.FichadaImportService;
+import edu.ecep.base_app.asistencias.presentation.dto.FichadaImportResultDTO;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.util.List;
 
 
@@ -17,9 +21,12 @@ import java.util.List;
 public class AsistenciaEmpleadoResource {
 
     private final AsistenciaEmpleadoService asistenciaEmpleadoService;
+    private final FichadaImportService fichadaImportService;
 
-    public AsistenciaEmpleadoResource(final AsistenciaEmpleadoService asistenciaEmpleadoService) {
+    public AsistenciaEmpleadoResource(final AsistenciaEmpleadoService asistenciaEmpleadoService,
+                                      final FichadaImportService fichadaImportService) {
         this.asistenciaEmpleadoService = asistenciaEmpleadoService;
+        this.fichadaImportService = fichadaImportService;
     }
 
     @GetMapping
@@ -41,6 +48,14 @@ public class AsistenciaEmpleadoResource {
         return new ResponseEntity<>(createdId, HttpStatus.CREATED);
     }
 
+    // Exportación del reloj de personal: el cuerpo se procesa a medida que llega
+    @PostMapping(value = "/fichadas", consumes = {MediaType.TEXT_PLAIN_VALUE, "text/csv",
+            MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    @PreAuthorize("hasAnyRole('ADMIN','DIRECTOR','SECRETARY')")
+    public ResponseEntity<FichadaImportResultDTO> importarFichadas(final InputStream body) {
+        return ResponseEntity.ok(fichadaImportService.importar(body));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Long> updateAsistenciaEmpleado(@PathVariable(name = "id") final Long id,
                                                     @RequestBody @Valid final AsistenciaEmpleadoDTO asistenciaEmpleadoDTO) {
@@ -0,0 +1,47 @@
+package edu.ecep.base_app.asistencias.presentation.rest;
+
+import edu.ecep.base_app.asistencias.application.AsistenciaExportService;
+import edu.ecep.base_app.asistencias.infrastructure.persistence.DetalleAsistenciaExportRepository.Filtro;
+import edu.ecep.base_app.shared.domain.enums.NivelAcademico;
+import edu.ecep.base_app.shared.export.FormatoExportacion;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/asistencias/export")
+@RequiredArgsConstructor
+public class AsistenciaExportController {
+
+    private final AsistenciaExportService service;
+
+    // Detalles de asistencia filtrados, escritos en streaming (formato=CSV|XLSX)
+    @GetMapping
+    @PreAuthorize("hasAnyRole('ADMIN','DIRECTOR','TEACHER','SECRETARY','COORDINATOR')")
+    public ResponseEntity<StreamingResponseBody> exportar(
+            @RequestParam(defaultValue = "CSV") FormatoExportacion formato,
+            @RequestParam(required = false) Long periodoEscolarId,
+            @RequestParam(required = false) Long seccionId,
+            @RequestParam(required = false) NivelAcademico nivel,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        Filtro filtro = new Filtro(periodoEscolarId, seccionId, nivel, from, to);
+        service.validar(filtro);
+
+        String archivo = "asistencia-" + LocalDate.now() + "." + formato.getExtension();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(formato.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(archivo).build().toString())
+                .body(out -> service.exportar(filtro, formato, out));
+    }
+}
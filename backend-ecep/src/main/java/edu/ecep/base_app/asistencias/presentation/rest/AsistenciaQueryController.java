@@ -46,6 +46,16 @@ public class AsistenciaQueryController {
         return service.acumuladoSeccion(seccionId, from, to);
     }
 
+    // Acumulado/porcentaje de un alumno en rango (índice bitmap)
+    @GetMapping("/matriculas/{matriculaId}/acumulado")
+    public AsistenciaAcumuladoDTO acumuladoMatricula(
+            @PathVariable Long matriculaId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return service.acumuladoMatricula(matriculaId, from, to);
+    }
+
     // Resumen por alumno (para la tabla)
     @GetMapping("/secciones/{seccionId}/alumnos-resumen")
     public List<AsistenciaAlumnoResumenDTO> resumenPorAlumno(
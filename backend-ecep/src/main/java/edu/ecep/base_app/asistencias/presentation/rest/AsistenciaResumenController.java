@@ -0,0 +1,35 @@
+package edu.ecep.base_app.asistencias.presentation.rest;
+
+import edu.ecep.base_app.asistencias.application.AsistenciaBitmapService;
+import edu.ecep.base_app.asistencias.application.AsistenciaResumenService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/asistencias/resumenes")
+@RequiredArgsConstructor
+public class AsistenciaResumenController {
+
+    private final AsistenciaResumenService service;
+    private final AsistenciaBitmapService bitmapService;
+
+    // Recalcula los resúmenes desde los detalles (p. ej. tras una carga directa en la base)
+    @PostMapping("/rebuild")
+    @PreAuthorize("hasAnyRole('ADMIN','DIRECTOR')")
+    public ResponseEntity<Void> rebuild() {
+        service.rebuild();
+        return ResponseEntity.noContent().build();
+    }
+
+    // Los bitmaps se arman solos al consultarlos; esto los regenera todos de una vez
+    @PostMapping("/bitmaps/rebuild")
+    @PreAuthorize("hasAnyRole('ADMIN','DIRECTOR')")
+    public ResponseEntity<Void> rebuildBitmaps() {
+        bitmapService.rebuild();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,40 @@
+package edu.ecep.base_app.asistencias.presentation.rest;
+
+import edu.ecep.base_app.asistencias.application.AsistenciaSyncService;
+import edu.ecep.base_app.asistencias.presentation.dto.AsistenciaSyncDTO;
+import edu.ecep.base_app.asistencias.presentation.dto.DetalleOfflineDTO;
+import edu.ecep.base_app.asistencias.presentation.dto.DetalleOfflineResultDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/asistencias/sync")
+@RequiredArgsConstructor
+@Validated
+public class AsistenciaSyncController {
+
+    private final AsistenciaSyncService service;
+
+    // Jornadas y detalles de la sección modificados desde el token (sin token: todo el rango)
+    @GetMapping
+    public AsistenciaSyncDTO cambios(
+            @RequestParam Long seccionId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String token) {
+        return service.cambios(seccionId, from, to, token);
+    }
+
+    // Marcas tomadas sin conexión; las que chocan con cambios del servidor vuelven como conflicto
+    @PostMapping("/detalles")
+    @PreAuthorize("hasAnyRole('ADMIN','DIRECTOR','TEACHER')")
+    public ResponseEntity<DetalleOfflineResultDTO> subir(@RequestBody @Validated DetalleOfflineDTO dto) {
+        return ResponseEntity.ok(service.subir(dto.getMarcas()));
+    }
+}
@@ -7,6 +7,7 @@ import edu.ecep.base_app.vidaescolar.domain.Matricula;
 import edu.ecep.base_app.asistencias.presentation.dto.*;
 import edu.ecep.base_app.asistencias.infrastructure.persistence.DetalleAsistenciaRepository;
 import edu.ecep.base_app.asistencias.application.DetalleAsistenciaService;
+import edu.ecep.base_app.shared.web.CursorPage;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -44,6 +45,12 @@ public class DetalleAsistenciaController {
         return new ResponseEntity<>(service.marcar(dto), HttpStatus.CREATED);
     }
 
+    @PostMapping("/bulk")
+    @PreAuthorize("hasAnyRole('ADMIN','DIRECTOR','TEACHER')")
+    public ResponseEntity<DetalleAsistenciaBulkResultDTO> marcarLote(@RequestBody @Validated DetalleAsistenciaBulkDTO dto) {
+        return ResponseEntity.ok(service.marcarLote(dto));
+    }
+
     @PatchMapping("/{id}")
     public ResponseEntity<Void> update(@PathVariable Long id,
                                        @RequestBody @Validated DetalleAsistenciaUpdateDTO dto) {
@@ -62,6 +69,19 @@ public class DetalleAsistenciaController {
         return service.search(jornadaId, matriculaId, from, to);
     }
 
+    // Paginación keyset por (fecha de jornada, id): pasar el nextCursor recibido para la página siguiente
+    @GetMapping("/scroll")
+    public CursorPage<DetalleAsistenciaDTO> scroll(
+            @RequestParam(required = false) Long matriculaId,
+            @RequestParam(required = false) Long seccionId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size
+    ) {
+        return service.scroll(matriculaId, seccionId, from, to, cursor, size);
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN','DIRECTOR','TEACHER')")
     public ResponseEntity<Void> delete(@PathVariable Long id) {
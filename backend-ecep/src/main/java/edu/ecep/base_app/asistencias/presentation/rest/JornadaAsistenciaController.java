@@ -14,6 +14,8 @@ import java.time.LocalDate;
 
 import edu.ecep.base_app.asistencias.presentation.dto.JornadaAsistenciaCreateDTO;
 import edu.ecep.base_app.asistencias.presentation.dto.JornadaAsistenciaDTO;
+import edu.ecep.base_app.asistencias.presentation.dto.JornadaSearchDTO;
+import edu.ecep.base_app.shared.web.CursorPage;
 import java.util.Collections;
 import java.util.List;
 
@@ -62,6 +64,18 @@ public class JornadaAsistenciaController {
         return service.findByTrimestre(trimestreId);
     }
 
+    // Paginación keyset por (fecha, id): pasar el nextCursor recibido para la página siguiente
+    @GetMapping("/scroll")
+    public CursorPage<JornadaAsistenciaDTO> scroll(
+            @RequestParam(required = false) Long seccionId,
+            @RequestParam(required = false) Long trimestreId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) {
+        return service.scroll(new JornadaSearchDTO(seccionId, trimestreId, from, to), cursor, size);
+    }
+
     // Abrir jornada
     @PreAuthorize("hasAnyRole('ADMIN','DIRECTOR','TEACHER','SECRETARY','COORDINATOR')")
     @PostMapping
@@ -69,6 +83,14 @@ public class JornadaAsistenciaController {
         return new ResponseEntity<>(service.abrir(dto), HttpStatus.CREATED);
     }
 
+    // Abrir las jornadas del día para todas las secciones (lo mismo que corre el scheduler)
+    @PreAuthorize("hasAnyRole('ADMIN','DIRECTOR')")
+    @PostMapping("/apertura")
+    public ResponseEntity<Integer> abrirTodas(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha) {
+        return ResponseEntity.ok(service.abrirTodas(fecha != null ? fecha : LocalDate.now()));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(@PathVariable Long id) {
         service.delete(id);
@@ -3,6 +3,9 @@ package edu.ecep.base_app.calendario.infrastructure.persistence;
 import edu.ecep.base_app.calendario.domain.DiaNoHabil;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.time.LocalDate;
+
 
 public interface DiaNoHabilRepository extends JpaRepository<DiaNoHabil, Long> {
+    boolean existsByFechaAndActivoTrue(LocalDate fecha);
 }
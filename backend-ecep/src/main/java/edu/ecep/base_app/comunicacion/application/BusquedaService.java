@@ -0,0 +1,116 @@
+package edu.ecep.base_app.comunicacion.application;
+
+import edu.ecep.base_app.comunicacion.infrastructure.persistence.BusquedaTexto.Posicion;
+import edu.ecep.base_app.comunicacion.infrastructure.persistence.BusquedaTexto.Resultado;
+import edu.ecep.base_app.comunicacion.infrastructure.persistence.ComunicadoEntregaRepository;
+import edu.ecep.base_app.comunicacion.infrastructure.persistence.ComunicadoRepository;
+import edu.ecep.base_app.comunicacion.infrastructure.persistence.MensajeBusquedaRepository;
+import edu.ecep.base_app.comunicacion.presentation.dto.BusquedaPaginaDTO;
+import edu.ecep.base_app.comunicacion.presentation.dto.ComunicadoEncontradoDTO;
+import edu.ecep.base_app.comunicacion.presentation.dto.MensajeEncontradoDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Búsqueda de texto sobre los mensajes de quien consulta y sobre los comunicados que recibió
+ * (o todos, para el personal). El alcance por persona lo resuelve el prefijo del índice de texto;
+ * los resultados vienen por relevancia con un fragmento del texto y un cursor para seguir.
+ */
+@Service
+@RequiredArgsConstructor
+public class BusquedaService {
+
+    public static final int MAX_PAGE = 50;
+    private static final int MAX_CONSULTA = 200;
+    private static final int LARGO_FRAGMENTO = 160;
+
+    private final MensajeBusquedaRepository mensajeBusquedaRepository;
+    private final ComunicadoEntregaRepository entregaRepository;
+    private final ComunicadoRepository comunicadoRepository;
+
+    public BusquedaPaginaDTO<MensajeEncontradoDTO> buscarMensajes(Long personaId, String consulta, String cursor, int size) {
+        String q = validar(consulta);
+        int limite = limite(size);
+        return pagina(mensajeBusquedaRepository.buscar(personaId, q, decodeCursor(cursor), limite + 1), limite,
+                r -> r.documento().getId(),
+                r -> new MensajeEncontradoDTO(r.documento().getMensajeId(), r.documento().getOtroId(),
+                        r.documento().getEmisorId(), r.documento().getFechaEnvio(),
+                        Fragmentos.de(r.documento().getContenido(), q, LARGO_FRAGMENTO), r.puntaje()));
+    }
+
+    /** Comunicados entregados a la persona. */
+    public BusquedaPaginaDTO<ComunicadoEncontradoDTO> buscarRecibidos(Long personaId, String consulta, String cursor, int size) {
+        String q = validar(consulta);
+        int limite = limite(size);
+        return pagina(entregaRepository.buscar(personaId, q, decodeCursor(cursor), limite + 1), limite,
+                r -> r.documento().getId(),
+                r -> new ComunicadoEncontradoDTO(r.documento().getComunicadoId(), r.documento().getTitulo(),
+                        Fragmentos.de(r.documento().getCuerpo(), q, LARGO_FRAGMENTO),
+                        r.documento().getFechaEntrega(), r.puntaje()));
+    }
+
+    /** Todos los comunicados activos, publicados o no. */
+    public BusquedaPaginaDTO<ComunicadoEncontradoDTO> buscarComunicados(String consulta, String cursor, int size) {
+        String q = validar(consulta);
+        int limite = limite(size);
+        return pagina(comunicadoRepository.buscar(q, decodeCursor(cursor), limite + 1), limite,
+                r -> r.documento().getId(),
+                r -> new ComunicadoEncontradoDTO(r.documento().getId(), r.documento().getTitulo(),
+                        Fragmentos.de(r.documento().getCuerpo(), q, LARGO_FRAGMENTO),
+                        r.documento().getFechaPublicacion() != null
+                                ? r.documento().getFechaPublicacion() : r.documento().getDateCreated(),
+                        r.puntaje()));
+    }
+
+    // se pidió una fila más para saber si hay otra página
+    private static <T, D> BusquedaPaginaDTO<D> pagina(List<Resultado<T>> filas, int limite,
+                                                     Function<Resultado<T>, String> id,
+                                                     Function<Resultado<T>, D> mapper) {
+        boolean hayMas = filas.size() > limite;
+        List<Resultado<T>> visibles = hayMas ? filas.subList(0, limite) : filas;
+        String siguiente = null;
+        if (hayMas) {
+            Resultado<T> ultimo = visibles.get(visibles.size() - 1);
+            siguiente = encodeCursor(new Posicion(ultimo.puntaje(), id.apply(ultimo)));
+        }
+        return new BusquedaPaginaDTO<>(visibles.stream().map(mapper).toList(), siguiente);
+    }
+
+    private static String validar(String consulta) {
+        String q = consulta == null ? "" : consulta.strip();
+        if (q.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "La búsqueda no puede estar vacía");
+        }
+        if (q.length() > MAX_CONSULTA) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "La búsqueda es demasiado larga");
+        }
+        return q;
+    }
+
+    private static int limite(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE));
+    }
+
+    private static String encodeCursor(Posicion posicion) {
+        String raw = posicion.puntaje() + "|" + posicion.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Posicion decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) return null;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int i = raw.indexOf('|');
+            return new Posicion(Double.parseDouble(raw.substring(0, i)), raw.substring(i + 1));
+        } catch (RuntimeException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor inválido");
+        }
+    }
+}
@@ -1,21 +1,41 @@
 package edu.ecep.base_app.comunicacion.application;
 
+import edu.ecep.base_app.comunicacion.domain.Conversacion;
 import edu.ecep.base_app.comunicacion.domain.Mensaje;
+import edu.ecep.base_app.comunicacion.infrastructure.messaging.ChatMensajePublisher;
+import edu.ecep.base_app.comunicacion.infrastructure.persistence.ConversacionRepository;
+import edu.ecep.base_app.comunicacion.infrastructure.persistence.MensajeArchivoRepository;
+import edu.ecep.base_app.comunicacion.infrastructure.persistence.MensajeBusquedaRepository;
 import edu.ecep.base_app.comunicacion.infrastructure.persistence.MensajeRepository;
+import edu.ecep.base_app.comunicacion.presentation.dto.ChatHistoryPageDTO;
 import edu.ecep.base_app.comunicacion.presentation.dto.ChatMessageDTO;
+import edu.ecep.base_app.comunicacion.presentation.dto.ConversacionResumenDTO;
 import edu.ecep.base_app.comunicacion.presentation.dto.SendMessageRequest;
 import edu.ecep.base_app.identidad.domain.Persona;
 import edu.ecep.base_app.identidad.infrastructure.persistence.PersonaRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,13 +44,23 @@ import java.util.stream.Collectors;
 public class ChatService {
 
     private final MensajeRepository mensajeRepository;
+    private final ConversacionRepository conversacionRepository;
+    private final MensajeBusquedaRepository mensajeBusquedaRepository;
     private final PersonaRepository personaRepository;
     private final RedisTemplate<String, Object> redisTemplate;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final ChatMensajePublisher chatMensajePublisher;
+    private final MensajeArchivoRepository mensajeArchivoRepository;
 
-    private static final String CHANNEL = "chat";
-    private static final String ONLINE_USERS_KEY = "chat:online_users";
-    private static final String USER_LAST_SEEN_KEY = "chat:last_seen:";
+    // lo enviado antes de ahora - ventana puede estar en el archivo (ver RetencionMensajesService)
+    @Value("${app.chat.retencion.ventana:P180D}")
+    private Duration ventanaRetencion;
+
+    public static final int MAX_HISTORY_PAGE = 200;
+    public static final int MAX_INBOX_PAGE = 200;
+    static final int VISTA_PREVIA = 120;
+    // el índice sólo ordena por fecha: dentro de un empate el id deja el orden estable entre páginas
+    private static final Comparator<Mensaje> CRONOLOGICO =
+            Comparator.comparing(Mensaje::getFechaEnvio).thenComparing(Mensaje::getId);
 
     public Mensaje saveAndSend(SendMessageRequest request, Persona emisor) {
         if (request.getContenido() == null || request.getContenido().trim().isEmpty()) {
@@ -51,6 +81,8 @@ public class ChatService {
         mensaje.setLeido(false);
 
         Mensaje saved = mensajeRepository.save(mensaje);
+        registrarEnConversacion(saved);
+        indexarParaBusqueda(saved);
 
         ChatMessageDTO dto = toDto(saved);
         publishMessage(dto);
@@ -58,17 +90,64 @@ public class ChatService {
         return saved;
     }
 
+    /** Historial completo de los mensajes recientes; lo archivado sólo se lee desde {@link #getHistoryPage}. */
     public List<ChatMessageDTO> getHistory(Long userId, Long otherUserId) {
-        return mensajeRepository
-                .findConversation(userId, otherUserId)
-                .stream()
-                .map(this::toDto)
-                .sorted(Comparator.comparing(ChatMessageDTO::getFechaEnvio))
+        Conversacion conversacion = conversacion(userId, otherUserId);
+        return mensajeRepository.findConversation(userId, otherUserId).stream()
+                .map(m -> toDto(m, conversacion))
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Historial paginado por fecha de envío. Sin cursores devuelve los últimos mensajes;
+     * con {@code before} los anteriores a esa posición y con {@code after} los posteriores.
+     * Los mensajes con la misma fecha nunca quedan repartidos entre dos páginas, así el cursor
+     * puede ser sólo la fecha y la consulta se resuelve entera con chat_historial_idx.
+     * El archivo se consulta sólo cuando el cursor pasa más allá de los mensajes recientes.
+     */
+    public ChatHistoryPageDTO getHistoryPage(Long userId, Long otherUserId, String before, String after, int size) {
+        if (before != null && after != null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Usar 'before' o 'after', no ambos");
+        }
+        int limite = Math.max(1, Math.min(size, MAX_HISTORY_PAGE));
+        // marcas de agua (para 'leido') y hasta dónde hay archivo: una sola lectura por página
+        Conversacion conversacion = conversacion(userId, otherUserId);
+
+        if (after != null) {
+            Instant desde = decodeCursor(after);
+            List<Mensaje> filas = new ArrayList<>(archivadosPosteriores(conversacion, userId, otherUserId, desde, limite + 1));
+            if (filas.size() <= limite) {
+                filas.addAll(mensajeRepository.findConversationAfter(
+                        userId, otherUserId, desde, Limit.of(limite + 1 - filas.size())));
+            }
+            boolean hayMas = recortar(filas, limite, userId, otherUserId);
+            filas.sort(CRONOLOGICO);
+            String siguiente = filas.isEmpty() ? after : encodeCursor(filas.get(filas.size() - 1));
+            return new ChatHistoryPageDTO(filas.stream().map(m -> toDto(m, conversacion)).toList(), null, siguiente, hayMas);
+        }
+
+        List<Mensaje> filas = new ArrayList<>(before == null
+                ? mensajeRepository.findLastMessage(userId, otherUserId, PageRequest.of(0, limite + 1))
+                : mensajeRepository.findConversationBefore(userId, otherUserId, decodeCursor(before), Limit.of(limite + 1)));
+        if (filas.size() <= limite) {
+            // los recientes no alcanzan: sigue desde el más viejo devuelto (vienen de más nuevo a más viejo)
+            Instant borde = !filas.isEmpty() ? filas.get(filas.size() - 1).getFechaEnvio().toInstant()
+                    : before != null ? decodeCursor(before) : null;
+            filas.addAll(archivadosAnteriores(conversacion, userId, otherUserId, borde, limite + 1 - filas.size()));
+        }
+        boolean hayMas = recortar(filas, limite, userId, otherUserId);
+        filas.sort(CRONOLOGICO);
+        String anterior = hayMas ? encodeCursor(filas.get(0)) : null;
+        String siguiente = filas.isEmpty() ? null : encodeCursor(filas.get(filas.size() - 1));
+        return new ChatHistoryPageDTO(filas.stream().map(m -> toDto(m, conversacion)).toList(), anterior, siguiente, hayMas);
+    }
+
+    /**
+     * Marca como leída la conversación: una sola escritura sobre el resumen (contador en cero y
+     * marca de agua hasta el último mensaje), sin tocar los mensajes pendientes uno por uno.
+     */
     public void markRead(Long userId, Long otherUserId) {
-        mensajeRepository.markAsRead(userId, otherUserId);
+        conversacionRepository.marcarLeida(userId, otherUserId);
         try {
             redisTemplate.opsForValue().set(
                     "chat:last_read:" + userId + ":" + otherUserId,
@@ -79,84 +158,171 @@ public class ChatService {
         }
     }
 
+    /** Bandeja de chat: conversaciones de la persona, de la más reciente a la más vieja. */
+    public List<ConversacionResumenDTO> getInbox(Long userId, int size) {
+        int limite = Math.max(1, Math.min(size, MAX_INBOX_PAGE));
+        return conversacionRepository.findBandeja(userId, Limit.of(limite)).stream()
+                .map(c -> new ConversacionResumenDTO(c.otroParticipante(userId), c.getUltimoMensajeId(),
+                        c.getUltimoEmisorId(), c.getUltimoContenido(), c.getUltimaFecha(), c.noLeidosDe(userId)))
+                .toList();
+    }
+
     public Map<Long, Long> getUnreadCounts(Long userId) {
-        return mensajeRepository.aggregateUnreadCounts(userId)
-                .stream()
-                .collect(Collectors.toMap(
-                        MensajeRepository.UnreadCountProjection::getEmisorId,
-                        MensajeRepository.UnreadCountProjection::getCount
-                ));
+        return conversacionRepository.findContadores(userId).stream()
+                .filter(c -> c.noLeidosDe(userId) > 0)
+                .collect(Collectors.toMap(c -> c.otroParticipante(userId), c -> c.noLeidosDe(userId)));
     }
 
+    /** Personas con las que hay conversación, de la más reciente a la más vieja. */
     public List<Persona> getActiveChatUsers(Long userId) {
-        List<Long> activeUserIds = mensajeRepository.aggregateContactIds(userId).stream()
-                .map(MensajeRepository.ContactProjection::getPersonaId)
-                .toList();
-        return personaRepository.findAllById(activeUserIds);
+        List<Long> activeUserIds = getUserContacts(userId);
+        Map<Long, Persona> porId = personaRepository.findAllById(activeUserIds).stream()
+                .collect(Collectors.toMap(Persona::getId, Function.identity()));
+        return activeUserIds.stream().map(porId::get).filter(Objects::nonNull).toList();
     }
 
-    public void setUserOnline(Long userId) {
-        try {
-            redisTemplate.opsForSet().add(ONLINE_USERS_KEY, userId.toString());
-            redisTemplate.opsForValue().set(USER_LAST_SEEN_KEY + userId, System.currentTimeMillis());
-        } catch (Exception ex) {
-            log.warn("No se pudo registrar al usuario {} como online en Redis", userId, ex);
-        }
+    /** Regenera los resúmenes de conversación desde los mensajes. */
+    public void rebuildConversaciones() {
+        conversacionRepository.rebuild(VISTA_PREVIA);
+        log.info("Resúmenes de conversación regenerados");
+    }
+
+    /** Regenera las copias de búsqueda desde los mensajes. */
+    public void rebuildBusqueda() {
+        mensajeBusquedaRepository.rebuild();
+        log.info("Índice de búsqueda de mensajes regenerado");
     }
 
-    public void setUserOffline(Long userId) {
+    // al desplegar sobre una base con mensajes previos, los resúmenes se arman una sola vez
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializarConversaciones() {
         try {
-            redisTemplate.opsForSet().remove(ONLINE_USERS_KEY, userId.toString());
-            redisTemplate.opsForValue().set(USER_LAST_SEEN_KEY + userId, System.currentTimeMillis());
+            if (conversacionRepository.count() == 0 && mensajeRepository.count() > 0) {
+                rebuildConversaciones();
+            }
         } catch (Exception ex) {
-            log.warn("No se pudo registrar al usuario {} como offline en Redis", userId, ex);
+            log.warn("No se pudieron inicializar los resúmenes de conversación", ex);
         }
-    }
-
-    public Map<Long, Boolean> getOnlineStatus(List<Long> userIds) {
         try {
-            return userIds.stream()
-                    .collect(Collectors.toMap(
-                            id -> id,
-                            id -> Boolean.TRUE.equals(redisTemplate.opsForSet().isMember(ONLINE_USERS_KEY, id.toString()))
-                    ));
+            if (mensajeBusquedaRepository.count() == 0 && mensajeRepository.count() > 0) {
+                rebuildBusqueda();
+            }
         } catch (Exception ex) {
-            log.warn("No se pudo consultar el estado online en Redis, devolviendo todo como offline", ex);
-            return userIds.stream().collect(Collectors.toMap(id -> id, id -> Boolean.FALSE));
+            log.warn("No se pudo inicializar el índice de búsqueda de mensajes", ex);
         }
     }
 
+    /** Entrega lo recibido mientras la persona no tenía sesiones abiertas. */
+    public void entregarPendientes(Long userId) {
+        chatMensajePublisher.entregarPendientes(userId);
+    }
+
     public List<Long> getUserContacts(Long userId) {
-        return mensajeRepository.aggregateContactIds(userId).stream()
-                .map(MensajeRepository.ContactProjection::getPersonaId)
+        return conversacionRepository.findBandeja(userId, Limit.unlimited()).stream()
+                .map(c -> c.otroParticipante(userId))
                 .toList();
     }
 
     public ChatMessageDTO toDto(Mensaje mensaje) {
+        return toDto(mensaje, null);
+    }
+
+    /** {@code leido} combina el flag de los mensajes previos a las marcas de agua con la marca del receptor. */
+    public ChatMessageDTO toDto(Mensaje mensaje, Conversacion conversacion) {
         ChatMessageDTO dto = new ChatMessageDTO();
         dto.setId(mensaje.getId());
         dto.setEmisorId(mensaje.getEmisorId());
         dto.setReceptorId(mensaje.getReceptorId());
         dto.setContenido(mensaje.getContenido());
         dto.setFechaEnvio(mensaje.getFechaEnvio());
-        dto.setLeido(Boolean.TRUE.equals(mensaje.getLeido()));
+        dto.setLeido(Boolean.TRUE.equals(mensaje.getLeido())
+                || (conversacion != null && conversacion.leidoPor(mensaje.getReceptorId(), mensaje.getFechaEnvio())));
         return dto;
     }
 
-    private void publishMessage(ChatMessageDTO dto) {
+    /**
+     * Deja la página en {@code limite} filas (se pidió una más para saber si hay más). Si el corte
+     * cae en medio de mensajes con la misma fecha, se completa ese grupo para que el cursor siguiente
+     * no lo parta.
+     */
+    private boolean recortar(List<Mensaje> filas, int limite, Long userId, Long otherUserId) {
+        if (filas.size() <= limite) return false;
+        OffsetDateTime borde = filas.get(limite - 1).getFechaEnvio();
+        boolean empate = filas.get(limite).getFechaEnvio().isEqual(borde);
+        filas.subList(limite, filas.size()).clear();
+        if (empate) {
+            filas.removeIf(m -> m.getFechaEnvio().isEqual(borde));
+            filas.addAll(mensajeRepository.findConversationAt(userId, otherUserId, borde.toInstant()));
+            if (borde.toInstant().isBefore(horizonteRetencion())) {
+                filas.addAll(mensajeArchivoRepository.enFecha(userId, otherUserId, borde.toInstant()));
+            }
+        }
+        return true;
+    }
+
+    /** Archivados anteriores a {@code borde} (o los últimos, si es null), del más nuevo al más viejo. */
+    private List<Mensaje> archivadosAnteriores(Conversacion conversacion, Long userId, Long otherUserId, Instant borde, int limite) {
+        Instant hasta = archivadoHasta(conversacion);
+        if (hasta == null) return List.of();
+        // el archivo guarda milisegundos: 1 ms después del último incluye al último
+        Instant tope = hasta.plusMillis(1);
+        return mensajeArchivoRepository.buscar(userId, otherUserId,
+                borde == null || borde.isAfter(tope) ? tope : borde, true, limite);
+    }
+
+    /** Archivados posteriores a {@code desde}, del más viejo al más nuevo; sólo si el cursor quedó en el archivo. */
+    private List<Mensaje> archivadosPosteriores(Conversacion conversacion, Long userId, Long otherUserId, Instant desde, int limite) {
+        if (!desde.isBefore(horizonteRetencion())) return List.of();
+        Instant hasta = archivadoHasta(conversacion);
+        if (hasta == null || !desde.isBefore(hasta)) return List.of();
+        return mensajeArchivoRepository.buscar(userId, otherUserId, desde, false, limite);
+    }
+
+    private Conversacion conversacion(Long userId, Long otherUserId) {
+        return conversacionRepository.findById(Conversacion.idPara(userId, otherUserId)).orElse(null);
+    }
+
+    private static Instant archivadoHasta(Conversacion conversacion) {
+        return conversacion != null && conversacion.getArchivadoHasta() != null
+                ? conversacion.getArchivadoHasta().toInstant() : null;
+    }
+
+    private Instant horizonteRetencion() {
+        return Instant.now().minus(ventanaRetencion);
+    }
+
+    // el resumen es derivado (se puede regenerar): un fallo no debe tirar el envío ya guardado
+    private void registrarEnConversacion(Mensaje mensaje) {
         try {
-            redisTemplate.convertAndSend(CHANNEL, dto);
+            conversacionRepository.registrarMensaje(mensaje, VISTA_PREVIA);
         } catch (Exception ex) {
-            log.warn("No se pudo publicar el mensaje en Redis, usando envío directo", ex);
-            try {
-                messagingTemplate.convertAndSendToUser(
-                        dto.getReceptorId().toString(),
-                        "/queue/messages",
-                        dto
-                );
-            } catch (Exception fallbackEx) {
-                log.error("Falló el envío directo del mensaje {}", dto.getId(), fallbackEx);
-            }
+            log.warn("No se pudo actualizar el resumen de conversación del mensaje {}", mensaje.getId(), ex);
         }
     }
+
+    private void indexarParaBusqueda(Mensaje mensaje) {
+        try {
+            mensajeBusquedaRepository.indexar(mensaje);
+        } catch (Exception ex) {
+            log.warn("No se pudo indexar para búsqueda el mensaje {}", mensaje.getId(), ex);
+        }
+    }
+
+    private static String encodeCursor(Mensaje mensaje) {
+        String raw = Long.toString(mensaje.getFechaEnvio().toInstant().toEpochMilli());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Instant decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            return Instant.ofEpochMilli(Long.parseLong(raw));
+        } catch (RuntimeException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor inválido");
+        }
+    }
+
+    private void publishMessage(ChatMessageDTO dto) {
+        chatMensajePublisher.publicar(dto);
+    }
 }
@@ -0,0 +1,140 @@
+package edu.ecep.base_app.comunicacion.application;
+
+import edu.ecep.base_app.comunicacion.domain.Comunicado;
+import edu.ecep.base_app.comunicacion.domain.ComunicadoEntrega;
+import edu.ecep.base_app.comunicacion.infrastructure.mapper.ComunicadoMapper;
+import edu.ecep.base_app.comunicacion.infrastructure.messaging.ComunicadoPublisher;
+import edu.ecep.base_app.comunicacion.infrastructure.persistence.ComunicadoAudienciaRepository;
+import edu.ecep.base_app.comunicacion.infrastructure.persistence.ComunicadoEntregaRepository;
+import edu.ecep.base_app.comunicacion.infrastructure.persistence.ComunicadoRepository;
+import edu.ecep.base_app.comunicacion.presentation.dto.ComunicadoDTO;
+import edu.ecep.base_app.comunicacion.presentation.dto.ComunicadoLecturasDTO;
+import edu.ecep.base_app.comunicacion.presentation.dto.ComunicadoRecibidoDTO;
+import edu.ecep.base_app.shared.exception.NotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Entrega de comunicados: resuelve la audiencia en una consulta, escribe la bandeja de cada
+ * destinatario con inserciones en bloque y empuja el comunicado por STOMP a los conectados,
+ * todo por lotes. Las entradas guardan la confirmación de lectura de cada destinatario.
+ */
+@Service
+@Slf4j
+public class ComunicadoEntregaService {
+
+    public static final int MAX_BANDEJA_PAGE = 200;
+
+    private final ComunicadoRepository comunicadoRepo;
+    private final ComunicadoEntregaRepository entregaRepo;
+    private final ComunicadoAudienciaRepository audienciaRepo;
+    private final ComunicadoPublisher publisher;
+    private final ComunicadoMapper mapper;
+    private final int lote;
+
+    public ComunicadoEntregaService(ComunicadoRepository comunicadoRepo,
+                                    ComunicadoEntregaRepository entregaRepo,
+                                    ComunicadoAudienciaRepository audienciaRepo,
+                                    ComunicadoPublisher publisher,
+                                    ComunicadoMapper mapper,
+                                    @Value("${app.comunicados.entrega.lote:500}") int lote) {
+        this.comunicadoRepo = comunicadoRepo;
+        this.entregaRepo = entregaRepo;
+        this.audienciaRepo = audienciaRepo;
+        this.publisher = publisher;
+        this.mapper = mapper;
+        this.lote = Math.max(1, lote);
+    }
+
+    /**
+     * Publica el comunicado: lo marca como publicado y lo entrega a toda su audiencia.
+     * Es idempotente; volver a llamarlo sólo alcanza a quienes todavía no lo recibieron.
+     */
+    public void publicar(Comunicado comunicado) {
+        long inicio = System.nanoTime();
+        OffsetDateTime ahora = OffsetDateTime.now();
+        List<Long> audiencia = audienciaRepo.destinatarios(comunicado.getAlcance(), comunicado.getSeccionId(),
+                comunicado.getNivel(), ahora.toLocalDate());
+
+        List<Long> nuevos = new ArrayList<>(audiencia.size());
+        for (int i = 0; i < audiencia.size(); i += lote) {
+            nuevos.addAll(entregaRepo.insertarLote(comunicado,
+                    audiencia.subList(i, Math.min(i + lote, audiencia.size())), ahora));
+        }
+
+        // sólo los campos de publicación: una baja o edición hecha durante la entrega no se pisa
+        OffsetDateTime fechaPublicacion = comunicado.getFechaPublicacion() != null
+                ? comunicado.getFechaPublicacion() : ahora;
+        Comunicado publicado = comunicadoRepo
+                .marcarPublicado(comunicado.getId(), fechaPublicacion, audiencia.size())
+                .orElse(null);
+        if (publicado == null) {
+            // dado de baja mientras se entregaba: se quitan las entradas recién escritas
+            retirar(comunicado.getId());
+            log.info("Comunicado {} dado de baja durante la entrega; entradas retiradas", comunicado.getId());
+            return;
+        }
+        ComunicadoDTO dto = mapper.toDto(publicado);
+
+        // la bandeja ya quedó escrita: un fallo del push no pierde el comunicado
+        for (int i = 0; i < nuevos.size(); i += lote) {
+            try {
+                publisher.publicar(nuevos.subList(i, Math.min(i + lote, nuevos.size())), dto);
+            } catch (Exception ex) {
+                log.warn("No se pudo notificar un lote del comunicado {}", comunicado.getId(), ex);
+            }
+        }
+        log.info("Comunicado {} entregado a {} destinatarios ({} nuevos) en {} ms", comunicado.getId(),
+                audiencia.size(), nuevos.size(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    /** Mantiene el texto copiado en las entradas (búsqueda) al editar un comunicado ya entregado. */
+    public void actualizarTexto(Comunicado comunicado) {
+        if (comunicado.isPublicado()) entregaRepo.actualizarTexto(comunicado);
+    }
+
+    /** Quita las entradas de un comunicado dado de baja de todas las bandejas. */
+    public void retirar(String comunicadoId) {
+        entregaRepo.deleteByComunicadoId(comunicadoId);
+    }
+
+    public List<ComunicadoRecibidoDTO> bandeja(Long personaId, int size) {
+        int limite = Math.max(1, Math.min(size, MAX_BANDEJA_PAGE));
+        List<ComunicadoEntrega> entregas =
+                entregaRepo.findByPersonaIdOrderByFechaEntregaDesc(personaId, Limit.of(limite));
+        Map<String, Comunicado> comunicados = comunicadoRepo
+                .findAllById(entregas.stream().map(ComunicadoEntrega::getComunicadoId).toList()).stream()
+                .filter(Comunicado::isActivo)
+                .collect(Collectors.toMap(Comunicado::getId, Function.identity()));
+        return entregas.stream()
+                .filter(e -> comunicados.containsKey(e.getComunicadoId()))
+                .map(e -> new ComunicadoRecibidoDTO(mapper.toDto(comunicados.get(e.getComunicadoId())),
+                        e.getFechaEntrega(), e.getFechaLectura()))
+                .toList();
+    }
+
+    public void marcarLeido(String comunicadoId, Long personaId) {
+        if (!entregaRepo.marcarLeido(comunicadoId, personaId, OffsetDateTime.now())
+                && !entregaRepo.existsByComunicadoIdAndPersonaId(comunicadoId, personaId)) {
+            throw new NotFoundException();
+        }
+    }
+
+    public ComunicadoLecturasDTO lecturas(String comunicadoId) {
+        comunicadoRepo.findByIdAndActivoTrue(comunicadoId).orElseThrow(NotFoundException::new);
+        List<ComunicadoLecturasDTO.Lectura> detalle = entregaRepo.findByComunicadoId(comunicadoId).stream()
+                .map(e -> new ComunicadoLecturasDTO.Lectura(e.getPersonaId(), e.getFechaEntrega(), e.getFechaLectura()))
+                .toList();
+        long leidos = detalle.stream().filter(l -> l.getFechaLectura() != null).count();
+        return new ComunicadoLecturasDTO(comunicadoId, detalle.size(), leidos, detalle);
+    }
+}
@@ -0,0 +1,62 @@
+package edu.ecep.base_app.comunicacion.application;
+
+import edu.ecep.base_app.comunicacion.domain.Comunicado;
+import edu.ecep.base_app.comunicacion.infrastructure.persistence.ComunicadoRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Optional;
+
+/**
+ * Publica los comunicados programados cuando llega su fecha. Cada pasada reclama uno por vez con
+ * findAndModify (ver {@link ComunicadoRepository#reclamarVencido}), así varias instancias pueden
+ * correr el planificador sin publicar dos veces; si un nodo se cae a mitad de una entrega, al
+ * vencer su turno otro la retoma y la entrega completa sólo a quienes faltaban.
+ */
+@Service
+@Slf4j
+public class ComunicadoPublicacionService {
+
+    private final ComunicadoRepository repo;
+    private final ComunicadoEntregaService entregaService;
+    private final boolean habilitada;
+    private final Duration plazo;
+
+    public ComunicadoPublicacionService(ComunicadoRepository repo,
+                                        ComunicadoEntregaService entregaService,
+                                        @Value("${app.comunicados.publicacion.enabled:true}") boolean habilitada,
+                                        @Value("${app.comunicados.publicacion.reclamo:PT5M}") Duration plazo) {
+        this.repo = repo;
+        this.entregaService = entregaService;
+        this.habilitada = habilitada;
+        this.plazo = plazo;
+    }
+
+    @Scheduled(fixedDelayString = "${app.comunicados.publicacion.intervalo:PT5S}")
+    public void publicarVencidos() {
+        if (!habilitada) return;
+        Optional<Comunicado> siguiente;
+        while ((siguiente = reclamar()).isPresent()) {
+            Comunicado comunicado = siguiente.get();
+            try {
+                entregaService.publicar(comunicado);
+            } catch (Exception ex) {
+                // queda reclamado hasta que venza el turno y se reintenta en una pasada posterior
+                log.warn("No se pudo publicar el comunicado programado {}", comunicado.getId(), ex);
+            }
+        }
+    }
+
+    private Optional<Comunicado> reclamar() {
+        try {
+            return repo.reclamarVencido(OffsetDateTime.now(), plazo);
+        } catch (Exception ex) {
+            log.warn("No se pudieron consultar los comunicados programados", ex);
+            return Optional.empty();
+        }
+    }
+}
@@ -7,16 +7,31 @@ import edu.ecep.base_app.comunicacion.infrastructure.persistence.ComunicadoRepos
 import edu.ecep.base_app.comunicacion.presentation.dto.ComunicadoCreateDTO;
 import edu.ecep.base_app.comunicacion.presentation.dto.ComunicadoDTO;
 import edu.ecep.base_app.shared.exception.NotFoundException;
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.OffsetDateTime;
 import java.util.List;
 
 @Service
-@RequiredArgsConstructor
+@Slf4j
 public class ComunicadoService {
     private final ComunicadoRepository repo;
     private final ComunicadoMapper mapper;
+    private final ComunicadoEntregaService entregaService;
+    private final Duration plazo;
+
+    public ComunicadoService(ComunicadoRepository repo,
+                             ComunicadoMapper mapper,
+                             ComunicadoEntregaService entregaService,
+                             @Value("${app.comunicados.publicacion.reclamo:PT5M}") Duration plazo) {
+        this.repo = repo;
+        this.mapper = mapper;
+        this.entregaService = entregaService;
+        this.plazo = plazo;
+    }
 
     public List<ComunicadoDTO> findAll() {
         return repo.findByActivoTrueOrderByDateCreatedDesc().stream()
@@ -38,18 +53,36 @@ public class ComunicadoService {
             throw new IllegalArgumentException("Nivel requerido");
         }
         Comunicado entity = mapper.toEntity(dto);
-        return repo.save(entity).getId();
+        OffsetDateTime ahora = OffsetDateTime.now();
+        // los programados a futuro se publican cuando llega su fecha
+        boolean inmediato = entity.getFechaProgPublicacion() == null || !entity.getFechaProgPublicacion().isAfter(ahora);
+        if (inmediato) {
+            // queda vencido y reclamado por este pedido: si la entrega falla, el planificador la
+            // retoma al vencer el turno en lugar de dejarlo sin publicar
+            if (entity.getFechaProgPublicacion() == null) entity.setFechaProgPublicacion(ahora);
+            entity.setReclamadoHasta(ahora.plus(plazo));
+        }
+        entity = repo.save(entity);
+        if (inmediato) {
+            try {
+                entregaService.publicar(entity);
+            } catch (Exception ex) {
+                log.warn("No se pudo publicar el comunicado {}; lo reintenta el planificador", entity.getId(), ex);
+            }
+        }
+        return entity.getId();
     }
 
     public void update(String id, ComunicadoDTO dto) {
         Comunicado entity = repo.findByIdAndActivoTrue(id).orElseThrow(NotFoundException::new);
         mapper.update(entity, dto);
-        repo.save(entity);
+        entregaService.actualizarTexto(repo.save(entity));
     }
 
     public void delete(String id) {
         Comunicado entity = repo.findByIdAndActivoTrue(id).orElseThrow(NotFoundException::new);
         entity.markDeleted();
         repo.save(entity);
+        entregaService.retirar(id);
     }
 }
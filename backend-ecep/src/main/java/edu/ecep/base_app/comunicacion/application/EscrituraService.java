@@ -0,0 +1,147 @@
+package edu.ecep.base_app.comunicacion.application;
+
+import edu.ecep.base_app.comunicacion.presentation.dto.EscrituraEstadisticasDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Indicador "escribiendo" con coalescencia por (emisor, receptor). Los clientes lo emiten en cada
+ * tecla; al receptor llega a lo sumo un cambio de estado por {@code ventana}: los duplicados se
+ * descartan y los cambios dentro de la ventana quedan pendientes (gana el último) hasta que un
+ * barrido los envía. Si no llega actividad en {@code expiracion}, el servidor envía el
+ * "dejó de escribir" que el cliente no mandó.
+ */
+@Service
+@Slf4j
+public class EscrituraService {
+
+    public static final String DESTINO = "/queue/typing";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final long ventana;
+    private final long expiracion;
+
+    private final Map<Clave, Estado> estados = new ConcurrentHashMap<>();
+    private final LongAdder recibidos = new LongAdder();
+    private final LongAdder reenviados = new LongAdder();
+    private final LongAdder suprimidos = new LongAdder();
+    private final LongAdder expirados = new LongAdder();
+    private final TaskScheduler taskScheduler;
+    private ScheduledFuture<?> barrido;
+
+    public EscrituraService(SimpMessagingTemplate messagingTemplate,
+                            @Qualifier("taskScheduler") TaskScheduler taskScheduler,
+                            @Value("${app.chat.escritura.ventana:PT1S}") Duration ventana,
+                            @Value("${app.chat.escritura.expiracion:PT5S}") Duration expiracion) {
+        this.messagingTemplate = messagingTemplate;
+        this.taskScheduler = taskScheduler;
+        this.ventana = ventana.toMillis();
+        this.expiracion = expiracion.toMillis();
+    }
+
+    /** El período depende de la ventana, por eso se programa acá y no con {@code @Scheduled}. */
+    @PostConstruct
+    void iniciar() {
+        Duration periodo = Duration.ofMillis(Math.max(50, ventana / 2));
+        barrido = taskScheduler.scheduleWithFixedDelay(this::barrer, Instant.now().plus(periodo), periodo);
+    }
+
+    @PreDestroy
+    void detener() {
+        if (barrido != null) barrido.cancel(false);
+    }
+
+    public void recibir(Long emisorId, Long receptorId, boolean escribiendo) {
+        recibidos.increment();
+        long ahora = System.currentTimeMillis();
+        Clave clave = new Clave(emisorId, receptorId);
+        boolean[] enviar = {false};
+        estados.compute(clave, (k, e) -> {
+            Estado estado = e != null ? e : new Estado();
+            if (escribiendo) estado.ultimaActividad = ahora;
+            // el pendiente anterior queda reemplazado por este frame; el frame suma a lo sumo un
+            // suprimido aunque además repita el estado enviado
+            boolean suprimido = estado.pendiente != null;
+            estado.pendiente = null;
+            if (estado.enviado == escribiendo) {
+                suprimido = true;
+            } else if (ahora - estado.ultimoEnvio >= ventana) {
+                estado.enviado = escribiendo;
+                estado.ultimoEnvio = ahora;
+                enviar[0] = true;
+            } else {
+                estado.pendiente = escribiendo;
+            }
+            if (suprimido) suprimidos.increment();
+            return estado;
+        });
+        if (enviar[0]) reenviar(clave, escribiendo);
+    }
+
+    public EscrituraEstadisticasDTO estadisticas() {
+        return new EscrituraEstadisticasDTO(recibidos.sum(), reenviados.sum(), suprimidos.sum(),
+                expirados.sum(), estados.size());
+    }
+
+    void barrer() {
+        long ahora = System.currentTimeMillis();
+        for (Clave clave : estados.keySet()) {
+            Boolean[] enviar = {null};
+            estados.computeIfPresent(clave, (k, e) -> {
+                if (e.pendiente != null) {
+                    if (ahora - e.ultimoEnvio < ventana) return e;
+                    enviar[0] = e.pendiente;
+                    e.pendiente = null;
+                } else if (e.enviado && ahora - e.ultimaActividad >= expiracion) {
+                    enviar[0] = false;
+                    expirados.increment();
+                } else if (!e.enviado && ahora - e.ultimoEnvio >= expiracion) {
+                    return null;
+                } else {
+                    return e;
+                }
+                e.enviado = enviar[0];
+                e.ultimoEnvio = ahora;
+                return e;
+            });
+            if (enviar[0] != null) {
+                try {
+                    reenviar(clave, enviar[0]);
+                } catch (Exception ex) {
+                    log.warn("No se pudo reenviar el estado de escritura de {} a {}", clave.emisorId(), clave.receptorId(), ex);
+                }
+            }
+        }
+    }
+
+    private void reenviar(Clave clave, boolean escribiendo) {
+        reenviados.increment();
+        messagingTemplate.convertAndSendToUser(
+                String.valueOf(clave.receptorId()),
+                DESTINO,
+                Map.of("userId", clave.emisorId(), "typing", escribiendo)
+        );
+    }
+
+    private record Clave(Long emisorId, Long receptorId) {}
+
+    private static final class Estado {
+        private boolean enviado;
+        private long ultimoEnvio;
+        private long ultimaActividad;
+        private Boolean pendiente;
+    }
+}
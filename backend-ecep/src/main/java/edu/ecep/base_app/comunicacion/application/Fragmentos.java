@@ -0,0 +1,64 @@
+package edu.ecep.base_app.comunicacion.application;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Recorte del texto alrededor de la primera aparición de algún término de la consulta, sin
+ * distinguir mayúsculas ni acentos. Si ningún término aparece literalmente (el índice de texto
+ * compara raíces), se devuelve el comienzo del texto.
+ */
+final class Fragmentos {
+
+    private static final String ELIPSIS = "…";
+
+    private Fragmentos() {
+    }
+
+    static String de(String texto, String consulta, int largo) {
+        if (texto == null) return null;
+        if (texto.length() <= largo) return texto;
+
+        String normalizado = normalizar(texto);
+        int pos = -1;
+        for (String termino : terminos(consulta)) {
+            int i = normalizado.indexOf(termino);
+            if (i >= 0 && (pos < 0 || i < pos)) pos = i;
+        }
+
+        // cerca del final se corre la ventana hacia atrás para no devolver un recorte corto
+        int inicio = pos < 0 ? 0 : Math.max(0, Math.min(pos - largo / 3, texto.length() - largo));
+        // no cortar palabras al inicio
+        if (inicio > 0) {
+            int espacio = texto.indexOf(' ', inicio);
+            if (espacio >= 0 && espacio < pos) inicio = espacio + 1;
+        }
+        int fin = Math.min(texto.length(), inicio + largo);
+        if (fin < texto.length()) {
+            int espacio = texto.lastIndexOf(' ', fin);
+            if (espacio > inicio) fin = espacio;
+        }
+        return (inicio > 0 ? ELIPSIS : "") + texto.substring(inicio, fin).strip() + (fin < texto.length() ? ELIPSIS : "");
+    }
+
+    private static List<String> terminos(String consulta) {
+        // los términos negados ("-palabra") no pueden estar en el resultado
+        return Arrays.stream(consulta.split("\\s+"))
+                .filter(t -> !t.startsWith("-"))
+                .map(t -> normalizar(t).replaceAll("[^\\p{L}\\p{N}]", ""))
+                .filter(t -> t.length() >= 2)
+                .toList();
+    }
+
+    /** Minúsculas y sin diacríticos, carácter por carácter para conservar las posiciones. */
+    private static String normalizar(String s) {
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            String c = Normalizer.normalize(String.valueOf(s.charAt(i)), Normalizer.Form.NFD);
+            sb.append(Character.toLowerCase(c.charAt(0)));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,224 @@
+package edu.ecep.base_app.comunicacion.application;
+
+import edu.ecep.base_app.comunicacion.domain.GrupoLectura;
+import edu.ecep.base_app.comunicacion.domain.MensajeGrupo;
+import edu.ecep.base_app.comunicacion.domain.MiembrosGrupo;
+import edu.ecep.base_app.comunicacion.domain.enums.AlcanceComunicado;
+import edu.ecep.base_app.comunicacion.infrastructure.messaging.GrupoMensajePublisher;
+import edu.ecep.base_app.comunicacion.infrastructure.persistence.ComunicadoAudienciaRepository;
+import edu.ecep.base_app.comunicacion.infrastructure.persistence.GrupoLecturaRepository;
+import edu.ecep.base_app.comunicacion.infrastructure.persistence.GrupoMiembrosCacheRepository;
+import edu.ecep.base_app.comunicacion.infrastructure.persistence.GrupoMiembrosRepository;
+import edu.ecep.base_app.comunicacion.infrastructure.persistence.MensajeGrupoRepository;
+import edu.ecep.base_app.comunicacion.presentation.dto.GrupoHistorialDTO;
+import edu.ecep.base_app.comunicacion.presentation.dto.GrupoLecturaDTO;
+import edu.ecep.base_app.comunicacion.presentation.dto.GrupoResumenDTO;
+import edu.ecep.base_app.comunicacion.presentation.dto.MensajeGrupoDTO;
+import edu.ecep.base_app.gestionacademica.application.SeccionesVigentesDocenteService;
+import edu.ecep.base_app.gestionacademica.infrastructure.mapper.SeccionMapper;
+import edu.ecep.base_app.gestionacademica.infrastructure.persistence.AsignacionDocenteSeccionRepository;
+import edu.ecep.base_app.gestionacademica.infrastructure.persistence.SeccionRepository;
+import edu.ecep.base_app.gestionacademica.presentation.dto.SeccionDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Grupo de chat de cada sección: docentes con asignación vigente y familiares de los alumnos
+ * matriculados. Cada mensaje se guarda una vez y se difunde con una sola publicación; las lecturas
+ * son una marca de agua por miembro. La membresía se deriva de la base y se cachea en Redis un rato
+ * corto, así las altas y bajas de matrículas o asignaciones se reflejan sin invalidar a mano.
+ */
+@Service
+@Slf4j
+public class GrupoSeccionService {
+
+    public static final int MAX_HISTORY_PAGE = ChatService.MAX_HISTORY_PAGE;
+    public static final int MAX_NO_LEIDOS = 100;
+
+    private final MensajeGrupoRepository mensajeRepo;
+    private final GrupoLecturaRepository lecturaRepo;
+    private final GrupoMiembrosRepository miembrosRepo;
+    private final GrupoMiembrosCacheRepository miembrosCache;
+    private final ComunicadoAudienciaRepository audienciaRepo;
+    private final AsignacionDocenteSeccionRepository asignacionRepo;
+    private final SeccionesVigentesDocenteService seccionesDocente;
+    private final SeccionRepository seccionRepo;
+    private final SeccionMapper seccionMapper;
+    private final GrupoMensajePublisher publisher;
+    private final Duration ttlMiembros;
+    private final boolean familiasEscriben;
+
+    public GrupoSeccionService(MensajeGrupoRepository mensajeRepo,
+                               GrupoLecturaRepository lecturaRepo,
+                               GrupoMiembrosRepository miembrosRepo,
+                               GrupoMiembrosCacheRepository miembrosCache,
+                               ComunicadoAudienciaRepository audienciaRepo,
+                               AsignacionDocenteSeccionRepository asignacionRepo,
+                               SeccionesVigentesDocenteService seccionesDocente,
+                               SeccionRepository seccionRepo,
+                               SeccionMapper seccionMapper,
+                               GrupoMensajePublisher publisher,
+                               @Value("${app.chat.grupos.miembros-ttl:PT10M}") Duration ttlMiembros,
+                               @Value("${app.chat.grupos.familias-escriben:false}") boolean familiasEscriben) {
+        this.mensajeRepo = mensajeRepo;
+        this.lecturaRepo = lecturaRepo;
+        this.miembrosRepo = miembrosRepo;
+        this.miembrosCache = miembrosCache;
+        this.audienciaRepo = audienciaRepo;
+        this.asignacionRepo = asignacionRepo;
+        this.seccionesDocente = seccionesDocente;
+        this.seccionRepo = seccionRepo;
+        this.seccionMapper = seccionMapper;
+        this.publisher = publisher;
+        this.ttlMiembros = ttlMiembros;
+        this.familiasEscriben = familiasEscriben;
+    }
+
+    /** Grupos de la persona (como docente o como familiar) con sus no leídos. */
+    public List<GrupoResumenDTO> grupos(Long personaId) {
+        LocalDate hoy = LocalDate.now();
+        Map<Long, SeccionDTO> secciones = new LinkedHashMap<>();
+        Set<Long> comoDocente = new HashSet<>();
+        for (SeccionDTO s : seccionesDocente.seccionesVigentes(personaId, hoy)) {
+            secciones.put(s.getId(), s);
+            comoDocente.add(s.getId());
+        }
+        List<Long> deHijos = miembrosRepo.seccionesDeFamiliar(personaId, hoy).stream()
+                .filter(id -> !secciones.containsKey(id))
+                .toList();
+        seccionRepo.findAllById(deHijos).forEach(s -> secciones.put(s.getId(), seccionMapper.toDto(s)));
+        if (secciones.isEmpty()) return List.of();
+
+        Map<Long, Long> marcas = lecturaRepo.findAllById(secciones.keySet().stream()
+                        .map(id -> GrupoLectura.idPara(id, personaId)).toList()).stream()
+                .filter(l -> l.getUltimaLeida() != null)
+                .collect(Collectors.toMap(GrupoLectura::getSeccionId, GrupoLectura::getUltimaLeida));
+        return secciones.values().stream()
+                .map(s -> new GrupoResumenDTO(s, comoDocente.contains(s.getId()),
+                        mensajeRepo.contarNoLeidos(s.getId(), marcas.get(s.getId()), personaId, MAX_NO_LEIDOS),
+                        marcas.get(s.getId())))
+                .toList();
+    }
+
+    public MensajeGrupoDTO enviar(Long seccionId, Long emisorId, String contenido) {
+        if (contenido == null || contenido.trim().isEmpty()) {
+            throw new IllegalArgumentException("El mensaje no puede estar vacío");
+        }
+        if (contenido.length() > 1000) {
+            throw new IllegalArgumentException("El mensaje es demasiado largo");
+        }
+        MiembrosGrupo miembros = exigirMiembro(seccionId, emisorId);
+        if (!familiasEscriben && !miembros.esDocente(emisorId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Sólo los docentes escriben en el grupo");
+        }
+
+        MensajeGrupo mensaje = new MensajeGrupo();
+        mensaje.setSeccionId(seccionId);
+        mensaje.setSecuencia(mensajeRepo.siguienteSecuencia(seccionId));
+        mensaje.setEmisorId(emisorId);
+        mensaje.setContenido(contenido.trim());
+        mensaje.setFechaEnvio(OffsetDateTime.now());
+        MensajeGrupo saved = mensajeRepo.save(mensaje);
+
+        // lo propio cuenta como leído
+        try {
+            lecturaRepo.avanzar(seccionId, emisorId, saved.getSecuencia());
+        } catch (Exception ex) {
+            log.warn("No se pudo avanzar la lectura de {} en el grupo {}", emisorId, seccionId, ex);
+        }
+        MensajeGrupoDTO dto = toDto(saved, false);
+        publisher.publicar(miembros.todos(), dto);
+        return dto;
+    }
+
+    /** Historial por secuencia: sin {@code before} los últimos mensajes, con él los anteriores. */
+    public GrupoHistorialDTO historial(Long seccionId, Long personaId, Long before, int size) {
+        exigirMiembro(seccionId, personaId);
+        int limite = Math.max(1, Math.min(size, MAX_HISTORY_PAGE));
+
+        List<MensajeGrupo> filas = new ArrayList<>(mensajeRepo.pagina(seccionId, before, limite + 1));
+        boolean hayMas = filas.size() > limite;
+        if (hayMas) filas.subList(limite, filas.size()).clear();
+        Collections.reverse(filas);
+
+        Long marca = lecturaRepo.findById(GrupoLectura.idPara(seccionId, personaId))
+                .map(GrupoLectura::getUltimaLeida)
+                .orElse(null);
+        List<MensajeGrupoDTO> mensajes = filas.stream()
+                .map(m -> toDto(m, personaId.equals(m.getEmisorId())
+                        || (marca != null && m.getSecuencia() != null && m.getSecuencia() <= marca)))
+                .toList();
+        return new GrupoHistorialDTO(mensajes, hayMas ? filas.get(0).getSecuencia() : null, hayMas, marca);
+    }
+
+    /** Lleva la marca de agua de la persona hasta el último mensaje del grupo. */
+    public void marcarLeido(Long seccionId, Long personaId) {
+        exigirMiembro(seccionId, personaId);
+        mensajeRepo.ultimaSecuencia(seccionId).ifPresent(s -> lecturaRepo.avanzar(seccionId, personaId, s));
+    }
+
+    /** Marca de agua de cada miembro; sólo para los docentes del grupo. */
+    public List<GrupoLecturaDTO> lecturas(Long seccionId, Long personaId) {
+        MiembrosGrupo miembros = exigirMiembro(seccionId, personaId);
+        if (!miembros.esDocente(personaId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Sólo los docentes ven las lecturas del grupo");
+        }
+        Map<Long, GrupoLectura> porPersona = lecturaRepo.findBySeccionId(seccionId).stream()
+                .collect(Collectors.toMap(GrupoLectura::getPersonaId, Function.identity()));
+        return miembros.todos().stream()
+                .map(id -> {
+                    GrupoLectura l = porPersona.get(id);
+                    return new GrupoLecturaDTO(id, miembros.esDocente(id),
+                            l != null ? l.getUltimaLeida() : null, l != null ? l.getFechaLectura() : null);
+                })
+                .toList();
+    }
+
+    public MiembrosGrupo miembros(Long seccionId) {
+        try {
+            var cached = miembrosCache.find(seccionId);
+            if (cached.isPresent()) return cached.get();
+        } catch (Exception ex) {
+            log.warn("No se pudo leer la caché de miembros del grupo {}", seccionId, ex);
+        }
+        LocalDate hoy = LocalDate.now();
+        MiembrosGrupo miembros = new MiembrosGrupo(
+                asignacionRepo.findEmpleadoIdsVigentesBySeccion(seccionId, hoy),
+                audienciaRepo.destinatarios(AlcanceComunicado.POR_SECCION, seccionId, null, hoy));
+        try {
+            miembrosCache.save(seccionId, miembros, ttlMiembros);
+        } catch (Exception ex) {
+            log.warn("No se pudo guardar la caché de miembros del grupo {}", seccionId, ex);
+        }
+        return miembros;
+    }
+
+    private MiembrosGrupo exigirMiembro(Long seccionId, Long personaId) {
+        MiembrosGrupo miembros = miembros(seccionId);
+        if (!miembros.contiene(personaId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "No es miembro del grupo de la sección");
+        }
+        return miembros;
+    }
+
+    private static MensajeGrupoDTO toDto(MensajeGrupo m, boolean leido) {
+        return new MensajeGrupoDTO(m.getId(), m.getSecuencia(), m.getSeccionId(), m.getEmisorId(), m.getContenido(),
+                m.getFechaEnvio(), leido);
+    }
+}
@@ -1,66 +1,161 @@
 package edu.ecep.base_app.comunicacion.application;
 
+import edu.ecep.base_app.comunicacion.domain.Conversacion;
 import edu.ecep.base_app.comunicacion.domain.Mensaje;
+import edu.ecep.base_app.comunicacion.infrastructure.persistence.ConversacionRepository;
+import edu.ecep.base_app.comunicacion.infrastructure.persistence.MensajeArchivoRepository;
+import edu.ecep.base_app.comunicacion.infrastructure.persistence.MensajeBusquedaRepository;
 import edu.ecep.base_app.comunicacion.infrastructure.persistence.MensajeRepository;
 import edu.ecep.base_app.comunicacion.presentation.dto.MensajeDTO;
 import edu.ecep.base_app.identidad.infrastructure.persistence.PersonaRepository;
 import edu.ecep.base_app.shared.exception.NotFoundException;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 @Service
+@Slf4j
 public class MensajeService {
 
     private final MensajeRepository mensajeRepository;
     private final PersonaRepository personaRepository;
+    private final MensajeBusquedaRepository mensajeBusquedaRepository;
+    private final ConversacionRepository conversacionRepository;
+    private final MensajeArchivoRepository mensajeArchivoRepository;
 
     public MensajeService(final MensajeRepository mensajeRepository,
-                          final PersonaRepository personaRepository) {
+                          final PersonaRepository personaRepository,
+                          final MensajeBusquedaRepository mensajeBusquedaRepository,
+                          final ConversacionRepository conversacionRepository,
+                          final MensajeArchivoRepository mensajeArchivoRepository) {
         this.mensajeRepository = mensajeRepository;
         this.personaRepository = personaRepository;
+        this.mensajeBusquedaRepository = mensajeBusquedaRepository;
+        this.conversacionRepository = conversacionRepository;
+        this.mensajeArchivoRepository = mensajeArchivoRepository;
     }
 
     public List<MensajeDTO> findAll() {
         final List<Mensaje> mensajes = mensajeRepository.findAll(Sort.by(Sort.Direction.ASC, "fechaEnvio"));
+        // las marcas de agua de todas las conversaciones en una sola consulta
+        final Map<String, Conversacion> conversaciones = new HashMap<>();
+        conversacionRepository.findAllById(mensajes.stream()
+                        .map(MensajeService::conversacionId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet()))
+                .forEach(c -> conversaciones.put(c.getId(), c));
         return mensajes.stream()
-                .map(mensaje -> mapToDTO(mensaje, new MensajeDTO()))
+                .map(mensaje -> mapToDTO(mensaje, conversaciones.get(conversacionId(mensaje)), new MensajeDTO()))
                 .toList();
     }
 
     public MensajeDTO get(final String id) {
-        return mensajeRepository.findById(id)
-                .map(mensaje -> mapToDTO(mensaje, new MensajeDTO()))
+        final Mensaje mensaje = mensajeRepository.findById(id)
+                .or(() -> mensajeArchivoRepository.porId(id))
                 .orElseThrow(NotFoundException::new);
+        final String conversacionId = conversacionId(mensaje);
+        final Conversacion conversacion = conversacionId != null
+                ? conversacionRepository.findById(conversacionId).orElse(null) : null;
+        return mapToDTO(mensaje, conversacion, new MensajeDTO());
     }
 
     public String create(final MensajeDTO mensajeDTO) {
         final Mensaje mensaje = new Mensaje();
         mapToEntity(mensajeDTO, mensaje);
-        return mensajeRepository.save(mensaje).getId();
+        final Mensaje saved = mensajeRepository.save(mensaje);
+        indexarParaBusqueda(saved);
+        // el resumen es derivado (se puede regenerar): un fallo no debe tirar el alta ya guardada
+        if (conversacionId(saved) != null && saved.getFechaEnvio() != null) {
+            try {
+                conversacionRepository.registrarMensaje(saved, ChatService.VISTA_PREVIA);
+            } catch (Exception ex) {
+                log.warn("No se pudo actualizar el resumen de conversación del mensaje {}", saved.getId(), ex);
+            }
+        }
+        return saved.getId();
     }
 
     public void update(final String id, final MensajeDTO mensajeDTO) {
-        final Mensaje mensaje = mensajeRepository.findById(id)
+        final Mensaje reciente = mensajeRepository.findById(id).orElse(null);
+        if (reciente != null) {
+            mapToEntity(mensajeDTO, reciente);
+            final Mensaje saved = mensajeRepository.save(reciente);
+            indexarParaBusqueda(saved);
+            actualizarVistaPrevia(saved);
+            return;
+        }
+        final Mensaje archivado = mensajeArchivoRepository.porId(id)
                 .orElseThrow(NotFoundException::new);
-        mapToEntity(mensajeDTO, mensaje);
-        mensajeRepository.save(mensaje);
+        final Instant fechaArchivada = archivado.getFechaEnvio().toInstant();
+        mapToEntity(mensajeDTO, archivado);
+        final Mensaje saved = mensajeArchivoRepository.actualizar(archivado, fechaArchivada);
+        indexarParaBusqueda(saved);
+        actualizarVistaPrevia(saved);
     }
 
     public void delete(final String id) {
-        mensajeRepository.findById(id).ifPresent(entity -> {
-            entity.markDeleted();
+        final Mensaje reciente = mensajeRepository.findById(id).orElse(null);
+        final Mensaje entity = reciente != null ? reciente : mensajeArchivoRepository.porId(id).orElse(null);
+        if (entity == null || !entity.isActivo()) return;
+        final Instant fechaEnvio = entity.getFechaEnvio() != null ? entity.getFechaEnvio().toInstant() : null;
+        entity.markDeleted();
+        if (reciente != null) {
             mensajeRepository.save(entity);
-        });
+        } else {
+            // el archivo no guarda bajas: vuelve a mensajes y la purga lo borra pasada la gracia
+            mensajeArchivoRepository.actualizar(entity, fechaEnvio);
+        }
+        try {
+            mensajeBusquedaRepository.deleteByMensajeId(id);
+        } catch (Exception ex) {
+            log.warn("No se pudo quitar del índice de búsqueda el mensaje {}", id, ex);
+        }
+        // después de guardar la baja: el reemplazo del último ya no debe encontrarlo
+        try {
+            conversacionRepository.quitarMensaje(entity, ChatService.VISTA_PREVIA);
+        } catch (Exception ex) {
+            log.warn("No se pudo actualizar el resumen de conversación al borrar el mensaje {}", id, ex);
+        }
+    }
+
+    // el índice de búsqueda es derivado (lo repara /busqueda/rebuild): un fallo no tira la escritura
+    private void indexarParaBusqueda(final Mensaje mensaje) {
+        try {
+            mensajeBusquedaRepository.indexar(mensaje);
+        } catch (Exception ex) {
+            log.warn("No se pudo indexar para búsqueda el mensaje {}", mensaje.getId(), ex);
+        }
+    }
+
+    private void actualizarVistaPrevia(final Mensaje mensaje) {
+        if (conversacionId(mensaje) == null) return;
+        try {
+            conversacionRepository.actualizarVistaPrevia(mensaje, ChatService.VISTA_PREVIA);
+        } catch (Exception ex) {
+            log.warn("No se pudo actualizar el resumen de conversación al editar el mensaje {}", mensaje.getId(), ex);
+        }
+    }
+
+    private static String conversacionId(final Mensaje mensaje) {
+        if (mensaje.getEmisorId() == null || mensaje.getReceptorId() == null) return null;
+        return Conversacion.idPara(mensaje.getEmisorId(), mensaje.getReceptorId());
     }
 
-    private MensajeDTO mapToDTO(final Mensaje mensaje, final MensajeDTO mensajeDTO) {
+    /** {@code leido} como en el chat: el flag de los mensajes viejos o la marca de agua del receptor. */
+    private MensajeDTO mapToDTO(final Mensaje mensaje, final Conversacion conversacion, final MensajeDTO mensajeDTO) {
         mensajeDTO.setId(mensaje.getId());
         mensajeDTO.setFechaEnvio(mensaje.getFechaEnvio());
         mensajeDTO.setAsunto(mensaje.getAsunto());
         mensajeDTO.setContenido(mensaje.getContenido());
-        mensajeDTO.setLeido(mensaje.getLeido());
+        mensajeDTO.setLeido(Boolean.TRUE.equals(mensaje.getLeido())
+                || (conversacion != null && conversacion.leidoPor(mensaje.getReceptorId(), mensaje.getFechaEnvio())));
         mensajeDTO.setEmisor(mensaje.getEmisorId());
         mensajeDTO.setReceptor(mensaje.getReceptorId());
         return mensajeDTO;
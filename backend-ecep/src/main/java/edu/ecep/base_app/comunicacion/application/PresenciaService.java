@@ -0,0 +1,255 @@
+package edu.ecep.base_app.comunicacion.application;
+
+import edu.ecep.base_app.comunicacion.infrastructure.messaging.ChatNodo;
+import edu.ecep.base_app.comunicacion.infrastructure.messaging.PresenciaPublisher;
+import edu.ecep.base_app.comunicacion.infrastructure.persistence.PresenciaRedisRepository;
+import edu.ecep.base_app.comunicacion.presentation.dto.PresenciaDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Presencia del chat por sesión. Cada nodo renueva con TTL corto las sesiones STOMP que atiende;
+ * una persona está online mientras tenga alguna sesión viva, así cerrar una pestaña no la
+ * desconecta y la caída de un nodo se detecta cuando vencen sus sesiones.
+ *
+ * <p>CONNECT y DISCONNECT sólo anotan la sesión en memoria: Redis, la búsqueda de contactos y los
+ * avisos corren en el scheduler compartido, por lotes cada {@code ventana} y de a una tarea por
+ * vez. Las personas con cambios se acumulan en un set, así la cola no crece con las reconexiones y
+ * un conectar/desconectar dentro de la misma ventana no genera ningún aviso.
+ */
+@Service
+@Slf4j
+public class PresenciaService {
+
+    private static final int MAX_CONTACTOS_EN_CACHE = 10_000;
+
+    private final PresenciaRedisRepository presenciaRepository;
+    private final ChatService chatService;
+    private final PresenciaPublisher publisher;
+    private final ChatNodo nodo;
+    private final Duration ttl;
+    private final Duration ventana;
+    private final Duration ttlContactos;
+    private final boolean configurarRedis;
+
+    // sesiones STOMP atendidas por este nodo: persona -> sesiones (lo escriben los hilos de entrada)
+    private final Map<Long, Set<String>> sesionesLocales = new ConcurrentHashMap<>();
+    // lo que este nodo ya registró en Redis: persona -> sesiones (sólo lo tocan renovar y procesarLote)
+    private final Map<Long, Set<String>> registradas = new HashMap<>();
+    private final Set<Long> porSincronizar = ConcurrentHashMap.newKeySet();
+    private final Set<Long> vencidas = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean loteProgramado = new AtomicBoolean();
+    private final Map<Long, ContactosCacheados> contactos = new ConcurrentHashMap<>();
+    private final TaskScheduler taskScheduler;
+
+    public PresenciaService(PresenciaRedisRepository presenciaRepository,
+                            ChatService chatService,
+                            PresenciaPublisher publisher,
+                            ChatNodo nodo,
+                            @Qualifier("taskScheduler") TaskScheduler taskScheduler,
+                            @Value("${app.chat.presencia.ttl:PT60S}") Duration ttl,
+                            @Value("${app.chat.presencia.ventana:PT0.5S}") Duration ventana,
+                            @Value("${app.chat.presencia.contactos-ttl:PT5M}") Duration ttlContactos,
+                            @Value("${app.chat.presencia.configurar-redis:true}") boolean configurarRedis) {
+        this.presenciaRepository = presenciaRepository;
+        this.chatService = chatService;
+        this.publisher = publisher;
+        this.nodo = nodo;
+        this.taskScheduler = taskScheduler;
+        this.ttl = ttl;
+        this.ventana = ventana;
+        this.ttlContactos = ttlContactos;
+        this.configurarRedis = configurarRedis;
+    }
+
+    public void conectar(Long personaId, String sesionId) {
+        sesionesLocales.compute(personaId, (id, sesiones) -> {
+            Set<String> res = sesiones != null ? sesiones : ConcurrentHashMap.newKeySet();
+            res.add(sesionId);
+            return res;
+        });
+        programar(porSincronizar, personaId);
+    }
+
+    public void desconectar(Long personaId, String sesionId) {
+        // el DISCONNECT llega dos veces (frame del cliente y cierre del socket)
+        AtomicBoolean quitada = new AtomicBoolean();
+        sesionesLocales.computeIfPresent(personaId, (id, sesiones) -> {
+            quitada.set(sesiones.remove(sesionId));
+            return sesiones.isEmpty() ? null : sesiones;
+        });
+        if (quitada.get()) programar(porSincronizar, personaId);
+    }
+
+    /** Venció la clave de presencia: ningún nodo renovó sesiones de la persona a tiempo. */
+    public void vencida(Long personaId) {
+        programar(vencidas, personaId);
+    }
+
+    /**
+     * Heartbeat del nodo: reintenta lo que no se pudo registrar y renueva todas sus sesiones;
+     * si el nodo se cae, vencen solas. Una persona que falla no frena la renovación del resto.
+     */
+    @Scheduled(fixedDelayString = "${app.chat.presencia.renovacion:PT20S}",
+            initialDelayString = "${app.chat.presencia.renovacion:PT20S}")
+    synchronized void renovar() {
+        Set<Long> personas = new HashSet<>(registradas.keySet());
+        personas.addAll(sesionesLocales.keySet());
+        for (Long personaId : personas) {
+            try {
+                sincronizar(personaId);
+            } catch (Exception ex) {
+                log.warn("No se pudo sincronizar la presencia de {} en Redis; se reintenta en la próxima renovación", personaId, ex);
+            }
+        }
+        try {
+            if (registradas.isEmpty()) return;
+            Map<Long, List<String>> porPersona = new LinkedHashMap<>();
+            registradas.forEach((persona, sesiones) -> porPersona.put(persona, List.copyOf(sesiones)));
+            presenciaRepository.renovar(nodo.getId(), porPersona, ttl);
+            long ahora = System.currentTimeMillis();
+            contactos.values().removeIf(c -> c.vence() < ahora);
+        } catch (Exception ex) {
+            log.warn("No se pudo renovar la presencia de {} personas en Redis", registradas.size(), ex);
+        }
+    }
+
+    public Map<Long, Boolean> getOnlineStatus(List<Long> personaIds) {
+        List<Long> ids = personaIds.stream().distinct().toList();
+        try {
+            return presenciaRepository.online(ids);
+        } catch (Exception ex) {
+            log.warn("No se pudo consultar el estado online en Redis, devolviendo todo como offline", ex);
+            return ids.stream().collect(Collectors.toMap(id -> id, id -> Boolean.FALSE));
+        }
+    }
+
+    /** Estado y última conexión de varias personas en dos round trips, sin importar cuántas sean. */
+    public Map<Long, PresenciaDTO> getPresence(List<Long> personaIds) {
+        List<Long> ids = personaIds.stream().distinct().toList();
+        Map<Long, PresenciaDTO> res = new LinkedHashMap<>();
+        if (ids.isEmpty()) return res;
+        try {
+            Map<Long, Boolean> online = presenciaRepository.online(ids);
+            List<Long> ultimas = presenciaRepository.ultimaVez(ids);
+            for (int i = 0; i < ids.size(); i++) {
+                res.put(ids.get(i), new PresenciaDTO(online.get(ids.get(i)), ultimas.get(i)));
+            }
+        } catch (Exception ex) {
+            log.warn("No se pudo consultar la presencia en Redis, devolviendo todo como offline", ex);
+            ids.forEach(id -> res.put(id, new PresenciaDTO(false, null)));
+        }
+        return res;
+    }
+
+    // los vencimientos sólo se publican si Redis tiene activados los eventos de keyspace
+    @EventListener(ApplicationReadyEvent.class)
+    public void configurarEventos() {
+        if (!configurarRedis) return;
+        try {
+            presenciaRepository.habilitarEventosDeVencimiento();
+        } catch (Exception ex) {
+            log.warn("No se pudo activar notify-keyspace-events en Redis; configurarlo con 'Ex' para detectar nodos caídos", ex);
+        }
+    }
+
+    private void programar(Set<Long> pendientes, Long personaId) {
+        pendientes.add(personaId);
+        if (loteProgramado.compareAndSet(false, true)) {
+            try {
+                taskScheduler.schedule(this::procesarLote, Instant.now().plus(ventana));
+            } catch (RejectedExecutionException ex) {
+                // el contexto se está cerrando; las sesiones vencen solas en Redis
+                loteProgramado.set(false);
+            }
+        }
+    }
+
+    synchronized void procesarLote() {
+        loteProgramado.set(false);
+        for (Long personaId : extraer(porSincronizar)) {
+            try {
+                sincronizar(personaId);
+            } catch (Exception ex) {
+                log.warn("No se pudo sincronizar la presencia de {} en Redis; se reintenta en la renovación", personaId, ex);
+            }
+        }
+        for (Long personaId : extraer(vencidas)) {
+            try {
+                if (presenciaRepository.reservarAviso(personaId)) avisar(personaId, false);
+            } catch (Exception ex) {
+                log.warn("No se pudo procesar el vencimiento de presencia de {}", personaId, ex);
+            }
+        }
+    }
+
+    /**
+     * Lleva a Redis la diferencia entre las sesiones locales de la persona y las ya registradas,
+     * y avisa sólo el cambio neto (online -> offline -> online en un mismo lote no avisa nada).
+     * Al registrar la primera sesión vuelve a drenar los pendientes: lo que otro nodo guardó
+     * mientras Redis todavía no listaba a este nodo no tiene que esperar a la próxima conexión.
+     */
+    private void sincronizar(Long personaId) {
+        Set<String> locales = Set.copyOf(sesionesLocales.getOrDefault(personaId, Set.of()));
+        Set<String> enRedis = registradas.computeIfAbsent(personaId, id -> new LinkedHashSet<>());
+        boolean ruteable = !enRedis.isEmpty();
+        Boolean cambio = null;
+        for (String sesion : locales) {
+            if (enRedis.contains(sesion)) continue;
+            if (presenciaRepository.registrar(personaId, nodo.getId(), sesion, ttl)) cambio = cambio == null ? Boolean.TRUE : null;
+            enRedis.add(sesion);
+        }
+        for (String sesion : new ArrayList<>(enRedis)) {
+            if (locales.contains(sesion)) continue;
+            if (presenciaRepository.quitar(personaId, nodo.getId(), sesion)) cambio = cambio == null ? Boolean.FALSE : null;
+            enRedis.remove(sesion);
+        }
+        if (enRedis.isEmpty()) registradas.remove(personaId);
+        else if (!ruteable) chatService.entregarPendientes(personaId);
+        if (cambio != null) avisar(personaId, cambio);
+    }
+
+    private void avisar(Long personaId, boolean online) {
+        presenciaRepository.marcarUltimaVez(personaId);
+        publisher.publicar(personaId, online, contactos(personaId));
+    }
+
+    // los contactos sólo crecen con la primera conversación: unos minutos de atraso en el aviso alcanzan
+    private List<Long> contactos(Long personaId) {
+        long ahora = System.currentTimeMillis();
+        ContactosCacheados c = contactos.get(personaId);
+        if (c != null && c.vence() > ahora) return c.ids();
+        List<Long> ids = chatService.getUserContacts(personaId);
+        if (contactos.size() < MAX_CONTACTOS_EN_CACHE) contactos.put(personaId, new ContactosCacheados(ids, ahora + ttlContactos.toMillis()));
+        return ids;
+    }
+
+    private static List<Long> extraer(Set<Long> pendientes) {
+        List<Long> lote = new ArrayList<>(pendientes);
+        pendientes.removeAll(lote);
+        return lote;
+    }
+
+    private record ContactosCacheados(List<Long> ids, long vence) {}
+}
@@ -0,0 +1,92 @@
+package edu.ecep.base_app.comunicacion.application;
+
+import edu.ecep.base_app.comunicacion.infrastructure.persistence.ConversacionRepository;
+import edu.ecep.base_app.comunicacion.infrastructure.persistence.MensajeArchivoRepository;
+import edu.ecep.base_app.comunicacion.presentation.dto.RetencionResultadoDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Mantiene chica la colección {@code mensajes}: mueve al archivo por mes lo enviado antes de la
+ * ventana configurada y borra definitivamente las bajas lógicas pasada la gracia. Cada lote se copia,
+ * se marca en las conversaciones y recién después se borra, así una pasada cortada se retoma en la
+ * siguiente sin perder ni duplicar. El historial y los rebuilds leen el archivo (ver {@link ChatService}).
+ */
+@Service
+@Slf4j
+public class RetencionMensajesService {
+
+    private static final String RESERVA_KEY = "chat:retencion:";
+
+    private final MensajeArchivoRepository archivo;
+    private final ConversacionRepository conversacionRepository;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final boolean habilitada;
+    private final Duration ventana;
+    private final Duration gracia;
+    private final int lote;
+    private final String compresion;
+
+    public RetencionMensajesService(MensajeArchivoRepository archivo,
+                                    ConversacionRepository conversacionRepository,
+                                    RedisTemplate<String, Object> redisTemplate,
+                                    @Value("${app.chat.retencion.enabled:true}") boolean habilitada,
+                                    @Value("${app.chat.retencion.ventana:P180D}") Duration ventana,
+                                    @Value("${app.chat.retencion.purga:P30D}") Duration gracia,
+                                    @Value("${app.chat.retencion.lote:1000}") int lote,
+                                    @Value("${app.chat.retencion.compresion:zstd}") String compresion) {
+        this.archivo = archivo;
+        this.conversacionRepository = conversacionRepository;
+        this.redisTemplate = redisTemplate;
+        this.habilitada = habilitada;
+        this.ventana = ventana;
+        this.gracia = gracia;
+        this.lote = Math.max(1, lote);
+        this.compresion = compresion;
+    }
+
+    /** Pasada nocturna; un solo nodo por día (si Redis no responde se corre igual: es idempotente). */
+    @Scheduled(cron = "${app.chat.retencion.cron:0 30 3 * * *}")
+    public void programada() {
+        if (!habilitada) return;
+        try {
+            if (!Boolean.TRUE.equals(redisTemplate.opsForValue()
+                    .setIfAbsent(RESERVA_KEY + LocalDate.now(), Boolean.TRUE, Duration.ofDays(1)))) return;
+        } catch (Exception ex) {
+            log.warn("Redis no disponible para reservar la retención de mensajes, se ejecuta sin reserva", ex);
+        }
+        try {
+            ejecutar();
+        } catch (Exception ex) {
+            log.warn("La retención de mensajes no terminó; se retoma en la próxima pasada", ex);
+        }
+    }
+
+    public RetencionResultadoDTO ejecutar() {
+        Instant ahora = Instant.now();
+        Instant limite = ahora.minus(ventana);
+
+        long purgados = archivo.purgar(ahora.minus(gracia));
+        long archivados = 0;
+        List<Document> pendientes;
+        while (!(pendientes = archivo.vencidos(limite, lote)).isEmpty()) {
+            archivo.copiar(pendientes, compresion);
+            conversacionRepository.marcarArchivados(pendientes, ChatService.VISTA_PREVIA);
+            archivados += archivo.quitar(pendientes);
+        }
+
+        log.info("Retención de mensajes: {} archivados (anteriores a {}), {} bajas purgadas", archivados, limite, purgados);
+        return new RetencionResultadoDTO(OffsetDateTime.ofInstant(limite, ZoneOffset.UTC), archivados, purgados);
+    }
+}
@@ -21,7 +21,8 @@ import java.time.OffsetDateTime;
 @Document(collection = "comunicados")
 @CompoundIndexes({
         @CompoundIndex(name = "alcance_activo_idx", def = "{ 'alcance': 1, 'activo': 1 }"),
-        @CompoundIndex(name = "seccion_activo_idx", def = "{ 'seccion_id': 1, 'activo': 1 }", sparse = true)
+        @CompoundIndex(name = "seccion_activo_idx", def = "{ 'seccion_id': 1, 'activo': 1 }", sparse = true),
+        @CompoundIndex(name = "publicacion_idx", def = "{ 'publicado': 1, 'fecha_prog_publicacion': 1 }")
 })
 public class Comunicado extends BaseDocument {
 
@@ -46,4 +47,15 @@ public class Comunicado extends BaseDocument {
 
     @Field("publicado")
     private boolean publicado = false;
+
+    @Field("fecha_publicacion")
+    private OffsetDateTime fechaPublicacion;
+
+    // cantidad de destinatarios resuelta al publicar
+    @Field("destinatarios")
+    private Integer destinatarios;
+
+    // vencimiento del turno de publicación tomado por un nodo; si se cae, otro lo retoma
+    @Field("reclamado_hasta")
+    private OffsetDateTime reclamadoHasta;
 }
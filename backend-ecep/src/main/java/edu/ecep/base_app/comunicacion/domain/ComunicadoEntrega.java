@@ -0,0 +1,59 @@
+package edu.ecep.base_app.comunicacion.domain;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Entrada de un comunicado en la bandeja de un destinatario, con su confirmación de lectura.
+ * El índice único por (comunicado, persona) hace idempotente la entrega: republicar sólo
+ * agrega a quienes todavía no lo tenían. Título y cuerpo se copian para que la búsqueda de
+ * texto quede acotada por {@code persona_id} en el propio índice.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Document(collection = "comunicado_entregas")
+@CompoundIndexes({
+        @CompoundIndex(name = "comunicado_persona_idx", def = "{ 'comunicado_id': 1, 'persona_id': 1 }", unique = true),
+        @CompoundIndex(name = "bandeja_idx", def = "{ 'persona_id': 1, 'fecha_entrega': -1 }")
+})
+public class ComunicadoEntrega {
+
+    @Id
+    private String id;
+
+    @Field("comunicado_id")
+    private String comunicadoId;
+
+    @Field("persona_id")
+    private Long personaId;
+
+    @Field("titulo")
+    private String titulo;
+
+    @Field("cuerpo")
+    private String cuerpo;
+
+    @Field("fecha_entrega")
+    private OffsetDateTime fechaEntrega;
+
+    // null = no leído
+    @Field("fecha_lectura")
+    private OffsetDateTime fechaLectura;
+
+    public ComunicadoEntrega(Comunicado comunicado, Long personaId, OffsetDateTime fechaEntrega) {
+        this.comunicadoId = comunicado.getId();
+        this.personaId = personaId;
+        this.titulo = comunicado.getTitulo();
+        this.cuerpo = comunicado.getCuerpo();
+        this.fechaEntrega = fechaEntrega;
+    }
+}
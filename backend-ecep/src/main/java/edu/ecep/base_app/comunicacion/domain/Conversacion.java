@@ -0,0 +1,78 @@
+package edu.ecep.base_app.comunicacion.domain;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Resumen de la conversación entre dos personas, mantenido en cada envío y lectura para
+ * armar la bandeja sin agregar sobre {@code mensajes}. El id es {@code "{menor}:{mayor}"}
+ * y los contadores de no leídos van por lado: {@code noLeidosMenor} son los pendientes
+ * de la persona con id menor. Las lecturas también: {@code leidoHastaMenor} es la marca de agua
+ * de esa persona, todo lo que recibió con fecha hasta ahí cuenta como leído. {@code archivadoHasta} es la fecha del mensaje más nuevo de la
+ * conversación que pasó al archivo (null si no tiene nada archivado).
+ */
+@Getter
+@Setter
+@Document(collection = "conversaciones")
+@CompoundIndex(name = "bandeja_idx", def = "{ 'participantes': 1, 'ultima_fecha': -1 }")
+public class Conversacion {
+
+    @Id
+    private String id;
+
+    // [menor, mayor]
+    @Field("participantes")
+    private List<Long> participantes;
+
+    @Field("ultimo_mensaje_id")
+    private String ultimoMensajeId;
+
+    @Field("ultimo_emisor_id")
+    private Long ultimoEmisorId;
+
+    @Field("ultimo_contenido")
+    private String ultimoContenido;
+
+    @Field("ultima_fecha")
+    private OffsetDateTime ultimaFecha;
+
+    @Field("no_leidos_menor")
+    private long noLeidosMenor;
+
+    @Field("no_leidos_mayor")
+    private long noLeidosMayor;
+
+    @Field("leido_hasta_menor")
+    private OffsetDateTime leidoHastaMenor;
+
+    @Field("leido_hasta_mayor")
+    private OffsetDateTime leidoHastaMayor;
+
+    @Field("archivado_hasta")
+    private OffsetDateTime archivadoHasta;
+
+    public static String idPara(Long personaA, Long personaB) {
+        return Math.min(personaA, personaB) + ":" + Math.max(personaA, personaB);
+    }
+
+    public Long otroParticipante(Long personaId) {
+        return participantes.get(0).equals(personaId) ? participantes.get(1) : participantes.get(0);
+    }
+
+    public long noLeidosDe(Long personaId) {
+        return participantes.get(0).equals(personaId) ? noLeidosMenor : noLeidosMayor;
+    }
+
+    /** Si {@code personaId} ya leyó lo recibido en {@code fecha}, según su marca de agua. */
+    public boolean leidoPor(Long personaId, OffsetDateTime fecha) {
+        OffsetDateTime marca = participantes.get(0).equals(personaId) ? leidoHastaMenor : leidoHastaMayor;
+        return marca != null && fecha != null && !fecha.isAfter(marca);
+    }
+}
@@ -0,0 +1,42 @@
+package edu.ecep.base_app.comunicacion.domain;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Marca de agua de lectura de un miembro en el grupo de una sección: leyó todo hasta la
+ * {@code secuencia} {@code ultimaLeida} inclusive. El id es {@code "{seccionId}:{personaId}"}.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Document(collection = "grupo_lecturas")
+@CompoundIndex(name = "grupo_idx", def = "{ 'seccion_id': 1 }")
+public class GrupoLectura {
+
+    @Id
+    private String id;
+
+    @Field("seccion_id")
+    private Long seccionId;
+
+    @Field("persona_id")
+    private Long personaId;
+
+    @Field("ultima_leida")
+    private Long ultimaLeida;
+
+    @Field("fecha_lectura")
+    private OffsetDateTime fechaLectura;
+
+    public static String idPara(Long seccionId, Long personaId) {
+        return seccionId + ":" + personaId;
+    }
+}
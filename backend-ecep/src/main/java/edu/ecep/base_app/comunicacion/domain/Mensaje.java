@@ -12,15 +12,17 @@ import org.springframework.data.mongodb.core.mapping.Field;
 import java.time.OffsetDateTime;
 
 /**
- * Documento Mongo que representa un mensaje del chat institucional.
+ * Documento Mongo que representa un mensaje del chat institucional. Sólo quedan acá los mensajes
+ * recientes: los más viejos que la ventana de retención se mueven a las colecciones de
+ * {@code MensajeArchivoRepository}.
  */
 @Getter
 @Setter
 @Document(collection = "mensajes")
 @CompoundIndexes({
         @CompoundIndex(name = "chat_historial_idx", def = "{ 'emisor_id': 1, 'receptor_id': 1, 'fecha_envio': 1 }"),
-        @CompoundIndex(name = "chat_unread_idx", def = "{ 'receptor_id': 1, 'leido': 1, 'activo': 1 }"),
-        @CompoundIndex(name = "chat_unread_pair_idx", def = "{ 'emisor_id': 1, 'receptor_id': 1, 'leido': 1 }")
+        @CompoundIndex(name = "retencion_idx", def = "{ 'fecha_envio': 1 }"),
+        @CompoundIndex(name = "purga_idx", def = "{ 'fecha_eliminacion': 1 }", partialFilter = "{ 'activo': false }")
 })
 public class Mensaje extends BaseDocument {
 
@@ -33,8 +35,8 @@ public class Mensaje extends BaseDocument {
     @Field("contenido")
     private String contenido;
 
+    // sólo se escribe al crear; las lecturas van como marca de agua en Conversacion
     @Field("leido")
-    @Indexed
     private Boolean leido;
 
     @Field("emisor_id")
@@ -0,0 +1,45 @@
+package edu.ecep.base_app.comunicacion.domain;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Copia del contenido de un mensaje por participante, para la búsqueda de texto. Un índice de
+ * texto sólo admite prefijos con igualdad sobre un campo escalar, y en {@code mensajes} cada
+ * documento pertenece a dos personas; acá hay uno por (mensaje, propietario) y el índice
+ * {@code (propietario_id, contenido)} limita la búsqueda a lo de quien consulta. El id es
+ * {@code "{mensajeId}:{propietarioId}"}; los índices de texto se crean en
+ * {@code MongoIndicesInitializer}.
+ */
+@Getter
+@Setter
+@Document(collection = "mensajes_busqueda")
+public class MensajeBusqueda {
+
+    @Id
+    private String id;
+
+    @Field("propietario_id")
+    private Long propietarioId;
+
+    // la otra persona de la conversación
+    @Field("otro_id")
+    private Long otroId;
+
+    @Field("mensaje_id")
+    private String mensajeId;
+
+    @Field("emisor_id")
+    private Long emisorId;
+
+    @Field("contenido")
+    private String contenido;
+
+    @Field("fecha_envio")
+    private OffsetDateTime fechaEnvio;
+}
@@ -0,0 +1,38 @@
+package edu.ecep.base_app.comunicacion.domain;
+
+import edu.ecep.base_app.shared.domain.BaseDocument;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Mensaje del grupo de una sección, guardado una sola vez para todos sus miembros. El historial
+ * y las marcas de lectura ({@link GrupoLectura}) se ordenan por {@code secuencia}, un contador
+ * por sección que se incrementa en Mongo al enviar: a diferencia del {@code _id}, que lleva el
+ * reloj del nodo que lo generó, no depende de qué nodo atendió cada envío.
+ */
+@Getter
+@Setter
+@Document(collection = "mensajes_grupo")
+@CompoundIndex(name = "grupo_secuencia_idx", def = "{ 'seccion_id': 1, 'secuencia': 1 }")
+public class MensajeGrupo extends BaseDocument {
+
+    @Field("seccion_id")
+    private Long seccionId;
+
+    @Field("secuencia")
+    private Long secuencia;
+
+    @Field("emisor_id")
+    private Long emisorId;
+
+    @Field("contenido")
+    private String contenido;
+
+    @Field("fecha_envio")
+    private OffsetDateTime fechaEnvio;
+}
@@ -0,0 +1,27 @@
+package edu.ecep.base_app.comunicacion.domain;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Miembros del grupo de una sección, derivados de las asignaciones docentes vigentes y de los
+ * familiares de los alumnos con matrícula activa en ella (ids de persona).
+ */
+public record MiembrosGrupo(List<Long> docentes, List<Long> familias) {
+
+    public boolean contiene(Long personaId) {
+        return docentes.contains(personaId) || familias.contains(personaId);
+    }
+
+    public boolean esDocente(Long personaId) {
+        return docentes.contains(personaId);
+    }
+
+    /** Todos, sin repetir (un docente puede ser además familiar de un alumno de la sección). */
+    public List<Long> todos() {
+        Set<Long> ids = new LinkedHashSet<>(docentes);
+        ids.addAll(familias);
+        return List.copyOf(ids);
+    }
+}
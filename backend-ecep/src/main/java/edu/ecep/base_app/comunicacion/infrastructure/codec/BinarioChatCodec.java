@@ -0,0 +1,305 @@
+package edu.ecep.base_app.comunicacion.infrastructure.codec;
+
+import edu.ecep.base_app.comunicacion.infrastructure.messaging.GrupoMensajePublisher.GrupoEnvio;
+import edu.ecep.base_app.comunicacion.infrastructure.messaging.PresenciaPublisher.PresenciaAviso;
+import edu.ecep.base_app.comunicacion.presentation.dto.ChatMessageDTO;
+import edu.ecep.base_app.comunicacion.presentation.dto.MensajeGrupoDTO;
+import org.bson.types.ObjectId;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Formato binario compacto. Cabecera de 3 bytes: {@link #MAGIA} (nunca es el primer byte de un
+ * JSON), versión de esquema y tipo de payload. Los enteros van como varint y los ids de Mongo
+ * en sus 12 bytes.
+ *
+ * <pre>
+ * v1 mensaje: flags(1) [id] [emisorId] [receptorId] [fechaEnvio] [contenido]
+ *   id          ObjectId(12) si flags&amp;ID_OBJECT_ID, si no texto
+ *   fechaEnvio  segundos epoch (zigzag) + nanos + offset en segundos (zigzag)
+ *   texto       largo en bytes (varint) + UTF-8
+ * v1 aviso:   flags(1) [personaId] cantidad(varint) destinatarios(varint...)
+ * v1 grupo:   flags(1) [id] [secuencia] [seccionId] [emisorId] [fechaEnvio] [contenido]
+ *             cantidad(varint) miembros(varint...)
+ * </pre>
+ *
+ * Un campo nuevo requiere subir {@link #VERSION} y seguir leyendo las versiones anteriores.
+ */
+public class BinarioChatCodec implements ChatCodec {
+
+    public static final byte MAGIA = (byte) 0xC5;
+    static final byte VERSION = 1;
+    private static final byte TIPO_MENSAJE = 1;
+    private static final byte TIPO_AVISO = 2;
+    private static final byte TIPO_GRUPO = 3;
+
+    private static final int ID = 1;
+    private static final int ID_OBJECT_ID = 1 << 1;
+    private static final int EMISOR = 1 << 2;
+    private static final int RECEPTOR = 1 << 3;
+    private static final int FECHA = 1 << 4;
+    private static final int CONTENIDO = 1 << 5;
+    private static final int LEIDO = 1 << 6;
+
+    private static final int PERSONA = 1;
+    private static final int ONLINE = 1 << 1;
+
+    private static final int G_ID = 1;
+    private static final int G_ID_OBJECT_ID = 1 << 1;
+    private static final int G_SECUENCIA = 1 << 2;
+    private static final int G_SECCION = 1 << 3;
+    private static final int G_EMISOR = 1 << 4;
+    private static final int G_FECHA = 1 << 5;
+    private static final int G_CONTENIDO = 1 << 6;
+    private static final int G_LEIDO = 1 << 7;
+
+    @Override
+    public byte[] codificar(ChatMessageDTO m) {
+        boolean objectId = m.getId() != null && ObjectId.isValid(m.getId());
+        int flags = (m.getId() != null ? ID : 0)
+                | (objectId ? ID_OBJECT_ID : 0)
+                | (m.getEmisorId() != null ? EMISOR : 0)
+                | (m.getReceptorId() != null ? RECEPTOR : 0)
+                | (m.getFechaEnvio() != null ? FECHA : 0)
+                | (m.getContenido() != null ? CONTENIDO : 0)
+                | (m.isLeido() ? LEIDO : 0);
+        byte[] contenido = m.getContenido() != null ? m.getContenido().getBytes(StandardCharsets.UTF_8) : null;
+        Escritor w = new Escritor(48 + (contenido != null ? contenido.length : 0));
+        w.cabecera(TIPO_MENSAJE);
+        w.byte_(flags);
+        w.id(m.getId(), objectId);
+        if (m.getEmisorId() != null) w.varint(m.getEmisorId());
+        if (m.getReceptorId() != null) w.varint(m.getReceptorId());
+        if (m.getFechaEnvio() != null) w.fecha(m.getFechaEnvio());
+        if (contenido != null) w.texto(contenido);
+        return w.resultado();
+    }
+
+    @Override
+    public ChatMessageDTO decodificarMensaje(byte[] datos) {
+        Lector r = new Lector(datos, TIPO_MENSAJE);
+        int flags = r.byte_();
+        ChatMessageDTO m = new ChatMessageDTO();
+        if ((flags & ID_OBJECT_ID) != 0) m.setId(new ObjectId(r.bytes(12)).toHexString());
+        else if ((flags & ID) != 0) m.setId(r.texto());
+        if ((flags & EMISOR) != 0) m.setEmisorId(r.varint());
+        if ((flags & RECEPTOR) != 0) m.setReceptorId(r.varint());
+        if ((flags & FECHA) != 0) m.setFechaEnvio(r.fecha());
+        if ((flags & CONTENIDO) != 0) m.setContenido(r.texto());
+        m.setLeido((flags & LEIDO) != 0);
+        return m;
+    }
+
+    @Override
+    public byte[] codificar(PresenciaAviso aviso) {
+        List<Long> destinatarios = aviso.destinatarios() != null ? aviso.destinatarios() : List.of();
+        Escritor w = new Escritor(16 + destinatarios.size() * 4);
+        w.cabecera(TIPO_AVISO);
+        w.byte_((aviso.personaId() != null ? PERSONA : 0) | (aviso.online() ? ONLINE : 0));
+        if (aviso.personaId() != null) w.varint(aviso.personaId());
+        w.varint(destinatarios.size());
+        destinatarios.forEach(w::varint);
+        return w.resultado();
+    }
+
+    @Override
+    public PresenciaAviso decodificarAviso(byte[] datos) {
+        Lector r = new Lector(datos, TIPO_AVISO);
+        int flags = r.byte_();
+        Long personaId = (flags & PERSONA) != 0 ? r.varint() : null;
+        int cantidad = r.cantidad();
+        List<Long> destinatarios = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) destinatarios.add(r.varint());
+        return new PresenciaAviso(personaId, (flags & ONLINE) != 0, destinatarios);
+    }
+
+    @Override
+    public byte[] codificar(GrupoEnvio envio) {
+        MensajeGrupoDTO m = envio.mensaje();
+        List<Long> miembros = envio.miembros() != null ? envio.miembros() : List.of();
+        boolean objectId = m.getId() != null && ObjectId.isValid(m.getId());
+        int flags = (m.getId() != null ? G_ID : 0)
+                | (objectId ? G_ID_OBJECT_ID : 0)
+                | (m.getSecuencia() != null ? G_SECUENCIA : 0)
+                | (m.getSeccionId() != null ? G_SECCION : 0)
+                | (m.getEmisorId() != null ? G_EMISOR : 0)
+                | (m.getFechaEnvio() != null ? G_FECHA : 0)
+                | (m.getContenido() != null ? G_CONTENIDO : 0)
+                | (m.isLeido() ? G_LEIDO : 0);
+        byte[] contenido = m.getContenido() != null ? m.getContenido().getBytes(StandardCharsets.UTF_8) : null;
+        Escritor w = new Escritor(56 + (contenido != null ? contenido.length : 0) + miembros.size() * 4);
+        w.cabecera(TIPO_GRUPO);
+        w.byte_(flags);
+        w.id(m.getId(), objectId);
+        if (m.getSecuencia() != null) w.varint(m.getSecuencia());
+        if (m.getSeccionId() != null) w.varint(m.getSeccionId());
+        if (m.getEmisorId() != null) w.varint(m.getEmisorId());
+        if (m.getFechaEnvio() != null) w.fecha(m.getFechaEnvio());
+        if (contenido != null) w.texto(contenido);
+        w.varint(miembros.size());
+        miembros.forEach(w::varint);
+        return w.resultado();
+    }
+
+    @Override
+    public GrupoEnvio decodificarGrupo(byte[] datos) {
+        Lector r = new Lector(datos, TIPO_GRUPO);
+        int flags = r.byte_();
+        MensajeGrupoDTO m = new MensajeGrupoDTO();
+        if ((flags & G_ID_OBJECT_ID) != 0) m.setId(new ObjectId(r.bytes(12)).toHexString());
+        else if ((flags & G_ID) != 0) m.setId(r.texto());
+        if ((flags & G_SECUENCIA) != 0) m.setSecuencia(r.varint());
+        if ((flags & G_SECCION) != 0) m.setSeccionId(r.varint());
+        if ((flags & G_EMISOR) != 0) m.setEmisorId(r.varint());
+        if ((flags & G_FECHA) != 0) m.setFechaEnvio(r.fecha());
+        if ((flags & G_CONTENIDO) != 0) m.setContenido(r.texto());
+        m.setLeido((flags & G_LEIDO) != 0);
+        int cantidad = r.cantidad();
+        List<Long> miembros = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) miembros.add(r.varint());
+        return new GrupoEnvio(miembros, m);
+    }
+
+    private static long zigzag(long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+
+    private static long unzigzag(long v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    private static final class Escritor {
+        private byte[] buf;
+        private int pos;
+
+        Escritor(int capacidad) {
+            buf = new byte[capacidad];
+        }
+
+        void cabecera(byte tipo) {
+            byte_(MAGIA);
+            byte_(VERSION);
+            byte_(tipo);
+        }
+
+        void byte_(int b) {
+            asegurar(1);
+            buf[pos++] = (byte) b;
+        }
+
+        void bytes(byte[] b) {
+            asegurar(b.length);
+            System.arraycopy(b, 0, buf, pos, b.length);
+            pos += b.length;
+        }
+
+        void texto(byte[] utf8) {
+            varint(utf8.length);
+            bytes(utf8);
+        }
+
+        void id(String id, boolean objectId) {
+            if (objectId) bytes(new ObjectId(id).toByteArray());
+            else if (id != null) texto(id.getBytes(StandardCharsets.UTF_8));
+        }
+
+        void fecha(OffsetDateTime fecha) {
+            Instant instante = fecha.toInstant();
+            varint(zigzag(instante.getEpochSecond()));
+            varint(instante.getNano());
+            varint(zigzag(fecha.getOffset().getTotalSeconds()));
+        }
+
+        void varint(long v) {
+            asegurar(10);
+            while ((v & ~0x7FL) != 0) {
+                buf[pos++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            buf[pos++] = (byte) v;
+        }
+
+        private void asegurar(int n) {
+            if (pos + n > buf.length) buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + n));
+        }
+
+        byte[] resultado() {
+            return pos == buf.length ? buf : Arrays.copyOf(buf, pos);
+        }
+    }
+
+    private static final class Lector {
+        private final byte[] buf;
+        private int pos;
+
+        Lector(byte[] datos, byte tipo) {
+            buf = datos;
+            if (datos.length < 3 || datos[0] != MAGIA) {
+                throw new IllegalArgumentException("No es un payload binario del chat");
+            }
+            if (datos[1] != VERSION) {
+                throw new IllegalArgumentException("Versión de esquema no soportada: " + datos[1]);
+            }
+            if (datos[2] != tipo) {
+                throw new IllegalArgumentException("Tipo de payload inesperado: " + datos[2]);
+            }
+            pos = 3;
+        }
+
+        int byte_() {
+            requerir(1);
+            return buf[pos++] & 0xFF;
+        }
+
+        byte[] bytes(int n) {
+            requerir(n);
+            byte[] res = Arrays.copyOfRange(buf, pos, pos + n);
+            pos += n;
+            return res;
+        }
+
+        String texto() {
+            int largo = cantidad();
+            String res = new String(buf, pos, largo, StandardCharsets.UTF_8);
+            pos += largo;
+            return res;
+        }
+
+        OffsetDateTime fecha() {
+            long segundos = unzigzag(varint());
+            int nanos = (int) varint();
+            ZoneOffset offset = ZoneOffset.ofTotalSeconds((int) unzigzag(varint()));
+            return OffsetDateTime.ofInstant(Instant.ofEpochSecond(segundos, nanos), offset);
+        }
+
+        long varint() {
+            long res = 0;
+            for (int corrimiento = 0; corrimiento < 64; corrimiento += 7) {
+                int b = byte_();
+                res |= (long) (b & 0x7F) << corrimiento;
+                if ((b & 0x80) == 0) return res;
+            }
+            throw new IllegalArgumentException("Varint mal formado");
+        }
+
+        /**
+         * Largo o cantidad de elementos: cada uno ocupa al menos un byte, así que no puede superar
+         * lo que queda del payload. Se valida antes de reservar memoria con ese valor.
+         */
+        int cantidad() {
+            long n = varint();
+            if (n < 0 || n > buf.length - pos) throw new IllegalArgumentException("Payload truncado");
+            return (int) n;
+        }
+
+        private void requerir(int n) {
+            if (n < 0 || pos + n > buf.length) throw new IllegalArgumentException("Payload truncado");
+        }
+    }
+}
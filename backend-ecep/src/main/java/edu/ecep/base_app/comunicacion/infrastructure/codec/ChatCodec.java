@@ -0,0 +1,25 @@
+package edu.ecep.base_app.comunicacion.infrastructure.codec;
+
+import edu.ecep.base_app.comunicacion.infrastructure.messaging.GrupoMensajePublisher.GrupoEnvio;
+import edu.ecep.base_app.comunicacion.infrastructure.messaging.PresenciaPublisher.PresenciaAviso;
+import edu.ecep.base_app.comunicacion.presentation.dto.ChatMessageDTO;
+
+/**
+ * Formato de los payloads del chat en Redis: mensajes ruteados entre nodos y pendientes, avisos
+ * de presencia y envíos a los grupos de sección. Cada implementación debe poder leer lo que ella misma escribe; la
+ * lectura de formatos mezclados (durante un despliegue) la resuelve {@link ChatCodecs}.
+ */
+public interface ChatCodec {
+
+    byte[] codificar(ChatMessageDTO mensaje);
+
+    ChatMessageDTO decodificarMensaje(byte[] datos);
+
+    byte[] codificar(PresenciaAviso aviso);
+
+    PresenciaAviso decodificarAviso(byte[] datos);
+
+    byte[] codificar(GrupoEnvio envio);
+
+    GrupoEnvio decodificarGrupo(byte[] datos);
+}
@@ -0,0 +1,59 @@
+package edu.ecep.base_app.comunicacion.infrastructure.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.ecep.base_app.comunicacion.infrastructure.messaging.GrupoMensajePublisher.GrupoEnvio;
+import edu.ecep.base_app.comunicacion.infrastructure.messaging.PresenciaPublisher.PresenciaAviso;
+import edu.ecep.base_app.comunicacion.presentation.dto.ChatMessageDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Códec del chat en Redis. Escribe con el formato de {@code app.chat.codec} ({@code binario} o
+ * {@code json}) y lee ambos según el primer byte, así conviven los pendientes guardados antes
+ * del cambio. Por defecto escribe {@code json}, que entiende cualquier versión; {@code binario} se
+ * activa cuando todos los nodos ya leen ese formato.
+ */
+@Component
+public class ChatCodecs {
+
+    private final ChatCodec escritura;
+    private final BinarioChatCodec binario = new BinarioChatCodec();
+    private final JsonChatCodec json;
+
+    public ChatCodecs(ObjectMapper objectMapper, @Value("${app.chat.codec:json}") String formato) {
+        this.json = new JsonChatCodec(objectMapper);
+        this.escritura = switch (formato) {
+            case "binario" -> binario;
+            case "json" -> json;
+            default -> throw new IllegalArgumentException("app.chat.codec desconocido: " + formato);
+        };
+    }
+
+    public byte[] codificar(ChatMessageDTO mensaje) {
+        return escritura.codificar(mensaje);
+    }
+
+    public ChatMessageDTO decodificarMensaje(byte[] datos) {
+        return lectura(datos).decodificarMensaje(datos);
+    }
+
+    public byte[] codificar(PresenciaAviso aviso) {
+        return escritura.codificar(aviso);
+    }
+
+    public PresenciaAviso decodificarAviso(byte[] datos) {
+        return lectura(datos).decodificarAviso(datos);
+    }
+
+    public byte[] codificar(GrupoEnvio envio) {
+        return escritura.codificar(envio);
+    }
+
+    public GrupoEnvio decodificarGrupo(byte[] datos) {
+        return lectura(datos).decodificarGrupo(datos);
+    }
+
+    private ChatCodec lectura(byte[] datos) {
+        return datos.length > 0 && datos[0] == BinarioChatCodec.MAGIA ? binario : json;
+    }
+}
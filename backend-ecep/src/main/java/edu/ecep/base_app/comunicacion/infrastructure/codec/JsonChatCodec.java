@@ -0,0 +1,65 @@
+package edu.ecep.base_app.comunicacion.infrastructure.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.ecep.base_app.comunicacion.infrastructure.messaging.GrupoMensajePublisher.GrupoEnvio;
+import edu.ecep.base_app.comunicacion.infrastructure.messaging.PresenciaPublisher.PresenciaAviso;
+import edu.ecep.base_app.comunicacion.presentation.dto.ChatMessageDTO;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/** JSON sin metadatos de tipo: el formato anterior, que es el que escribe el serializer del template. */
+public class JsonChatCodec implements ChatCodec {
+
+    private final ObjectMapper objectMapper;
+
+    public JsonChatCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public byte[] codificar(ChatMessageDTO mensaje) {
+        return escribir(mensaje);
+    }
+
+    @Override
+    public ChatMessageDTO decodificarMensaje(byte[] datos) {
+        return leer(datos, ChatMessageDTO.class);
+    }
+
+    @Override
+    public byte[] codificar(PresenciaAviso aviso) {
+        return escribir(aviso);
+    }
+
+    @Override
+    public PresenciaAviso decodificarAviso(byte[] datos) {
+        return leer(datos, PresenciaAviso.class);
+    }
+
+    @Override
+    public byte[] codificar(GrupoEnvio envio) {
+        return escribir(envio);
+    }
+
+    @Override
+    public GrupoEnvio decodificarGrupo(byte[] datos) {
+        return leer(datos, GrupoEnvio.class);
+    }
+
+    private byte[] escribir(Object valor) {
+        try {
+            return objectMapper.writeValueAsBytes(valor);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private <T> T leer(byte[] datos, Class<T> tipo) {
+        try {
+            return objectMapper.readValue(datos, tipo);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
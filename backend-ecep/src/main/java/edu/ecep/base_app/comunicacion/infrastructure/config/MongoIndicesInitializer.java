@@ -0,0 +1,92 @@
+package edu.ecep.base_app.comunicacion.infrastructure.config;
+
+import com.mongodb.client.model.IndexOptions;
+import edu.ecep.base_app.comunicacion.domain.Comunicado;
+import edu.ecep.base_app.comunicacion.domain.ComunicadoEntrega;
+import edu.ecep.base_app.comunicacion.domain.GrupoLectura;
+import edu.ecep.base_app.comunicacion.domain.Mensaje;
+import edu.ecep.base_app.comunicacion.domain.MensajeBusqueda;
+import edu.ecep.base_app.comunicacion.domain.MensajeGrupo;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Crea al arrancar los índices declarados en los documentos de los que depende la corrección,
+ * no sólo el rendimiento: el único de entregas (idempotencia) y el de publicación programada
+ * (el planificador no debe recorrer la colección), además de los de retención de mensajes.
+ * No se deja librado al auto-index.
+ * Los índices de texto se definen acá: llevan un prefijo de igualdad (el alcance de cada
+ * búsqueda) e idioma español, que las anotaciones de Spring Data no permiten combinar.
+ * También se borran los índices que quedaron sin uso, que sólo encarecen cada escritura.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MongoIndicesInitializer {
+
+    private static final List<Class<?>> DOCUMENTOS = List.of(Comunicado.class, ComunicadoEntrega.class, Mensaje.class,
+            MensajeGrupo.class, GrupoLectura.class);
+
+    private static final String IDIOMA = "spanish";
+
+    private static final List<IndiceTexto> INDICES_TEXTO = List.of(
+            new IndiceTexto(MensajeBusqueda.class, "propietario_id", new Document("contenido", 1)),
+            new IndiceTexto(ComunicadoEntrega.class, "persona_id", new Document("titulo", 3).append("cuerpo", 1)),
+            new IndiceTexto(Comunicado.class, "activo", new Document("titulo", 3).append("cuerpo", 1)));
+
+    // no leídos por flag 'leido': reemplazados por las marcas de agua de Conversacion;
+    // historial de grupo por _id: reemplazado por la secuencia de cada sección
+    private static final Map<Class<?>, List<String>> OBSOLETOS = Map.of(
+            Mensaje.class, List.of("chat_unread_idx", "chat_unread_pair_idx", "leido"),
+            MensajeGrupo.class, List.of("grupo_historial_idx"));
+
+    private final MongoTemplate mongoTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void asegurarIndices() {
+        var resolver = new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+        for (Class<?> documento : DOCUMENTOS) {
+            try {
+                IndexOperations indices = mongoTemplate.indexOps(documento);
+                resolver.resolveIndexFor(documento).forEach(indices::ensureIndex);
+            } catch (Exception ex) {
+                log.warn("No se pudieron crear los índices de {}", documento.getSimpleName(), ex);
+            }
+        }
+        OBSOLETOS.forEach((documento, nombres) -> {
+            IndexOperations indices = mongoTemplate.indexOps(documento);
+            for (String nombre : nombres) {
+                try {
+                    if (indices.getIndexInfo().stream().anyMatch(i -> i.getName().equals(nombre))) {
+                        indices.dropIndex(nombre);
+                        log.info("Índice obsoleto {} eliminado de {}", nombre, documento.getSimpleName());
+                    }
+                } catch (Exception ex) {
+                    log.warn("No se pudo eliminar el índice obsoleto {} de {}", nombre, documento.getSimpleName(), ex);
+                }
+            }
+        });
+        for (IndiceTexto indice : INDICES_TEXTO) {
+            try {
+                Document claves = new Document(indice.prefijo(), 1);
+                indice.pesos().keySet().forEach(campo -> claves.append(campo, "text"));
+                mongoTemplate.getCollection(mongoTemplate.getCollectionName(indice.documento())).createIndex(claves,
+                        new IndexOptions().name("busqueda_idx").defaultLanguage(IDIOMA).weights(indice.pesos()));
+            } catch (Exception ex) {
+                log.warn("No se pudo crear el índice de texto de {}", indice.documento().getSimpleName(), ex);
+            }
+        }
+    }
+
+    private record IndiceTexto(Class<?> documento, String prefijo, Document pesos) {}
+}
@@ -1,6 +1,16 @@
 package edu.ecep.base_app.comunicacion.infrastructure.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.ecep.base_app.asistencias.infrastructure.messaging.AsistenciaAlertaPublisher;
+import edu.ecep.base_app.asistencias.infrastructure.messaging.AsistenciaAlertaSubscriber;
+import edu.ecep.base_app.comunicacion.infrastructure.messaging.ChatNodo;
+import edu.ecep.base_app.comunicacion.infrastructure.messaging.ComunicadoPublisher;
+import edu.ecep.base_app.comunicacion.infrastructure.messaging.ComunicadoSubscriber;
+import edu.ecep.base_app.comunicacion.infrastructure.messaging.GrupoMensajePublisher;
+import edu.ecep.base_app.comunicacion.infrastructure.messaging.GrupoMensajeSubscriber;
+import edu.ecep.base_app.comunicacion.infrastructure.messaging.PresenciaPublisher;
+import edu.ecep.base_app.comunicacion.infrastructure.messaging.PresenciaSubscriber;
+import edu.ecep.base_app.comunicacion.infrastructure.messaging.PresenciaVencimientoListener;
 import edu.ecep.base_app.comunicacion.infrastructure.messaging.RedisSubscriber;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -9,6 +19,7 @@ import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 
+import org.springframework.data.redis.listener.ChannelTopic;
 import org.springframework.data.redis.listener.PatternTopic;
 import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.listener.adapter.MessageListenerAdapter;
@@ -43,21 +54,39 @@ public class RedisConfig {
     }
 
     @Bean
-    public MessageListenerAdapter listenerAdapter(RedisSubscriber subscriber) {
+    public MessageListenerAdapter alertasAsistenciaListenerAdapter(AsistenciaAlertaSubscriber subscriber) {
         MessageListenerAdapter adapter = new MessageListenerAdapter(subscriber, "handleMessage");
-        adapter.setSerializer(new org.springframework.data.redis.serializer.StringRedisSerializer());
+        adapter.setSerializer(new StringRedisSerializer());
         return adapter;
     }
 
+    @Bean
+    public MessageListenerAdapter comunicadosListenerAdapter(ComunicadoSubscriber subscriber) {
+        MessageListenerAdapter adapter = new MessageListenerAdapter(subscriber, "handleMessage");
+        adapter.setSerializer(new StringRedisSerializer());
+        return adapter;
+    }
 
     @Bean
     public RedisMessageListenerContainer redisContainer(
             RedisConnectionFactory cf,
-            MessageListenerAdapter listenerAdapter) {
+            RedisSubscriber chatSubscriber,
+            MessageListenerAdapter alertasAsistenciaListenerAdapter,
+            PresenciaSubscriber presenciaSubscriber,
+            MessageListenerAdapter comunicadosListenerAdapter,
+            GrupoMensajeSubscriber grupoSubscriber,
+            PresenciaVencimientoListener presenciaVencimientoListener,
+            ChatNodo chatNodo) {
         RedisMessageListenerContainer container = new RedisMessageListenerContainer();
         container.setConnectionFactory(cf);
-        // Asegúrate de que el topic coincida con el canal: "chat"
-        container.addMessageListener(listenerAdapter, new PatternTopic("chat"));
+        // cada nodo recibe sólo los mensajes de chat de receptores conectados a él;
+        // chat, presencia y grupos llegan en el formato de ChatCodecs, los suscriptores leen los bytes crudos
+        container.addMessageListener(chatSubscriber, new ChannelTopic(chatNodo.canal()));
+        container.addMessageListener(comunicadosListenerAdapter, new ChannelTopic(ComunicadoPublisher.canal(chatNodo.getId())));
+        container.addMessageListener(grupoSubscriber, new ChannelTopic(GrupoMensajePublisher.CHANNEL));
+        container.addMessageListener(alertasAsistenciaListenerAdapter, new ChannelTopic(AsistenciaAlertaPublisher.CHANNEL));
+        container.addMessageListener(presenciaSubscriber, new ChannelTopic(PresenciaPublisher.CHANNEL));
+        container.addMessageListener(presenciaVencimientoListener, new PatternTopic(PresenciaVencimientoListener.TOPIC));
         return container;
     }
 }
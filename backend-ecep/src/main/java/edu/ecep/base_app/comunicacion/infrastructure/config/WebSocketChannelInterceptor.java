@@ -1,30 +1,34 @@
 package edu.ecep.base_app.comunicacion.infrastructure.config;
 
 import edu.ecep.base_app.comunicacion.application.ChatService;
+import edu.ecep.base_app.comunicacion.application.PresenciaService;
+import edu.ecep.base_app.comunicacion.infrastructure.messaging.RedisSubscriber;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.user.UserDestinationMessageHandler;
 import org.springframework.messaging.simp.stomp.StompCommand;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
-import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
 import org.springframework.messaging.support.MessageHeaderAccessor;
 import org.springframework.stereotype.Component;
 
-import java.util.Map;
 import java.security.Principal;
 
 @Component
 @Slf4j
-public class WebSocketChannelInterceptor implements ChannelInterceptor {
+public class WebSocketChannelInterceptor implements ExecutorChannelInterceptor {
 
+    private static final String DESTINO_MENSAJES = "/user" + RedisSubscriber.DESTINO;
+
+    private final PresenciaService presenciaService;
     private final ChatService chatService;
-    private final SimpMessagingTemplate messagingTemplate;
 
-    public WebSocketChannelInterceptor(@Lazy SimpMessagingTemplate messagingTemplate,
-                                       ChatService chatService) {
-        this.messagingTemplate = messagingTemplate;
+    public WebSocketChannelInterceptor(@Lazy PresenciaService presenciaService,
+                                       @Lazy ChatService chatService) {
+        this.presenciaService = presenciaService;
         this.chatService = chatService;
     }
 
@@ -45,25 +49,27 @@ public class WebSocketChannelInterceptor implements ChannelInterceptor {
         if (StompCommand.CONNECT.equals(acc.getCommand())) {
             log.info("✅ CONNECT - Principal: {}", principal.getName());
             log.info("User connected: {}", userId);
-            chatService.setUserOnline(userId);
-            notifyContactsOnlineStatus(userId, true);
+            presenciaService.conectar(userId, acc.getSessionId());
 
         } else if (StompCommand.DISCONNECT.equals(acc.getCommand())) {
             log.info("User disconnected: {}", userId);
-            chatService.setUserOffline(userId);
-            notifyContactsOnlineStatus(userId, false);
+            presenciaService.desconectar(userId, acc.getSessionId());
         }
 
         return message;
     }
 
-    private void notifyContactsOnlineStatus(Long userId, boolean isOnline) {
-        chatService.getUserContacts(userId).forEach(contactId ->
-                messagingTemplate.convertAndSendToUser(
-                        String.valueOf(contactId),
-                        "/queue/online-status",
-                        Map.of("userId", userId, "isOnline", isOnline)
-                )
-        );
+    /**
+     * Los pendientes se entregan recién cuando el handler de destinos de usuario registró la
+     * suscripción a /user/queue/messages; antes, el broker los descartaría.
+     */
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+        if (ex != null || !(handler instanceof UserDestinationMessageHandler)) return;
+        StompHeaderAccessor acc = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (acc == null || acc.getUser() == null) return;
+        if (StompCommand.SUBSCRIBE.equals(acc.getCommand()) && DESTINO_MENSAJES.equals(acc.getDestination())) {
+            chatService.entregarPendientes(Long.valueOf(acc.getUser().getName()));
+        }
     }
 }
@@ -1,10 +1,12 @@
 package edu.ecep.base_app.comunicacion.infrastructure.config;
 
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.http.server.ServerHttpRequest;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.web.socket.WebSocketHandler;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
@@ -20,11 +22,14 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     private final JwtHandshakeInterceptor jwtHandshakeInterceptor;
     private final WebSocketChannelInterceptor webSocketChannelInterceptor;
+    private final TaskScheduler messageBrokerTaskScheduler;
 
     public WebSocketConfig(JwtHandshakeInterceptor jwtHandshakeInterceptor,
-                           @Lazy WebSocketChannelInterceptor webSocketChannelInterceptor) {
+                           @Lazy WebSocketChannelInterceptor webSocketChannelInterceptor,
+                           @Lazy @Qualifier("messageBrokerTaskScheduler") TaskScheduler messageBrokerTaskScheduler) {
         this.jwtHandshakeInterceptor = jwtHandshakeInterceptor;
         this.webSocketChannelInterceptor = webSocketChannelInterceptor;
+        this.messageBrokerTaskScheduler = messageBrokerTaskScheduler;
     }
 
     @Override
@@ -52,7 +57,10 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     }
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
-        registry.enableSimpleBroker("/topic", "/queue");
+        // con heartbeats el broker cierra las conexiones muertas y el DISCONNECT libera la sesión de presencia
+        registry.enableSimpleBroker("/topic", "/queue")
+                .setHeartbeatValue(new long[]{10000, 10000})
+                .setTaskScheduler(messageBrokerTaskScheduler);
         registry.setApplicationDestinationPrefixes("/app");
         registry.setUserDestinationPrefix("/user");
     }
@@ -16,5 +16,10 @@ public interface ComunicadoMapper {
     Comunicado toEntity(ComunicadoCreateDTO dto);
 
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "fechaPublicacion", ignore = true)
+    @Mapping(target = "destinatarios", ignore = true)
+    // los maneja la publicación (entrega y planificador), no el cliente
+    @Mapping(target = "publicado", ignore = true)
+    @Mapping(target = "reclamadoHasta", ignore = true)
     void update(@MappingTarget Comunicado e, ComunicadoDTO dto);
 }
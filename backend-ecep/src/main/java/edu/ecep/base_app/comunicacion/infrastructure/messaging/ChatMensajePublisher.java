@@ -0,0 +1,102 @@
+package edu.ecep.base_app.comunicacion.infrastructure.messaging;
+
+import edu.ecep.base_app.comunicacion.infrastructure.codec.ChatCodecs;
+import edu.ecep.base_app.comunicacion.infrastructure.persistence.MensajesPendientesRedisRepository;
+import edu.ecep.base_app.comunicacion.infrastructure.persistence.PresenciaRedisRepository;
+import edu.ecep.base_app.comunicacion.presentation.dto.ChatMessageDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Rutea cada mensaje de chat sólo a los nodos donde el receptor tiene sesiones vivas (según la
+ * presencia), en lugar de difundirlo a todos. Sin sesiones, o si ningún nodo destino tenía el
+ * canal escuchado, el mensaje queda pendiente para su próxima suscripción. Si Redis no responde, se entrega sólo desde este nodo.
+ *
+ * <p>Para este nodo manda el registro local de suscripciones y no Redis: la presencia se escribe
+ * por lotes, así que justo después de un CONNECT todavía no lista este nodo y justo después de un
+ * DISCONNECT todavía lo lista.
+ */
+@Service
+@Slf4j
+public class ChatMensajePublisher {
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ChatNodo nodo;
+    private final PresenciaRedisRepository presenciaRepository;
+    private final MensajesPendientesRedisRepository pendientesRepository;
+    private final RedisSubscriber subscriber;
+    private final ChatCodecs codecs;
+    private final boolean pendientesHabilitados;
+    private final int maximoPendientes;
+    private final Duration ttlPendientes;
+
+    public ChatMensajePublisher(RedisTemplate<String, Object> redisTemplate,
+                                ChatNodo nodo,
+                                PresenciaRedisRepository presenciaRepository,
+                                MensajesPendientesRedisRepository pendientesRepository,
+                                RedisSubscriber subscriber,
+                                ChatCodecs codecs,
+                                @Value("${app.chat.pendientes.enabled:true}") boolean pendientesHabilitados,
+                                @Value("${app.chat.pendientes.maximo:500}") int maximoPendientes,
+                                @Value("${app.chat.pendientes.ttl:P7D}") Duration ttlPendientes) {
+        this.redisTemplate = redisTemplate;
+        this.nodo = nodo;
+        this.presenciaRepository = presenciaRepository;
+        this.pendientesRepository = pendientesRepository;
+        this.subscriber = subscriber;
+        this.codecs = codecs;
+        this.pendientesHabilitados = pendientesHabilitados;
+        this.maximoPendientes = maximoPendientes;
+        this.ttlPendientes = ttlPendientes;
+    }
+
+    public void publicar(ChatMessageDTO mensaje) {
+        Long receptor = mensaje.getReceptorId();
+        try {
+            Set<String> nodos = presenciaRepository.nodos(receptor);
+            boolean entregado = subscriber.entregar(mensaje);
+            byte[] datos = null;
+            for (String destino : nodos) {
+                if (destino.equals(nodo.getId())) continue;
+                // se codifica una sola vez aunque el receptor esté en varios nodos
+                if (datos == null) datos = codecs.codificar(mensaje);
+                byte[] payload = datos;
+                byte[] canal = ChatNodo.canal(destino).getBytes(StandardCharsets.UTF_8);
+                // 0 receptores: el nodo cayó y su presencia todavía no venció
+                Long receptores = redisTemplate.execute((RedisCallback<Long>) con -> con.publish(canal, payload));
+                if (receptores != null && receptores > 0) entregado = true;
+            }
+            if (!entregado) dejarPendiente(mensaje);
+        } catch (Exception ex) {
+            log.warn("No se pudo rutear el mensaje {} por Redis, se entrega localmente", mensaje.getId(), ex);
+            subscriber.entregar(mensaje);
+        }
+    }
+
+    /** Guarda el mensaje para la próxima suscripción del receptor. */
+    void dejarPendiente(ChatMessageDTO mensaje) {
+        if (!pendientesHabilitados) return;
+        pendientesRepository.agregar(mensaje.getReceptorId(), mensaje, maximoPendientes, ttlPendientes);
+    }
+
+    /**
+     * Entrega desde este nodo lo acumulado mientras la persona no tenía sesiones. Sin suscripción
+     * local no se saca nada de la lista: lo drena la suscripción cuando llegue.
+     */
+    public void entregarPendientes(Long personaId) {
+        if (!pendientesHabilitados || !subscriber.suscrito(personaId)) return;
+        try {
+            // la lista nunca pasa de maximoPendientes (agregar recorta), así un LPOP la vacía
+            pendientesRepository.tomar(personaId, maximoPendientes).forEach(subscriber::entregar);
+        } catch (Exception ex) {
+            log.warn("No se pudieron entregar los mensajes pendientes de {}", personaId, ex);
+        }
+    }
+}
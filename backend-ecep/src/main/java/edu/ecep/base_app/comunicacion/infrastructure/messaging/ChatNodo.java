@@ -0,0 +1,35 @@
+package edu.ecep.base_app.comunicacion.infrastructure.messaging;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Identidad de esta instancia para rutear mensajes de chat. Cada nodo escucha sólo su canal
+ * {@code chat:nodo:{id}}; sin {@code app.chat.nodo-id} se genera uno por arranque, así las
+ * sesiones de un proceso anterior nunca se confunden con las actuales.
+ */
+@Component
+public class ChatNodo {
+
+    public static final String CHANNEL_PREFIX = "chat:nodo:";
+
+    private final String id;
+
+    public ChatNodo(@Value("${app.chat.nodo-id:}") String configurado) {
+        this.id = configurado.isBlank() ? UUID.randomUUID().toString() : configurado;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String canal() {
+        return canal(id);
+    }
+
+    public static String canal(String nodoId) {
+        return CHANNEL_PREFIX + nodoId;
+    }
+}
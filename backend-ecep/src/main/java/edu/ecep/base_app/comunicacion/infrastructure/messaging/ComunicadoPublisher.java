@@ -0,0 +1,57 @@
+package edu.ecep.base_app.comunicacion.infrastructure.messaging;
+
+import edu.ecep.base_app.comunicacion.infrastructure.persistence.PresenciaRedisRepository;
+import edu.ecep.base_app.comunicacion.presentation.dto.ComunicadoDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Empuja un comunicado a los destinatarios conectados. Por cada lote se consulta la presencia
+ * en un pipeline y se publica un único envío por nodo con todos sus destinatarios (canal
+ * {@code comunicados:nodo:{id}}); los desconectados lo ven en su bandeja. Si Redis no
+ * responde, el lote se entrega sólo desde este nodo.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ComunicadoPublisher {
+
+    public static final String CHANNEL_PREFIX = "comunicados:nodo:";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ChatNodo nodo;
+    private final PresenciaRedisRepository presenciaRepository;
+    private final ComunicadoSubscriber subscriber;
+
+    public void publicar(List<Long> destinatarios, ComunicadoDTO comunicado) {
+        if (destinatarios.isEmpty()) return;
+        try {
+            Map<String, List<Long>> porNodo = new LinkedHashMap<>();
+            presenciaRepository.nodos(destinatarios).forEach((personaId, nodos) -> {
+                for (String destino : nodos) porNodo.computeIfAbsent(destino, n -> new ArrayList<>()).add(personaId);
+            });
+            porNodo.forEach((destino, personas) -> {
+                ComunicadoEnvio envio = new ComunicadoEnvio(personas, comunicado);
+                if (destino.equals(nodo.getId())) subscriber.entregar(envio);
+                else redisTemplate.convertAndSend(canal(destino), envio);
+            });
+        } catch (Exception ex) {
+            log.warn("No se pudo rutear el comunicado {} por Redis, se entrega localmente", comunicado.getId(), ex);
+            subscriber.entregar(new ComunicadoEnvio(destinatarios, comunicado));
+        }
+    }
+
+    public static String canal(String nodoId) {
+        return CHANNEL_PREFIX + nodoId;
+    }
+
+    public record ComunicadoEnvio(List<Long> destinatarios, ComunicadoDTO comunicado) {}
+}
@@ -0,0 +1,26 @@
+package edu.ecep.base_app.comunicacion.infrastructure.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.ecep.base_app.comunicacion.infrastructure.messaging.ComunicadoPublisher.ComunicadoEnvio;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class ComunicadoSubscriber {
+
+    public static final String DESTINO = "/queue/comunicados";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+
+    public void handleMessage(String messageJson) throws Exception {
+        entregar(objectMapper.readValue(messageJson, ComunicadoEnvio.class));
+    }
+
+    void entregar(ComunicadoEnvio envio) {
+        envio.destinatarios().forEach(id ->
+                messagingTemplate.convertAndSendToUser(id.toString(), DESTINO, envio.comunicado()));
+    }
+}
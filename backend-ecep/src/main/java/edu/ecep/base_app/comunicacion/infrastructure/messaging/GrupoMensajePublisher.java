@@ -0,0 +1,44 @@
+package edu.ecep.base_app.comunicacion.infrastructure.messaging;
+
+import edu.ecep.base_app.comunicacion.infrastructure.codec.ChatCodecs;
+import edu.ecep.base_app.comunicacion.presentation.dto.MensajeGrupoDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Difunde un mensaje de grupo con una única publicación en {@code chat:grupos}, con el mensaje
+ * y los ids de los miembros en el formato de {@link ChatCodecs}; cada nodo lo expande sólo a los
+ * miembros con sesión en él (ver {@link GrupoMensajeSubscriber}). Si Redis no responde, se
+ * entrega sólo desde este nodo.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GrupoMensajePublisher {
+
+    public static final String CHANNEL = "chat:grupos";
+    private static final byte[] CHANNEL_BYTES = CHANNEL.getBytes(StandardCharsets.UTF_8);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final GrupoMensajeSubscriber subscriber;
+    private final ChatCodecs codecs;
+
+    public void publicar(List<Long> miembros, MensajeGrupoDTO mensaje) {
+        GrupoEnvio envio = new GrupoEnvio(miembros, mensaje);
+        try {
+            byte[] datos = codecs.codificar(envio);
+            redisTemplate.execute((RedisCallback<Long>) con -> con.publish(CHANNEL_BYTES, datos));
+        } catch (Exception ex) {
+            log.warn("No se pudo difundir el mensaje de grupo {} por Redis, se entrega localmente", mensaje.getId(), ex);
+            subscriber.entregar(envio);
+        }
+    }
+
+    public record GrupoEnvio(List<Long> miembros, MensajeGrupoDTO mensaje) {}
+}
@@ -0,0 +1,42 @@
+package edu.ecep.base_app.comunicacion.infrastructure.messaging;
+
+import edu.ecep.base_app.comunicacion.infrastructure.codec.ChatCodecs;
+import edu.ecep.base_app.comunicacion.infrastructure.messaging.GrupoMensajePublisher.GrupoEnvio;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GrupoMensajeSubscriber implements MessageListener {
+
+    public static final String DESTINO = "/queue/grupos";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final SimpUserRegistry userRegistry;
+    private final ChatCodecs codecs;
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            entregar(codecs.decodificarGrupo(message.getBody()));
+        } catch (RuntimeException ex) {
+            log.warn("Mensaje de grupo ilegible", ex);
+        }
+    }
+
+    // el registro de usuarios del broker simple es local: sólo tiene las sesiones de este nodo
+    void entregar(GrupoEnvio envio) {
+        for (Long id : envio.miembros()) {
+            String usuario = id.toString();
+            if (userRegistry.getUser(usuario) != null) {
+                messagingTemplate.convertAndSendToUser(usuario, DESTINO, envio.mensaje());
+            }
+        }
+    }
+}
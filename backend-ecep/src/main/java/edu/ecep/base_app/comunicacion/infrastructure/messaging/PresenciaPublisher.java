@@ -0,0 +1,42 @@
+package edu.ecep.base_app.comunicacion.infrastructure.messaging;
+
+import edu.ecep.base_app.comunicacion.infrastructure.codec.ChatCodecs;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Publica los cambios de presencia en Redis para que cada nodo los reenvíe a los contactos
+ * conectados a él. Si Redis no responde, se entregan sólo desde este nodo.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PresenciaPublisher {
+
+    public static final String CHANNEL = "chat:presencia";
+    private static final byte[] CHANNEL_BYTES = CHANNEL.getBytes(StandardCharsets.UTF_8);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final PresenciaSubscriber subscriber;
+    private final ChatCodecs codecs;
+
+    public void publicar(Long personaId, boolean online, List<Long> destinatarios) {
+        if (destinatarios.isEmpty()) return;
+        PresenciaAviso aviso = new PresenciaAviso(personaId, online, destinatarios);
+        try {
+            byte[] datos = codecs.codificar(aviso);
+            redisTemplate.execute((RedisCallback<Long>) con -> con.publish(CHANNEL_BYTES, datos));
+        } catch (Exception ex) {
+            log.warn("No se pudo publicar la presencia de {} en Redis, se entrega localmente", personaId, ex);
+            subscriber.entregar(aviso);
+        }
+    }
+
+    public record PresenciaAviso(Long personaId, boolean online, List<Long> destinatarios) {}
+}
@@ -0,0 +1,38 @@
+package edu.ecep.base_app.comunicacion.infrastructure.messaging;
+
+import edu.ecep.base_app.comunicacion.infrastructure.codec.ChatCodecs;
+import edu.ecep.base_app.comunicacion.infrastructure.messaging.PresenciaPublisher.PresenciaAviso;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PresenciaSubscriber implements MessageListener {
+
+    public static final String DESTINO = "/queue/online-status";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ChatCodecs codecs;
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            entregar(codecs.decodificarAviso(message.getBody()));
+        } catch (RuntimeException ex) {
+            log.warn("Aviso de presencia ilegible", ex);
+        }
+    }
+
+    void entregar(PresenciaAviso aviso) {
+        Map<String, Object> payload = Map.of("userId", aviso.personaId(), "isOnline", aviso.online());
+        aviso.destinatarios().forEach(id ->
+                messagingTemplate.convertAndSendToUser(id.toString(), DESTINO, payload));
+    }
+}
@@ -0,0 +1,26 @@
+package edu.ecep.base_app.comunicacion.infrastructure.messaging;
+
+import edu.ecep.base_app.comunicacion.application.PresenciaService;
+import edu.ecep.base_app.comunicacion.infrastructure.persistence.PresenciaRedisRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/** Recibe los eventos {@code expired} de Redis; el cuerpo es la clave vencida. */
+@Component
+@RequiredArgsConstructor
+public class PresenciaVencimientoListener implements MessageListener {
+
+    public static final String TOPIC = "__keyevent@*__:expired";
+
+    private final PresenciaService presenciaService;
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Long personaId = PresenciaRedisRepository.personaDeClave(new String(message.getBody(), StandardCharsets.UTF_8));
+        if (personaId != null) presenciaService.vencida(personaId);
+    }
+}
@@ -1,32 +1,69 @@
 package edu.ecep.base_app.comunicacion.infrastructure.messaging;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.ecep.base_app.comunicacion.infrastructure.codec.ChatCodecs;
 import edu.ecep.base_app.comunicacion.presentation.dto.ChatMessageDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.redis.connection.MessageListener;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpSession;
+import org.springframework.messaging.simp.user.SimpUser;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
 import org.springframework.stereotype.Component;
 
+/**
+ * Entrega los mensajes de chat ruteados a este nodo (canal {@code chat:nodo:{id}}). La presencia
+ * en Redis se actualiza por lotes y va atrasada respecto de las sesiones; lo que decide si el
+ * mensaje se entrega acá es el registro local de suscripciones. Si el receptor ya no está
+ * suscripto en este nodo, el mensaje vuelve a la lista de pendientes.
+ */
 @Component
-public class RedisSubscriber {
+@Slf4j
+public class RedisSubscriber implements MessageListener {
+
+    public static final String DESTINO = "/queue/messages";
+
     private final SimpMessagingTemplate messagingTemplate;
-    private final ObjectMapper objectMapper;
+    private final SimpUserRegistry userRegistry;
+    private final ChatCodecs codecs;
+    private final ChatMensajePublisher publisher;
 
     public RedisSubscriber(SimpMessagingTemplate messagingTemplate,
-                           ObjectMapper objectMapper) {
+                           SimpUserRegistry userRegistry,
+                           ChatCodecs codecs,
+                           @Lazy ChatMensajePublisher publisher) {
         this.messagingTemplate = messagingTemplate;
-        this.objectMapper = objectMapper;
+        this.userRegistry = userRegistry;
+        this.codecs = codecs;
+        this.publisher = publisher;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            ChatMessageDTO msg = codecs.decodificarMensaje(message.getBody());
+            if (!entregar(msg)) publisher.dejarPendiente(msg);
+        } catch (RuntimeException ex) {
+            log.warn("Mensaje de chat ilegible en {}", new String(message.getChannel()), ex);
+        }
+    }
+
+    /** Entrega por las sesiones de este nodo; {@code false} si el receptor no está suscripto acá. */
+    boolean entregar(ChatMessageDTO msg) {
+        if (!suscrito(msg.getReceptorId())) return false;
+        log.debug("Entregando mensaje {} a /user/{}{}", msg.getId(), msg.getReceptorId(), DESTINO);
+        messagingTemplate.convertAndSendToUser(msg.getReceptorId().toString(), DESTINO, msg);
+        return true;
     }
 
-    public void handleMessage(String messageJson) throws Exception {
-        // 📌 Añade un log aquí para verificar que se invoque
-        System.out.println("🔔 RedisSubscriber got: " + messageJson);
-        ChatMessageDTO msg = objectMapper.readValue(messageJson, ChatMessageDTO.class);
-        System.out.println("🔔 RedisSubscriber got: " + messageJson);
-        System.out.println("🛰️ Enviando a WS /user/" + msg.getReceptorId() + "/queue/messages");
-        messagingTemplate.convertAndSendToUser(
-                msg.getReceptorId().toString(),
-                "/queue/messages",
-                msg
-        );
-        System.out.println("✔️ Enviado al broker STOMP");
+    // el registro del broker simple es local: sólo tiene las sesiones de este nodo
+    boolean suscrito(Long personaId) {
+        SimpUser usuario = userRegistry.getUser(personaId.toString());
+        if (usuario == null) return false;
+        for (SimpSession sesion : usuario.getSessions()) {
+            if (sesion.getSubscriptions().stream().anyMatch(s -> ("/user" + DESTINO).equals(s.getDestination()))) return true;
+        }
+        return false;
     }
 }
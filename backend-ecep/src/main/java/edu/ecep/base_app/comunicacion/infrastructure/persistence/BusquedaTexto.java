@@ -0,0 +1,50 @@
+package edu.ecep.base_app.comunicacion.infrastructure.persistence;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Búsqueda {@code $text} paginada por relevancia. El alcance va en el mismo {@code $match} que
+ * el texto y debe cubrir los prefijos de igualdad del índice, así Mongo sólo recorre las
+ * entradas de quien consulta. El orden es puntaje descendente y {@code _id} para desempatar;
+ * la posición ({@code puntaje}, {@code _id}) del último resultado es el cursor de la página siguiente.
+ */
+public final class BusquedaTexto {
+
+    private static final String PUNTAJE = "_puntaje";
+
+    private BusquedaTexto() {
+    }
+
+    public record Posicion(double puntaje, String id) {}
+
+    public record Resultado<T>(T documento, double puntaje) {}
+
+    static <T> List<Resultado<T>> ejecutar(MongoTemplate mongoTemplate, Class<T> tipo, Document alcance,
+                                           String consulta, Posicion desde, int limite) {
+        List<Document> pipeline = new ArrayList<>();
+        pipeline.add(new Document("$match", new Document(alcance)
+                .append("$text", new Document("$search", consulta))));
+        pipeline.add(new Document("$addFields", new Document(PUNTAJE, new Document("$meta", "textScore"))));
+        if (desde != null) {
+            Object id = ObjectId.isValid(desde.id()) ? new ObjectId(desde.id()) : desde.id();
+            pipeline.add(new Document("$match", new Document("$or", List.of(
+                    new Document(PUNTAJE, new Document("$lt", desde.puntaje())),
+                    new Document(PUNTAJE, desde.puntaje()).append("_id", new Document("$gt", id))))));
+        }
+        pipeline.add(new Document("$sort", new Document(PUNTAJE, -1).append("_id", 1)));
+        pipeline.add(new Document("$limit", limite));
+
+        List<Resultado<T>> res = new ArrayList<>();
+        mongoTemplate.getCollection(mongoTemplate.getCollectionName(tipo)).aggregate(pipeline).forEach(doc -> {
+            double puntaje = doc.getDouble(PUNTAJE);
+            doc.remove(PUNTAJE);
+            res.add(new Resultado<>(mongoTemplate.getConverter().read(tipo, doc), puntaje));
+        });
+        return res;
+    }
+}
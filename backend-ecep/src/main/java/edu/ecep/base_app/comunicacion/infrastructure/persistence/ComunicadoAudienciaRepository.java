@@ -0,0 +1,46 @@
+package edu.ecep.base_app.comunicacion.infrastructure.persistence;
+
+import edu.ecep.base_app.comunicacion.domain.enums.AlcanceComunicado;
+import edu.ecep.base_app.shared.domain.enums.NivelAcademico;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Resuelve los destinatarios de un comunicado en una única consulta: los familiares de los
+ * alumnos con sección vigente en la fecha, filtrados según el alcance. Un familiar con varios
+ * hijos aparece una sola vez.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ComunicadoAudienciaRepository {
+
+    private static final String FAMILIARES_SQL = """
+        SELECT DISTINCT af.familiar_id
+          FROM matricula_seccion_historial h
+          JOIN matriculas m ON m.id = h.matricula_id AND m.activo = true
+          JOIN secciones s ON s.id = h.seccion_id AND s.activo = true
+          JOIN alumno_familiar af ON af.alumno_id = m.alumno_id AND af.activo = true
+         WHERE h.activo = true
+           AND h.desde <= ?
+           AND (h.hasta IS NULL OR h.hasta >= ?)
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Ids de persona de los familiares alcanzados (el id de familiar es el de su persona). */
+    public List<Long> destinatarios(AlcanceComunicado alcance, Long seccionId, NivelAcademico nivel, LocalDate fecha) {
+        Date dia = Date.valueOf(fecha);
+        return switch (alcance) {
+            case INSTITUCIONAL -> jdbcTemplate.queryForList(FAMILIARES_SQL, Long.class, dia, dia);
+            case POR_NIVEL -> jdbcTemplate.queryForList(FAMILIARES_SQL + "   AND s.nivel = ?", Long.class,
+                    dia, dia, nivel.name());
+            case POR_SECCION -> jdbcTemplate.queryForList(FAMILIARES_SQL + "   AND s.id = ?", Long.class,
+                    dia, dia, seccionId);
+        };
+    }
+}
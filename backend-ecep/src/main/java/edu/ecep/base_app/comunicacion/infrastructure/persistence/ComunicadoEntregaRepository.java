@@ -0,0 +1,19 @@
+package edu.ecep.base_app.comunicacion.infrastructure.persistence;
+
+import edu.ecep.base_app.comunicacion.domain.ComunicadoEntrega;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.List;
+
+public interface ComunicadoEntregaRepository
+        extends MongoRepository<ComunicadoEntrega, String>, ComunicadoEntregaRepositoryCustom {
+
+    List<ComunicadoEntrega> findByPersonaIdOrderByFechaEntregaDesc(Long personaId, Limit limit);
+
+    List<ComunicadoEntrega> findByComunicadoId(String comunicadoId);
+
+    boolean existsByComunicadoIdAndPersonaId(String comunicadoId, Long personaId);
+
+    void deleteByComunicadoId(String comunicadoId);
+}
@@ -0,0 +1,27 @@
+package edu.ecep.base_app.comunicacion.infrastructure.persistence;
+
+import edu.ecep.base_app.comunicacion.domain.Comunicado;
+import edu.ecep.base_app.comunicacion.domain.ComunicadoEntrega;
+import edu.ecep.base_app.comunicacion.infrastructure.persistence.BusquedaTexto.Posicion;
+import edu.ecep.base_app.comunicacion.infrastructure.persistence.BusquedaTexto.Resultado;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+public interface ComunicadoEntregaRepositoryCustom {
+
+    /**
+     * Inserta en bloque las entradas de un comunicado y devuelve los destinatarios que no la
+     * tenían; los duplicados (republicación) se ignoran.
+     */
+    List<Long> insertarLote(Comunicado comunicado, List<Long> personaIds, OffsetDateTime fecha);
+
+    /** Marca la entrada como leída; false si no existe o ya estaba leída. */
+    boolean marcarLeido(String comunicadoId, Long personaId, OffsetDateTime fecha);
+
+    /** Replica en las entradas ya entregadas un cambio de título o cuerpo. */
+    void actualizarTexto(Comunicado comunicado);
+
+    /** Comunicados recibidos por la persona que coinciden con la consulta, por relevancia. */
+    List<Resultado<ComunicadoEntrega>> buscar(Long personaId, String consulta, Posicion desde, int limite);
+}
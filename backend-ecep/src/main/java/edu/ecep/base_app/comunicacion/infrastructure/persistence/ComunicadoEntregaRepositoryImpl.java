@@ -0,0 +1,75 @@
+package edu.ecep.base_app.comunicacion.infrastructure.persistence;
+
+import com.mongodb.bulk.BulkWriteError;
+import edu.ecep.base_app.comunicacion.domain.Comunicado;
+import edu.ecep.base_app.comunicacion.domain.ComunicadoEntrega;
+import edu.ecep.base_app.comunicacion.infrastructure.persistence.BusquedaTexto.Posicion;
+import edu.ecep.base_app.comunicacion.infrastructure.persistence.BusquedaTexto.Resultado;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@RequiredArgsConstructor
+class ComunicadoEntregaRepositoryImpl implements ComunicadoEntregaRepositoryCustom {
+
+    private static final int CLAVE_DUPLICADA = 11000;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public List<Long> insertarLote(Comunicado comunicado, List<Long> personaIds, OffsetDateTime fecha) {
+        if (personaIds.isEmpty()) return List.of();
+        List<ComunicadoEntrega> entregas = personaIds.stream()
+                .map(id -> new ComunicadoEntrega(comunicado, id, fecha))
+                .toList();
+        try {
+            // desordenado: un duplicado no corta el resto del lote
+            mongoTemplate.bulkOps(BulkMode.UNORDERED, ComunicadoEntrega.class).insert(entregas).execute();
+            return personaIds;
+        } catch (BulkOperationException ex) {
+            Set<Integer> duplicados = new HashSet<>();
+            for (BulkWriteError error : ex.getErrors()) {
+                if (error.getCode() != CLAVE_DUPLICADA) throw ex;
+                duplicados.add(error.getIndex());
+            }
+            List<Long> nuevos = new ArrayList<>(personaIds.size() - duplicados.size());
+            for (int i = 0; i < personaIds.size(); i++) {
+                if (!duplicados.contains(i)) nuevos.add(personaIds.get(i));
+            }
+            return nuevos;
+        }
+    }
+
+    @Override
+    public boolean marcarLeido(String comunicadoId, Long personaId, OffsetDateTime fecha) {
+        Query query = Query.query(Criteria.where("comunicado_id").is(comunicadoId)
+                .and("persona_id").is(personaId)
+                .and("fecha_lectura").is(null));
+        return mongoTemplate.updateFirst(query, Update.update("fecha_lectura", fecha), ComunicadoEntrega.class)
+                .getModifiedCount() > 0;
+    }
+
+    @Override
+    public void actualizarTexto(Comunicado comunicado) {
+        mongoTemplate.updateMulti(Query.query(Criteria.where("comunicado_id").is(comunicado.getId())),
+                new Update().set("titulo", comunicado.getTitulo()).set("cuerpo", comunicado.getCuerpo()),
+                ComunicadoEntrega.class);
+    }
+
+    @Override
+    public List<Resultado<ComunicadoEntrega>> buscar(Long personaId, String consulta, Posicion desde, int limite) {
+        return BusquedaTexto.ejecutar(mongoTemplate, ComunicadoEntrega.class,
+                new Document("persona_id", personaId), consulta, desde, limite);
+    }
+}
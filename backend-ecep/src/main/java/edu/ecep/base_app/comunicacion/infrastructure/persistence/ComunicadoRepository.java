@@ -6,7 +6,7 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 import java.util.List;
 import java.util.Optional;
 
-public interface ComunicadoRepository extends MongoRepository<Comunicado, String> {
+public interface ComunicadoRepository extends MongoRepository<Comunicado, String>, ComunicadoRepositoryCustom {
     List<Comunicado> findByActivoTrueOrderByDateCreatedDesc();
     Optional<Comunicado> findByIdAndActivoTrue(String id);
 }
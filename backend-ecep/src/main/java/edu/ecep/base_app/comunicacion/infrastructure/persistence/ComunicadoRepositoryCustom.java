@@ -0,0 +1,28 @@
+package edu.ecep.base_app.comunicacion.infrastructure.persistence;
+
+import edu.ecep.base_app.comunicacion.domain.Comunicado;
+import edu.ecep.base_app.comunicacion.infrastructure.persistence.BusquedaTexto.Posicion;
+import edu.ecep.base_app.comunicacion.infrastructure.persistence.BusquedaTexto.Resultado;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface ComunicadoRepositoryCustom {
+
+    /**
+     * Toma atómicamente el comunicado programado más antiguo ya vencido y sin publicar, por el
+     * plazo indicado. Dos nodos nunca obtienen el mismo mientras el turno esté vigente.
+     */
+    Optional<Comunicado> reclamarVencido(OffsetDateTime ahora, Duration plazo);
+
+    /**
+     * Marca como publicado el comunicado si sigue activo, sin tocar el resto del documento, y
+     * libera el turno. Devuelve el documento actualizado, o vacío si fue dado de baja.
+     */
+    Optional<Comunicado> marcarPublicado(String id, OffsetDateTime fechaPublicacion, int destinatarios);
+
+    /** Todos los comunicados activos que coinciden con la consulta, por relevancia. */
+    List<Resultado<Comunicado>> buscar(String consulta, Posicion desde, int limite);
+}
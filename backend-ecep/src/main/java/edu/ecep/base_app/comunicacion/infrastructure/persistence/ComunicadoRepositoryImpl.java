@@ -0,0 +1,58 @@
+package edu.ecep.base_app.comunicacion.infrastructure.persistence;
+
+import edu.ecep.base_app.comunicacion.domain.Comunicado;
+import edu.ecep.base_app.comunicacion.infrastructure.persistence.BusquedaTexto.Posicion;
+import edu.ecep.base_app.comunicacion.infrastructure.persistence.BusquedaTexto.Resultado;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+class ComunicadoRepositoryImpl implements ComunicadoRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public Optional<Comunicado> reclamarVencido(OffsetDateTime ahora, Duration plazo) {
+        // publicado + fecha_prog_publicacion acotan el recorrido de publicacion_idx a los vencidos;
+        // activo y el turno se filtran sobre esos pocos documentos
+        Query query = Query.query(Criteria.where("publicado").is(false)
+                        .and("fecha_prog_publicacion").lte(ahora)
+                        .and("activo").is(true)
+                        .orOperator(Criteria.where("reclamado_hasta").is(null),
+                                Criteria.where("reclamado_hasta").lte(ahora)))
+                .with(Sort.by("fecha_prog_publicacion"));
+        return Optional.ofNullable(mongoTemplate.findAndModify(query,
+                Update.update("reclamado_hasta", ahora.plus(plazo)),
+                FindAndModifyOptions.options().returnNew(true),
+                Comunicado.class));
+    }
+
+    @Override
+    public Optional<Comunicado> marcarPublicado(String id, OffsetDateTime fechaPublicacion, int destinatarios) {
+        Query query = Query.query(Criteria.where("_id").is(id).and("activo").is(true));
+        Update update = new Update()
+                .set("publicado", true)
+                .set("fecha_publicacion", fechaPublicacion)
+                .set("destinatarios", destinatarios)
+                .unset("reclamado_hasta");
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), Comunicado.class));
+    }
+
+    @Override
+    public List<Resultado<Comunicado>> buscar(String consulta, Posicion desde, int limite) {
+        return BusquedaTexto.ejecutar(mongoTemplate, Comunicado.class,
+                new Document("activo", true), consulta, desde, limite);
+    }
+}
@@ -0,0 +1,18 @@
+package edu.ecep.base_app.comunicacion.infrastructure.persistence;
+
+import edu.ecep.base_app.comunicacion.domain.Conversacion;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+
+import java.util.List;
+
+public interface ConversacionRepository extends MongoRepository<Conversacion, String>, ConversacionRepositoryCustom {
+
+    // bandeja_idx: igualdad sobre participantes y el orden ya sale del índice
+    @Query(value = "{ 'participantes': ?0 }", sort = "{ 'ultima_fecha': -1 }")
+    List<Conversacion> findBandeja(Long personaId, Limit limit);
+
+    @Query(value = "{ 'participantes': ?0 }", fields = "{ 'participantes': 1, 'no_leidos_menor': 1, 'no_leidos_mayor': 1 }")
+    List<Conversacion> findContadores(Long personaId);
+}
@@ -0,0 +1,37 @@
+package edu.ecep.base_app.comunicacion.infrastructure.persistence;
+
+import edu.ecep.base_app.comunicacion.domain.Mensaje;
+import org.bson.Document;
+
+import java.util.List;
+
+/** Actualizaciones atómicas del resumen de conversación (un solo documento por operación). */
+public interface ConversacionRepositoryCustom {
+
+    /** Registra un mensaje nuevo: último mensaje si es el más reciente y +1 no leído al receptor. */
+    void registrarMensaje(Mensaje mensaje, int largoVistaPrevia);
+
+    /**
+     * Saca de la conversación un mensaje dado de baja: resta el no leído si el receptor todavía lo
+     * tenía pendiente y, si era el último, pone en su lugar el último activo que quede.
+     */
+    void quitarMensaje(Mensaje mensaje, int largoVistaPrevia);
+
+    /** Renueva la vista previa si el mensaje editado sigue siendo el último de su conversación. */
+    void actualizarVistaPrevia(Mensaje mensaje, int largoVistaPrevia);
+
+    /**
+     * Deja en cero los no leídos de {@code lectorId} en la conversación con {@code otroId} y lleva
+     * su marca de agua hasta el último mensaje de la conversación.
+     */
+    void marcarLeida(Long lectorId, Long otroId);
+
+    /**
+     * Registra que los mensajes (documentos crudos de {@code mensajes}) pasaron al archivo; crea el
+     * resumen de la conversación si todavía no existía.
+     */
+    void marcarArchivados(List<Document> mensajes, int largoVistaPrevia);
+
+    /** Regenera toda la colección desde {@code mensajes} y el archivo. */
+    void rebuild(int largoVistaPrevia);
+}
@@ -0,0 +1,220 @@
+package edu.ecep.base_app.comunicacion.infrastructure.persistence;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
+import edu.ecep.base_app.comunicacion.domain.Conversacion;
+import edu.ecep.base_app.comunicacion.domain.Mensaje;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+class ConversacionRepositoryImpl implements ConversacionRepositoryCustom {
+
+    private static final String COLECCION = "conversaciones";
+
+    private final MongoTemplate mongoTemplate;
+    private final MensajeArchivoRepository archivo;
+
+    @Override
+    public void registrarMensaje(Mensaje mensaje, int largoVistaPrevia) {
+        long menor = Math.min(mensaje.getEmisorId(), mensaje.getReceptorId());
+        long mayor = Math.max(mensaje.getEmisorId(), mensaje.getReceptorId());
+        String contador = mensaje.getReceptorId() == menor ? "no_leidos_menor" : "no_leidos_mayor";
+        Date fecha = Date.from(mensaje.getFechaEnvio().toInstant());
+
+        // update con pipeline: el upsert y el "sólo si es más nuevo" quedan en una única operación
+        // atómica, así dos envíos concurrentes no dejan como último al que llegó antes
+        Document masNuevo = new Document("$lte", List.of(new Document("$ifNull", List.of("$ultima_fecha", new Date(0))), fecha));
+        Document set = new Document("participantes", List.of(menor, mayor))
+                .append(contador, new Document("$add", List.of(new Document("$ifNull", List.of("$" + contador, 0L)), 1L)))
+                .append("ultimo_mensaje_id", siMasNuevo(masNuevo, mensaje.getId(), "ultimo_mensaje_id"))
+                .append("ultimo_emisor_id", siMasNuevo(masNuevo, mensaje.getEmisorId(), "ultimo_emisor_id"))
+                .append("ultimo_contenido", siMasNuevo(masNuevo, vistaPrevia(mensaje.getContenido(), largoVistaPrevia), "ultimo_contenido"))
+                .append("ultima_fecha", siMasNuevo(masNuevo, fecha, "ultima_fecha"));
+
+        mongoTemplate.getCollection(COLECCION).updateOne(
+                new Document("_id", Conversacion.idPara(menor, mayor)),
+                List.of(new Document("$set", set)),
+                new UpdateOptions().upsert(true));
+    }
+
+    @Override
+    public void quitarMensaje(Mensaje mensaje, int largoVistaPrevia) {
+        long menor = Math.min(mensaje.getEmisorId(), mensaje.getReceptorId());
+        long mayor = Math.max(mensaje.getEmisorId(), mensaje.getReceptorId());
+        String lado = mensaje.getReceptorId() == menor ? "menor" : "mayor";
+        String contador = "no_leidos_" + lado;
+        String id = Conversacion.idPara(menor, mayor);
+        MongoCollection<Document> conversaciones = mongoTemplate.getCollection(COLECCION);
+
+        if (!Boolean.TRUE.equals(mensaje.getLeido())) {
+            // pendiente según la marca de agua vigente al aplicar el update, no la leída antes
+            Document pendiente = new Document("$gt", List.of(Date.from(mensaje.getFechaEnvio().toInstant()),
+                    new Document("$ifNull", List.of("$leido_hasta_" + lado, new Date(0)))));
+            Document restado = new Document("$max", List.of(0L, new Document("$add", List.of(
+                    new Document("$ifNull", List.of("$" + contador, 0L)), -1L))));
+            conversaciones.updateOne(new Document("_id", id), List.of(new Document("$set",
+                    new Document(contador, new Document("$cond", List.of(pendiente, restado, "$" + contador))))));
+        }
+
+        // el filtro por ultimo_mensaje_id descarta el reemplazo si mientras tanto llegó otro mensaje
+        Document eraUltimo = new Document("_id", id).append("ultimo_mensaje_id", mensaje.getId());
+        if (conversaciones.countDocuments(eraUltimo) == 0) return;
+        Mensaje anterior = ultimoActivo(menor, mayor);
+        if (anterior == null) {
+            conversaciones.deleteOne(eraUltimo);
+            return;
+        }
+        conversaciones.updateOne(eraUltimo, new Document("$set", new Document("ultimo_mensaje_id", anterior.getId())
+                .append("ultimo_emisor_id", anterior.getEmisorId())
+                .append("ultimo_contenido", vistaPrevia(anterior.getContenido(), largoVistaPrevia))
+                .append("ultima_fecha", Date.from(anterior.getFechaEnvio().toInstant()))));
+    }
+
+    @Override
+    public void actualizarVistaPrevia(Mensaje mensaje, int largoVistaPrevia) {
+        // el filtro por ultimo_mensaje_id deja intacto el resumen si el editado ya no es el último
+        mongoTemplate.getCollection(COLECCION).updateOne(
+                new Document("_id", Conversacion.idPara(mensaje.getEmisorId(), mensaje.getReceptorId()))
+                        .append("ultimo_mensaje_id", mensaje.getId()),
+                new Document("$set", new Document("ultimo_contenido", vistaPrevia(mensaje.getContenido(), largoVistaPrevia))));
+    }
+
+    @Override
+    public void marcarLeida(Long lectorId, Long otroId) {
+        String lado = lectorId < otroId ? "menor" : "mayor";
+        String marca = "leido_hasta_" + lado;
+        // un único documento por lectura, sin importar cuántos mensajes había pendientes;
+        // $max porque la marca nunca retrocede
+        mongoTemplate.getCollection(COLECCION).updateOne(
+                new Document("_id", Conversacion.idPara(lectorId, otroId)),
+                List.of(new Document("$set", new Document("no_leidos_" + lado, 0L)
+                        .append(marca, new Document("$max", List.of("$" + marca, "$ultima_fecha"))))));
+    }
+
+    @Override
+    public void marcarArchivados(List<Document> mensajes, int largoVistaPrevia) {
+        Map<String, Document> ultimos = new LinkedHashMap<>();
+        for (Document m : mensajes) {
+            if (m.get("emisor_id") == null || m.get("receptor_id") == null) continue;
+            String id = Conversacion.idPara(((Number) m.get("emisor_id")).longValue(), ((Number) m.get("receptor_id")).longValue());
+            ultimos.merge(id, m, (a, b) -> a.getDate("fecha_envio").after(b.getDate("fecha_envio")) ? a : b);
+        }
+        if (ultimos.isEmpty()) return;
+        List<WriteModel<Document>> ops = new ArrayList<>(ultimos.size());
+        ultimos.forEach((id, m) -> {
+            long emisor = ((Number) m.get("emisor_id")).longValue();
+            long receptor = ((Number) m.get("receptor_id")).longValue();
+            // sin resumen previo (alta fallida o anterior a los resúmenes) se crea uno con el último
+            // archivado; sin archivado_hasta el historial no leería estos mensajes del archivo
+            Document alCrear = new Document("participantes", List.of(Math.min(emisor, receptor), Math.max(emisor, receptor)))
+                    .append("ultimo_mensaje_id", m.get("_id").toString())
+                    .append("ultimo_emisor_id", emisor)
+                    .append("ultimo_contenido", vistaPrevia(m.getString("contenido"), largoVistaPrevia))
+                    .append("ultima_fecha", m.getDate("fecha_envio"));
+            ops.add(new UpdateOneModel<>(new Document("_id", id),
+                    new Document("$max", new Document("archivado_hasta", m.getDate("fecha_envio")))
+                            .append("$setOnInsert", alCrear),
+                    new UpdateOptions().upsert(true)));
+        });
+        mongoTemplate.getCollection(COLECCION).bulkWrite(ops);
+    }
+
+    @Override
+    public void rebuild(int largoVistaPrevia) {
+        Document menor = new Document("$min", List.of("$emisor_id", "$receptor_id"));
+        Document mayor = new Document("$max", List.of("$emisor_id", "$receptor_id"));
+        Document paraMenor = new Document("$eq", List.of("$receptor_id", "$menor"));
+        List<Document> pipeline = new ArrayList<>();
+        pipeline.add(new Document("$match", new Document("activo", new Document("$ne", false))));
+        // el archivo sólo guarda mensajes activos; sus filas llegan marcadas con 'archivado'
+        pipeline.addAll(archivo.unionConArchivo());
+        pipeline.addAll(List.of(
+                new Document("$sort", new Document("fecha_envio", 1)),
+                new Document("$project", new Document("menor", menor)
+                        .append("mayor", mayor)
+                        .append("emisor_id", 1)
+                        .append("receptor_id", 1)
+                        .append("fecha_envio", 1)
+                        .append("leido", 1)
+                        .append("archivado", 1)
+                        .append("mensaje_id", new Document("$toString", "$_id"))
+                        .append("contenido", new Document("$substrCP", List.of(
+                                new Document("$ifNull", List.of("$contenido", "")), 0, largoVistaPrevia)))),
+                new Document("$addFields", new Document("conversacion_id", new Document("$concat", List.of(
+                        new Document("$toString", "$menor"), ":", new Document("$toString", "$mayor"))))),
+                // las marcas de agua no se derivan de los mensajes: se conservan las del resumen actual
+                // ($out escribe en una colección temporal, el $lookup lee la vigente)
+                new Document("$lookup", new Document("from", COLECCION)
+                        .append("localField", "conversacion_id")
+                        .append("foreignField", "_id")
+                        .append("pipeline", List.of(new Document("$project",
+                                new Document("leido_hasta_menor", 1).append("leido_hasta_mayor", 1))))
+                        .append("as", "previa")),
+                new Document("$addFields", new Document("leido_hasta_menor", new Document("$first", "$previa.leido_hasta_menor"))
+                        .append("leido_hasta_mayor", new Document("$first", "$previa.leido_hasta_mayor"))),
+                // pendiente: no leído por el flag de antes de las marcas de agua y posterior a la marca del receptor
+                new Document("$addFields", new Document("pendiente", new Document("$cond", List.of(
+                        new Document("$and", List.of(
+                                new Document("$eq", List.of("$leido", false)),
+                                new Document("$gt", List.of("$fecha_envio", new Document("$ifNull", List.of(
+                                        new Document("$cond", List.of(paraMenor, "$leido_hasta_menor", "$leido_hasta_mayor")),
+                                        new Date(0))))))),
+                        1L, 0L)))),
+                new Document("$group", new Document("_id", "$conversacion_id")
+                        .append("participantes", new Document("$first", List.of("$menor", "$mayor")))
+                        .append("ultimo_mensaje_id", new Document("$last", "$mensaje_id"))
+                        .append("ultimo_emisor_id", new Document("$last", "$emisor_id"))
+                        .append("ultimo_contenido", new Document("$last", "$contenido"))
+                        .append("ultima_fecha", new Document("$last", "$fecha_envio"))
+                        .append("no_leidos_menor", new Document("$sum", new Document("$cond", List.of(
+                                paraMenor, "$pendiente", 0L))))
+                        .append("no_leidos_mayor", new Document("$sum", new Document("$cond", List.of(
+                                new Document("$eq", List.of("$receptor_id", "$mayor")), "$pendiente", 0L))))
+                        .append("leido_hasta_menor", new Document("$first", "$leido_hasta_menor"))
+                        .append("leido_hasta_mayor", new Document("$first", "$leido_hasta_mayor"))
+                        .append("archivado_hasta", new Document("$max", new Document("$cond", Arrays.asList(
+                                new Document("$eq", List.of("$archivado", true)), "$fecha_envio", null))))),
+                // $out reemplaza la colección de una vez y conserva sus índices
+                new Document("$out", COLECCION)));
+        mongoTemplate.getCollection(mongoTemplate.getCollectionName(Mensaje.class))
+                .aggregate(pipeline)
+                .allowDiskUse(true)
+                .toCollection();
+    }
+
+    private Mensaje ultimoActivo(long menor, long mayor) {
+        Document reciente = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Mensaje.class))
+                .find(new Document("activo", new Document("$ne", false)).append("$or", List.of(
+                        new Document("emisor_id", menor).append("receptor_id", mayor),
+                        new Document("emisor_id", mayor).append("receptor_id", menor))))
+                .sort(new Document("fecha_envio", -1).append("_id", -1))
+                .limit(1)
+                .first();
+        if (reciente != null) return mongoTemplate.getConverter().read(Mensaje.class, reciente);
+        // sin recientes, el último es el más nuevo del archivo (que sólo guarda activos)
+        List<Mensaje> archivados = archivo.buscar(menor, mayor, Instant.now(), true, 1);
+        return archivados.isEmpty() ? null : archivados.get(0);
+    }
+
+    private static Document siMasNuevo(Document masNuevo, Object valor, String campo) {
+        return new Document("$cond", List.of(masNuevo, new Document("$literal", valor), "$" + campo));
+    }
+
+    private static String vistaPrevia(String contenido, int largo) {
+        // en code points, igual que $substrCP en el rebuild
+        if (contenido == null || contenido.codePointCount(0, contenido.length()) <= largo) return contenido;
+        return contenido.substring(0, contenido.offsetByCodePoints(0, largo));
+    }
+}
@@ -0,0 +1,11 @@
+package edu.ecep.base_app.comunicacion.infrastructure.persistence;
+
+import edu.ecep.base_app.comunicacion.domain.GrupoLectura;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.List;
+
+public interface GrupoLecturaRepository extends MongoRepository<GrupoLectura, String>, GrupoLecturaRepositoryCustom {
+
+    List<GrupoLectura> findBySeccionId(Long seccionId);
+}
@@ -0,0 +1,7 @@
+package edu.ecep.base_app.comunicacion.infrastructure.persistence;
+
+public interface GrupoLecturaRepositoryCustom {
+
+    /** Lleva la marca de agua del miembro hasta {@code secuencia}; nunca la hace retroceder. */
+    void avanzar(Long seccionId, Long personaId, long secuencia);
+}
@@ -0,0 +1,29 @@
+package edu.ecep.base_app.comunicacion.infrastructure.persistence;
+
+import com.mongodb.client.model.UpdateOptions;
+import edu.ecep.base_app.comunicacion.domain.GrupoLectura;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.Date;
+import java.util.List;
+
+@RequiredArgsConstructor
+class GrupoLecturaRepositoryImpl implements GrupoLecturaRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void avanzar(Long seccionId, Long personaId, long secuencia) {
+        // pipeline: la fecha sólo cambia si la marca avanza, en la misma operación atómica
+        Document avanza = new Document("$gt", List.of(secuencia, new Document("$ifNull", List.of("$ultima_leida", 0L))));
+        mongoTemplate.getCollection(mongoTemplate.getCollectionName(GrupoLectura.class)).updateOne(
+                new Document("_id", GrupoLectura.idPara(seccionId, personaId)),
+                List.of(new Document("$set", new Document("seccion_id", seccionId)
+                        .append("persona_id", personaId)
+                        .append("fecha_lectura", new Document("$cond", List.of(avanza, new Date(), "$fecha_lectura")))
+                        .append("ultima_leida", new Document("$cond", List.of(avanza, secuencia, "$ultima_leida"))))),
+                new UpdateOptions().upsert(true));
+    }
+}
@@ -0,0 +1,35 @@
+package edu.ecep.base_app.comunicacion.infrastructure.persistence;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.ecep.base_app.comunicacion.domain.MiembrosGrupo;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/** Miembros de cada grupo por sección en Redis ({@code chat:grupo:miembros:{seccionId}}), con vencimiento. */
+@Repository
+@RequiredArgsConstructor
+public class GrupoMiembrosCacheRepository {
+
+    private static final String KEY_PREFIX = "chat:grupo:miembros:";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    public Optional<MiembrosGrupo> find(Long seccionId) {
+        Object raw = redisTemplate.opsForValue().get(KEY_PREFIX + seccionId);
+        // el serializer JSON del template no guarda tipos: vuelve como mapa
+        return Optional.ofNullable(raw).map(r -> objectMapper.convertValue(r, MiembrosGrupo.class));
+    }
+
+    public void save(Long seccionId, MiembrosGrupo miembros, Duration ttl) {
+        redisTemplate.opsForValue().set(KEY_PREFIX + seccionId, miembros, ttl);
+    }
+
+    public void evict(Long seccionId) {
+        redisTemplate.delete(KEY_PREFIX + seccionId);
+    }
+}
@@ -0,0 +1,38 @@
+package edu.ecep.base_app.comunicacion.infrastructure.persistence;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Lado familiar de la membresía de los grupos por sección: las secciones vigentes de los hijos
+ * de una persona. El camino inverso (familiares de una sección) es el de
+ * {@link ComunicadoAudienciaRepository} con alcance por sección.
+ */
+@Repository
+@RequiredArgsConstructor
+public class GrupoMiembrosRepository {
+
+    private static final String SECCIONES_FAMILIAR_SQL = """
+        SELECT DISTINCT h.seccion_id
+          FROM alumno_familiar af
+          JOIN matriculas m ON m.alumno_id = af.alumno_id AND m.activo = true
+          JOIN matricula_seccion_historial h ON h.matricula_id = m.id AND h.activo = true
+          JOIN secciones s ON s.id = h.seccion_id AND s.activo = true
+         WHERE af.familiar_id = ?
+           AND af.activo = true
+           AND h.desde <= ?
+           AND (h.hasta IS NULL OR h.hasta >= ?)
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<Long> seccionesDeFamiliar(Long personaId, LocalDate fecha) {
+        Date dia = Date.valueOf(fecha);
+        return jdbcTemplate.queryForList(SECCIONES_FAMILIAR_SQL, Long.class, personaId, dia, dia);
+    }
+}
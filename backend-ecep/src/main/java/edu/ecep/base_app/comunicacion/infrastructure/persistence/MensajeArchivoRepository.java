@@ -0,0 +1,225 @@
+package edu.ecep.base_app.comunicacion.infrastructure.persistence;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.CreateCollectionOptions;
+import com.mongodb.client.model.DeleteOneModel;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.WriteModel;
+import edu.ecep.base_app.comunicacion.domain.Mensaje;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Archivo de mensajes viejos, en una colección por mes de envío ({@code mensajes_archivo_2024_03}).
+ * Las colecciones se crean con la compresión de bloques indicada y sólo con el índice del historial,
+ * así lo que se archiva deja de ocupar caché junto con los mensajes recientes. Copiar es idempotente
+ * (reemplaza la copia que haya), de modo que una pasada cortada a la mitad se retoma sin perder nada.
+ * Sólo se archivan mensajes activos: los dados de baja se purgan.
+ */
+@Repository
+@RequiredArgsConstructor
+public class MensajeArchivoRepository {
+
+    public static final String PREFIJO = "mensajes_archivo_";
+    private static final DateTimeFormatter MES = DateTimeFormatter.ofPattern("yyyy_MM").withZone(ZoneOffset.UTC);
+    private static final int COLECCION_EXISTENTE = 48;
+
+    private final MongoTemplate mongoTemplate;
+
+    public static String coleccion(Instant fechaEnvio) {
+        return PREFIJO + MES.format(fechaEnvio);
+    }
+
+    /** Próximo lote de mensajes activos enviados antes de {@code limite}, del más viejo al más nuevo. */
+    public List<Document> vencidos(Instant limite, int tam) {
+        return mensajes().find(Filters.and(
+                        Filters.lt("fecha_envio", Date.from(limite)),
+                        Filters.ne("activo", false)))
+                .sort(new Document("fecha_envio", 1))
+                .limit(tam)
+                .into(new ArrayList<>());
+    }
+
+    /**
+     * Copia los mensajes a la colección de su mes, creándola si hace falta. Una copia que quedó de
+     * una pasada cortada se reemplaza: el archivo tiene que guardar la misma versión contra la que
+     * {@link #quitar} compara {@code last_updated}, o un mensaje editado en el medio se perdería.
+     */
+    public void copiar(List<Document> lote, String compresion) {
+        Map<String, List<Document>> porMes = new LinkedHashMap<>();
+        for (Document m : lote) {
+            porMes.computeIfAbsent(coleccion(m.getDate("fecha_envio").toInstant()), c -> new ArrayList<>()).add(m);
+        }
+        List<String> existentes = colecciones();
+        porMes.forEach((nombre, docs) -> {
+            if (!existentes.contains(nombre)) crear(nombre, compresion);
+            List<WriteModel<Document>> copias = docs.stream()
+                    .map(d -> (WriteModel<Document>) new ReplaceOneModel<>(Filters.eq("_id", d.get("_id")), d,
+                            new ReplaceOptions().upsert(true)))
+                    .toList();
+            mongoTemplate.getCollection(nombre).bulkWrite(copias, new BulkWriteOptions().ordered(false));
+        });
+    }
+
+    /**
+     * Borra de {@code mensajes} los ya copiados al archivo, sólo si siguen como se copiaron (activos y
+     * con el mismo {@code last_updated}). Los que cambiaron en el medio quedan en {@code mensajes} y se
+     * borra su copia del archivo, que quedó vieja: los editados se vuelven a archivar en el próximo
+     * lote y las bajas las purga la retención. Devuelve cuántos pasaron al archivo.
+     */
+    public long quitar(List<Document> lote) {
+        if (lote.isEmpty()) return 0;
+        List<WriteModel<Document>> borrados = lote.stream()
+                .map(d -> (WriteModel<Document>) new DeleteOneModel<Document>(Filters.and(
+                        Filters.eq("_id", d.get("_id")),
+                        Filters.ne("activo", false),
+                        Filters.eq("last_updated", d.get("last_updated")))))
+                .toList();
+        long quitados = mensajes().bulkWrite(borrados, new BulkWriteOptions().ordered(false)).getDeletedCount();
+        if (quitados == lote.size()) return quitados;
+
+        Map<Object, Document> copiados = new LinkedHashMap<>();
+        lote.forEach(d -> copiados.put(d.get("_id"), d));
+        mensajes().find(Filters.in("_id", copiados.keySet()))
+                .projection(new Document("_id", 1))
+                .forEach(d -> {
+                    Document copia = copiados.get(d.get("_id"));
+                    mongoTemplate.getCollection(coleccion(copia.getDate("fecha_envio").toInstant()))
+                            .deleteOne(Filters.eq("_id", d.get("_id")));
+                });
+        return quitados;
+    }
+
+    /** Borra definitivamente los mensajes dados de baja antes de {@code limite}. */
+    public long purgar(Instant limite) {
+        // dos consultas para que ambas usen purga_idx (parcial sobre activo = false)
+        long borrados = mensajes().deleteMany(Filters.and(
+                Filters.eq("activo", false), Filters.lt("fecha_eliminacion", Date.from(limite)))).getDeletedCount();
+        return borrados + mensajes().deleteMany(Filters.and(
+                Filters.eq("activo", false), Filters.eq("fecha_eliminacion", null))).getDeletedCount();
+    }
+
+    /**
+     * Mensajes archivados de la conversación anteriores (o posteriores) a {@code borde}, más cercanos
+     * primero. Recorre los meses desde el del borde y corta al juntar {@code limite}.
+     */
+    public List<Mensaje> buscar(Long personaA, Long personaB, Instant borde, boolean anteriores, int limite) {
+        String desde = coleccion(borde);
+        List<String> meses = colecciones().stream()
+                .filter(c -> anteriores ? c.compareTo(desde) <= 0 : c.compareTo(desde) >= 0)
+                .sorted(anteriores ? Comparator.<String>reverseOrder() : Comparator.<String>naturalOrder())
+                .toList();
+        Document fecha = new Document(anteriores ? "$lt" : "$gt", Date.from(borde));
+        Document orden = new Document("fecha_envio", anteriores ? -1 : 1);
+
+        List<Mensaje> res = new ArrayList<>();
+        for (String mes : meses) {
+            if (res.size() >= limite) break;
+            mongoTemplate.getCollection(mes).find(conversacion(personaA, personaB, fecha))
+                    .sort(orden)
+                    .limit(limite - res.size())
+                    .forEach(d -> res.add(leer(d)));
+        }
+        return res;
+    }
+
+    /** Mensaje archivado por id, buscando del mes más nuevo al más viejo. */
+    public Optional<Mensaje> porId(String id) {
+        return colecciones().stream()
+                .sorted(Comparator.reverseOrder())
+                .map(c -> mongoTemplate.findById(id, Mensaje.class, c))
+                .filter(Objects::nonNull)
+                .findFirst();
+    }
+
+    /**
+     * Guarda un mensaje archivado editado en su mes. Si la edición lo cambia de mes o lo da de baja
+     * vuelve a {@code mensajes}: la retención lo archiva en el mes que corresponde o lo purga.
+     */
+    public Mensaje actualizar(Mensaje mensaje, Instant fechaArchivada) {
+        String mes = coleccion(fechaArchivada);
+        if (mensaje.isActivo() && mensaje.getFechaEnvio() != null
+                && mes.equals(coleccion(mensaje.getFechaEnvio().toInstant()))) {
+            return mongoTemplate.save(mensaje, mes);
+        }
+        // primero se saca del archivo: un corte en el medio no deja una copia activa vieja
+        mongoTemplate.remove(Query.query(Criteria.where("_id").is(mensaje.getId())), Mensaje.class, mes);
+        return mongoTemplate.save(mensaje);
+    }
+
+    public List<Mensaje> enFecha(Long personaA, Long personaB, Instant fechaEnvio) {
+        String mes = coleccion(fechaEnvio);
+        if (!colecciones().contains(mes)) return List.of();
+        List<Mensaje> res = new ArrayList<>();
+        mongoTemplate.getCollection(mes).find(conversacion(personaA, personaB, Date.from(fechaEnvio)))
+                .forEach(d -> res.add(leer(d)));
+        return res;
+    }
+
+    /** Etapas {@code $unionWith} para que un rebuild sobre {@code mensajes} incluya también lo archivado. */
+    public List<Document> unionConArchivo() {
+        return colecciones().stream().sorted()
+                .map(c -> new Document("$unionWith", new Document("coll", c)
+                        .append("pipeline", List.of(new Document("$addFields", new Document("archivado", true))))))
+                .toList();
+    }
+
+    public List<String> colecciones() {
+        return mongoTemplate.getDb().listCollectionNames()
+                .filter(Filters.regex("name", "^" + PREFIJO))
+                .into(new ArrayList<>());
+    }
+
+    private void crear(String nombre, String compresion) {
+        CreateCollectionOptions opciones = new CreateCollectionOptions();
+        if (compresion != null && !compresion.isBlank()) {
+            opciones.storageEngineOptions(new Document("wiredTiger",
+                    new Document("configString", "block_compressor=" + compresion)));
+        }
+        try {
+            mongoTemplate.getDb().createCollection(nombre, opciones);
+        } catch (MongoCommandException ex) {
+            // otro nodo la creó en el medio
+            if (ex.getErrorCode() != COLECCION_EXISTENTE) throw ex;
+        }
+        mongoTemplate.getCollection(nombre).createIndex(
+                new Document("emisor_id", 1).append("receptor_id", 1).append("fecha_envio", 1),
+                new IndexOptions().name("chat_historial_idx"));
+    }
+
+    // misma forma que las consultas de MensajeRepository: cada rama del $or usa chat_historial_idx
+    private static Document conversacion(Long personaA, Long personaB, Object fecha) {
+        return new Document("$or", List.of(
+                new Document("emisor_id", personaA).append("receptor_id", personaB).append("fecha_envio", fecha),
+                new Document("emisor_id", personaB).append("receptor_id", personaA).append("fecha_envio", fecha)));
+    }
+
+    private Mensaje leer(Document d) {
+        return mongoTemplate.getConverter().read(Mensaje.class, d);
+    }
+
+    private MongoCollection<Document> mensajes() {
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(Mensaje.class));
+    }
+}
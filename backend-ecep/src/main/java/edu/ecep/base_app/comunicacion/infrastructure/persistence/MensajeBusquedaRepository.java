@@ -0,0 +1,10 @@
+package edu.ecep.base_app.comunicacion.infrastructure.persistence;
+
+import edu.ecep.base_app.comunicacion.domain.MensajeBusqueda;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface MensajeBusquedaRepository
+        extends MongoRepository<MensajeBusqueda, String>, MensajeBusquedaRepositoryCustom {
+
+    void deleteByMensajeId(String mensajeId);
+}
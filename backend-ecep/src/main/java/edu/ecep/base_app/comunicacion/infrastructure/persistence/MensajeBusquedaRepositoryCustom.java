@@ -0,0 +1,20 @@
+package edu.ecep.base_app.comunicacion.infrastructure.persistence;
+
+import edu.ecep.base_app.comunicacion.domain.Mensaje;
+import edu.ecep.base_app.comunicacion.domain.MensajeBusqueda;
+import edu.ecep.base_app.comunicacion.infrastructure.persistence.BusquedaTexto.Posicion;
+import edu.ecep.base_app.comunicacion.infrastructure.persistence.BusquedaTexto.Resultado;
+
+import java.util.List;
+
+public interface MensajeBusquedaRepositoryCustom {
+
+    /** Crea o reemplaza las copias del mensaje de cada participante. */
+    void indexar(Mensaje mensaje);
+
+    /** Mensajes de {@code propietarioId} que coinciden con la consulta, por relevancia. */
+    List<Resultado<MensajeBusqueda>> buscar(Long propietarioId, String consulta, Posicion desde, int limite);
+
+    /** Regenera toda la colección desde {@code mensajes}. */
+    void rebuild();
+}
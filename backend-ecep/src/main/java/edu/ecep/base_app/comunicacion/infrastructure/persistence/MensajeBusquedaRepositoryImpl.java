@@ -0,0 +1,88 @@
+package edu.ecep.base_app.comunicacion.infrastructure.persistence;
+
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.WriteModel;
+import edu.ecep.base_app.comunicacion.domain.Mensaje;
+import edu.ecep.base_app.comunicacion.domain.MensajeBusqueda;
+import edu.ecep.base_app.comunicacion.infrastructure.persistence.BusquedaTexto.Posicion;
+import edu.ecep.base_app.comunicacion.infrastructure.persistence.BusquedaTexto.Resultado;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+@RequiredArgsConstructor
+class MensajeBusquedaRepositoryImpl implements MensajeBusquedaRepositoryCustom {
+
+    private static final String COLECCION = "mensajes_busqueda";
+
+    private final MongoTemplate mongoTemplate;
+    private final MensajeArchivoRepository archivo;
+
+    @Override
+    public void indexar(Mensaje mensaje) {
+        // los cargados a mano pueden no tener participantes; no hay a quién asignarlos
+        if (mensaje.getEmisorId() == null || mensaje.getReceptorId() == null) return;
+        // un mensaje a uno mismo tiene un único propietario
+        Set<Long> propietarios = new LinkedHashSet<>(List.of(mensaje.getEmisorId(), mensaje.getReceptorId()));
+        List<WriteModel<Document>> escrituras = propietarios.stream()
+                .map(propietario -> {
+                    Long otro = propietario.equals(mensaje.getEmisorId()) ? mensaje.getReceptorId() : mensaje.getEmisorId();
+                    String id = mensaje.getId() + ":" + propietario;
+                    Document doc = new Document("_id", id)
+                            .append("propietario_id", propietario)
+                            .append("otro_id", otro)
+                            .append("mensaje_id", mensaje.getId())
+                            .append("emisor_id", mensaje.getEmisorId())
+                            .append("contenido", mensaje.getContenido())
+                            .append("fecha_envio", mensaje.getFechaEnvio() != null
+                                    ? Date.from(mensaje.getFechaEnvio().toInstant()) : null);
+                    return (WriteModel<Document>) new ReplaceOneModel<>(new Document("_id", id), doc,
+                            new ReplaceOptions().upsert(true));
+                })
+                .toList();
+        mongoTemplate.getCollection(COLECCION).bulkWrite(escrituras);
+    }
+
+    @Override
+    public List<Resultado<MensajeBusqueda>> buscar(Long propietarioId, String consulta, Posicion desde, int limite) {
+        return BusquedaTexto.ejecutar(mongoTemplate, MensajeBusqueda.class,
+                new Document("propietario_id", propietarioId), consulta, desde, limite);
+    }
+
+    @Override
+    public void rebuild() {
+        List<Document> pipeline = new ArrayList<>();
+        pipeline.add(new Document("$match", new Document("activo", new Document("$ne", false))));
+        // lo archivado sigue siendo buscable
+        pipeline.addAll(archivo.unionConArchivo());
+        pipeline.addAll(List.of(
+                new Document("$project", new Document("emisor_id", 1)
+                        .append("receptor_id", 1)
+                        .append("contenido", 1)
+                        .append("fecha_envio", 1)
+                        .append("propietario_id", new Document("$setUnion", List.of(List.of("$emisor_id", "$receptor_id"))))),
+                new Document("$unwind", "$propietario_id"),
+                new Document("$project", new Document("_id", new Document("$concat", List.of(
+                                new Document("$toString", "$_id"), ":", new Document("$toString", "$propietario_id"))))
+                        .append("propietario_id", 1)
+                        .append("otro_id", new Document("$cond", List.of(
+                                new Document("$eq", List.of("$propietario_id", "$emisor_id")), "$receptor_id", "$emisor_id")))
+                        .append("mensaje_id", new Document("$toString", "$_id"))
+                        .append("emisor_id", 1)
+                        .append("contenido", 1)
+                        .append("fecha_envio", 1)),
+                // $out reemplaza la colección de una vez y conserva sus índices
+                new Document("$out", COLECCION)));
+        mongoTemplate.getCollection(mongoTemplate.getCollectionName(Mensaje.class))
+                .aggregate(pipeline)
+                .allowDiskUse(true)
+                .toCollection();
+    }
+}
@@ -0,0 +1,7 @@
+package edu.ecep.base_app.comunicacion.infrastructure.persistence;
+
+import edu.ecep.base_app.comunicacion.domain.MensajeGrupo;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface MensajeGrupoRepository extends MongoRepository<MensajeGrupo, String>, MensajeGrupoRepositoryCustom {
+}
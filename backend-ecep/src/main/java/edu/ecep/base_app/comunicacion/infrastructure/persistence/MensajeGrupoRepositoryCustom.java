@@ -0,0 +1,24 @@
+package edu.ecep.base_app.comunicacion.infrastructure.persistence;
+
+import edu.ecep.base_app.comunicacion.domain.MensajeGrupo;
+
+import java.util.List;
+import java.util.Optional;
+
+/** Consultas por rango de {@code secuencia} dentro de un grupo, todas sobre grupo_secuencia_idx. */
+public interface MensajeGrupoRepositoryCustom {
+
+    /** Próximo número de la secuencia de la sección, con un {@code $inc} atómico sobre su contador. */
+    long siguienteSecuencia(Long seccionId);
+
+    /** Los {@code limite} mensajes anteriores a {@code antesDe} (o los últimos, si es null), del más nuevo al más viejo. */
+    List<MensajeGrupo> pagina(Long seccionId, Long antesDe, int limite);
+
+    Optional<Long> ultimaSecuencia(Long seccionId);
+
+    /**
+     * Mensajes de otros posteriores a {@code despuesDe} (todos, si es null), contando hasta {@code tope}
+     * para que un grupo muy atrasado no recorra todo el historial.
+     */
+    long contarNoLeidos(Long seccionId, Long despuesDe, Long personaId, int tope);
+}
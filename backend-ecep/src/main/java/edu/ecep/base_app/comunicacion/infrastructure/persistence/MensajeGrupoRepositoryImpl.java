@@ -0,0 +1,67 @@
+package edu.ecep.base_app.comunicacion.infrastructure.persistence;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.CountOptions;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.ReturnDocument;
+import edu.ecep.base_app.comunicacion.domain.MensajeGrupo;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+class MensajeGrupoRepositoryImpl implements MensajeGrupoRepositoryCustom {
+
+    private static final String SECUENCIAS = "grupo_secuencias";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public long siguienteSecuencia(Long seccionId) {
+        Document contador = mongoTemplate.getCollection(SECUENCIAS).findOneAndUpdate(
+                new Document("_id", seccionId),
+                new Document("$inc", new Document("valor", 1L)),
+                new FindOneAndUpdateOptions().upsert(true).returnDocument(ReturnDocument.AFTER));
+        return ((Number) contador.get("valor")).longValue();
+    }
+
+    @Override
+    public List<MensajeGrupo> pagina(Long seccionId, Long antesDe, int limite) {
+        Document filtro = activos(seccionId);
+        if (antesDe != null) filtro.append("secuencia", new Document("$lt", antesDe));
+        List<MensajeGrupo> res = new ArrayList<>(limite);
+        coleccion().find(filtro)
+                .sort(new Document("secuencia", -1))
+                .limit(limite)
+                .forEach(d -> res.add(mongoTemplate.getConverter().read(MensajeGrupo.class, d)));
+        return res;
+    }
+
+    @Override
+    public Optional<Long> ultimaSecuencia(Long seccionId) {
+        Document ultimo = coleccion().find(activos(seccionId))
+                .sort(new Document("secuencia", -1))
+                .projection(new Document("secuencia", 1).append("_id", 0))
+                .first();
+        return Optional.ofNullable(ultimo).map(d -> ((Number) d.get("secuencia")).longValue());
+    }
+
+    @Override
+    public long contarNoLeidos(Long seccionId, Long despuesDe, Long personaId, int tope) {
+        Document filtro = activos(seccionId).append("emisor_id", new Document("$ne", personaId));
+        if (despuesDe != null) filtro.append("secuencia", new Document("$gt", despuesDe));
+        return coleccion().countDocuments(filtro, new CountOptions().limit(tope));
+    }
+
+    private static Document activos(Long seccionId) {
+        return new Document("seccion_id", seccionId).append("activo", new Document("$ne", false));
+    }
+
+    private MongoCollection<Document> coleccion() {
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(MensajeGrupo.class));
+    }
+}
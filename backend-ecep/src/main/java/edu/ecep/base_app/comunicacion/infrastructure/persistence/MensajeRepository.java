@@ -1,68 +1,30 @@
 package edu.ecep.base_app.comunicacion.infrastructure.persistence;
 
 import edu.ecep.base_app.comunicacion.domain.Mensaje;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.mongodb.repository.Aggregation;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
-import org.springframework.data.mongodb.repository.Update;
 
-import java.time.OffsetDateTime;
+import java.time.Instant;
 import java.util.List;
-import java.util.Optional;
 
 public interface MensajeRepository extends MongoRepository<Mensaje, String> {
 
     @Query(value = "{ 'activo': { '$ne': false }, '$or': [ { 'emisor_id': ?0, 'receptor_id': ?1 }, { 'emisor_id': ?1, 'receptor_id': ?0 } ] }", sort = "{ 'fecha_envio': 1 }")
     List<Mensaje> findConversation(Long userId, Long otherUserId);
 
-    @Query(value = "{ 'activo': { '$ne': false }, 'emisor_id': ?1, 'receptor_id': ?0, 'leido': false }")
-    @Update("{ '$set': { 'leido': true } }")
-    void markAsRead(Long userId, Long otherUserId);
+    // Páginas del historial: la fecha va dentro de cada rama del $or para que ambas usen
+    // chat_historial_idx y Mongo combine los dos sentidos ya ordenados (SORT_MERGE), sin ordenar en memoria.
+    @Query(value = "{ 'activo': { '$ne': false }, '$or': [ { 'emisor_id': ?0, 'receptor_id': ?1, 'fecha_envio': { '$lt': ?2 } }, { 'emisor_id': ?1, 'receptor_id': ?0, 'fecha_envio': { '$lt': ?2 } } ] }", sort = "{ 'fecha_envio': -1 }")
+    List<Mensaje> findConversationBefore(Long userId, Long otherUserId, Instant before, Limit limit);
 
-    @Aggregation(pipeline = {
-            "{ '$match': { 'activo': { '$ne': false }, 'receptor_id': ?0, 'leido': false } }",
-            "{ '$group': { '_id': '$emisor_id', 'count': { '$sum': 1 } } }"
-    })
-    List<UnreadCountProjection> aggregateUnreadCounts(Long userId);
+    @Query(value = "{ 'activo': { '$ne': false }, '$or': [ { 'emisor_id': ?0, 'receptor_id': ?1, 'fecha_envio': { '$gt': ?2 } }, { 'emisor_id': ?1, 'receptor_id': ?0, 'fecha_envio': { '$gt': ?2 } } ] }", sort = "{ 'fecha_envio': 1 }")
+    List<Mensaje> findConversationAfter(Long userId, Long otherUserId, Instant after, Limit limit);
 
-    @Aggregation(pipeline = {
-            "{ '$match': { 'activo': { '$ne': false }, '$or': [ { 'emisor_id': ?0 }, { 'receptor_id': ?0 } ] } }",
-            "{ '$project': { 'contactId': { '$cond': [ { '$eq': ['$emisor_id', ?0] }, '$receptor_id', '$emisor_id' ] } } }",
-            "{ '$group': { '_id': '$contactId' } }"
-    })
-    List<ContactProjection> aggregateContactIds(Long userId);
+    @Query(value = "{ 'activo': { '$ne': false }, '$or': [ { 'emisor_id': ?0, 'receptor_id': ?1, 'fecha_envio': ?2 }, { 'emisor_id': ?1, 'receptor_id': ?0, 'fecha_envio': ?2 } ] }")
+    List<Mensaje> findConversationAt(Long userId, Long otherUserId, Instant fechaEnvio);
 
     @Query(value = "{ 'activo': { '$ne': false }, '$or': [ { 'emisor_id': ?0, 'receptor_id': ?1 }, { 'emisor_id': ?1, 'receptor_id': ?0 } ] }", sort = "{ 'fecha_envio': -1 }")
     List<Mensaje> findLastMessage(Long userId, Long otherUserId, Pageable pageable);
-
-    @Query(value = "{ 'activo': { '$ne': false }, 'emisor_id': ?1, 'receptor_id': ?0, 'leido': false }", sort = "{ 'fecha_envio': 1 }")
-    List<Mensaje> findUnreadMessages(Long userId, Long otherUserId);
-
-    @Query(value = "{ 'activo': { '$ne': false }, 'emisor_id': ?0, 'receptor_id': ?1, 'leido': false }", exists = true)
-    boolean existsByActivoTrueAndEmisorIdAndReceptorIdAndLeidoFalse(Long emisorId, Long receptorId);
-
-    @Aggregation(pipeline = {
-            "{ '$match': { 'activo': { '$ne': false }, '$or': [ { 'emisor_id': ?0 }, { 'receptor_id': ?0 } ] } }",
-            "{ '$group': { '_id': null, 'total': { '$sum': 1 }, 'unread': { '$sum': { '$cond': [ { '$and': [ { '$eq': ['$leido', false] }, { '$eq': ['$receptor_id', ?0] } ] }, 1, 0 ] } }, 'lastSent': { '$max': '$fecha_envio' } } }"
-    })
-    Optional<MessageStatsProjection> aggregateStats(Long userId);
-
-    interface UnreadCountProjection {
-        @Value("#{target._id}")
-        Long getEmisorId();
-        Long getCount();
-    }
-
-    interface ContactProjection {
-        @Value("#{target._id}")
-        Long getPersonaId();
-    }
-
-    interface MessageStatsProjection {
-        Long getTotal();
-        Long getUnread();
-        OffsetDateTime getLastSent();
-    }
 }
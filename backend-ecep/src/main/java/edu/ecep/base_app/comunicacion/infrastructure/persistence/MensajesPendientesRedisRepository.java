@@ -0,0 +1,57 @@
+package edu.ecep.base_app.comunicacion.infrastructure.persistence;
+
+import edu.ecep.base_app.comunicacion.infrastructure.codec.ChatCodecs;
+import edu.ecep.base_app.comunicacion.presentation.dto.ChatMessageDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Mensajes de chat para personas sin sesión abierta ({@code chat:pendientes:{personaId}}),
+ * entregados al volver a suscribirse. Se sacan de la lista en el mismo comando que los lee y se
+ * entregan en el acto por las sesiones locales; un nodo que cae justo en el medio los pierde,
+ * pero siguen en el historial. Los elementos van en el formato de {@link ChatCodecs}; los JSON
+ * anteriores al códec se siguen leyendo.
+ */
+@Repository
+@RequiredArgsConstructor
+public class MensajesPendientesRedisRepository {
+
+    private static final String KEY_PREFIX = "chat:pendientes:";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ChatCodecs codecs;
+
+    /** Encola al final, conservando los {@code maximo} más recientes. */
+    public void agregar(Long personaId, ChatMessageDTO mensaje, int maximo, Duration ttl) {
+        byte[] key = key(personaId);
+        byte[] datos = codecs.codificar(mensaje);
+        redisTemplate.executePipelined((RedisCallback<Object>) con -> {
+            con.listCommands().rPush(key, datos);
+            con.listCommands().lTrim(key, -maximo, -1);
+            con.keyCommands().expire(key, ttl.toSeconds());
+            return null;
+        });
+    }
+
+    /**
+     * Saca de la lista hasta {@code maximo} mensajes, del más viejo al más nuevo, con un único
+     * {@code LPOP key count}: dos nodos que drenan a la vez se reparten los mensajes sin repetirlos,
+     * y lo que llega mientras tanto queda para la próxima vez.
+     */
+    public List<ChatMessageDTO> tomar(Long personaId, int maximo) {
+        List<byte[]> raw = redisTemplate.execute((RedisCallback<List<byte[]>>) con ->
+                con.listCommands().lPop(key(personaId), maximo));
+        if (raw == null) return List.of();
+        return raw.stream().map(codecs::decodificarMensaje).toList();
+    }
+
+    private static byte[] key(Long personaId) {
+        return (KEY_PREFIX + personaId).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,204 @@
+package edu.ecep.base_app.comunicacion.infrastructure.persistence;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Repository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Presencia del chat en Redis. Cada persona tiene un sorted set ({@code chat:presencia:{personaId}})
+ * con sus sesiones STOMP como miembros ({@code {nodo}|{sesión}}, para saber a qué nodos rutear)
+ * y el vencimiento de cada una (epoch millis) como score.
+ * Está online si tiene alguna sesión sin vencer. La clave vence junto con la última renovación,
+ * así si se caen todos los nodos que la atendían el evento {@code expired} avisa la desconexión.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PresenciaRedisRepository {
+
+    public static final String KEY_PREFIX = "chat:presencia:";
+    private static final String AVISO_PREFIX = "chat:presencia-aviso:";
+    private static final String LAST_SEEN_PREFIX = "chat:last_seen:";
+    private static final String SEPARADOR = "|";
+
+    // ARGV: sesión, ahora, vencimiento, ttl (ms). Devuelve 1 si no había otra sesión viva.
+    private static final byte[] REGISTRAR = """
+        redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', ARGV[2])
+        local antes = redis.call('ZCARD', KEYS[1])
+        redis.call('ZADD', KEYS[1], ARGV[3], ARGV[1])
+        redis.call('PEXPIRE', KEYS[1], ARGV[4])
+        if antes == 0 then return 1 end
+        return 0
+        """.getBytes(StandardCharsets.UTF_8);
+
+    // ARGV: sesión, ahora. Devuelve 1 sólo si se quitó la última sesión viva (un DISCONNECT repetido da 0).
+    private static final byte[] QUITAR = """
+        if redis.call('ZREM', KEYS[1], ARGV[1]) == 0 then return 0 end
+        redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', ARGV[2])
+        if redis.call('ZCARD', KEYS[1]) > 0 then return 0 end
+        redis.call('DEL', KEYS[1])
+        return 1
+        """.getBytes(StandardCharsets.UTF_8);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    /** Agrega o renueva la sesión; true si la persona pasa a estar online. */
+    public boolean registrar(Long personaId, String nodoId, String sesionId, Duration ttl) {
+        long ahora = System.currentTimeMillis();
+        Long res = redisTemplate.execute((RedisCallback<Long>) con -> con.scriptingCommands().eval(
+                REGISTRAR, ReturnType.INTEGER, 1,
+                key(personaId), miembro(nodoId, sesionId), num(ahora), num(ahora + ttl.toMillis()), num(ttl.toMillis())));
+        return res != null && res == 1L;
+    }
+
+    /** Quita la sesión; true si era la última y la persona pasa a offline. */
+    public boolean quitar(Long personaId, String nodoId, String sesionId) {
+        Long res = redisTemplate.execute((RedisCallback<Long>) con -> con.scriptingCommands().eval(
+                QUITAR, ReturnType.INTEGER, 1,
+                key(personaId), miembro(nodoId, sesionId), num(System.currentTimeMillis())));
+        return res != null && res == 1L;
+    }
+
+    /** Renueva en un solo pipeline las sesiones atendidas por este nodo y la última conexión de cada persona. */
+    public void renovar(String nodoId, Map<Long, List<String>> sesionesPorPersona, Duration ttl) {
+        if (sesionesPorPersona.isEmpty()) return;
+        long ahora = System.currentTimeMillis();
+        double vence = ahora + ttl.toMillis();
+        redisTemplate.executePipelined((RedisCallback<Object>) con -> {
+            sesionesPorPersona.forEach((personaId, sesiones) -> {
+                byte[] key = key(personaId);
+                sesiones.forEach(s -> con.zSetCommands().zAdd(key, vence, miembro(nodoId, s)));
+                con.keyCommands().pExpire(key, ttl.toMillis());
+                con.stringCommands().set(bytes(LAST_SEEN_PREFIX + personaId), num(ahora));
+            });
+            return null;
+        });
+    }
+
+    /** Si cada persona tiene alguna sesión viva, en un solo pipeline. */
+    public Map<Long, Boolean> online(List<Long> personaIds) {
+        Map<Long, Boolean> res = new LinkedHashMap<>();
+        if (personaIds.isEmpty()) return res;
+        double ahora = System.currentTimeMillis();
+        List<Object> vivas = redisTemplate.executePipelined((RedisCallback<Object>) con -> {
+            personaIds.forEach(id -> con.zSetCommands().zCount(key(id), ahora, Double.POSITIVE_INFINITY));
+            return null;
+        });
+        for (int i = 0; i < personaIds.size(); i++) {
+            res.put(personaIds.get(i), vivas.get(i) instanceof Long n && n > 0);
+        }
+        return res;
+    }
+
+    /** Nodos con alguna sesión viva de la persona; vacío si está offline. */
+    public Set<String> nodos(Long personaId) {
+        Set<byte[]> miembros = redisTemplate.execute((RedisCallback<Set<byte[]>>) con ->
+                con.zSetCommands().zRangeByScore(key(personaId), System.currentTimeMillis(), Double.POSITIVE_INFINITY));
+        Set<String> res = new LinkedHashSet<>();
+        if (miembros == null) return res;
+        for (byte[] m : miembros) agregarNodo(res, new String(m, StandardCharsets.UTF_8));
+        return res;
+    }
+
+    /** Nodos con sesiones vivas de cada persona, en un solo pipeline; las offline no aparecen. */
+    public Map<Long, Set<String>> nodos(List<Long> personaIds) {
+        Map<Long, Set<String>> res = new LinkedHashMap<>();
+        if (personaIds.isEmpty()) return res;
+        double ahora = System.currentTimeMillis();
+        List<Object> miembros = redisTemplate.executePipelined((RedisCallback<Object>) con -> {
+            personaIds.forEach(id -> con.zSetCommands().zRangeByScore(key(id), ahora, Double.POSITIVE_INFINITY));
+            return null;
+        }, RedisSerializer.string());
+        for (int i = 0; i < personaIds.size(); i++) {
+            if (!(miembros.get(i) instanceof Collection<?> vivos) || vivos.isEmpty()) continue;
+            Set<String> nodos = new LinkedHashSet<>();
+            vivos.forEach(m -> agregarNodo(nodos, (String) m));
+            res.put(personaIds.get(i), nodos);
+        }
+        return res;
+    }
+
+    /** Última conexión (epoch millis) por persona, null si no hay registro. */
+    public List<Long> ultimaVez(List<Long> personaIds) {
+        List<byte[]> keys = personaIds.stream().map(id -> bytes(LAST_SEEN_PREFIX + id)).toList();
+        List<byte[]> raw = redisTemplate.execute((RedisCallback<List<byte[]>>) con ->
+                con.stringCommands().mGet(keys.toArray(new byte[0][])));
+        List<Long> res = new ArrayList<>(personaIds.size());
+        for (int i = 0; i < personaIds.size(); i++) {
+            byte[] v = raw != null ? raw.get(i) : null;
+            res.add(v != null ? Long.valueOf(new String(v, StandardCharsets.UTF_8)) : null);
+        }
+        return res;
+    }
+
+    public void marcarUltimaVez(Long personaId) {
+        redisTemplate.execute((RedisCallback<Boolean>) con -> con.stringCommands()
+                .set(bytes(LAST_SEEN_PREFIX + personaId), num(System.currentTimeMillis())));
+    }
+
+    /** Todos los nodos reciben el mismo evento de vencimiento: sólo el que toma el turno avisa. */
+    public boolean reservarAviso(Long personaId) {
+        return Boolean.TRUE.equals(redisTemplate.execute((RedisCallback<Boolean>) con -> con.stringCommands()
+                .set(bytes(AVISO_PREFIX + personaId), num(1), Expiration.seconds(10), SetOption.ifAbsent())));
+    }
+
+    /** Activa los eventos {@code expired} de keyspace (flags E y x), conservando los que ya estuvieran. */
+    public void habilitarEventosDeVencimiento() {
+        redisTemplate.execute((RedisCallback<Void>) con -> {
+            Properties actual = con.serverCommands().getConfig("notify-keyspace-events");
+            String flags = actual != null ? actual.getProperty("notify-keyspace-events", "") : "";
+            boolean vencimientos = flags.contains("x") || flags.contains("A");
+            if (!flags.contains("E") || !vencimientos) {
+                String nuevos = flags + (flags.contains("E") ? "" : "E") + (vencimientos ? "" : "x");
+                con.serverCommands().setConfig("notify-keyspace-events", nuevos);
+            }
+            return null;
+        });
+    }
+
+    /** Id de persona de una clave de presencia, o null si la clave es de otra cosa. */
+    public static Long personaDeClave(String key) {
+        if (!key.startsWith(KEY_PREFIX)) return null;
+        try {
+            return Long.valueOf(key.substring(KEY_PREFIX.length()));
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    private static void agregarNodo(Set<String> nodos, String miembro) {
+        int i = miembro.indexOf(SEPARADOR);
+        if (i > 0) nodos.add(miembro.substring(0, i));
+    }
+
+    private static byte[] key(Long personaId) {
+        return bytes(KEY_PREFIX + personaId);
+    }
+
+    private static byte[] miembro(String nodoId, String sesionId) {
+        return bytes(nodoId + SEPARADOR + sesionId);
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] num(long v) {
+        return Long.toString(v).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,19 @@
+package edu.ecep.base_app.comunicacion.presentation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página de resultados de búsqueda, del más relevante al menos relevante. {@code siguiente}
+ * se pasa como {@code cursor} para la página siguiente (null si no hay más).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BusquedaPaginaDTO<T> {
+    private List<T> resultados;
+    private String siguiente;
+}
@@ -0,0 +1,22 @@
+package edu.ecep.base_app.comunicacion.presentation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página del historial en orden cronológico. {@code anterior} se pasa como {@code before} para
+ * cargar mensajes más viejos (null si no hay); {@code siguiente} se pasa como {@code after}
+ * para traer los que lleguen después. {@code hayMas} indica si quedan mensajes en la dirección pedida.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatHistoryPageDTO {
+    private List<ChatMessageDTO> mensajes;
+    private String anterior;
+    private String siguiente;
+    private boolean hayMas;
+}
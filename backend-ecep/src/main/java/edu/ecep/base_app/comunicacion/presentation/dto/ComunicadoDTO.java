@@ -29,4 +29,6 @@ public class ComunicadoDTO {
     OffsetDateTime fechaProgPublicacion;
     boolean publicado;
     OffsetDateTime fechaCreacion;
+    OffsetDateTime fechaPublicacion;
+    Integer destinatarios;
 }
@@ -0,0 +1,19 @@
+package edu.ecep.base_app.comunicacion.presentation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+/** Comunicado que coincide con una búsqueda, con el fragmento del cuerpo donde aparece. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ComunicadoEncontradoDTO {
+    private String comunicadoId;
+    private String titulo;
+    private String fragmento;
+    private OffsetDateTime fecha;
+    private double puntaje;
+}
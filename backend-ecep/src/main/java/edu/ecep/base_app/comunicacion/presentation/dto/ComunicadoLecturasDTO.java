@@ -0,0 +1,28 @@
+package edu.ecep.base_app.comunicacion.presentation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/** Confirmaciones de lectura de un comunicado, por destinatario. */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ComunicadoLecturasDTO {
+    private String comunicadoId;
+    private long destinatarios;
+    private long leidos;
+    private List<Lectura> detalle;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Lectura {
+        private Long personaId;
+        private OffsetDateTime fechaEntrega;
+        private OffsetDateTime fechaLectura;
+    }
+}
@@ -0,0 +1,17 @@
+package edu.ecep.base_app.comunicacion.presentation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+/** Comunicado en la bandeja de quien consulta, con su estado de lectura. */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ComunicadoRecibidoDTO {
+    private ComunicadoDTO comunicado;
+    private OffsetDateTime fechaEntrega;
+    private OffsetDateTime fechaLectura;
+}
@@ -0,0 +1,20 @@
+package edu.ecep.base_app.comunicacion.presentation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+/** Entrada de la bandeja de chat, desde el punto de vista de quien consulta. */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ConversacionResumenDTO {
+    private Long personaId;
+    private String ultimoMensajeId;
+    private Long ultimoEmisorId;
+    private String ultimoContenido;
+    private OffsetDateTime ultimaFecha;
+    private long noLeidos;
+}
@@ -0,0 +1,21 @@
+package edu.ecep.base_app.comunicacion.presentation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Contadores del indicador "escribiendo" de este nodo desde el arranque. {@code suprimidos} son
+ * los frames recibidos que no se reenviaron (duplicados o reemplazados dentro de la ventana);
+ * {@code expirados} los "dejó de escribir" generados por el servidor (incluidos en {@code reenviados}).
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EscrituraEstadisticasDTO {
+    private long recibidos;
+    private long reenviados;
+    private long suprimidos;
+    private long expirados;
+    private int conversacionesActivas;
+}
@@ -0,0 +1,22 @@
+package edu.ecep.base_app.comunicacion.presentation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página del historial de un grupo en orden de secuencia. {@code anterior} se pasa como
+ * {@code before} para cargar mensajes más viejos (null si no hay más). {@code ultimaLeida}
+ * es la marca de agua de quien consulta.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GrupoHistorialDTO {
+    private List<MensajeGrupoDTO> mensajes;
+    private Long anterior;
+    private boolean hayMas;
+    private Long ultimaLeida;
+}
@@ -0,0 +1,18 @@
+package edu.ecep.base_app.comunicacion.presentation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+/** Hasta qué secuencia leyó cada miembro del grupo; sin lectura, {@code ultimaLeida} es null. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GrupoLecturaDTO {
+    private Long personaId;
+    private boolean docente;
+    private Long ultimaLeida;
+    private OffsetDateTime fechaLectura;
+}
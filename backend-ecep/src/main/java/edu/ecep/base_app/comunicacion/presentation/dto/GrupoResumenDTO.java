@@ -0,0 +1,17 @@
+package edu.ecep.base_app.comunicacion.presentation.dto;
+
+import edu.ecep.base_app.gestionacademica.presentation.dto.SeccionDTO;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Grupo de sección en la lista de chats. {@code noLeidos} llega como máximo a {@code GrupoSeccionService.MAX_NO_LEIDOS}. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GrupoResumenDTO {
+    private SeccionDTO seccion;
+    private boolean docente;
+    private long noLeidos;
+    private Long ultimaLeida;
+}
@@ -0,0 +1,20 @@
+package edu.ecep.base_app.comunicacion.presentation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+/** Mensaje que coincide con una búsqueda; {@code personaId} es la otra persona de la conversación. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MensajeEncontradoDTO {
+    private String mensajeId;
+    private Long personaId;
+    private Long emisorId;
+    private OffsetDateTime fechaEnvio;
+    private String fragmento;
+    private double puntaje;
+}
@@ -0,0 +1,24 @@
+package edu.ecep.base_app.comunicacion.presentation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Mensaje del grupo de una sección. {@code secuencia} ordena los mensajes del grupo y es lo que
+ * comparan las marcas de agua; {@code leido} es según la de quien lo consulta.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MensajeGrupoDTO {
+    private String id;
+    private Long secuencia;
+    private Long seccionId;
+    private Long emisorId;
+    private String contenido;
+    private OffsetDateTime fechaEnvio;
+    private boolean leido;
+}
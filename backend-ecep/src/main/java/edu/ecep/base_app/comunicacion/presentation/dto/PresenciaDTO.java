@@ -0,0 +1,14 @@
+package edu.ecep.base_app.comunicacion.presentation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Estado de conexión de una persona. {@code ultimaVez} en epoch millis, null si nunca se conectó. */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PresenciaDTO {
+    private boolean online;
+    private Long ultimaVez;
+}
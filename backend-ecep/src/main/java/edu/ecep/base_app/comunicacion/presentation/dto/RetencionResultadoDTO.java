@@ -0,0 +1,20 @@
+package edu.ecep.base_app.comunicacion.presentation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Resultado de una pasada de retención: {@code archivados} pasaron de {@code mensajes} al archivo
+ * (enviados antes de {@code limite}) y {@code purgados} eran bajas que se borraron definitivamente.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RetencionResultadoDTO {
+    private OffsetDateTime limite;
+    private long archivados;
+    private long purgados;
+}
@@ -0,0 +1,13 @@
+package edu.ecep.base_app.comunicacion.presentation.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class SendGroupMessageRequest {
+    @NotBlank
+    private String contenido;
+    @NotNull
+    private Long seccionId;
+}
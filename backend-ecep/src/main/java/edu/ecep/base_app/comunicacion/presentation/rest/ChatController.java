@@ -1,15 +1,31 @@
 package edu.ecep.base_app.comunicacion.presentation.rest;
 
 import edu.ecep.base_app.identidad.domain.Persona;
+import edu.ecep.base_app.comunicacion.presentation.dto.BusquedaPaginaDTO;
+import edu.ecep.base_app.comunicacion.presentation.dto.ChatHistoryPageDTO;
 import edu.ecep.base_app.comunicacion.presentation.dto.ChatMessageDTO;
+import edu.ecep.base_app.comunicacion.presentation.dto.ConversacionResumenDTO;
+import edu.ecep.base_app.comunicacion.presentation.dto.EscrituraEstadisticasDTO;
+import edu.ecep.base_app.comunicacion.presentation.dto.GrupoHistorialDTO;
+import edu.ecep.base_app.comunicacion.presentation.dto.GrupoLecturaDTO;
+import edu.ecep.base_app.comunicacion.presentation.dto.GrupoResumenDTO;
+import edu.ecep.base_app.comunicacion.presentation.dto.MensajeEncontradoDTO;
+import edu.ecep.base_app.comunicacion.presentation.dto.PresenciaDTO;
+import edu.ecep.base_app.comunicacion.presentation.dto.RetencionResultadoDTO;
 import edu.ecep.base_app.identidad.presentation.dto.PersonaResumenDTO;
+import edu.ecep.base_app.comunicacion.application.BusquedaService;
 import edu.ecep.base_app.comunicacion.application.ChatService;
+import edu.ecep.base_app.comunicacion.application.EscrituraService;
+import edu.ecep.base_app.comunicacion.application.GrupoSeccionService;
+import edu.ecep.base_app.comunicacion.application.PresenciaService;
+import edu.ecep.base_app.comunicacion.application.RetencionMensajesService;
 import edu.ecep.base_app.identidad.application.PersonaAccountService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -28,9 +44,16 @@ import java.util.Map;
 public class ChatController {
 
     private final ChatService chatService;
+    private final PresenciaService presenciaService;
+    private final EscrituraService escrituraService;
+    private final BusquedaService busquedaService;
+    private final RetencionMensajesService retencionMensajesService;
+    private final GrupoSeccionService grupoSeccionService;
     private final PersonaAccountService personaAccountService;
     private final SimpMessagingTemplate messagingTemplate;
 
+    /** Historial completo sin paginar; los clientes usan {@code /history/{id}/page}. */
+    @Deprecated
     @GetMapping("/history/{otherPersonaId}")
     public ResponseEntity<List<ChatMessageDTO>> history(@PathVariable Long otherPersonaId) {
         try {
@@ -42,6 +65,21 @@ public class ChatController {
         }
     }
 
+    @GetMapping("/history/{otherPersonaId}/page")
+    public ResponseEntity<ChatHistoryPageDTO> historyPage(
+            @PathVariable Long otherPersonaId,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int size
+    ) {
+        try {
+            Persona me = personaAccountService.getCurrentPersona();
+            return ResponseEntity.ok(chatService.getHistoryPage(me.getId(), otherPersonaId, before, after, size));
+        } catch (ResponseStatusException ex) {
+            return ResponseEntity.status(ex.getStatusCode()).build();
+        }
+    }
+
     @PostMapping("/mark-read/{otherPersonaId}")
     public ResponseEntity<Void> markRead(@PathVariable Long otherPersonaId) {
         try {
@@ -63,6 +101,98 @@ public class ChatController {
         }
     }
 
+    @GetMapping("/inbox")
+    public ResponseEntity<List<ConversacionResumenDTO>> inbox(@RequestParam(defaultValue = "50") int size) {
+        try {
+            Persona me = personaAccountService.getCurrentPersona();
+            return ResponseEntity.ok(chatService.getInbox(me.getId(), size));
+        } catch (ResponseStatusException ex) {
+            return ResponseEntity.status(ex.getStatusCode()).build();
+        }
+    }
+
+    // Regenera los resúmenes de la bandeja desde los mensajes (p. ej. tras una carga o borrado directo)
+    @PostMapping("/conversaciones/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> rebuildConversaciones() {
+        chatService.rebuildConversaciones();
+        return ResponseEntity.noContent().build();
+    }
+
+    /** Búsqueda en los mensajes propios (enviados y recibidos), por relevancia. */
+    @GetMapping("/buscar")
+    public ResponseEntity<BusquedaPaginaDTO<MensajeEncontradoDTO>> buscar(
+            @RequestParam String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            Persona me = personaAccountService.getCurrentPersona();
+            return ResponseEntity.ok(busquedaService.buscarMensajes(me.getId(), q, cursor, size));
+        } catch (ResponseStatusException ex) {
+            return ResponseEntity.status(ex.getStatusCode()).build();
+        }
+    }
+
+    @PostMapping("/busqueda/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> rebuildBusqueda() {
+        chatService.rebuildBusqueda();
+        return ResponseEntity.noContent().build();
+    }
+
+    // Corre ahora la retención (archivo y purga) en vez de esperar la pasada nocturna
+    @PostMapping("/retencion")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<RetencionResultadoDTO> retencion() {
+        return ResponseEntity.ok(retencionMensajesService.ejecutar());
+    }
+
+    // grupos de sección: el envío va por STOMP (/app/chat.grupo.send), lo demás por acá
+    @GetMapping("/grupos")
+    public ResponseEntity<List<GrupoResumenDTO>> grupos() {
+        try {
+            Persona me = personaAccountService.getCurrentPersona();
+            return ResponseEntity.ok(grupoSeccionService.grupos(me.getId()));
+        } catch (ResponseStatusException ex) {
+            return ResponseEntity.status(ex.getStatusCode()).build();
+        }
+    }
+
+    @GetMapping("/grupos/{seccionId}/history")
+    public ResponseEntity<GrupoHistorialDTO> grupoHistory(
+            @PathVariable Long seccionId,
+            @RequestParam(required = false) Long before,
+            @RequestParam(defaultValue = "50") int size
+    ) {
+        try {
+            Persona me = personaAccountService.getCurrentPersona();
+            return ResponseEntity.ok(grupoSeccionService.historial(seccionId, me.getId(), before, size));
+        } catch (ResponseStatusException ex) {
+            return ResponseEntity.status(ex.getStatusCode()).build();
+        }
+    }
+
+    @PostMapping("/grupos/{seccionId}/mark-read")
+    public ResponseEntity<Void> grupoMarkRead(@PathVariable Long seccionId) {
+        try {
+            Persona me = personaAccountService.getCurrentPersona();
+            grupoSeccionService.marcarLeido(seccionId, me.getId());
+            return ResponseEntity.noContent().build();
+        } catch (ResponseStatusException ex) {
+            return ResponseEntity.status(ex.getStatusCode()).build();
+        }
+    }
+
+    @GetMapping("/grupos/{seccionId}/lecturas")
+    public ResponseEntity<List<GrupoLecturaDTO>> grupoLecturas(@PathVariable Long seccionId) {
+        try {
+            Persona me = personaAccountService.getCurrentPersona();
+            return ResponseEntity.ok(grupoSeccionService.lecturas(seccionId, me.getId()));
+        } catch (ResponseStatusException ex) {
+            return ResponseEntity.status(ex.getStatusCode()).build();
+        }
+    }
+
     @GetMapping("/active-chats")
     public ResponseEntity<List<PersonaResumenDTO>> getActiveChats() {
         try {
@@ -88,6 +218,28 @@ public class ChatController {
         }
     }
 
+    // sin personaIds devuelve la presencia de todos los contactos de quien consulta
+    @GetMapping("/presence")
+    public ResponseEntity<Map<Long, PresenciaDTO>> getPresence(
+            @RequestParam(value = "personaIds", required = false) List<Long> personaIds
+    ) {
+        try {
+            List<Long> ids = personaIds;
+            if (ids == null || ids.isEmpty()) {
+                ids = chatService.getUserContacts(personaAccountService.getCurrentPersona().getId());
+            }
+            return ResponseEntity.ok(presenciaService.getPresence(ids));
+        } catch (ResponseStatusException ex) {
+            return ResponseEntity.status(ex.getStatusCode()).build();
+        }
+    }
+
+    @GetMapping("/typing/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<EscrituraEstadisticasDTO> typingStats() {
+        return ResponseEntity.ok(escrituraService.estadisticas());
+    }
+
     @GetMapping("/online-status")
     public ResponseEntity<Map<Long, Boolean>> getOnlineStatus(
             @RequestParam(value = "personaIds", required = false) List<Long> personaIds,
@@ -104,7 +256,7 @@ public class ChatController {
                 return ResponseEntity.badRequest().build();
             }
 
-            Map<Long, Boolean> onlineStatus = chatService.getOnlineStatus(resolvedPersonaIds);
+            Map<Long, Boolean> onlineStatus = presenciaService.getOnlineStatus(resolvedPersonaIds);
             return ResponseEntity.ok(onlineStatus);
         } catch (Exception ex) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -1,12 +1,20 @@
 package edu.ecep.base_app.comunicacion.presentation.rest;
 
+import edu.ecep.base_app.comunicacion.application.BusquedaService;
+import edu.ecep.base_app.comunicacion.application.ComunicadoEntregaService;
 import edu.ecep.base_app.comunicacion.application.ComunicadoService;
+import edu.ecep.base_app.comunicacion.presentation.dto.BusquedaPaginaDTO;
 import edu.ecep.base_app.comunicacion.presentation.dto.ComunicadoCreateDTO;
 import edu.ecep.base_app.comunicacion.presentation.dto.ComunicadoDTO;
+import edu.ecep.base_app.comunicacion.presentation.dto.ComunicadoEncontradoDTO;
+import edu.ecep.base_app.comunicacion.presentation.dto.ComunicadoLecturasDTO;
+import edu.ecep.base_app.comunicacion.presentation.dto.ComunicadoRecibidoDTO;
+import edu.ecep.base_app.identidad.application.PersonaAccountService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
@@ -18,12 +26,37 @@ import java.util.List;
 @Validated
 public class ComunicadoController {
     private final ComunicadoService service;
+    private final ComunicadoEntregaService entregaService;
+    private final BusquedaService busquedaService;
+    private final PersonaAccountService personaAccountService;
 
     @GetMapping
     public List<ComunicadoDTO> list() {
         return service.findAll();
     }
 
+    /** Comunicados recibidos por la persona autenticada, del más reciente al más antiguo. */
+    @GetMapping("/bandeja")
+    public List<ComunicadoRecibidoDTO> bandeja(@RequestParam(defaultValue = "50") int size) {
+        return entregaService.bandeja(personaAccountService.getCurrentPersona().getId(), size);
+    }
+
+    /** Búsqueda en los comunicados recibidos por la persona autenticada. */
+    @GetMapping("/buscar")
+    public BusquedaPaginaDTO<ComunicadoEncontradoDTO> buscar(@RequestParam String q,
+                                                             @RequestParam(required = false) String cursor,
+                                                             @RequestParam(defaultValue = "20") int size) {
+        return busquedaService.buscarRecibidos(personaAccountService.getCurrentPersona().getId(), q, cursor, size);
+    }
+
+    @GetMapping("/buscar/todos")
+    @PreAuthorize("hasAnyRole('ADMIN','DIRECTOR','SECRETARY')")
+    public BusquedaPaginaDTO<ComunicadoEncontradoDTO> buscarTodos(@RequestParam String q,
+                                                                  @RequestParam(required = false) String cursor,
+                                                                  @RequestParam(defaultValue = "20") int size) {
+        return busquedaService.buscarComunicados(q, cursor, size);
+    }
+
     @GetMapping("/{id}")
     public ComunicadoDTO get(@PathVariable String id) {
         return service.get(id);
@@ -34,6 +67,18 @@ public class ComunicadoController {
         return new ResponseEntity<>(service.create(dto), HttpStatus.CREATED);
     }
 
+    @PostMapping("/{id}/leido")
+    public ResponseEntity<Void> marcarLeido(@PathVariable String id) {
+        entregaService.marcarLeido(id, personaAccountService.getCurrentPersona().getId());
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/{id}/lecturas")
+    @PreAuthorize("hasAnyRole('ADMIN','DIRECTOR','SECRETARY')")
+    public ComunicadoLecturasDTO lecturas(@PathVariable String id) {
+        return entregaService.lecturas(id);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Void> update(@PathVariable String id, @RequestBody @Valid ComunicadoDTO dto) {
         service.update(id, dto);
@@ -3,20 +3,22 @@ package edu.ecep.base_app.comunicacion.presentation.websocket;
 import edu.ecep.base_app.comunicacion.domain.Mensaje;
 import edu.ecep.base_app.identidad.domain.Persona;
 import edu.ecep.base_app.comunicacion.presentation.dto.ChatMessageDTO;
+import edu.ecep.base_app.comunicacion.presentation.dto.MensajeGrupoDTO;
+import edu.ecep.base_app.comunicacion.presentation.dto.SendGroupMessageRequest;
 import edu.ecep.base_app.comunicacion.presentation.dto.SendMessageRequest;
 import edu.ecep.base_app.comunicacion.presentation.dto.TypingNotificationDTO;
 import edu.ecep.base_app.comunicacion.application.ChatService;
+import edu.ecep.base_app.comunicacion.application.EscrituraService;
+import edu.ecep.base_app.comunicacion.application.GrupoSeccionService;
 import edu.ecep.base_app.identidad.application.PersonaAccountService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.messaging.simp.annotation.SendToUser;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Controller;
 
 import java.security.Principal;
-import java.util.Map;
 
 @Controller
 @RequiredArgsConstructor
@@ -25,7 +27,8 @@ public class ChatSocketController {
 
     private final ChatService chatService;
     private final PersonaAccountService personaAccountService;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final EscrituraService escrituraService;
+    private final GrupoSeccionService grupoSeccionService;
 
     @MessageMapping("/chat.send")
     @SendToUser("/queue/ack")
@@ -38,6 +41,15 @@ public class ChatSocketController {
         return chatService.toDto(saved);
     }
 
+    @MessageMapping("/chat.grupo.send")
+    @SendToUser("/queue/grupos/ack")
+    public MensajeGrupoDTO sendGrupo(
+            @Payload SendGroupMessageRequest req,
+            Principal principal
+    ) {
+        return grupoSeccionService.enviar(req.getSeccionId(), Long.valueOf(principal.getName()), req.getContenido());
+    }
+
     @MessageMapping("/chat.typing")
     public void typing(
             @Payload TypingNotificationDTO notification,
@@ -54,13 +66,6 @@ public class ChatSocketController {
         }
 
         Long senderId = Long.valueOf(principal.getName());
-        messagingTemplate.convertAndSendToUser(
-                String.valueOf(notification.getReceptorId()),
-                "/queue/typing",
-                Map.of(
-                        "userId", senderId,
-                        "typing", notification.isTyping()
-                )
-        );
+        escrituraService.recibir(senderId, notification.getReceptorId(), notification.isTyping());
     }
 }
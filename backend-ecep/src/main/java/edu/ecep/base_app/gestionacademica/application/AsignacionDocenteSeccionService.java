@@ -11,6 +11,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
@@ -19,6 +20,7 @@ public class AsignacionDocenteSeccionService {
 
     private final AsignacionDocenteSeccionRepository repo;
     private final AsignacionDocenteSeccionMapper mapper;
+    private final SeccionesVigentesDocenteService seccionesVigentesService;
 
     @Transactional(readOnly = true)
     public List<AsignacionDocenteSeccionDTO> findAll() {
@@ -51,6 +53,7 @@ public class AsignacionDocenteSeccionService {
 
         RolSeccion rol = dto.getRol();
         LocalDate hasta = dto.getVigenciaHasta();
+        List<Long> afectados = new ArrayList<>(List.of(dto.getEmpleadoId()));
 
         if (rol == RolSeccion.SUPLENTE) {
             if (hasta == null) {
@@ -65,6 +68,7 @@ public class AsignacionDocenteSeccionService {
             for (AsignacionDocenteSeccion vigente : repo.findTitularesVigentesEn(dto.getSeccionId(), desde)) {
                 vigente.setVigenciaHasta(cierre);
                 repo.save(vigente);
+                afectados.add(vigente.getEmpleado().getId());
             }
         }
 
@@ -80,11 +84,14 @@ public class AsignacionDocenteSeccionService {
         AsignacionDocenteSeccion entity = mapper.toEntity(dto);
         entity.setVigenciaDesde(desde);
         entity.setVigenciaHasta(hasta);
-        return repo.save(entity).getId();
+        Long id = repo.save(entity).getId();
+        seccionesVigentesService.invalidar(afectados);
+        return id;
     }
 
     @Transactional
     public void delete(Long id) {
+        repo.findById(id).ifPresent(a -> seccionesVigentesService.invalidar(List.of(a.getEmpleado().getId())));
         repo.deleteById(id);
     }
 }
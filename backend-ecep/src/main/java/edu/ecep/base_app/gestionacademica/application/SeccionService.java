@@ -15,6 +15,7 @@ import org.springframework.transaction.annotation.Transactional;
 @Service @RequiredArgsConstructor
 public class SeccionService {
     private final SeccionRepository repo; private final SeccionMapper mapper;
+    private final SeccionesVigentesDocenteService seccionesVigentesService;
     public List<SeccionDTO> findAll(){ return repo.findAll(Sort.by("periodoEscolar.id","nivel","gradoSala","division")).stream().map(mapper::toDto).toList(); }
     public Long create(SeccionCreateDTO dto){
         if(repo.existsByPeriodoEscolarIdAndNivelAndGradoSalaAndDivisionAndTurno(dto.getPeriodoEscolarId(), dto.getNivel(), dto.getGradoSala(), dto.getDivision(), dto.getTurno()))
@@ -32,6 +33,7 @@ public class SeccionService {
         var entity = repo.findById(id).orElseThrow(NotFoundException::new);
         mapper.update(entity, dto);
         repo.save(entity);
+        seccionesVigentesService.invalidarTodo();
     }
 
     public void delete(Long id){
@@ -39,5 +41,6 @@ public class SeccionService {
             throw new NotFoundException();
         }
         repo.deleteById(id);
+        seccionesVigentesService.invalidarTodo();
     }
 }
@@ -0,0 +1,128 @@
+package edu.ecep.base_app.gestionacademica.application;
+
+import edu.ecep.base_app.gestionacademica.domain.AsignacionDocenteSeccion;
+import edu.ecep.base_app.gestionacademica.infrastructure.mapper.SeccionMapper;
+import edu.ecep.base_app.gestionacademica.infrastructure.persistence.AsignacionDocenteSeccionRepository;
+import edu.ecep.base_app.gestionacademica.infrastructure.persistence.SeccionesVigentesCacheRepository;
+import edu.ecep.base_app.gestionacademica.presentation.dto.SeccionDTO;
+import edu.ecep.base_app.identidad.domain.Empleado;
+import edu.ecep.base_app.identidad.domain.enums.RolEmpleado;
+import edu.ecep.base_app.identidad.infrastructure.persistence.EmpleadoRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Secciones vigentes de un docente en una fecha, con caché en Redis por (empleado, fecha).
+ * Las altas y bajas de asignaciones invalidan a los docentes afectados al confirmar la transacción;
+ * cada mañana se precargan los docentes activos para el día.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SeccionesVigentesDocenteService {
+
+    private final AsignacionDocenteSeccionRepository asignacionRepo;
+    private final EmpleadoRepository empleadoRepo;
+    private final SeccionesVigentesCacheRepository cache;
+    private final SeccionMapper seccionMapper;
+
+    @Transactional(readOnly = true)
+    public List<SeccionDTO> seccionesVigentes(Long empleadoId, LocalDate fecha) {
+        long version;
+        try {
+            var cached = cache.find(empleadoId, fecha);
+            if (cached.isPresent()) return cached.get();
+            version = cache.version();
+        } catch (Exception ex) {
+            log.warn("No se pudo leer la caché de secciones del docente {}", empleadoId, ex);
+            return consultar(empleadoId, fecha);
+        }
+        List<SeccionDTO> secciones = consultar(empleadoId, fecha);
+        try {
+            cache.save(empleadoId, fecha, secciones, version);
+        } catch (Exception ex) {
+            log.warn("No se pudo guardar la caché de secciones del docente {}", empleadoId, ex);
+        }
+        return secciones;
+    }
+
+    /** Invalida a los docentes indicados una vez confirmada la transacción en curso. */
+    public void invalidar(Collection<Long> empleadoIds) {
+        List<Long> ids = List.copyOf(empleadoIds);
+        despuesDelCommit(() -> cache.evict(ids));
+    }
+
+    /** Invalida todo, p. ej. cuando cambian los datos de una sección. */
+    public void invalidarTodo() {
+        despuesDelCommit(cache::evictAll);
+    }
+
+    /** Precarga las secciones del día de todos los docentes activos (un solo nodo por día). */
+    @Scheduled(cron = "${app.gestionacademica.secciones-docente.precarga-cron:0 30 6 * * MON-FRI}")
+    @Transactional(readOnly = true)
+    public void precargar() {
+        LocalDate hoy = LocalDate.now();
+        long version;
+        try {
+            if (!cache.reservarPrecarga(hoy)) return;
+            version = cache.version();
+        } catch (Exception ex) {
+            log.warn("Redis no disponible, se omite la precarga de secciones docentes", ex);
+            return;
+        }
+
+        Map<Long, List<SeccionDTO>> porEmpleado = new LinkedHashMap<>();
+        // los docentes sin asignación también se cachean (lista vacía) para no consultar la base
+        for (Empleado e : empleadoRepo.findByRolEmpleado(RolEmpleado.DOCENTE)) {
+            porEmpleado.put(e.getId(), new ArrayList<>());
+        }
+        for (AsignacionDocenteSeccion a : asignacionRepo.findVigentesEn(hoy)) {
+            porEmpleado.computeIfAbsent(a.getEmpleado().getId(), id -> new ArrayList<>())
+                    .add(seccionMapper.toDto(a.getSeccion()));
+        }
+        try {
+            cache.saveAll(hoy, porEmpleado, version);
+            log.info("Secciones vigentes precargadas para {} docentes", porEmpleado.size());
+        } catch (Exception ex) {
+            log.warn("No se pudo precargar la caché de secciones docentes", ex);
+        }
+    }
+
+    private List<SeccionDTO> consultar(Long empleadoId, LocalDate fecha) {
+        return asignacionRepo.findSeccionesVigentesByEmpleado(empleadoId, fecha).stream()
+                .map(seccionMapper::toDto)
+                .toList();
+    }
+
+    private void despuesDelCommit(Runnable accion) {
+        Runnable seguro = () -> {
+            try {
+                accion.run();
+            } catch (Exception ex) {
+                log.warn("No se pudo invalidar la caché de secciones docentes", ex);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    seguro.run();
+                }
+            });
+        } else {
+            seguro.run();
+        }
+    }
+}
@@ -45,6 +45,16 @@ public interface AsignacionDocenteSeccionRepository extends JpaRepository<Asigna
     List<AsignacionDocenteSeccion> findVigentesByEmpleado(@Param("empleadoId") Long empleadoId,
                                                           @Param("fecha") LocalDate fecha);
 
+    @Query("""
+        select distinct a.empleado.id
+        from AsignacionDocenteSeccion a
+        where a.seccion.id = :seccionId
+          and a.vigenciaDesde <= :fecha
+          and (a.vigenciaHasta is null or a.vigenciaHasta >= :fecha)
+    """)
+    List<Long> findEmpleadoIdsVigentesBySeccion(@Param("seccionId") Long seccionId,
+                                                @Param("fecha") LocalDate fecha);
+
     @Query("""
       select a from AsignacionDocenteSeccion a
       where a.seccion.id = :seccionId and a.rol = edu.ecep.base_app.gestionacademica.domain.enums.RolSeccion.MAESTRO_TITULAR
@@ -65,5 +75,15 @@ public interface AsignacionDocenteSeccionRepository extends JpaRepository<Asigna
            """)
     List<Seccion> findSeccionesVigentesByEmpleado(@Param("empleadoId") Long empleadoId,
                                                   @Param("fecha") LocalDate fecha);
+
+    @EntityGraph(attributePaths = {"seccion", "empleado"})
+    @Query("""
+           select a
+           from AsignacionDocenteSeccion a
+           where a.vigenciaDesde <= :fecha
+             and (a.vigenciaHasta is null or a.vigenciaHasta >= :fecha)
+           order by a.empleado.id, a.seccion.nivel, a.seccion.gradoSala, a.seccion.division
+           """)
+    List<AsignacionDocenteSeccion> findVigentesEn(@Param("fecha") LocalDate fecha);
 }
 
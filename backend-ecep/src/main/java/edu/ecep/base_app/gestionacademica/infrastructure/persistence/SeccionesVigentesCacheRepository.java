@@ -0,0 +1,129 @@
+package edu.ecep.base_app.gestionacademica.infrastructure.persistence;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.ecep.base_app.gestionacademica.presentation.dto.SeccionDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Repository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Secciones vigentes por docente y fecha en Redis. Un hash por empleado
+ * ({@code gestionacademica:docente:secciones:{empleadoId}}) con la fecha ISO como campo,
+ * así invalidar a un docente es un único DEL. El TTL se fija sólo al crear el hash, así las
+ * escrituras de días siguientes no lo van corriendo. Cada invalidación sube una versión global;
+ * los llenados la leen antes de consultar la base y sólo escriben si no cambió, para no guardar
+ * lo leído antes de una baja o alta confirmada en el medio.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SeccionesVigentesCacheRepository {
+
+    private static final String KEY_PREFIX = "gestionacademica:docente:secciones:";
+    // fuera del patrón de evictAll
+    private static final String VERSION_KEY = "gestionacademica:docente:secciones-version";
+    private static final Duration TTL = Duration.ofDays(1);
+    private static final TypeReference<List<SeccionDTO>> TIPO = new TypeReference<>() {};
+
+    private static final byte[] PUT_SI_VERSION = """
+        local actual = redis.call('GET', KEYS[2]) or '0'
+        if actual ~= ARGV[3] then return 0 end
+        local nueva = redis.call('EXISTS', KEYS[1]) == 0
+        redis.call('HSET', KEYS[1], ARGV[1], ARGV[2])
+        if nueva then redis.call('PEXPIRE', KEYS[1], ARGV[4]) end
+        return 1
+        """.getBytes(StandardCharsets.UTF_8);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    public Optional<List<SeccionDTO>> find(Long empleadoId, LocalDate fecha) {
+        Object raw = redisTemplate.opsForHash().get(key(empleadoId), fecha.toString());
+        // el serializer JSON del template no guarda tipos: la lista vuelve como mapas
+        return Optional.ofNullable(raw).map(r -> objectMapper.convertValue(r, TIPO));
+    }
+
+    /** Versión de invalidación vigente; leerla antes de consultar la base para un llenado. */
+    public long version() {
+        byte[] raw = redisTemplate.execute((RedisCallback<byte[]>) con ->
+                con.stringCommands().get(bytes(VERSION_KEY)));
+        return raw == null ? 0L : Long.parseLong(new String(raw, StandardCharsets.UTF_8));
+    }
+
+    /** Guarda si no hubo invalidaciones desde {@code version}; devuelve si escribió. */
+    public boolean save(Long empleadoId, LocalDate fecha, List<SeccionDTO> secciones, long version) {
+        byte[][] keysAndArgs = args(empleadoId, fecha, secciones, version);
+        Long res = redisTemplate.execute((RedisCallback<Long>) con ->
+                con.scriptingCommands().eval(PUT_SI_VERSION, ReturnType.INTEGER, 2, keysAndArgs));
+        return res != null && res == 1L;
+    }
+
+    /** Carga en un solo pipeline las secciones de muchos docentes para una misma fecha. */
+    public void saveAll(LocalDate fecha, Map<Long, List<SeccionDTO>> porEmpleado, long version) {
+        if (porEmpleado.isEmpty()) return;
+        redisTemplate.executePipelined((RedisCallback<Object>) con -> {
+            porEmpleado.forEach((empleadoId, secciones) -> con.scriptingCommands()
+                    .eval(PUT_SI_VERSION, ReturnType.INTEGER, 2, args(empleadoId, fecha, secciones, version)));
+            return null;
+        });
+    }
+
+    public void evict(Collection<Long> empleadoIds) {
+        if (empleadoIds.isEmpty()) return;
+        // primero la versión: un llenado que escriba entre los dos pasos igual queda descartado
+        redisTemplate.execute((RedisCallback<Long>) con -> con.stringCommands().incr(bytes(VERSION_KEY)));
+        redisTemplate.delete(empleadoIds.stream().distinct().map(SeccionesVigentesCacheRepository::key).toList());
+    }
+
+    public void evictAll() {
+        redisTemplate.execute((RedisCallback<Long>) con -> con.stringCommands().incr(bytes(VERSION_KEY)));
+        List<String> keys = new ArrayList<>();
+        ScanOptions options = ScanOptions.scanOptions().match(KEY_PREFIX + "*").count(500).build();
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            cursor.forEachRemaining(keys::add);
+        }
+        if (!keys.isEmpty()) redisTemplate.delete(keys);
+    }
+
+    /** Toma el turno de precarga del día; sólo un nodo lo obtiene. */
+    public boolean reservarPrecarga(LocalDate fecha) {
+        return Boolean.TRUE.equals(redisTemplate.opsForValue()
+                .setIfAbsent(KEY_PREFIX + "warmup:" + fecha, Boolean.TRUE, TTL));
+    }
+
+    private static String key(Long empleadoId) {
+        return KEY_PREFIX + empleadoId;
+    }
+
+    @SuppressWarnings("unchecked")
+    private byte[][] args(Long empleadoId, LocalDate fecha, List<SeccionDTO> secciones, long version) {
+        // mismos serializers que usa opsForHash, así find lee igual lo escrito por el script
+        RedisSerializer<Object> valores = (RedisSerializer<Object>) redisTemplate.getHashValueSerializer();
+        return new byte[][]{
+                bytes(key(empleadoId)),
+                bytes(VERSION_KEY),
+                bytes(fecha.toString()),
+                valores.serialize(secciones),
+                bytes(Long.toString(version)),
+                bytes(Long.toString(TTL.toMillis()))
+        };
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+}
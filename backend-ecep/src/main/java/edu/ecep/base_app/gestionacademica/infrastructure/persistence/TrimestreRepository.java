@@ -1,6 +1,7 @@
 package edu.ecep.base_app.gestionacademica.infrastructure.persistence;
 
 import edu.ecep.base_app.gestionacademica.domain.Trimestre;
+import edu.ecep.base_app.gestionacademica.domain.TrimestreEstado;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.time.LocalDate;
@@ -14,5 +15,9 @@ public interface TrimestreRepository extends JpaRepository<Trimestre, Long> {
             LocalDate fecha1, LocalDate fecha2
     );
 
+    Optional<Trimestre> findTopByEstadoAndActivoTrueAndInicioLessThanEqualAndFinGreaterThanEqualOrderByInicioDesc(
+            TrimestreEstado estado, LocalDate fecha1, LocalDate fecha2
+    );
+
     List<Trimestre> findByPeriodoEscolarIdOrderByOrdenAsc(Long periodoEscolarId);
 }
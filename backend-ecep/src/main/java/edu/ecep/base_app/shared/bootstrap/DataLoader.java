@@ -4,6 +4,8 @@ package edu.ecep.base_app.shared.bootstrap;
 import edu.ecep.base_app.admisiones.domain.*;
 import edu.ecep.base_app.admisiones.infrastructure.persistence.*;
 import edu.ecep.base_app.asistencias.domain.*;
+import edu.ecep.base_app.asistencias.application.AsistenciaBitmapService;
+import edu.ecep.base_app.asistencias.application.AsistenciaResumenService;
 import edu.ecep.base_app.asistencias.domain.enums.EstadoAsistencia;
 import edu.ecep.base_app.asistencias.infrastructure.persistence.*;
 import edu.ecep.base_app.calendario.domain.*;
@@ -13,6 +15,7 @@ import edu.ecep.base_app.comunicacion.infrastructure.persistence.*;
 import edu.ecep.base_app.finanzas.domain.*;
 import edu.ecep.base_app.finanzas.domain.enums.*;
 import edu.ecep.base_app.finanzas.infrastructure.persistence.*;
+import edu.ecep.base_app.gestionacademica.application.SeccionesVigentesDocenteService;
 import edu.ecep.base_app.gestionacademica.domain.*;
 import edu.ecep.base_app.gestionacademica.domain.enums.*;
 import edu.ecep.base_app.gestionacademica.infrastructure.persistence.*;
@@ -76,6 +79,9 @@ public class DataLoader implements org.springframework.boot.CommandLineRunner {
     // === Asistencias ===
     private final JornadaAsistenciaRepository jornadaRepo;
     private final DetalleAsistenciaRepository detalleRepo;
+    private final AsistenciaResumenService asistenciaResumenService;
+    private final AsistenciaBitmapService asistenciaBitmapService;
+    private final SeccionesVigentesDocenteService seccionesVigentesDocenteService;
 
     // === Aspirantes (si aplica) ===
     private final AspiranteRepository aspiranteRepository;
@@ -721,6 +727,12 @@ public class DataLoader implements org.springframework.boot.CommandLineRunner {
 
         ensureSingleActivePeriod(periodo2025);
 
+        // las asistencias demo se guardan directo por repositorio: recalcular resúmenes
+        asistenciaResumenService.rebuild();
+        // la base se recreó: lo cacheado en Redis apunta a ids de la carga anterior
+        seccionesVigentesDocenteService.invalidarTodo();
+        asistenciaBitmapService.rebuild();
+
         log.info("⚡ Carga de datos completada.");
     }
 
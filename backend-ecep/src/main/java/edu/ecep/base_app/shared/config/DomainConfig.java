@@ -8,8 +8,12 @@ import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.FilterType;
 import org.springframework.data.auditing.DateTimeProvider;
+import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 
@@ -23,7 +27,7 @@ import org.springframework.transaction.annotation.EnableTransactionManagement;
         )
 )
 @EnableTransactionManagement
-@EnableJpaAuditing(dateTimeProviderRef = "auditingDateTimeProvider")
+@EnableJpaAuditing(dateTimeProviderRef = "auditingDateTimeProvider", auditorAwareRef = "auditorProvider")
 public class DomainConfig {
 
     @Bean(name = "auditingDateTimeProvider")
@@ -31,4 +35,13 @@ public class DomainConfig {
         return () -> Optional.of(OffsetDateTime.now());
     }
 
+    // created_by / modified_by: el id de la persona autenticada (el name del token); vacío en tareas programadas
+    @Bean(name = "auditorProvider")
+    public AuditorAware<String> auditorProvider() {
+        return () -> Optional.ofNullable(SecurityContextHolder.getContext().getAuthentication())
+                .filter(Authentication::isAuthenticated)
+                .filter(auth -> !(auth instanceof AnonymousAuthenticationToken))
+                .map(Authentication::getName);
+    }
+
 }
@@ -0,0 +1,26 @@
+package edu.ecep.base_app.shared.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    /**
+     * Scheduler compartido por los {@code @Scheduled} y las tareas programadas de los servicios.
+     * Se declara acá porque el broker STOMP registra su propio TaskScheduler y con él Spring Boot
+     * deja de crear el suyo; sin este bean las tareas correrían en el scheduler del broker.
+     */
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(@Value("${spring.task.scheduling.pool.size:4}") int poolSize) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix("tareas-");
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+}
@@ -0,0 +1,56 @@
+package edu.ecep.base_app.shared.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * CSV (RFC 4180) en UTF-8 con BOM para que Excel respete los acentos.
+ * Los valores que empiezan con =, +, - o @ se prefijan con ' para que no se evalúen como fórmulas.
+ */
+public class CsvTablaWriter implements TablaWriter {
+
+    private static final char BOM = '\uFEFF';
+
+    private final Writer out;
+    private boolean iniciado;
+
+    public CsvTablaWriter(OutputStream out) {
+        this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void fila(List<String> valores) throws IOException {
+        if (!iniciado) {
+            out.write(BOM);
+            iniciado = true;
+        }
+        for (int i = 0; i < valores.size(); i++) {
+            if (i > 0) out.write(',');
+            escribirCampo(valores.get(i));
+        }
+        out.write("\r\n");
+    }
+
+    private void escribirCampo(String valor) throws IOException {
+        if (valor == null || valor.isEmpty()) return;
+        String v = "=+-@".indexOf(valor.charAt(0)) >= 0 ? "'" + valor : valor;
+        if (v.indexOf(',') < 0 && v.indexOf('"') < 0 && v.indexOf('\n') < 0 && v.indexOf('\r') < 0) {
+            out.write(v);
+            return;
+        }
+        out.write('"');
+        out.write(v.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    /** Vacía el buffer sin cerrar el stream subyacente (lo cierra quien lo abrió). */
+    @Override
+    public void close() throws IOException {
+        out.flush();
+    }
+}
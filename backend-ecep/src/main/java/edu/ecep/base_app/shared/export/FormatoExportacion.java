@@ -0,0 +1,31 @@
+package edu.ecep.base_app.shared.export;
+
+import java.io.OutputStream;
+
+public enum FormatoExportacion {
+    CSV("text/csv; charset=UTF-8", "csv"),
+    XLSX("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "xlsx");
+
+    private final String contentType;
+    private final String extension;
+
+    FormatoExportacion(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public TablaWriter writer(OutputStream out, String hoja) {
+        return switch (this) {
+            case CSV -> new CsvTablaWriter(out);
+            case XLSX -> new XlsxTablaWriter(out, hoja);
+        };
+    }
+}
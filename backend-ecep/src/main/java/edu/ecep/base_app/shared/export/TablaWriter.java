@@ -0,0 +1,11 @@
+package edu.ecep.base_app.shared.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/** Escritura fila a fila de una tabla plana; nada se retiene en memoria entre filas. */
+public interface TablaWriter extends Closeable {
+
+    void fila(List<String> valores) throws IOException;
+}
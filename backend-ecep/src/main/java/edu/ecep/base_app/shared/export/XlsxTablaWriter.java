@@ -0,0 +1,127 @@
+package edu.ecep.base_app.shared.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * XLSX mínimo (una hoja, celdas de texto inline) escrito directamente sobre el stream:
+ * las partes fijas del paquete se emiten al inicio y la hoja se va comprimiendo fila a fila,
+ * sin shared strings ni archivos temporales.
+ */
+public class XlsxTablaWriter implements TablaWriter {
+
+    private static final String CONTENT_TYPES = """
+        <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+        <Types xmlns="http://schemas.openxmlformats.org/package/2006/content-types">\
+        <Default Extension="rels" ContentType="application/vnd.openxmlformats-package.relationships+xml"/>\
+        <Default Extension="xml" ContentType="application/xml"/>\
+        <Override PartName="/xl/workbook.xml" ContentType="application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml"/>\
+        <Override PartName="/xl/worksheets/sheet1.xml" ContentType="application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml"/>\
+        </Types>""";
+
+    private static final String RELS = """
+        <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+        <Relationships xmlns="http://schemas.openxmlformats.org/package/2006/relationships">\
+        <Relationship Id="rId1" Type="http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument" Target="xl/workbook.xml"/>\
+        </Relationships>""";
+
+    private static final String WORKBOOK = """
+        <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+        <workbook xmlns="http://schemas.openxmlformats.org/spreadsheetml/2006/main" \
+        xmlns:r="http://schemas.openxmlformats.org/officeDocument/2006/relationships">\
+        <sheets><sheet name="%s" sheetId="1" r:id="rId1"/></sheets></workbook>""";
+
+    private static final String WORKBOOK_RELS = """
+        <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+        <Relationships xmlns="http://schemas.openxmlformats.org/package/2006/relationships">\
+        <Relationship Id="rId1" Type="http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet" Target="worksheets/sheet1.xml"/>\
+        </Relationships>""";
+
+    private static final String SHEET_INICIO = """
+        <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+        <worksheet xmlns="http://schemas.openxmlformats.org/spreadsheetml/2006/main"><sheetData>""";
+
+    private static final String SHEET_FIN = "</sheetData></worksheet>";
+
+    private final ZipOutputStream zip;
+    private final Writer sheet;
+
+    public XlsxTablaWriter(OutputStream out, String hoja) {
+        this.zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+        this.sheet = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8));
+        try {
+            parte("[Content_Types].xml", CONTENT_TYPES);
+            parte("_rels/.rels", RELS);
+            parte("xl/workbook.xml", WORKBOOK.formatted(escapar(nombreHoja(hoja))));
+            parte("xl/_rels/workbook.xml.rels", WORKBOOK_RELS);
+            zip.putNextEntry(new ZipEntry("xl/worksheets/sheet1.xml"));
+            sheet.write(SHEET_INICIO);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void fila(List<String> valores) throws IOException {
+        sheet.write("<row>");
+        for (String valor : valores) {
+            if (valor == null || valor.isEmpty()) {
+                sheet.write("<c/>");
+            } else {
+                sheet.write("<c t=\"inlineStr\"><is><t xml:space=\"preserve\">");
+                sheet.write(escapar(valor));
+                sheet.write("</t></is></c>");
+            }
+        }
+        sheet.write("</row>");
+    }
+
+    /** Completa el paquete sin cerrar el stream subyacente (lo cierra quien lo abrió). */
+    @Override
+    public void close() throws IOException {
+        sheet.write(SHEET_FIN);
+        sheet.flush();
+        zip.closeEntry();
+        zip.finish();
+        zip.flush();
+    }
+
+    private void parte(String nombre, String contenido) throws IOException {
+        zip.putNextEntry(new ZipEntry(nombre));
+        zip.write(contenido.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+
+    // Excel limita el nombre de hoja a 31 caracteres y prohíbe []:*?/\
+    private static String nombreHoja(String hoja) {
+        String limpio = hoja.replaceAll("[\\[\\]:*?/\\\\]", " ").strip();
+        if (limpio.isEmpty()) return "Hoja1";
+        return limpio.length() > 31 ? limpio.substring(0, 31) : limpio;
+    }
+
+    private static String escapar(String valor) {
+        StringBuilder sb = new StringBuilder(valor.length() + 16);
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            switch (c) {
+                case '&' -> sb.append("&amp;");
+                case '<' -> sb.append("&lt;");
+                case '>' -> sb.append("&gt;");
+                case '"' -> sb.append("&quot;");
+                default -> {
+                    // Caracteres de control inválidos en XML 1.0
+                    if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') sb.append(c);
+                }
+            }
+        }
+        return sb.toString();
+    }
+}
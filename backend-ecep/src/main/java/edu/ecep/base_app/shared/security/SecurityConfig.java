@@ -4,6 +4,7 @@ import edu.ecep.base_app.identidad.domain.Persona;
 import edu.ecep.base_app.identidad.domain.enums.UserRole;
 import edu.ecep.base_app.identidad.infrastructure.persistence.PersonaRepository;
 import edu.ecep.base_app.shared.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -70,6 +71,9 @@ public class SecurityConfig {
 
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
 
+                        // Respuestas en streaming: el request original ya pasó la autorización
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                         .requestMatchers(
                                 HttpMethod.GET,
                                 "/api/personas/dni/**",
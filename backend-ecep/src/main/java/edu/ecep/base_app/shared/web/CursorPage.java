@@ -0,0 +1,29 @@
+package edu.ecep.base_app.shared.web;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Keyset-paginated payload. Unlike {@link PageResponse} there is no total count:
+ * the client keeps requesting with {@code nextCursor} until {@code hasNext} is false.
+ */
+public record CursorPage<T>(
+        List<T> content,
+        int size,
+        String nextCursor,
+        boolean hasNext
+) {
+
+    /**
+     * Builds the page from a query that fetched {@code size + 1} rows; the extra row only
+     * signals that there is more data and is dropped from the content.
+     */
+    public static <E, T> CursorPage<T> of(List<E> rows, int size,
+                                          Function<E, T> mapper,
+                                          Function<E, KeysetCursor> cursor) {
+        boolean hasNext = rows.size() > size;
+        List<E> page = hasNext ? rows.subList(0, size) : rows;
+        String next = hasNext ? cursor.apply(page.get(page.size() - 1)).encode() : null;
+        return new CursorPage<>(page.stream().map(mapper).toList(), size, next, hasNext);
+    }
+}
@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,4 +23,17 @@ public interface MatriculaRepository extends JpaRepository<Matricula, Long> {
             where m.alumno.id = :alumnoId
             """)
     List<Matricula> findByAlumnoIdWithPeriodo(@Param("alumnoId") Long alumnoId);
+
+    @org.springframework.data.jpa.repository.Query("""
+            select m.id as id, p.apellido as apellido, p.nombre as nombre
+            from Matricula m join m.alumno a join a.persona p
+            where m.id in :ids
+            """)
+    List<NombreAlumnoProjection> findNombresAlumno(@Param("ids") Collection<Long> ids);
+
+    interface NombreAlumnoProjection {
+        Long getId();
+        String getApellido();
+        String getNombre();
+    }
 }
@@ -0,0 +1,28 @@
+CREATE TABLE IF NOT EXISTS asistencia_resumen_seccion_dia (
+    id BIGSERIAL PRIMARY KEY,
+    seccion_id BIGINT NOT NULL,
+    fecha DATE NOT NULL,
+    presentes INTEGER NOT NULL DEFAULT 0,
+    ausentes INTEGER NOT NULL DEFAULT 0,
+    tarde INTEGER NOT NULL DEFAULT 0,
+    retiro_anticipado INTEGER NOT NULL DEFAULT 0,
+    total INTEGER NOT NULL DEFAULT 0,
+    CONSTRAINT ux_asistencia_resumen_seccion_dia UNIQUE (seccion_id, fecha)
+);
+
+CREATE TABLE IF NOT EXISTS asistencia_resumen_matricula_mes (
+    id BIGSERIAL PRIMARY KEY,
+    matricula_id BIGINT NOT NULL,
+    seccion_id BIGINT NOT NULL,
+    mes DATE NOT NULL,
+    presentes INTEGER NOT NULL DEFAULT 0,
+    ausentes INTEGER NOT NULL DEFAULT 0,
+    tarde INTEGER NOT NULL DEFAULT 0,
+    retiro_anticipado INTEGER NOT NULL DEFAULT 0,
+    total INTEGER NOT NULL DEFAULT 0,
+    CONSTRAINT ux_asistencia_resumen_matricula_mes UNIQUE (matricula_id, seccion_id, mes)
+);
+
+-- resumenPorAlumno filtra por sección y rango de meses
+CREATE INDEX IF NOT EXISTS ix_asistencia_resumen_matricula_mes_seccion
+    ON asistencia_resumen_matricula_mes (seccion_id, mes);
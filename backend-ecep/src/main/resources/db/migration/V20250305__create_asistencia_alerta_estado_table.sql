@@ -0,0 +1,14 @@
+CREATE TABLE IF NOT EXISTS asistencia_alerta_estado (
+    matricula_id BIGINT PRIMARY KEY,
+    trimestre_id BIGINT,
+    ultima_fecha DATE,
+    ultimo_estado VARCHAR(255),
+    ausentes_previos INTEGER NOT NULL DEFAULT 0,
+    ausentes_consecutivos INTEGER NOT NULL DEFAULT 0,
+    presentes INTEGER NOT NULL DEFAULT 0,
+    tardes INTEGER NOT NULL DEFAULT 0,
+    total INTEGER NOT NULL DEFAULT 0,
+    alerta_ausencias BOOLEAN NOT NULL DEFAULT FALSE,
+    alerta_porcentaje BOOLEAN NOT NULL DEFAULT FALSE,
+    tardes_notificadas INTEGER NOT NULL DEFAULT 0
+);
@@ -0,0 +1,19 @@
+-- Un registro activo por empleado y día: la importación de fichadas hace upsert sobre este par.
+-- Los registros dados de baja quedan fuera del índice y se conservan. Si hubiera duplicados
+-- activos se deja el más reciente y los demás se dan de baja.
+WITH duplicados AS (
+    SELECT id,
+           ROW_NUMBER() OVER (PARTITION BY empleado_id, fecha ORDER BY id DESC) AS rn
+      FROM asistencia_empleados
+     WHERE activo
+)
+UPDATE asistencia_empleados a
+   SET activo = false,
+       fecha_eliminacion = now(),
+       last_updated = now()
+  FROM duplicados d
+ WHERE a.id = d.id AND d.rn > 1;
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_asistencia_empleados_empleado_fecha
+    ON asistencia_empleados (empleado_id, fecha)
+ WHERE activo;
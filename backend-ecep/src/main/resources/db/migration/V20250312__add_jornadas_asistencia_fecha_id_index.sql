@@ -0,0 +1,4 @@
+-- Soporte para la paginación keyset por (fecha, id) de jornadas y detalles.
+-- Los detalles de cada jornada ya se leen por el índice único (jornada_id, matricula_id).
+CREATE INDEX IF NOT EXISTS ix_jornadas_asistencia_fecha_id
+    ON jornadas_asistencia (fecha, id);
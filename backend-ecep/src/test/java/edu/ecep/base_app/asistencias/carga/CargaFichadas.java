@@ -0,0 +1,144 @@
+package edu.ecep.base_app.asistencias.carga;
+
+import edu.ecep.base_app.asistencias.application.FichadaImportService;
+import edu.ecep.base_app.asistencias.infrastructure.persistence.AsistenciaEmpleadoBatchRepository;
+import edu.ecep.base_app.asistencias.presentation.dto.FichadaImportResultDTO;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+/**
+ * Mide la importación de fichadas contra una base Postgres con el esquema de la app: genera en
+ * memoria el archivo de un mes del reloj (por defecto 300 empleados, 22 días y 4 marcas por día,
+ * 26.400 marcas) y lo importa varias veces con {@link FichadaImportService}, cada una en su
+ * transacción como en el endpoint. Informa por separado la primera importación (todo INSERT) y la
+ * reimportación del mismo archivo (todo conflicto y UPDATE).
+ *
+ * <p>Los empleados son los primeros con legajo de {@code personas_empleado}. Las marcas caen en
+ * fechas que no existen en la base ({@code carga.desde}, por defecto 2099) y se borran al terminar.
+ * <pre>
+ * docker compose -f docker-compose.dev.yml up -d postgres
+ * ./mvnw test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java \
+ *     -Dexec.args="-cp %classpath edu.ecep.base_app.asistencias.carga.CargaFichadas"
+ * </pre>
+ */
+public final class CargaFichadas {
+
+    private static final Duration VENTANA = Duration.ofMinutes(2);
+    // entrada, salida y vuelta del almuerzo, salida
+    private static final LocalTime[] MARCAS = {
+            LocalTime.of(7, 50), LocalTime.of(12, 0), LocalTime.of(13, 0), LocalTime.of(17, 0)};
+
+    record Config(String jdbcUrl,
+                  String jdbcUsuario,
+                  String jdbcPassword,
+                  int empleados,
+                  int dias,
+                  int marcas,
+                  LocalDate desde,
+                  int repeticiones) {
+
+        static Config desdePropiedades() {
+            return new Config(
+                    prop("carga.jdbc-url", "jdbc:postgresql://localhost:5432/base-app"),
+                    prop("carga.jdbc-usuario", "postgres"),
+                    prop("carga.jdbc-password", "P4ssword!"),
+                    Integer.parseInt(prop("carga.empleados", "300")),
+                    Integer.parseInt(prop("carga.dias", "22")),
+                    Math.min(MARCAS.length, Integer.parseInt(prop("carga.marcas", "4"))),
+                    LocalDate.parse(prop("carga.desde", "2099-03-02")),
+                    Integer.parseInt(prop("carga.repeticiones", "5")));
+        }
+
+        private static String prop(String nombre, String porDefecto) {
+            return System.getProperty(nombre, porDefecto);
+        }
+    }
+
+    public static void main(String[] args) {
+        Config config = Config.desdePropiedades();
+        DriverManagerDataSource ds = new DriverManagerDataSource(config.jdbcUrl(), config.jdbcUsuario(), config.jdbcPassword());
+        JdbcTemplate jdbc = new JdbcTemplate(ds);
+        TransactionTemplate tx = new TransactionTemplate(new DataSourceTransactionManager(ds));
+        FichadaImportService servicio = new FichadaImportService(new AsistenciaEmpleadoBatchRepository(jdbc, Optional::empty), VENTANA);
+
+        List<String> legajos = jdbc.queryForList(
+                "SELECT legajo FROM personas_empleado WHERE legajo IS NOT NULL ORDER BY id LIMIT ?",
+                String.class, config.empleados());
+        if (legajos.isEmpty()) throw new IllegalStateException("No hay empleados con legajo");
+        byte[] archivo = archivo(legajos, config);
+        LocalDate hasta = config.desde().plusDays(config.dias() - 1);
+        System.out.printf("%d empleados, %d días, %d marcas (%d KB)%n", legajos.size(), config.dias(),
+                (long) legajos.size() * config.dias() * config.marcas(), archivo.length / 1024);
+
+        long[] primera = new long[config.repeticiones()];
+        long[] reimportacion = new long[config.repeticiones()];
+        FichadaImportResultDTO resultado = null;
+        try {
+            // una vuelta sin medir para calentar el JIT
+            borrar(jdbc, config.desde(), hasta);
+            importar(tx, servicio, archivo);
+            for (int i = 0; i < config.repeticiones(); i++) {
+                borrar(jdbc, config.desde(), hasta);
+                long t0 = System.nanoTime();
+                resultado = importar(tx, servicio, archivo);
+                primera[i] = System.nanoTime() - t0;
+                t0 = System.nanoTime();
+                importar(tx, servicio, archivo);
+                reimportacion[i] = System.nanoTime() - t0;
+            }
+        } finally {
+            borrar(jdbc, config.desde(), hasta);
+        }
+        System.out.printf("fichadas=%d días-empleado=%d descartadas=%d sin empleado=%d%n", resultado.getFichadas(),
+                resultado.getRegistros(), resultado.getDescartadas(), resultado.getSinEmpleado());
+        System.out.println("primera importación: " + resumen(primera));
+        System.out.println("reimportación:       " + resumen(reimportacion));
+    }
+
+    private static FichadaImportResultDTO importar(TransactionTemplate tx, FichadaImportService servicio, byte[] archivo) {
+        return tx.execute(s -> servicio.importar(new ByteArrayInputStream(archivo)));
+    }
+
+    /** Archivo en el orden del reloj: por día y hora, con segundos al azar. */
+    private static byte[] archivo(List<String> legajos, Config config) {
+        Random random = new Random(42);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.writeBytes("legajo;fecha hora;tipo\n".getBytes(StandardCharsets.UTF_8));
+        for (int d = 0; d < config.dias(); d++) {
+            LocalDate fecha = config.desde().plusDays(d);
+            for (int m = 0; m < config.marcas(); m++) {
+                for (String legajo : legajos) {
+                    LocalTime hora = MARCAS[m].plusSeconds(random.nextInt(1200));
+                    String linea = legajo + ";" + fecha + " " + hora.withNano(0) + ";" + (m % 2 == 0 ? "E" : "S") + "\n";
+                    out.writeBytes(linea.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private static void borrar(JdbcTemplate jdbc, LocalDate desde, LocalDate hasta) {
+        jdbc.update("DELETE FROM asistencia_empleados WHERE fecha BETWEEN ? AND ?", Date.valueOf(desde), Date.valueOf(hasta));
+    }
+
+    private static String resumen(long[] nanos) {
+        long[] orden = nanos.clone();
+        Arrays.sort(orden);
+        return String.format("min=%.0fms mediana=%.0fms max=%.0fms (n=%d)", orden[0] / 1e6,
+                orden[orden.length / 2] / 1e6, orden[orden.length - 1] / 1e6, orden.length);
+    }
+}
@@ -0,0 +1,75 @@
+package edu.ecep.base_app.asistencias.domain;
+
+import edu.ecep.base_app.asistencias.domain.enums.EstadoAsistencia;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsistenciaBitmapTest {
+
+    @Test
+    void contar_shouldMatchNaiveCountOnAnyRange() {
+        Random rnd = new Random(42);
+        EstadoAsistencia[] dias = new EstadoAsistencia[AsistenciaBitmap.DIAS];
+        AsistenciaBitmap bitmap = new AsistenciaBitmap();
+        for (int d = 0; d < 366; d++) {
+            int r = rnd.nextInt(5);
+            dias[d] = r == 4 ? null : EstadoAsistencia.values()[r];
+            bitmap.set(d, dias[d]);
+        }
+
+        for (int i = 0; i < 500; i++) {
+            int a = rnd.nextInt(366);
+            int b = a + rnd.nextInt(366 - a);
+            AsistenciaContadores esperado = AsistenciaContadores.VACIO;
+            for (int d = a; d <= b; d++) {
+                esperado = esperado.mas(AsistenciaContadores.de(dias[d]));
+            }
+            assertEquals(esperado, bitmap.contar(a, b), "rango " + a + ".." + b);
+        }
+    }
+
+    @Test
+    void set_shouldOverwriteAndClearDay() {
+        AsistenciaBitmap bitmap = new AsistenciaBitmap();
+        bitmap.set(63, EstadoAsistencia.RETIRO_ANTICIPADO);
+        bitmap.set(63, EstadoAsistencia.PRESENTE);
+        assertEquals(EstadoAsistencia.PRESENTE, bitmap.get(63));
+        assertEquals(new AsistenciaContadores(1, 0, 0, 0, 1), bitmap.contar(0, 365));
+
+        bitmap.set(63, null);
+        assertNull(bitmap.get(63));
+        assertEquals(AsistenciaContadores.VACIO, bitmap.contar(0, 365));
+    }
+
+    @Test
+    void bytes_shouldUseRedisBitOrder() {
+        AsistenciaBitmap bitmap = new AsistenciaBitmap();
+        bitmap.set(0, EstadoAsistencia.AUSENTE);
+        bitmap.set(200, EstadoAsistencia.TARDE);
+
+        byte[] raw = bitmap.toBytes();
+        // SETBIT offset 0 es el bit más significativo del primer byte
+        assertEquals((byte) 0x80, raw[0]);
+        assertTrue(bitSet(raw, AsistenciaBitmap.offset(AsistenciaBitmap.PLANO_BIT_BAJO, 0)));
+        assertTrue(bitSet(raw, AsistenciaBitmap.offset(AsistenciaBitmap.PLANO_BIT_ALTO, 200)));
+        assertFalse(bitSet(raw, AsistenciaBitmap.offset(AsistenciaBitmap.PLANO_BIT_BAJO, 200)));
+
+        AsistenciaBitmap copia = AsistenciaBitmap.fromBytes(raw);
+        assertEquals(EstadoAsistencia.AUSENTE, copia.get(0));
+        assertEquals(EstadoAsistencia.TARDE, copia.get(200));
+    }
+
+    @Test
+    void fromBytes_shouldAcceptTruncatedValue() {
+        AsistenciaBitmap bitmap = AsistenciaBitmap.fromBytes(new byte[]{(byte) 0x40});
+        assertEquals(EstadoAsistencia.PRESENTE, bitmap.get(1));
+        assertEquals(new AsistenciaContadores(1, 0, 0, 0, 1), bitmap.contar(0, 365));
+    }
+
+    private static boolean bitSet(byte[] raw, long offset) {
+        return (raw[(int) (offset >>> 3)] & (0x80 >>> (offset & 7))) != 0;
+    }
+}
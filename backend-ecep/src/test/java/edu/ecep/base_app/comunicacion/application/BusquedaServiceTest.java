@@ -0,0 +1,97 @@
+package edu.ecep.base_app.comunicacion.application;
+
+import edu.ecep.base_app.comunicacion.domain.MensajeBusqueda;
+import edu.ecep.base_app.comunicacion.infrastructure.persistence.BusquedaTexto.Posicion;
+import edu.ecep.base_app.comunicacion.infrastructure.persistence.BusquedaTexto.Resultado;
+import edu.ecep.base_app.comunicacion.infrastructure.persistence.ComunicadoEntregaRepository;
+import edu.ecep.base_app.comunicacion.infrastructure.persistence.ComunicadoRepository;
+import edu.ecep.base_app.comunicacion.infrastructure.persistence.MensajeBusquedaRepository;
+import edu.ecep.base_app.comunicacion.presentation.dto.BusquedaPaginaDTO;
+import edu.ecep.base_app.comunicacion.presentation.dto.MensajeEncontradoDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BusquedaServiceTest {
+
+    // el orden de BusquedaTexto: puntaje descendente y _id para desempatar
+    private static final Comparator<Resultado<MensajeBusqueda>> ORDEN =
+            Comparator.<Resultado<MensajeBusqueda>>comparingDouble(Resultado::puntaje).reversed()
+                    .thenComparing(r -> r.documento().getId());
+
+    @Mock
+    private MensajeBusquedaRepository mensajeBusquedaRepository;
+
+    @Mock
+    private ComunicadoEntregaRepository entregaRepository;
+
+    @Mock
+    private ComunicadoRepository comunicadoRepository;
+
+    @InjectMocks
+    private BusquedaService service;
+
+    @Test
+    void buscarMensajes_cursorShouldWalkTiesWithoutSkippingOrRepeating() {
+        // puntajes sin representación decimal corta y empates que cruzan el borde de página
+        double alto = 1.0 / 3 + 1;
+        double medio = 0.1 + 0.2;
+        List<Resultado<MensajeBusqueda>> indice = new ArrayList<>(List.of(
+                resultado("a5:1", alto), resultado("a1:1", alto), resultado("a3:1", alto),
+                resultado("b2:1", medio), resultado("b1:1", medio), resultado("b3:1", medio),
+                resultado("c1:1", 0.75)));
+        indice.sort(ORDEN);
+        when(mensajeBusquedaRepository.buscar(eq(1L), eq("reunion"), any(), anyInt()))
+                .thenAnswer(inv -> despues(indice, inv.getArgument(2), inv.getArgument(3)));
+
+        List<String> vistos = new ArrayList<>();
+        String cursor = null;
+        int paginas = 0;
+        do {
+            BusquedaPaginaDTO<MensajeEncontradoDTO> pagina = service.buscarMensajes(1L, "reunion", cursor, 2);
+            pagina.getResultados().forEach(r -> vistos.add(r.getMensajeId()));
+            cursor = pagina.getSiguiente();
+            paginas++;
+        } while (cursor != null && paginas < 10);
+
+        assertEquals(indice.stream().map(r -> r.documento().getMensajeId()).toList(), vistos);
+        assertEquals(4, paginas);
+    }
+
+    @Test
+    void buscarMensajes_shouldRejectMalformedCursor() {
+        assertThrows(ResponseStatusException.class, () -> service.buscarMensajes(1L, "reunion", "no-es-un-cursor", 10));
+    }
+
+    /** Lo que hace el {@code $match} de BusquedaTexto: estrictamente después de la posición. */
+    private static List<Resultado<MensajeBusqueda>> despues(List<Resultado<MensajeBusqueda>> indice, Posicion desde, int limite) {
+        return indice.stream()
+                .filter(r -> desde == null
+                        || r.puntaje() < desde.puntaje()
+                        || (r.puntaje() == desde.puntaje() && r.documento().getId().compareTo(desde.id()) > 0))
+                .limit(limite)
+                .toList();
+    }
+
+    private static Resultado<MensajeBusqueda> resultado(String id, double puntaje) {
+        MensajeBusqueda m = new MensajeBusqueda();
+        m.setId(id);
+        m.setMensajeId(id.substring(0, id.indexOf(':')));
+        m.setContenido("reunion");
+        return new Resultado<>(m, puntaje);
+    }
+}
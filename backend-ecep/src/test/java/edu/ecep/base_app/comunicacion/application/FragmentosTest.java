@@ -0,0 +1,59 @@
+package edu.ecep.base_app.comunicacion.application;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FragmentosTest {
+
+    private static final String RELLENO = "El equipo docente informa novedades de la semana para todas las familias del nivel. ";
+    private static final String TEXTO = RELLENO.repeat(4) + "La Reunión de padres será el jueves. " + RELLENO.repeat(4);
+
+    @Test
+    void de_shouldReturnShortTextsAndNullsUnchanged() {
+        assertNull(Fragmentos.de(null, "reunion", 40));
+        assertEquals("Hola", Fragmentos.de("Hola", "reunion", 40));
+    }
+
+    @Test
+    void de_shouldCenterOnTheMatchIgnoringCaseAndAccents() {
+        String fragmento = Fragmentos.de(TEXTO, "REUNION", 60);
+
+        assertTrue(fragmento.contains("Reunión de padres"), fragmento);
+        assertTrue(fragmento.startsWith("…"), fragmento);
+        assertTrue(fragmento.endsWith("…"), fragmento);
+        assertTrue(fragmento.length() <= 62, fragmento);
+    }
+
+    @Test
+    void de_shouldNotCutWordsAtTheEdges() {
+        String fragmento = Fragmentos.de(TEXTO, "reunion", 60);
+        String recorte = fragmento.substring(1, fragmento.length() - 1);
+
+        assertTrue(TEXTO.contains(" " + recorte + " "), fragmento);
+    }
+
+    @Test
+    void de_shouldIgnoreNegatedAndShortTerms() {
+        String fragmento = Fragmentos.de(TEXTO, "-equipo a reunion", 60);
+        assertTrue(fragmento.contains("Reunión"), fragmento);
+    }
+
+    @Test
+    void de_shouldFallBackToTheStartWhenNothingMatchesLiterally() {
+        // el índice de texto compara raíces: "reuniones" coincide allá pero no acá
+        String fragmento = Fragmentos.de(TEXTO, "reuniones", 60);
+
+        assertTrue(fragmento.startsWith("El equipo docente"), fragmento);
+        assertTrue(fragmento.endsWith("…"), fragmento);
+    }
+
+    @Test
+    void de_shouldShiftTheWindowBackNearTheEnd() {
+        String texto = RELLENO.repeat(4) + "Traer la autorización firmada";
+        String fragmento = Fragmentos.de(texto, "firmada", 60);
+
+        assertTrue(fragmento.endsWith("firmada"), fragmento);
+        assertTrue(fragmento.length() > 40, fragmento);
+    }
+}
@@ -0,0 +1,419 @@
+package edu.ecep.base_app.comunicacion.carga;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import edu.ecep.base_app.comunicacion.presentation.dto.ChatMessageDTO;
+import edu.ecep.base_app.comunicacion.presentation.dto.SendMessageRequest;
+import edu.ecep.base_app.comunicacion.presentation.dto.TypingNotificationDTO;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+/**
+ * Prueba de carga del chat por WebSocket: abre sesiones STOMP autenticadas contra una instancia
+ * levantada en la máquina, genera mensajes, avisos de escritura y reconexiones al ritmo pedido e
+ * informa la latencia de entrega de punta a punta (envío a {@code /app/chat.send} hasta la llegada
+ * a {@code /user/queue/messages} del receptor) y el throughput. Corre por etapas de cantidad de
+ * sesiones creciente para ver en cuál se degrada la latencia.
+ *
+ * <p>Con la base, Mongo y Redis del compose de desarrollo y la app corriendo:
+ * <pre>
+ * docker compose -f docker-compose.dev.yml up -d postgres mongo redis
+ * ./mvnw spring-boot:run
+ * ./mvnw test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java \
+ *     -Dexec.args="-cp %classpath -Dcarga.sesiones=100,500,1000 edu.ecep.base_app.comunicacion.carga.CargaChat"
+ * </pre>
+ * Los parámetros son propiedades {@code carga.*} (ver {@link Config#desdePropiedades()}). Las personas
+ * salen de {@code carga.personas} ({@code 1-200} o {@code 3,5,8}) o, si no está, de la tabla
+ * {@code personas}; con menos personas que sesiones se reparten varias sesiones por persona. Para
+ * miles de sesiones hace falta subir {@code ulimit -n} en ambos procesos, y conviene bajar a WARN
+ * el log de {@code comunicacion.infrastructure.config}, que registra cada conexión. Para medir sin
+ * SockJS: {@code -Dcarga.sockjs=false -Dcarga.url=ws://localhost:8080/ws/websocket}.
+ */
+public final class CargaChat implements ClienteCarga.Eventos {
+
+    private static final String PREFIJO = "carga ";
+    private static final long TICK_MS = 10;
+
+    record Config(String url,
+                  boolean sockJs,
+                  String jwtSecret,
+                  String personas,
+                  String jdbcUrl,
+                  String jdbcUsuario,
+                  String jdbcPassword,
+                  List<Integer> sesiones,
+                  double conexionesPorSegundo,
+                  double mensajesPorSegundo,
+                  double escrituraPorSegundo,
+                  double reconexionesPorSegundo,
+                  Duration calentamiento,
+                  Duration etapa,
+                  Duration informe,
+                  Duration asentamiento) {
+
+        static Config desdePropiedades() {
+            return new Config(
+                    prop("carga.url", "http://localhost:8080/ws"),
+                    Boolean.parseBoolean(prop("carga.sockjs", "true")),
+                    prop("carga.jwt-secret", "secretClaveMuySegura123456789012345678901234567890"),
+                    System.getProperty("carga.personas"),
+                    prop("carga.jdbc-url", "jdbc:postgresql://localhost:5432/base-app"),
+                    prop("carga.jdbc-usuario", "postgres"),
+                    prop("carga.jdbc-password", "P4ssword!"),
+                    Arrays.stream(prop("carga.sesiones", "100,250,500").split(","))
+                            .map(String::trim).map(Integer::valueOf).toList(),
+                    Double.parseDouble(prop("carga.conexiones-por-segundo", "100")),
+                    Double.parseDouble(prop("carga.mensajes-por-segundo", "200")),
+                    Double.parseDouble(prop("carga.escritura-por-segundo", "50")),
+                    Double.parseDouble(prop("carga.reconexiones-por-segundo", "1")),
+                    Duration.parse(prop("carga.calentamiento", "PT10S")),
+                    Duration.parse(prop("carga.etapa", "PT60S")),
+                    Duration.parse(prop("carga.informe", "PT5S")),
+                    Duration.parse(prop("carga.asentamiento", "PT1S")));
+        }
+
+        private static String prop(String nombre, String porDefecto) {
+            return System.getProperty(nombre, porDefecto);
+        }
+    }
+
+    /** Mensaje en vuelo: cuándo salió y si cae dentro de la ventana medida. */
+    private record Envio(long nanos, boolean medido) {}
+
+    private final Config config;
+    private final WebSocketStompClient stomp;
+    private final List<ClienteCarga> clientes = new CopyOnWriteArrayList<>();
+    private final Map<Long, Envio> enVuelo = new ConcurrentHashMap<>();
+    private final ExecutorService envios = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicLong secuencia = new AtomicLong();
+
+    private final Latencias entrega = new Latencias();
+    private final Latencias ventana = new Latencias();
+    private final Latencias conexion = new Latencias();
+    private final AtomicLong enviados = new AtomicLong();
+    private final AtomicLong entregados = new AtomicLong();
+    private final AtomicLong diferidos = new AtomicLong();
+    private final AtomicLong escrituras = new AtomicLong();
+    private final AtomicLong reconexiones = new AtomicLong();
+    private final AtomicLong caidas = new AtomicLong();
+    private final AtomicLong errores = new AtomicLong();
+    private volatile boolean midiendo;
+    private volatile boolean cerrando;
+
+    private CargaChat(Config config) {
+        this.config = config;
+        this.stomp = stompClient(config);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Config config = Config.desdePropiedades();
+        List<Long> personas = personas(config);
+        if (personas.size() < 2) throw new IllegalStateException("Hacen falta al menos dos personas");
+        System.out.printf("Carga contra %s (%s) con %d personas; mensajes %.0f/s, escritura %.0f/s, reconexiones %.1f/s%n",
+                config.url(), config.sockJs() ? "SockJS" : "WebSocket", personas.size(),
+                config.mensajesPorSegundo(), config.escrituraPorSegundo(), config.reconexionesPorSegundo());
+        new CargaChat(config).correr(personas);
+        System.exit(0);
+    }
+
+    private void correr(List<Long> personas) throws InterruptedException {
+        ScheduledExecutorService reloj = Executors.newSingleThreadScheduledExecutor();
+        try {
+            for (int objetivo : config.sesiones()) {
+                abrir(personas, objetivo);
+                Generador generador = new Generador();
+                var tarea = reloj.scheduleAtFixedRate(generador::tick, TICK_MS, TICK_MS, TimeUnit.MILLISECONDS);
+
+                Thread.sleep(config.calentamiento().toMillis());
+                reiniciarContadores();
+                midiendo = true;
+                long inicio = System.nanoTime();
+                long fin = inicio + config.etapa().toNanos();
+                while (System.nanoTime() < fin) {
+                    Thread.sleep(Math.min(config.informe().toMillis(),
+                            Math.max(1, TimeUnit.NANOSECONDS.toMillis(fin - System.nanoTime()))));
+                    System.out.printf("  [%3ds] sesiones=%d %s%n", TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - inicio),
+                            conectadas(), ventana.resumenYReiniciar());
+                }
+                midiendo = false;
+                double segundos = (System.nanoTime() - inicio) / 1e9;
+                tarea.cancel(false);
+                informar(objetivo, segundos, drenar());
+            }
+        } finally {
+            cerrando = true;
+            reloj.shutdownNow();
+            clientes.forEach(ClienteCarga::desconectar);
+            envios.shutdownNow();
+            stomp.stop();
+        }
+    }
+
+    /** Abre sesiones hasta tener {@code objetivo}, al ritmo de conexión configurado. */
+    private void abrir(List<Long> personas, int objetivo) throws InterruptedException {
+        long pausa = (long) (1e9 / config.conexionesPorSegundo());
+        List<CompletableFuture<?>> pendientes = new ArrayList<>();
+        long fallosAntes = errores.get();
+        for (int i = clientes.size(); i < objetivo; i++) {
+            Long personaId = personas.get(i % personas.size());
+            ClienteCarga cliente = new ClienteCarga(personaId, token(personaId), this);
+            clientes.add(cliente);
+            pendientes.add(conectar(cliente));
+            TimeUnit.NANOSECONDS.sleep(pausa);
+        }
+        try {
+            CompletableFuture.allOf(pendientes.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+        } catch (Exception ignored) {
+            // los fallos ya quedaron contados en conectar
+        }
+        System.out.printf("%n== %d sesiones: conectadas %d, fallos %d, conexión %s ==%n",
+                objetivo, conectadas(), errores.get() - fallosAntes, conexion.resumen());
+        Thread.sleep(config.asentamiento().toMillis());
+    }
+
+    private CompletableFuture<?> conectar(ClienteCarga cliente) {
+        long inicio = System.nanoTime();
+        return cliente.conectar(stomp, config.url()).whenComplete((session, ex) -> {
+            if (ex != null) {
+                errores.incrementAndGet();
+            } else {
+                conexion.registrar(System.nanoTime() - inicio);
+            }
+        });
+    }
+
+    /** Espera a que lleguen los mensajes en vuelo y devuelve cuántos de los medidos no llegaron. */
+    private long drenar() throws InterruptedException {
+        long hasta = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (enVuelo.values().stream().anyMatch(Envio::medido) && System.nanoTime() < hasta) {
+            Thread.sleep(50);
+        }
+        long perdidos = enVuelo.values().stream().filter(Envio::medido).count();
+        enVuelo.clear();
+        return perdidos;
+    }
+
+    private void informar(int objetivo, double segundos, long perdidos) {
+        System.out.printf("-- %d sesiones, %.0fs medidos --%n", objetivo, segundos);
+        System.out.printf("  enviados %d (%.1f/s) entregados %d (%.1f/s) diferidos %d perdidos %d errores %d%n",
+                enviados.get(), enviados.get() / segundos, entregados.get(), entregados.get() / segundos,
+                diferidos.get(), perdidos, errores.get());
+        System.out.printf("  entrega %s%n", entrega.resumen());
+        System.out.printf("  escritura %d reconexiones %d caídas %d conexión %s%n",
+                escrituras.get(), reconexiones.get(), caidas.get(), conexion.resumen());
+    }
+
+    private void reiniciarContadores() {
+        entrega.reiniciar();
+        ventana.reiniciar();
+        conexion.reiniciar();
+        List.of(enviados, entregados, diferidos, escrituras, reconexiones, caidas, errores).forEach(c -> c.set(0));
+    }
+
+    @Override
+    public void recibido(ClienteCarga cliente, ChatMessageDTO mensaje, long ahora) {
+        String contenido = mensaje.getContenido();
+        if (contenido == null || !contenido.startsWith(PREFIJO)) return;
+        if (!cliente.personaId().equals(mensaje.getReceptorId())) return;
+        // con varias sesiones por persona vale la primera en recibirlo
+        Envio envio = enVuelo.remove(Long.parseLong(contenido.substring(PREFIJO.length())));
+        if (envio == null || !envio.medido()) return;
+        entregados.incrementAndGet();
+        if (envio.nanos() < cliente.conectadoDesde()) {
+            // el receptor se reconectó en el medio: llegó por la lista de pendientes
+            diferidos.incrementAndGet();
+            return;
+        }
+        entrega.registrar(ahora - envio.nanos());
+        ventana.registrar(ahora - envio.nanos());
+    }
+
+    @Override
+    public void caido(ClienteCarga cliente, Throwable causa) {
+        if (cerrando) return;
+        caidas.incrementAndGet();
+        conectar(cliente);
+    }
+
+    @Override
+    public void error(ClienteCarga cliente, Throwable causa) {
+        errores.incrementAndGet();
+    }
+
+    /** Reparte en cada tick los envíos, avisos y reconexiones que tocan según los ritmos configurados. */
+    private final class Generador {
+
+        private final Ritmo mensajes = new Ritmo(config.mensajesPorSegundo());
+        private final Ritmo escritura = new Ritmo(config.escrituraPorSegundo());
+        private final Ritmo churn = new Ritmo(config.reconexionesPorSegundo());
+
+        void tick() {
+            for (int i = mensajes.tomar(); i > 0; i--) envios.execute(this::mensaje);
+            for (int i = escritura.tomar(); i > 0; i--) envios.execute(this::escritura);
+            for (int i = churn.tomar(); i > 0; i--) envios.execute(this::reconexion);
+        }
+
+        private void mensaje() {
+            ClienteCarga[] par = par();
+            if (par == null) return;
+            long seq = secuencia.incrementAndGet();
+            boolean medido = midiendo;
+            SendMessageRequest req = new SendMessageRequest();
+            req.setReceptorId(par[1].personaId());
+            req.setContenido(PREFIJO + seq);
+            // se cuenta antes de enviar: la entrega puede llegar antes de que vuelva el send
+            if (medido) enviados.incrementAndGet();
+            enVuelo.put(seq, new Envio(System.nanoTime(), medido));
+            try {
+                par[0].enviar("/app/chat.send", req);
+            } catch (Exception ex) {
+                if (enVuelo.remove(seq) != null && medido) enviados.decrementAndGet();
+                errores.incrementAndGet();
+            }
+        }
+
+        private void escritura() {
+            ClienteCarga[] par = par();
+            if (par == null) return;
+            TypingNotificationDTO aviso = new TypingNotificationDTO();
+            aviso.setReceptorId(par[1].personaId());
+            aviso.setTyping(true);
+            try {
+                par[0].enviar("/app/chat.typing", aviso);
+                escrituras.incrementAndGet();
+            } catch (Exception ex) {
+                errores.incrementAndGet();
+            }
+        }
+
+        private void reconexion() {
+            ClienteCarga cliente = clientes.get(ThreadLocalRandom.current().nextInt(clientes.size()));
+            if (!cliente.conectado()) return;
+            cliente.desconectar();
+            reconexiones.incrementAndGet();
+            conectar(cliente);
+        }
+
+        /** Emisor y receptor listos, de personas distintas; null si no se encuentran en pocos intentos. */
+        private ClienteCarga[] par() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long ahora = System.nanoTime();
+            long asentamiento = config.asentamiento().toNanos();
+            for (int intento = 0; intento < 20; intento++) {
+                ClienteCarga emisor = clientes.get(random.nextInt(clientes.size()));
+                ClienteCarga receptor = clientes.get(random.nextInt(clientes.size()));
+                if (!emisor.personaId().equals(receptor.personaId())
+                        && emisor.listo(ahora, asentamiento) && receptor.listo(ahora, asentamiento)) {
+                    return new ClienteCarga[]{emisor, receptor};
+                }
+            }
+            return null;
+        }
+    }
+
+    /** Acumula fracciones de evento por tick para sostener ritmos que no son múltiplos del tick. */
+    private static final class Ritmo {
+
+        private final double porTick;
+        private double acumulado;
+
+        Ritmo(double porSegundo) {
+            this.porTick = porSegundo * TICK_MS / 1000.0;
+        }
+
+        int tomar() {
+            acumulado += porTick;
+            int n = (int) acumulado;
+            acumulado -= n;
+            return n;
+        }
+    }
+
+    private long conectadas() {
+        return clientes.stream().filter(ClienteCarga::conectado).count();
+    }
+
+    // mismo formato que JwtService.generateToken; el handshake sólo mira el claim personaId
+    private String token(Long personaId) {
+        Date ahora = new Date();
+        return Jwts.builder()
+                .claim("personaId", personaId)
+                .setSubject("carga-" + personaId)
+                .setIssuedAt(ahora)
+                .setExpiration(new Date(ahora.getTime() + Duration.ofDays(1).toMillis()))
+                .signWith(SignatureAlgorithm.HS256, config.jwtSecret())
+                .compact();
+    }
+
+    private static List<Long> personas(Config config) throws Exception {
+        String personas = config.personas();
+        if (personas != null && !personas.isBlank()) {
+            if (personas.contains("-")) {
+                String[] rango = personas.split("-");
+                return LongStream.rangeClosed(Long.parseLong(rango[0].trim()), Long.parseLong(rango[1].trim()))
+                        .boxed().toList();
+            }
+            return Arrays.stream(personas.split(",")).map(String::trim).map(Long::valueOf).toList();
+        }
+        int maximo = config.sesiones().stream().mapToInt(Integer::intValue).max().orElse(0);
+        List<Long> ids = new ArrayList<>();
+        try (Connection conn = DriverManager.getConnection(config.jdbcUrl(), config.jdbcUsuario(), config.jdbcPassword());
+             PreparedStatement ps = conn.prepareStatement("select id from personas order by id limit ?")) {
+            ps.setInt(1, maximo);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) ids.add(rs.getLong(1));
+            }
+        }
+        return ids;
+    }
+
+    private static WebSocketStompClient stompClient(Config config) {
+        JdkWebSocketClient ws = new JdkWebSocketClient();
+        WebSocketStompClient stomp = new WebSocketStompClient(config.sockJs()
+                ? new SockJsClient(List.of(new WebSocketTransport(ws)))
+                : ws);
+
+        ObjectMapper mapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+        converter.setObjectMapper(mapper);
+        stomp.setMessageConverter(converter);
+
+        // mismos heartbeats que negocia el broker con el front
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(2);
+        scheduler.setThreadNamePrefix("carga-heartbeat-");
+        scheduler.initialize();
+        stomp.setTaskScheduler(scheduler);
+        stomp.setDefaultHeartbeat(new long[]{10000, 10000});
+        return stomp;
+    }
+}
@@ -0,0 +1,112 @@
+package edu.ecep.base_app.comunicacion.carga;
+
+import edu.ecep.base_app.comunicacion.infrastructure.messaging.RedisSubscriber;
+import edu.ecep.base_app.comunicacion.presentation.dto.ChatMessageDTO;
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Una sesión STOMP de la prueba de carga, autenticada como una persona con el token en la query
+ * del handshake (lo que acepta {@code JwtHandshakeInterceptor}). Al conectar se suscribe a
+ * {@code /user/queue/messages} como el front.
+ */
+final class ClienteCarga extends StompSessionHandlerAdapter {
+
+    interface Eventos {
+        void recibido(ClienteCarga cliente, ChatMessageDTO mensaje, long ahora);
+
+        void caido(ClienteCarga cliente, Throwable causa);
+
+        void error(ClienteCarga cliente, Throwable causa);
+    }
+
+    static final String DESTINO = "/user" + RedisSubscriber.DESTINO;
+
+    private final Long personaId;
+    private final String token;
+    private final Eventos eventos;
+    private volatile StompSession session;
+    private volatile long conectadoDesde;
+
+    ClienteCarga(Long personaId, String token, Eventos eventos) {
+        this.personaId = personaId;
+        this.token = token;
+        this.eventos = eventos;
+    }
+
+    Long personaId() {
+        return personaId;
+    }
+
+    /** {@link System#nanoTime()} del último CONNECTED; lo enviado antes llega como pendiente. */
+    long conectadoDesde() {
+        return conectadoDesde;
+    }
+
+    CompletableFuture<StompSession> conectar(WebSocketStompClient stomp, String url) {
+        return stomp.connectAsync(url + "?token=" + token, this);
+    }
+
+    boolean conectado() {
+        StompSession s = session;
+        return s != null && s.isConnected();
+    }
+
+    /** Conectado hace al menos {@code asentamiento} nanos, con la suscripción ya registrada en el servidor. */
+    boolean listo(long ahora, long asentamiento) {
+        return conectado() && ahora - conectadoDesde >= asentamiento;
+    }
+
+    void enviar(String destino, Object payload) {
+        StompSession s = session;
+        if (s == null) throw new IllegalStateException("Sesión cerrada");
+        s.send(destino, payload);
+    }
+
+    void desconectar() {
+        StompSession s = session;
+        session = null;
+        if (s != null && s.isConnected()) s.disconnect();
+    }
+
+    @Override
+    public void afterConnected(@NonNull StompSession session, @NonNull StompHeaders connectedHeaders) {
+        session.subscribe(DESTINO, new StompFrameHandler() {
+            @Override
+            @NonNull
+            public Type getPayloadType(@NonNull StompHeaders headers) {
+                return ChatMessageDTO.class;
+            }
+
+            @Override
+            public void handleFrame(@NonNull StompHeaders headers, Object payload) {
+                eventos.recibido(ClienteCarga.this, (ChatMessageDTO) payload, System.nanoTime());
+            }
+        });
+        conectadoDesde = System.nanoTime();
+        this.session = session;
+    }
+
+    @Override
+    public void handleException(@NonNull StompSession session, StompCommand command, @NonNull StompHeaders headers,
+                                @NonNull byte[] payload, @NonNull Throwable exception) {
+        eventos.error(this, exception);
+    }
+
+    @Override
+    public void handleTransportError(@NonNull StompSession session, @NonNull Throwable exception) {
+        // también llega al cerrar la sesión desde este lado; sólo cuenta si era la sesión vigente
+        if (session == this.session) {
+            this.session = null;
+            eventos.caido(this, exception);
+        }
+    }
+}
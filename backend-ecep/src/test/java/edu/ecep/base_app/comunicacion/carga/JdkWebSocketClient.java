@@ -0,0 +1,267 @@
+package edu.ecep.base_app.comunicacion.carga;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.NonNull;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.PingMessage;
+import org.springframework.web.socket.PongMessage;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketExtension;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.client.AbstractWebSocketClient;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.security.Principal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@code WebSocketClient} de Spring sobre el cliente WebSocket del JDK. El de Tomcat
+ * ({@code StandardWebSocketClient}) no activa TCP_NODELAY: con dos envíos seguidos en la misma
+ * conexión, Nagle más el ACK diferido del servidor le suman ~40 ms al segundo, y eso es justo lo
+ * que aparece en el p99 de la prueba. El del JDK sí lo activa.
+ */
+final class JdkWebSocketClient extends AbstractWebSocketClient {
+
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    @Override
+    @NonNull
+    protected CompletableFuture<WebSocketSession> executeInternal(@NonNull WebSocketHandler handler,
+                                                                  @NonNull HttpHeaders headers,
+                                                                  @NonNull URI uri,
+                                                                  @NonNull List<String> subProtocols,
+                                                                  @NonNull List<WebSocketExtension> extensions,
+                                                                  @NonNull Map<String, Object> attributes) {
+        Sesion sesion = new Sesion(uri, headers, attributes, handler);
+        WebSocket.Builder builder = http.newWebSocketBuilder();
+        headers.forEach((nombre, valores) -> valores.forEach(v -> builder.header(nombre, v)));
+        if (!subProtocols.isEmpty()) {
+            builder.subprotocols(subProtocols.get(0),
+                    subProtocols.subList(1, subProtocols.size()).toArray(String[]::new));
+        }
+        return builder.buildAsync(uri, sesion).thenApply(ws -> sesion);
+    }
+
+    private static final class Sesion implements WebSocketSession, WebSocket.Listener {
+
+        private final String id = UUID.randomUUID().toString();
+        private final URI uri;
+        private final HttpHeaders headers;
+        private final Map<String, Object> attributes;
+        private final WebSocketHandler handler;
+        // el cliente del JDK no admite un envío mientras otro está pendiente
+        private final ReentrantLock envio = new ReentrantLock();
+        private final StringBuilder texto = new StringBuilder();
+        private final ByteArrayOutputStream binario = new ByteArrayOutputStream();
+        private volatile WebSocket ws;
+        private int limiteTexto = 64 * 1024;
+        private int limiteBinario = 64 * 1024;
+
+        Sesion(URI uri, HttpHeaders headers, Map<String, Object> attributes, WebSocketHandler handler) {
+            this.uri = uri;
+            this.headers = headers;
+            this.attributes = attributes;
+            this.handler = handler;
+        }
+
+        @Override
+        public void onOpen(WebSocket webSocket) {
+            ws = webSocket;
+            try {
+                handler.afterConnectionEstablished(this);
+            } catch (Exception ex) {
+                webSocket.abort();
+                return;
+            }
+            webSocket.request(1);
+        }
+
+        @Override
+        public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+            texto.append(data);
+            if (last) {
+                String mensaje = texto.toString();
+                texto.setLength(0);
+                entregar(new TextMessage(mensaje));
+            }
+            webSocket.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onBinary(WebSocket webSocket, ByteBuffer data, boolean last) {
+            byte[] bytes = new byte[data.remaining()];
+            data.get(bytes);
+            binario.writeBytes(bytes);
+            if (last) {
+                byte[] mensaje = binario.toByteArray();
+                binario.reset();
+                entregar(new BinaryMessage(mensaje));
+            }
+            webSocket.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+            cerrado(new CloseStatus(statusCode, reason));
+            return null;
+        }
+
+        @Override
+        public void onError(WebSocket webSocket, Throwable error) {
+            try {
+                handler.handleTransportError(this, error);
+            } catch (Exception ignored) {
+                // el handler de STOMP no lanza; igual se cierra abajo
+            }
+            cerrado(CloseStatus.NO_STATUS_CODE);
+        }
+
+        private void entregar(WebSocketMessage<?> mensaje) {
+            try {
+                handler.handleMessage(this, mensaje);
+            } catch (Exception ex) {
+                onError(ws, ex);
+            }
+        }
+
+        private void cerrado(CloseStatus status) {
+            try {
+                handler.afterConnectionClosed(this, status);
+            } catch (Exception ignored) {
+                // nada que limpiar de este lado
+            }
+        }
+
+        @Override
+        public void sendMessage(@NonNull WebSocketMessage<?> message) throws IOException {
+            envio.lock();
+            try {
+                if (message instanceof TextMessage t) {
+                    ws.sendText(t.getPayload(), true).join();
+                } else if (message instanceof BinaryMessage b) {
+                    ws.sendBinary(b.getPayload(), true).join();
+                } else if (message instanceof PingMessage p) {
+                    ws.sendPing(p.getPayload()).join();
+                } else if (message instanceof PongMessage p) {
+                    ws.sendPong(p.getPayload()).join();
+                }
+            } catch (CompletionException ex) {
+                throw new IOException(ex.getCause());
+            } finally {
+                envio.unlock();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            close(CloseStatus.NORMAL);
+        }
+
+        @Override
+        public void close(@NonNull CloseStatus status) throws IOException {
+            WebSocket s = ws;
+            if (s == null || s.isOutputClosed()) return;
+            envio.lock();
+            try {
+                s.sendClose(status.getCode(), status.getReason() != null ? status.getReason() : "").join();
+            } catch (CompletionException ex) {
+                s.abort();
+            } finally {
+                envio.unlock();
+            }
+        }
+
+        @Override
+        public boolean isOpen() {
+            WebSocket s = ws;
+            return s != null && !s.isOutputClosed() && !s.isInputClosed();
+        }
+
+        @Override
+        @NonNull
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public URI getUri() {
+            return uri;
+        }
+
+        @Override
+        @NonNull
+        public HttpHeaders getHandshakeHeaders() {
+            return headers;
+        }
+
+        @Override
+        @NonNull
+        public Map<String, Object> getAttributes() {
+            return attributes;
+        }
+
+        @Override
+        public Principal getPrincipal() {
+            return null;
+        }
+
+        @Override
+        public InetSocketAddress getLocalAddress() {
+            return null;
+        }
+
+        @Override
+        public InetSocketAddress getRemoteAddress() {
+            return null;
+        }
+
+        @Override
+        public String getAcceptedProtocol() {
+            WebSocket s = ws;
+            return s != null ? s.getSubprotocol() : null;
+        }
+
+        @Override
+        public void setTextMessageSizeLimit(int messageSizeLimit) {
+            limiteTexto = messageSizeLimit;
+        }
+
+        @Override
+        public int getTextMessageSizeLimit() {
+            return limiteTexto;
+        }
+
+        @Override
+        public void setBinaryMessageSizeLimit(int messageSizeLimit) {
+            limiteBinario = messageSizeLimit;
+        }
+
+        @Override
+        public int getBinaryMessageSizeLimit() {
+            return limiteBinario;
+        }
+
+        @Override
+        @NonNull
+        public List<WebSocketExtension> getExtensions() {
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package edu.ecep.base_app.comunicacion.carga;
+
+import java.util.Arrays;
+
+/**
+ * Muestras de latencia en microsegundos. Los percentiles son exactos: se ordena una copia al
+ * pedir el resumen, que en una corrida de carga son a lo sumo unos pocos millones de valores.
+ */
+final class Latencias {
+
+    private long[] muestras = new long[1 << 14];
+    private int cantidad;
+
+    synchronized void registrar(long nanos) {
+        if (cantidad == muestras.length) muestras = Arrays.copyOf(muestras, cantidad * 2);
+        muestras[cantidad++] = nanos / 1_000;
+    }
+
+    synchronized Resumen resumen() {
+        long[] orden = Arrays.copyOf(muestras, cantidad);
+        Arrays.sort(orden);
+        return Resumen.de(orden);
+    }
+
+    /** Resumen de lo registrado desde la última llamada; sirve para las líneas periódicas. */
+    synchronized Resumen resumenYReiniciar() {
+        Resumen r = resumen();
+        cantidad = 0;
+        return r;
+    }
+
+    synchronized void reiniciar() {
+        cantidad = 0;
+    }
+
+    record Resumen(int muestras, long p50, long p99, long p999, long max) {
+
+        static Resumen de(long[] orden) {
+            if (orden.length == 0) return new Resumen(0, 0, 0, 0, 0);
+            return new Resumen(orden.length, rango(orden, 0.50), rango(orden, 0.99), rango(orden, 0.999),
+                    orden[orden.length - 1]);
+        }
+
+        // percentil por rango más cercano
+        private static long rango(long[] orden, double q) {
+            int i = (int) Math.ceil(q * orden.length) - 1;
+            return orden[Math.max(0, Math.min(i, orden.length - 1))];
+        }
+
+        @Override
+        public String toString() {
+            if (muestras == 0) return "sin muestras";
+            return String.format("p50=%.2fms p99=%.2fms p999=%.2fms max=%.2fms (n=%d)",
+                    p50 / 1000.0, p99 / 1000.0, p999 / 1000.0, max / 1000.0, muestras);
+        }
+    }
+}
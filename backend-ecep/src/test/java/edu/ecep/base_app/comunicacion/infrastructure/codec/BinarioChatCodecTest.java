@@ -0,0 +1,88 @@
+package edu.ecep.base_app.comunicacion.infrastructure.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import edu.ecep.base_app.comunicacion.infrastructure.messaging.GrupoMensajePublisher.GrupoEnvio;
+import edu.ecep.base_app.comunicacion.infrastructure.messaging.PresenciaPublisher.PresenciaAviso;
+import edu.ecep.base_app.comunicacion.presentation.dto.ChatMessageDTO;
+import edu.ecep.base_app.comunicacion.presentation.dto.MensajeGrupoDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinarioChatCodecTest {
+
+    private final BinarioChatCodec codec = new BinarioChatCodec();
+
+    @Test
+    void mensaje_shouldRoundTripAllFields() {
+        ChatMessageDTO m = new ChatMessageDTO("65f1c2a9e4b0a1b2c3d4e5f6", 12L, 345_678L, "Hola, ¿cómo están? 👋",
+                OffsetDateTime.of(2025, 5, 20, 14, 3, 7, 123_000_000, ZoneOffset.ofHours(-3)), true);
+
+        byte[] datos = codec.codificar(m);
+
+        assertEquals(m, codec.decodificarMensaje(datos));
+        assertEquals(BinarioChatCodec.MAGIA, datos[0]);
+    }
+
+    @Test
+    void mensaje_shouldKeepNullsAndNonObjectIds() {
+        ChatMessageDTO m = new ChatMessageDTO("temporal-1", 1L, null, null, null, false);
+        assertEquals(m, codec.decodificarMensaje(codec.codificar(m)));
+    }
+
+    @Test
+    void aviso_shouldRoundTrip() {
+        PresenciaAviso aviso = new PresenciaAviso(7L, true, List.of(1L, 300L, 70_000L, Long.MAX_VALUE));
+        assertEquals(aviso, codec.decodificarAviso(codec.codificar(aviso)));
+    }
+
+    @Test
+    void grupo_shouldRoundTripMessageAndMembers() {
+        MensajeGrupoDTO m = new MensajeGrupoDTO("65f1c2a9e4b0a1b2c3d4e5f6", 42L, 7L, 12L, "Mañana salida al museo",
+                OffsetDateTime.of(2025, 5, 20, 14, 3, 7, 0, ZoneOffset.ofHours(-3)), false);
+        GrupoEnvio envio = new GrupoEnvio(List.of(12L, 300L, 70_000L), m);
+
+        assertEquals(envio, codec.decodificarGrupo(codec.codificar(envio)));
+        assertThrows(IllegalArgumentException.class, () -> codec.decodificarAviso(codec.codificar(envio)));
+    }
+
+    @Test
+    void decodificar_shouldRejectUnknownVersionAndTruncatedPayloads() {
+        byte[] datos = codec.codificar(new ChatMessageDTO("x", 1L, 2L, "abc", null, false));
+        byte[] otraVersion = datos.clone();
+        otraVersion[1] = 99;
+        assertThrows(IllegalArgumentException.class, () -> codec.decodificarMensaje(otraVersion));
+        assertThrows(IllegalArgumentException.class,
+                () -> codec.decodificarMensaje(java.util.Arrays.copyOf(datos, datos.length - 1)));
+        assertThrows(IllegalArgumentException.class, () -> codec.decodificarAviso(datos));
+    }
+
+    @Test
+    void decodificarAviso_shouldRejectCountsLargerThanThePayload() {
+        byte[] datos = codec.codificar(new PresenciaAviso(null, false, List.of()));
+        // la cantidad (0) es el último byte; se reemplaza por un varint de Integer.MAX_VALUE
+        byte[] enorme = java.util.Arrays.copyOf(datos, datos.length + 4);
+        System.arraycopy(new byte[]{(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07}, 0, enorme, datos.length - 1, 5);
+        assertThrows(IllegalArgumentException.class, () -> codec.decodificarAviso(enorme));
+    }
+
+    @Test
+    void codecs_shouldReadJsonWrittenBeforeTheBinaryFormat() {
+        ObjectMapper mapper = new ObjectMapper().registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        ChatCodecs codecs = new ChatCodecs(mapper, "binario");
+        ChatMessageDTO m = new ChatMessageDTO("65f1c2a9e4b0a1b2c3d4e5f6", 1L, 2L, "hola",
+                OffsetDateTime.of(2025, 5, 20, 14, 3, 7, 0, ZoneOffset.UTC), false);
+
+        byte[] json = new JsonChatCodec(mapper).codificar(m);
+
+        assertEquals(m, codecs.decodificarMensaje(json));
+        assertEquals(m, codecs.decodificarMensaje(codecs.codificar(m)));
+    }
+}
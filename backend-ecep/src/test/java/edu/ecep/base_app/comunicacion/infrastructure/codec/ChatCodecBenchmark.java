@@ -0,0 +1,90 @@
+package edu.ecep.base_app.comunicacion.infrastructure.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import edu.ecep.base_app.comunicacion.presentation.dto.ChatMessageDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.time.OffsetDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo por mensaje del camino Redis del chat: el anterior (serializer JSON del template al
+ * publicar, String + {@code readValue} al recibir) contra el códec binario. No corre con los
+ * tests; se lanza con {@link #main} desde el IDE o con
+ * {@code mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ * -Dexec.args="-cp %classpath org.openjdk.jmh.Main ChatCodecBenchmark"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChatCodecBenchmark {
+
+    @Param({"40", "400"})
+    public int largo;
+
+    private GenericJackson2JsonRedisSerializer templateSerializer;
+    private StringRedisSerializer stringSerializer;
+    private ObjectMapper mapper;
+    private BinarioChatCodec binario;
+    private ChatMessageDTO mensaje;
+    private byte[] json;
+    private byte[] compacto;
+
+    @Setup
+    public void setup() {
+        mapper = new ObjectMapper().registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        templateSerializer = new GenericJackson2JsonRedisSerializer(mapper);
+        stringSerializer = new StringRedisSerializer();
+        binario = new BinarioChatCodec();
+        mensaje = new ChatMessageDTO("65f1c2a9e4b0a1b2c3d4e5f6", 1_234L, 56_789L, "á".repeat(largo / 4) + "x".repeat(largo - largo / 4),
+                OffsetDateTime.parse("2025-05-20T14:03:07.123-03:00"), false);
+        json = templateSerializer.serialize(mensaje);
+        compacto = binario.codificar(mensaje);
+        System.out.printf("%nlargo=%d json=%d bytes binario=%d bytes%n", largo, json.length, compacto.length);
+    }
+
+    @Benchmark
+    public byte[] jsonCodificar() {
+        return templateSerializer.serialize(mensaje);
+    }
+
+    @Benchmark
+    public ChatMessageDTO jsonDecodificar() throws Exception {
+        return mapper.readValue(stringSerializer.deserialize(json), ChatMessageDTO.class);
+    }
+
+    @Benchmark
+    public byte[] binarioCodificar() {
+        return binario.codificar(mensaje);
+    }
+
+    @Benchmark
+    public ChatMessageDTO binarioDecodificar() {
+        return binario.decodificarMensaje(compacto);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(ChatCodecBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
@@ -0,0 +1,157 @@
+package edu.ecep.base_app.comunicacion.infrastructure.persistence;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.UpdateOptions;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversación activa: llegan {@code pendientes} mensajes y el receptor la marca como leída.
+ * Compara el flag por mensaje (updateMany sobre {@code leido}, con los índices de no leídos que
+ * tenía {@code mensajes}) contra la marca de agua en el resumen de la conversación. Al terminar
+ * imprime los documentos que escribió cada lectura. Necesita un Mongo ({@code -Dmongo.uri}, por
+ * defecto localhost) y usa la base {@code chat_bench}, que se borra al empezar.
+ *
+ * <p>{@link #marcaDeAgua} usa un update con pipeline, como {@code marcarLeida}. Los servidores
+ * que no lo admiten (mongo-java-server, por ejemplo) sólo pueden correr
+ * {@link #marcaDeAguaSinPipeline}, que escribe el mismo documento con la fecha calculada del lado
+ * del cliente.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChatLecturaBenchmark {
+
+    private static final long LECTOR = 1L;
+    private static final long OTRO = 2L;
+
+    @Param({"1", "10", "50"})
+    public int pendientes;
+
+    private MongoClient client;
+    private MongoCollection<Document> conFlag;
+    private MongoCollection<Document> conMarca;
+    private MongoCollection<Document> conversaciones;
+    private Date ultimaFecha;
+    private long lecturas;
+    private long modificados;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        client = MongoClients.create(System.getProperty("mongo.uri", "mongodb://localhost:27017"));
+        MongoDatabase db = client.getDatabase("chat_bench");
+        db.drop();
+        Document historial = new Document("emisor_id", 1).append("receptor_id", 1).append("fecha_envio", 1);
+
+        conFlag = db.getCollection("mensajes_flag");
+        conFlag.createIndex(historial, new IndexOptions().name("chat_historial_idx"));
+        conFlag.createIndex(new Document("receptor_id", 1).append("leido", 1).append("activo", 1),
+                new IndexOptions().name("chat_unread_idx"));
+        conFlag.createIndex(new Document("emisor_id", 1).append("receptor_id", 1).append("leido", 1),
+                new IndexOptions().name("chat_unread_pair_idx"));
+        conFlag.createIndex(new Document("leido", 1), new IndexOptions().name("leido"));
+
+        conMarca = db.getCollection("mensajes_marca");
+        conMarca.createIndex(historial, new IndexOptions().name("chat_historial_idx"));
+        conversaciones = db.getCollection("conversaciones");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (lecturas > 0) {
+            System.out.printf("%npendientes=%d documentos escritos por lectura: %.1f%n",
+                    pendientes, (double) modificados / lecturas);
+        }
+        client.close();
+    }
+
+    @Benchmark
+    public long flagPorMensaje() {
+        recibir(conFlag);
+        // lo que hacía markRead: contador del resumen y después el flag de cada pendiente
+        long escritos = conversaciones.updateOne(conversacion(),
+                new Document("$set", new Document("no_leidos_menor", 0L))).getModifiedCount();
+        escritos += conFlag.updateMany(
+                new Document("activo", new Document("$ne", false)).append("emisor_id", OTRO)
+                        .append("receptor_id", LECTOR).append("leido", false),
+                new Document("$set", new Document("leido", true))).getModifiedCount();
+        return contar(escritos);
+    }
+
+    @Benchmark
+    public long marcaDeAgua() {
+        recibir(conMarca);
+        long escritos = conversaciones.updateOne(conversacion(),
+                List.of(new Document("$set", new Document("no_leidos_menor", 0L)
+                        .append("leido_hasta_menor", new Document("$max", List.of("$leido_hasta_menor", "$ultima_fecha"))))))
+                .getModifiedCount();
+        return contar(escritos);
+    }
+
+    @Benchmark
+    public long marcaDeAguaSinPipeline() {
+        recibir(conMarca);
+        long escritos = conversaciones.updateOne(conversacion(),
+                new Document("$set", new Document("no_leidos_menor", 0L))
+                        .append("$max", new Document("leido_hasta_menor", ultimaFecha)))
+                .getModifiedCount();
+        return contar(escritos);
+    }
+
+    // igual en todas las variantes: los mensajes y lo que registrarMensaje deja en el resumen
+    private void recibir(MongoCollection<Document> mensajes) {
+        List<Document> docs = new ArrayList<>(pendientes);
+        long ahora = System.currentTimeMillis();
+        for (int i = 0; i < pendientes; i++) {
+            docs.add(new Document("emisor_id", OTRO).append("receptor_id", LECTOR)
+                    .append("contenido", "mensaje " + i).append("fecha_envio", new Date(ahora + i))
+                    .append("leido", false).append("activo", true));
+        }
+        mensajes.insertMany(docs);
+        ultimaFecha = docs.get(docs.size() - 1).getDate("fecha_envio");
+        conversaciones.updateOne(conversacion(),
+                new Document("$inc", new Document("no_leidos_menor", (long) pendientes))
+                        .append("$max", new Document("ultima_fecha", ultimaFecha)),
+                new UpdateOptions().upsert(true));
+    }
+
+    private long contar(long escritos) {
+        modificados += escritos;
+        lecturas++;
+        return escritos;
+    }
+
+    private static Document conversacion() {
+        return new Document("_id", LECTOR + ":" + OTRO);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(ChatLecturaBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,114 @@
+package edu.ecep.base_app.comunicacion.infrastructure.persistence;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Presencia de una lista de contactos: una consulta por persona (un viaje a Redis para saber si
+ * está online y otro para la última conexión, como hacía el chat antes de agrupar) contra
+ * {@link PresenciaRedisRepository#online} en un pipeline más un MGET de
+ * {@link PresenciaRedisRepository#ultimaVez}. La mitad de las personas tiene una sesión viva.
+ * Necesita un Redis ({@code -Dredis.host}, {@code -Dredis.port}, por defecto localhost:6379);
+ * usa ids desde 900.000.000 y borra sus claves al terminar.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PresenciaConsultaBenchmark {
+
+    private static final long PRIMER_ID = 900_000_000L;
+
+    @Param({"20", "200"})
+    public int contactos;
+
+    private LettuceConnectionFactory factory;
+    private RedisTemplate<String, Object> template;
+    private PresenciaRedisRepository repo;
+    private List<Long> ids;
+
+    @Setup
+    public void setup() {
+        factory = new LettuceConnectionFactory(System.getProperty("redis.host", "localhost"),
+                Integer.getInteger("redis.port", 6379));
+        factory.afterPropertiesSet();
+        factory.start();
+        template = new RedisTemplate<>();
+        template.setConnectionFactory(factory);
+        template.setKeySerializer(new StringRedisSerializer());
+        template.afterPropertiesSet();
+        repo = new PresenciaRedisRepository(template);
+
+        ids = LongStream.range(PRIMER_ID, PRIMER_ID + contactos).boxed().toList();
+        Map<Long, List<String>> sesiones = new HashMap<>();
+        for (int i = 0; i < ids.size(); i += 2) sesiones.put(ids.get(i), List.of("s" + i));
+        repo.renovar("bench", sesiones, Duration.ofHours(1));
+    }
+
+    @TearDown
+    public void tearDown() {
+        List<String> keys = new ArrayList<>();
+        ids.forEach(id -> {
+            keys.add(PresenciaRedisRepository.KEY_PREFIX + id);
+            keys.add("chat:last_seen:" + id);
+        });
+        template.delete(keys);
+        factory.destroy();
+    }
+
+    @Benchmark
+    public int unaConsultaPorPersona() {
+        double ahora = System.currentTimeMillis();
+        int online = 0;
+        for (Long id : ids) {
+            Long vivas = template.execute((RedisCallback<Long>) con -> con.zSetCommands()
+                    .zCount(bytes(PresenciaRedisRepository.KEY_PREFIX + id), ahora, Double.POSITIVE_INFINITY));
+            byte[] ultima = template.execute((RedisCallback<byte[]>) con -> con.stringCommands()
+                    .get(bytes("chat:last_seen:" + id)));
+            if (vivas != null && vivas > 0 && ultima != null) online++;
+        }
+        return online;
+    }
+
+    @Benchmark
+    public int agrupada() {
+        Map<Long, Boolean> online = repo.online(ids);
+        List<Long> ultimas = repo.ultimaVez(ids);
+        return online.size() + ultimas.size();
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(PresenciaConsultaBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -90,6 +90,7 @@ export default function ChatComponent() {
     useState<PersonaResumenDTO | null>(null);
 
   const bottomRef = useRef<HTMLDivElement>(null);
+  const topRef = useRef<HTMLDivElement>(null);
   const typingTimeoutRef = useRef<ReturnType<typeof setTimeout> | null>(null);
   const typingStateRef = useRef<{ targetId: number | null; isTyping: boolean }>(
     {
@@ -108,6 +109,9 @@ export default function ChatComponent() {
     reconnect,
     markRead,
     loadHistory,
+    loadOlderHistory,
+    hasOlderHistory,
+    loadingOlderHistory,
     onlineUsers,
     typingUsers,
     refreshOnlineStatus,
@@ -203,11 +207,26 @@ export default function ChatComponent() {
     return () => clearTimeout(debounceTimer);
   }, [user, searchTerm, canStartNewChat, chatLogger]);
 
+  // sólo al llegar un mensaje nuevo al final: cargar páginas anteriores no debe bajar el scroll
+  const lastMessageId = messages.length ? messages[messages.length - 1].id : null;
   useEffect(() => {
     if (bottomRef.current) {
       bottomRef.current.scrollIntoView({ behavior: "smooth" });
     }
-  }, [messages]);
+  }, [lastMessageId]);
+
+  // al ver el principio de la conversación se pide la página anterior
+  useEffect(() => {
+    const sentinel = topRef.current;
+    if (!sentinel || !hasOlderHistory) return;
+    const observer = new IntersectionObserver((entries) => {
+      if (entries.some((entry) => entry.isIntersecting)) {
+        void loadOlderHistory();
+      }
+    });
+    observer.observe(sentinel);
+    return () => observer.disconnect();
+  }, [hasOlderHistory, loadOlderHistory, selectedUserId]);
 
   useEffect(() => {
     if (!messages.length || !user) return;
@@ -740,6 +759,12 @@ export default function ChatComponent() {
 
               <ScrollArea className="flex-1">
                 <div className="p-4">
+                  <div ref={topRef} />
+                  {loadingOlderHistory && (
+                    <p className="text-center text-xs text-muted-foreground py-2">
+                      Cargando mensajes anteriores...
+                    </p>
+                  )}
                   {messages.map((message) => (
                     <MessageBubble key={message.id} message={message} />
                   ))}
@@ -196,6 +196,9 @@ const normalizeMessage = (msg: any): ChatMessageDTO => ({
   leido: msg.leido ?? false,
 });
 
+// mensajes por página de historial; los anteriores se piden al llegar al principio
+const HISTORY_PAGE_SIZE = 50;
+
 export type ConnectionStatus = "connecting" | "connected" | "disconnected";
 
 export default function useChatSocket() {
@@ -205,6 +208,8 @@ export default function useChatSocket() {
     useState<ConnectionStatus>("connecting");
   const [onlineUsers, setOnlineUsers] = useState<Record<number, boolean>>({});
   const [typingUsers, setTypingUsers] = useState<Record<number, boolean>>({});
+  const [hasOlderHistory, setHasOlderHistory] = useState(false);
+  const [loadingOlderHistory, setLoadingOlderHistory] = useState(false);
   const { user, selectedRole } = useAuth();
 
   const client = useRef<Client | null>(null);
@@ -213,6 +218,9 @@ export default function useChatSocket() {
     new Map(),
   );
   const connectingRef = useRef(false);
+  const historyPeerRef = useRef<number | null>(null);
+  const olderCursorRef = useRef<string | null>(null);
+  const loadingOlderRef = useRef(false);
 
   // 🔹 Conectar WebSocket
   const connect = useCallback(() => {
@@ -653,17 +661,55 @@ export default function useChatSocket() {
     }
   }, []);
 
-  // 🔹 Cargar historial desde la API
+  // 🔹 Cargar historial desde la API (última página)
   const loadHistory = useCallback(async (otherUserId: number) => {
+    historyPeerRef.current = otherUserId;
+    olderCursorRef.current = null;
+    setHasOlderHistory(false);
     try {
       debugLog("📡 Cargando historial de usuario", { otherUserId });
-      const { data } = await comunicacion.chat.history(otherUserId);
-      setMessages(data.map(normalizeMessage));
+      const { data } = await comunicacion.chat.historyPage(otherUserId, {
+        size: HISTORY_PAGE_SIZE,
+      });
+      if (historyPeerRef.current !== otherUserId) return;
+      setMessages((data?.mensajes ?? []).map(normalizeMessage));
+      olderCursorRef.current = data?.anterior ?? null;
+      setHasOlderHistory(Boolean(data?.anterior));
     } catch (err) {
       socketLogger.error({ err }, "Error al cargar historial");
       setMessages([]); // Evitar que queden mensajes viejos si falla
     }
   }, []);
+
+  // 🔹 Cargar la página anterior del historial (al llegar al principio)
+  const loadOlderHistory = useCallback(async () => {
+    const otherUserId = historyPeerRef.current;
+    const before = olderCursorRef.current;
+    if (otherUserId == null || !before || loadingOlderRef.current) return;
+
+    loadingOlderRef.current = true;
+    setLoadingOlderHistory(true);
+    try {
+      debugLog("📡 Cargando historial anterior", { otherUserId, before });
+      const { data } = await comunicacion.chat.historyPage(otherUserId, {
+        before,
+        size: HISTORY_PAGE_SIZE,
+      });
+      if (historyPeerRef.current !== otherUserId) return;
+      const older = (data?.mensajes ?? []).map(normalizeMessage);
+      setMessages((prev) => {
+        const known = new Set(prev.map((msg) => msg.id));
+        return [...older.filter((msg) => !known.has(msg.id)), ...prev];
+      });
+      olderCursorRef.current = data?.anterior ?? null;
+      setHasOlderHistory(Boolean(data?.anterior));
+    } catch (err) {
+      socketLogger.error({ err }, "Error al cargar historial anterior");
+    } finally {
+      loadingOlderRef.current = false;
+      setLoadingOlderHistory(false);
+    }
+  }, []);
   // 🔹 Conectar al montar
   useEffect(() => {
     if (!user || !selectedRole) {
@@ -688,6 +734,9 @@ export default function useChatSocket() {
     reconnect,
     markRead,
     loadHistory,
+    loadOlderHistory,
+    hasOlderHistory,
+    loadingOlderHistory,
     onlineUsers,
     typingUsers,
     refreshOnlineStatus,
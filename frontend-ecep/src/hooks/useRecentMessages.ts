@@ -37,7 +37,8 @@ export function useRecentMessages(limit = 5) {
         const enriched = await Promise.all(
           active.slice(0, limit).map(async (persona) => {
             const hist =
-              (await comunicacion.chat.history(persona.id, { limit: 1 })).data ?? [];
+              (await comunicacion.chat.historyPage(persona.id, { size: 1 })).data
+                ?.mensajes ?? [];
             const last = hist[hist.length - 1];
             return {
               userId: persona.id,
@@ -2,8 +2,11 @@ import { http } from "@/services/api/http";
 import type * as DTO from "@/types/api-generated";
 
 export const chat = {
-  history: (personaId: number, params?: { limit?: number }) =>
-    http.get<DTO.ChatMessageDTO[]>(`/api/chat/history/${personaId}`, {
+  historyPage: (
+    personaId: number,
+    params?: { before?: string; after?: string; size?: number },
+  ) =>
+    http.get<DTO.ChatHistoryPageDTO>(`/api/chat/history/${personaId}/page`, {
       params,
     }),
   markRead: (otherPersonaId: number) =>
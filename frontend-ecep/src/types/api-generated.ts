@@ -361,6 +361,13 @@ export interface ChatMessageDTO {
   leido?: boolean;
 }
 
+export interface ChatHistoryPageDTO {
+  mensajes: ChatMessageDTO[];
+  anterior?: string | null;
+  siguiente?: string | null;
+  hayMas: boolean;
+}
+
 export interface ComunicadoCreateDTO {
   id?: number;
   alcance?: AlcanceComunicado;